@@ -0,0 +1,108 @@
+package com.bomberman;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Arène générée pour les benchmarks : murs en damier, blocs destructibles et bombes
+ * répartis au hasard (graine fixe, donc identique d'une exécution à l'autre) et joueurs
+ * placés sur les positions de départ de {@link PlayerRegistry}.
+ * <p>
+ * Le jeu associé ne déplace personne et ne pose pas de bombe : un benchmark peut appeler
+ * l'IA autant de fois qu'il veut sans que l'arène change.
+ * </p>
+ * @author Valentin B.
+ */
+final class ArenaFixture {
+    static final long SEED = 42;
+
+    final int gridSize;
+    final boolean[][] walls;
+    final boolean[][] destructibleBlocks;
+    final List<BombermanGame.Bomb> bombs = new ArrayList<>();
+    final PlayerRegistry players;
+    final BombermanGame game = new FrozenGame();
+    final BotAI botAI = new BotAI(game);
+    final List<int[]> freeCells = new ArrayList<>();
+
+    /**
+     * Jeu figé : les déplacements et poses de bombe demandés par l'IA sont ignorés.
+     */
+    static class FrozenGame extends BombermanGame {
+        @Override
+        public boolean movePlayer(Player player, int dx, int dy) {
+            return false;
+        }
+
+        @Override
+        public void placeBomb(Player player) {
+        }
+    }
+
+    /**
+     * @param gridSize le nombre de cases de côté (impair)
+     * @param blockDensity la proportion de cases libres occupées par un bloc destructible
+     * @param bombDensity la proportion de cases libres restantes occupées par une bombe
+     * @param playerCount le nombre de joueurs, ramené à la capacité de l'arène
+     */
+    ArenaFixture(int gridSize, double blockDensity, double bombDensity, int playerCount) {
+        this.gridSize = gridSize;
+        this.walls = new boolean[gridSize][gridSize];
+        this.destructibleBlocks = new boolean[gridSize][gridSize];
+        SplittableRandom random = new SplittableRandom(SEED);
+
+        // Joueurs et zones de départ dégagées
+        int count = Math.min(playerCount, PlayerRegistry.maxPlayers(gridSize));
+        int[][] spawns = PlayerRegistry.generateSpawnPoints(gridSize, count);
+        boolean[][] spawnArea = new boolean[gridSize][gridSize];
+        players = new PlayerRegistry(gridSize);
+        for (int i = 0; i < count; i++) {
+            BombermanGame.Player player = game.new Player(spawns[i][0], spawns[i][1], i, "Bot " + (i + 1));
+            player.isBot = i > 0;
+            players.add(player);
+            for (int x = spawns[i][0] - 1; x <= spawns[i][0] + 1; x++) {
+                for (int y = spawns[i][1] - 1; y <= spawns[i][1] + 1; y++) {
+                    spawnArea[x][y] = true;
+                }
+            }
+        }
+
+        for (int x = 0; x < gridSize; x++) {
+            for (int y = 0; y < gridSize; y++) {
+                if (x == 0 || y == 0 || x == gridSize - 1 || y == gridSize - 1 || (x % 2 == 0 && y % 2 == 0)) {
+                    walls[x][y] = true;
+                } else if (!spawnArea[x][y] && random.nextDouble() < blockDensity) {
+                    destructibleBlocks[x][y] = true;
+                } else {
+                    freeCells.add(new int[]{x, y});
+                }
+            }
+        }
+
+        // Bombes sur les cases libres sans joueur, posées à tour de rôle par les joueurs
+        int owner = 0;
+        for (int[] cell : freeCells) {
+            if (players.at(cell[0], cell[1]).isEmpty() && random.nextDouble() < bombDensity) {
+                bombs.add(game.new Bomb(cell[0], cell[1], players.get(owner++ % count)));
+            }
+        }
+
+        game.loadState(walls, destructibleBlocks, players, bombs);
+        botAI.setBotMoveDelay(-1); // le bot agit à chaque appel
+    }
+
+    /**
+     * @return un bot de l'arène (le deuxième joueur)
+     */
+    BombermanGame.Player bot() {
+        return players.get(1);
+    }
+
+    /**
+     * @return la cible prioritaire des bots (le premier joueur)
+     */
+    BombermanGame.Player target() {
+        return players.get(0);
+    }
+}
@@ -0,0 +1,68 @@
+package com.bomberman;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de l'IA des bots : décision complète, carte de danger, recherche de chemin
+ * et test de fuite après la pose d'une bombe.
+ * @author Valentin B.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BotAIBenchmark {
+
+    @Param({"15", "51", "127"})
+    public int gridSize;
+
+    @Param({"0.0", "0.02", "0.1"})
+    public double bombDensity;
+
+    @Param({"4", "16", "64"})
+    public int playerCount;
+
+    private ArenaFixture arena;
+    private int[][] dangerMap;
+
+    @Setup
+    public void setUp() {
+        arena = new ArenaFixture(gridSize, 0.5, bombDensity, playerCount);
+        dangerMap = arena.botAI.computeDangerMap(arena.bombs, arena.walls, arena.destructibleBlocks, gridSize);
+    }
+
+    @Benchmark
+    public void updateBot() {
+        arena.botAI.updateBot(arena.bot(), arena.players, arena.bombs, arena.walls, arena.destructibleBlocks);
+    }
+
+    @Benchmark
+    public int[][] computeDangerMap() {
+        return arena.botAI.computeDangerMap(arena.bombs, arena.walls, arena.destructibleBlocks, gridSize);
+    }
+
+    @Benchmark
+    public Object findOptimalPath() {
+        return arena.botAI.findOptimalPath(arena.bot(), arena.target(), arena.walls, arena.destructibleBlocks,
+                arena.bombs, dangerMap, gridSize);
+    }
+
+    @Benchmark
+    public boolean canEscapeAfterBomb() {
+        return arena.botAI.canEscapeAfterBomb(arena.bot(), arena.bombs, arena.walls, arena.destructibleBlocks, gridSize);
+    }
+}
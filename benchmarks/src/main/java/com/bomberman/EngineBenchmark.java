@@ -0,0 +1,85 @@
+package com.bomberman;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de la simulation : résolution d'une explosion (souffle, bombes en chaîne,
+ * blocs et joueurs touchés) et test de déplacement {@code canMoveTo}.
+ * @author Valentin B.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark {
+
+    @Param({"15", "51", "127"})
+    public int gridSize;
+
+    @Param({"0.0", "0.02", "0.1"})
+    public double bombDensity;
+
+    @Param({"4", "16", "64"})
+    public int playerCount;
+
+    @Param({"2", "8"})
+    public int explosionRadius;
+
+    private ArenaFixture arena;
+    private List<BombermanGame.Bomb> detonations;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        arena = new ArenaFixture(gridSize, 0.5, bombDensity, playerCount);
+        for (BombermanGame.Player player : arena.players.asList()) {
+            player.explosionRadius = explosionRadius;
+        }
+
+        // Une bombe (hors de la liste des bombes posées) sur chaque case libre
+        detonations = new ArrayList<>(arena.freeCells.size());
+        for (int[] cell : arena.freeCells) {
+            detonations.add(arena.game.new Bomb(cell[0], cell[1], arena.target()));
+        }
+    }
+
+    @Benchmark
+    public void resolveExplosion(Blackhole blackhole) {
+        BombermanGame.Bomb bomb = detonations.get(next++ % detonations.size());
+        List<BombermanGame.Bomb> chained = new ArrayList<>();
+        List<int[]> blocksHit = new ArrayList<>();
+        List<int[]> cells = arena.game.blastCells(bomb, chained, blocksHit);
+
+        // Joueurs touchés, par case
+        int hit = 0;
+        for (int[] cell : cells) {
+            hit += arena.players.at(cell[0], cell[1]).size();
+        }
+        blackhole.consume(chained);
+        blackhole.consume(blocksHit);
+        blackhole.consume(hit);
+    }
+
+    @Benchmark
+    public boolean canMoveTo() {
+        int[] cell = arena.freeCells.get(next++ % arena.freeCells.size());
+        return arena.game.canMoveTo(cell[0], cell[1]);
+    }
+}
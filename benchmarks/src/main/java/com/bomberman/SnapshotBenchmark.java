@@ -0,0 +1,75 @@
+package com.bomberman;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks des instantanés de partie : écriture, restauration et cycle complet dans un
+ * tampon direct réutilisé. La partie (sans affichage, bots seulement) est jouée quelques
+ * secondes avant la mesure pour avoir des bombes, des power-ups et des blocs détruits.
+ * Objectif : plus de 100 000 cycles par seconde, soit moins de 10 µs par cycle.
+ * @author Valentin B.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotBenchmark {
+
+    @Param({"15", "51", "127"})
+    public int gridSize;
+
+    @Param({"4", "16", "64"})
+    public int playerCount;
+
+    private BombermanGame game;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setUp() {
+        game = new BombermanGame();
+        game.setSeed(ArenaFixture.SEED);
+        game.setArenaSize(gridSize);
+        game.setPlayerCount(playerCount);
+        game.enableSoloMode();
+        for (int i = 0; i < 600 && !game.isGameEnded(); i++) {
+            game.gameUpdate();
+        }
+        buffer = ByteBuffer.allocateDirect(game.snapshotSize() * 2);
+        game.writeSnapshot(buffer);
+    }
+
+    @Benchmark
+    public int writeSnapshot() {
+        buffer.clear();
+        return game.writeSnapshot(buffer);
+    }
+
+    @Benchmark
+    public void restoreSnapshot() {
+        buffer.rewind();
+        game.restoreSnapshot(buffer);
+    }
+
+    @Benchmark
+    public void snapshotCycle() {
+        buffer.clear();
+        game.writeSnapshot(buffer);
+        buffer.flip();
+        game.restoreSnapshot(buffer);
+    }
+}
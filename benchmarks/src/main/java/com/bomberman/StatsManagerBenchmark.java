@@ -0,0 +1,79 @@
+package com.bomberman;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks du chargement et de la sauvegarde des statistiques.
+ * Les fichiers sont écrits dans {@code target/bench-stats}, pas dans le dossier du jeu.
+ * Le chargement est mesuré seul, sans créer de gestionnaire ni démarrer de thread d'écriture.
+ * @author Valentin B.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dbomberman.stats.dir=target/bench-stats")
+public class StatsManagerBenchmark {
+
+    @Param({"100", "10000"})
+    public int playerCount;
+
+    private StatsManager manager;
+    private File statsFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Files.createDirectories(Paths.get(System.getProperty("bomberman.stats.dir")));
+        statsFile = new File(System.getProperty("bomberman.stats.dir"), "player_stats.txt");
+        Files.deleteIfExists(statsFile.toPath());
+
+        manager = new StatsManager();
+        for (int i = 0; i < playerCount; i++) {
+            String name = "Joueur " + i;
+            if (i % 3 == 0) {
+                manager.recordDefeat(name);
+            } else {
+                manager.recordVictory(name);
+            }
+        }
+        manager.flush();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        manager.close();
+    }
+
+    @Benchmark
+    public void save() {
+        manager.saveStats();
+    }
+
+    @Benchmark
+    public Map<String, PlayerStats> load() {
+        Map<String, PlayerStats> loaded = new ConcurrentHashMap<>();
+        StatsManager.loadStats(statsFile, loaded, new Leaderboard());
+        return loaded;
+    }
+}
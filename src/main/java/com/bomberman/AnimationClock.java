@@ -0,0 +1,85 @@
+package com.bomberman;
+
+import javafx.animation.AnimationTimer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Horloge d'animation unique, partagée par tous les {@link PlayerAnimator} et par le rendu
+ * des entités ({@link EntityLayer}).
+ * <p>
+ * Un seul {@link AnimationTimer} avance à chaque frame l'animation de chaque joueur
+ * à partir du temps écoulé : le coût par frame est proportionnel au nombre d'abonnés
+ * et aucune Timeline n'est créée lors des changements d'animation.
+ * L'horloge s'arrête lorsqu'aucun abonné n'est enregistré.
+ * </p>
+ * @author Thomas A. - Valentin B.
+ */
+public class AnimationClock extends AnimationTimer {
+    /**
+     * Abonné appelé à chaque frame.
+     */
+    public interface Listener {
+        /**
+         * @param now temps de la frame en nanosecondes
+         */
+        void tick(long now);
+    }
+
+    private static AnimationClock instance;
+
+    private final List<Listener> listeners = new ArrayList<>();
+    private boolean running = false;
+
+    /**
+     * Retourne l'horloge partagée (à utiliser sur le thread JavaFX).
+     * @return l'instance unique
+     */
+    public static AnimationClock getInstance() {
+        if (instance == null) {
+            instance = new AnimationClock();
+        }
+        return instance;
+    }
+
+    private AnimationClock() {
+    }
+
+    /**
+     * @param listener l'abonné à appeler à chaque frame
+     */
+    public void register(Listener listener) {
+        listeners.add(listener);
+        if (!running) {
+            start();
+            running = true;
+        }
+    }
+
+    /**
+     * @param listener l'abonné à retirer
+     */
+    public void unregister(Listener listener) {
+        listeners.remove(listener);
+        if (listeners.isEmpty() && running) {
+            stop();
+            running = false;
+        }
+    }
+
+    /**
+     * @return le nombre d'abonnés appelés à chaque frame
+     */
+    public int getListenerCount() {
+        return listeners.size();
+    }
+
+    @Override
+    public void handle(long now) {
+        // Boucle indexée : pas d'itérateur alloué à chaque frame
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).tick(now);
+        }
+    }
+}
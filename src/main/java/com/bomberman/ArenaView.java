@@ -0,0 +1,246 @@
+package com.bomberman;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.ColumnConstraints;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.RowConstraints;
+import javafx.scene.layout.StackPane;
+import javafx.scene.shape.Rectangle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Affichage d'une arène de taille quelconque à travers une fenêtre de
+ * {@value #VIEWPORT_CELLS} x {@value #VIEWPORT_CELLS} cases qui suit les joueurs locaux.
+ * <p>
+ * Seules les cases visibles existent dans la scène : la grille contient une case de plus
+ * que la fenêtre dans chaque direction pour le défilement au pixel près, et ses cases sont
+ * réaffectées aux cases de l'arène quand la caméra franchit une case. De même, seules
+ * les entités des régions proches de la fenêtre sont attachées à la scène ({@link EntityLayer}).
+ * Le coût par frame et la mémoire de l'affichage dépendent donc de la fenêtre,
+ * pas de la taille de l'arène.
+ * </p>
+ * @author Valentin B.
+ */
+public class ArenaView implements AnimationClock.Listener {
+    public static final int VIEWPORT_CELLS = 15;
+
+    private final Pane viewport;
+    private final GridPane grid;
+    private final Pane entityPane;
+    private final EntityLayer entities;
+    private final double cellSize;
+
+    private boolean[][] walls;
+    private boolean[][] destructibleBlocks;
+    private Image wallImage;
+    private Image destructibleBlockImage;
+    private int arenaSize;
+
+    // Cases affichées : renderCells x renderCells, la case [0][0] montre la case (originX, originY)
+    private int viewCells;
+    private int renderCells;
+    private ImageView[][] terrainViews;
+    private int originX = -1;
+    private int originY = -1;
+
+    // Position de la caméra (coin haut-gauche, en cases) et joueurs suivis
+    private double cameraX;
+    private double cameraY;
+    private final List<Motion> followed = new ArrayList<>();
+    private FrameStats stats;
+
+    /**
+     * @param viewport le conteneur de la grille et du calque des entités, découpé à la taille de la fenêtre
+     * @param grid la grille des cases visibles
+     * @param entityPane le calque des entités mobiles
+     * @param cellSize la taille d'une case en pixels
+     */
+    public ArenaView(Pane viewport, GridPane grid, Pane entityPane, double cellSize) {
+        this.viewport = viewport;
+        this.grid = grid;
+        this.entityPane = entityPane;
+        this.cellSize = cellSize;
+        this.entities = new EntityLayer(entityPane, cellSize + grid.getHgap(), cellSize);
+    }
+
+    /**
+     * @return le calque des entités (joueurs, bombes, power-ups, explosions)
+     */
+    public EntityLayer getEntities() {
+        return entities;
+    }
+
+    /**
+     * Affiche une nouvelle arène. Les cases visibles ne sont recréées que si la taille
+     * de la fenêtre change.
+     *
+     * @param walls les murs indestructibles de l'arène
+     * @param destructibleBlocks les blocs destructibles de l'arène
+     * @param wallImage l'image des murs
+     * @param destructibleBlockImage l'image des blocs destructibles
+     */
+    public void setArena(boolean[][] walls, boolean[][] destructibleBlocks, Image wallImage, Image destructibleBlockImage) {
+        this.walls = walls;
+        this.destructibleBlocks = destructibleBlocks;
+        this.wallImage = wallImage;
+        this.destructibleBlockImage = destructibleBlockImage;
+        this.arenaSize = walls.length;
+
+        int newViewCells = Math.min(arenaSize, VIEWPORT_CELLS);
+        int newRenderCells = arenaSize > newViewCells ? newViewCells + 1 : newViewCells;
+        if (terrainViews == null || newRenderCells != renderCells) {
+            viewCells = newViewCells;
+            renderCells = newRenderCells;
+            buildCells();
+        }
+
+        entities.reset(arenaSize);
+        followed.clear();
+        cameraX = 0;
+        cameraY = 0;
+        originX = -1; // forcer la réaffectation des cases
+        originY = -1;
+        grid.setTranslateX(0);
+        grid.setTranslateY(0);
+        entityPane.setTranslateX(0);
+        entityPane.setTranslateY(0);
+        bindCells(0, 0);
+    }
+
+    private void buildCells() {
+        grid.getChildren().clear();
+        grid.getColumnConstraints().clear();
+        grid.getRowConstraints().clear();
+        terrainViews = new ImageView[renderCells][renderCells];
+
+        // Cases de taille fixe : le calque des entités se cale sur cette géométrie
+        for (int i = 0; i < renderCells; i++) {
+            grid.getColumnConstraints().add(new ColumnConstraints(cellSize));
+            grid.getRowConstraints().add(new RowConstraints(cellSize));
+        }
+        for (int x = 0; x < renderCells; x++) {
+            for (int y = 0; y < renderCells; y++) {
+                StackPane cell = new StackPane();
+                cell.getStyleClass().add("game-cell");
+                ImageView terrain = new ImageView();
+                terrain.setFitWidth(cellSize);
+                terrain.setFitHeight(cellSize);
+                terrain.setPreserveRatio(true);
+                cell.getChildren().add(terrain);
+                terrainViews[x][y] = terrain;
+                grid.add(cell, x, y);
+            }
+        }
+
+        // Fenêtre visible, découpée pour masquer la case supplémentaire de défilement
+        double size = viewCells * (cellSize + grid.getHgap()) - grid.getHgap();
+        viewport.setMinSize(size, size);
+        viewport.setPrefSize(size, size);
+        viewport.setMaxSize(size, size);
+        viewport.setClip(new Rectangle(size, size));
+    }
+
+    /**
+     * Réaffecte les cases visibles à partir de la case (x, y) de l'arène.
+     */
+    private void bindCells(int x, int y) {
+        if (x == originX && y == originY) return;
+        originX = x;
+        originY = y;
+        for (int vx = 0; vx < renderCells; vx++) {
+            for (int vy = 0; vy < renderCells; vy++) {
+                bindCell(vx, vy);
+            }
+        }
+    }
+
+    private void bindCell(int vx, int vy) {
+        int x = originX + vx;
+        int y = originY + vy;
+        Image image = null;
+        if (x < arenaSize && y < arenaSize) {
+            if (walls[x][y]) {
+                image = wallImage;
+            } else if (destructibleBlocks[x][y]) {
+                image = destructibleBlockImage;
+            }
+        }
+        terrainViews[vx][vy].setImage(image);
+    }
+
+    /**
+     * Met à jour l'affichage d'une case de l'arène (bloc détruit), si elle est visible.
+     * @param x colonne
+     * @param y ligne
+     */
+    public void refresh(int x, int y) {
+        int vx = x - originX;
+        int vy = y - originY;
+        if (vx >= 0 && vx < renderCells && vy >= 0 && vy < renderCells) {
+            bindCell(vx, vy);
+        }
+    }
+
+    /**
+     * Ajoute un joueur local au suivi de la caméra.
+     * @param motion le déplacement du joueur
+     */
+    public void follow(Motion motion) {
+        followed.add(motion);
+    }
+
+    /**
+     * @param stats les mesures de la partie, où le temps de rendu est compté (peut être null)
+     */
+    public void setFrameStats(FrameStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Retire un joueur du suivi de la caméra (joueur éliminé).
+     * @param motion le déplacement du joueur
+     */
+    public void unfollow(Motion motion) {
+        followed.remove(motion);
+    }
+
+    @Override
+    public void tick(long now) {
+        if (terrainViews == null) return;
+        long start = stats != null ? stats.start() : 0;
+
+        // La caméra se centre sur les joueurs suivis, sans sortir de l'arène
+        if (!followed.isEmpty()) {
+            double sumX = 0, sumY = 0;
+            for (int i = 0; i < followed.size(); i++) {
+                sumX += followed.get(i).getX(now);
+                sumY += followed.get(i).getY(now);
+            }
+            double max = arenaSize - viewCells;
+            cameraX = clamp(sumX / followed.size() + 0.5 - viewCells / 2.0, max);
+            cameraY = clamp(sumY / followed.size() + 0.5 - viewCells / 2.0, max);
+        }
+
+        int cellX = (int) cameraX;
+        int cellY = (int) cameraY;
+        bindCells(cellX, cellY);
+
+        double pitch = cellSize + grid.getHgap();
+        grid.setTranslateX(-(cameraX - cellX) * pitch);
+        grid.setTranslateY(-(cameraY - cellY) * pitch);
+        entityPane.setTranslateX(-cameraX * pitch);
+        entityPane.setTranslateY(-cameraY * pitch);
+
+        entities.render(now, cameraX - 1, cameraY - 1, cameraX + viewCells, cameraY + viewCells);
+        if (stats != null) stats.stop(FrameStats.Section.RENDER, start);
+    }
+
+    private static double clamp(double value, double max) {
+        if (value < 0) return 0;
+        return Math.min(value, max);
+    }
+}
@@ -21,6 +21,7 @@ public class AudioManager {
     private double effectsVolume = 0.8;
     private boolean musicEnabled = true;
     private boolean effectsEnabled = true;
+    private final Metrics.Counter soundsPlayed = Metrics.getInstance().counter("sounds.played");
 
     /**
      * Constructeur de la classe AudioManager.
@@ -52,8 +53,11 @@ public class AudioManager {
      * @param filename nom du fichier audio (dans /sounds/)
      */
     private void loadEffect(String filename) {
+        GameEvents.AssetLoad event = new GameEvents.AssetLoad();
+        event.begin();
+        String resourcePath = "/sounds/" + filename;
+        boolean loaded = false;
         try {
-            String resourcePath = "/sounds/" + filename;
             URL resource = getClass().getResource(resourcePath);
 
             if (resource == null) {
@@ -63,11 +67,23 @@ public class AudioManager {
 
             Media sound = new Media(resource.toString());
             soundEffects.put(filename, sound);
+            loaded = true;
             System.out.println("Son chargé avec succès: " + filename);
 
         } catch (Exception e) {
             System.err.println("Erreur lors du chargement du son " + filename + ": " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            commitAssetLoad(event, resourcePath, "son", loaded);
+        }
+    }
+
+    private static void commitAssetLoad(GameEvents.AssetLoad event, String path, String kind, boolean success) {
+        if (event.shouldCommit()) {
+            event.path = path;
+            event.kind = kind;
+            event.success = success;
+            event.commit();
         }
     }
 
@@ -84,9 +100,13 @@ public class AudioManager {
                 musicPlayer.stop();
             }
 
+            GameEvents.AssetLoad event = new GameEvents.AssetLoad();
+            event.begin();
             URL resource = getClass().getResource("/music/" + musicFile);
-            if (resource != null) {
-                Media music = new Media(resource.toString());
+            Media music = resource != null ? new Media(resource.toString()) : null;
+            commitAssetLoad(event, "/music/" + musicFile, "musique", music != null);
+
+            if (music != null) {
                 musicPlayer = new MediaPlayer(music);
                 musicPlayer.setVolume(musicVolume);
                 musicPlayer.setCycleCount(MediaPlayer.INDEFINITE);
@@ -119,6 +139,7 @@ public class AudioManager {
             player.setOnEndOfMedia(player::dispose);
             player.setOnError(player::dispose);
             player.play();
+            soundsPlayed.increment();
         } catch (Exception e) {
             System.err.println("Erreur lors de la lecture du son: " + e.getMessage());
             e.printStackTrace();
@@ -0,0 +1,388 @@
+package com.bomberman;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Stockage binaire des statistiques, accédé par projection mémoire (memory-mapped file).
+ * <p>
+ * Le fichier contient un en-tête suivi d'une table de hachage à adressage ouvert
+ * (sondage linéaire) dont chaque case est un enregistrement de taille fixe :
+ * la table sert à la fois d'index par nom de joueur et de stockage.
+ * Aucun enregistrement n'est chargé au démarrage : une recherche ne lit que
+ * les quelques cases sondées, et les victoires/défaites sont modifiées sur place.
+ * </p>
+ * <p>
+ * Format d'une case ({@value #RECORD_SIZE} octets) : hash (int, 0 = vide),
+ * longueur du nom (short), nom UTF-8 ({@value #MAX_NAME_BYTES} octets max),
+ * victoires (int), défaites (int), classement Elo (double, NaN si non classé).
+ * Les fichiers de la version 1, sans classement, sont convertis à l'ouverture.
+ * Quand la table est remplie aux trois quarts, une table deux fois plus grande est
+ * construite à la suite dans le même fichier ; l'en-tête n'est basculé dessus qu'au
+ * {@link #force()} suivant, une fois la nouvelle table écrite sur disque.
+ * </p>
+ * <p>
+ * {@link #force()} écrit les pages modifiées hors du verrou du stockage : les lectures
+ * et mises à jour des autres threads n'attendent jamais le disque.
+ * </p>
+ * @author Valentin B.
+ */
+public class BinaryStatsStore implements AutoCloseable {
+    static final int MAGIC = 0x424D5354; // "BMST"
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 72;
+    static final int V1_RECORD_SIZE = 64; // version 1 : pas de classement
+    static final int MAX_NAME_BYTES = 48;
+    static final int INITIAL_CAPACITY = 1024;
+    static final int MAX_CAPACITY = 1 << 24; // une projection est limitée à 2 Go
+
+    // Position des champs dans l'en-tête
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_CAPACITY = 8;
+    private static final int H_SIZE = 12;
+    private static final int H_TABLE_OFFSET = 16;
+
+    // Position des champs dans une case
+    private static final int R_HASH = 0;
+    private static final int R_NAME_LENGTH = 4;
+    private static final int R_NAME = 6;
+    private static final int R_VICTORIES = R_NAME + MAX_NAME_BYTES;
+    private static final int R_DEFEATS = R_VICTORIES + 4;
+    private static final int R_RATING = R_DEFEATS + 4;
+
+    private final FileChannel channel;
+    private MappedByteBuffer header;
+    private MappedByteBuffer table;
+    private int capacity;
+    private int size;
+    private long tableOffset;
+    private boolean headerStale; // table déplacée, en-tête à basculer au prochain force()
+
+    /**
+     * Ouvre (ou crée) un fichier de statistiques binaire.
+     * @param path chemin du fichier
+     * @throws IOException si le fichier ne peut pas être ouvert ou n'est pas au bon format
+     */
+    public BinaryStatsStore(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+
+        if (header.getInt(H_MAGIC) == 0) {
+            // Nouveau fichier
+            header.putInt(H_MAGIC, MAGIC);
+            header.putInt(H_VERSION, VERSION);
+            header.putInt(H_SIZE, 0);
+            capacity = INITIAL_CAPACITY;
+            switchTable(HEADER_SIZE, INITIAL_CAPACITY);
+        } else {
+            if (header.getInt(H_MAGIC) != MAGIC) {
+                channel.close();
+                throw new IOException("Fichier de statistiques binaire invalide: " + path);
+            }
+            int version = header.getInt(H_VERSION);
+            if (version != VERSION && version != 1) {
+                channel.close();
+                throw new IOException("Version de fichier de statistiques non supportée: " + version);
+            }
+            int recordSize = version == VERSION ? RECORD_SIZE : V1_RECORD_SIZE;
+            capacity = header.getInt(H_CAPACITY);
+            size = header.getInt(H_SIZE);
+            tableOffset = header.getLong(H_TABLE_OFFSET);
+            table = channel.map(FileChannel.MapMode.READ_WRITE, tableOffset, (long) capacity * recordSize);
+            if (version != VERSION) {
+                // Conversion : la table est recopiée au nouveau format à la suite de l'ancienne
+                rebuild(capacity, recordSize);
+                force();
+            }
+        }
+    }
+
+    /**
+     * @return le nombre de joueurs enregistrés
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return le nombre de cases de la table actuelle
+     */
+    public synchronized int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Récupère les statistiques d'un joueur sans charger les autres enregistrements.
+     * @param playerName le nom du joueur
+     * @return ses statistiques, ou des statistiques vides si le joueur est inconnu
+     */
+    public synchronized PlayerStats get(String playerName) {
+        byte[] name = playerName.getBytes(StandardCharsets.UTF_8);
+        if (name.length > MAX_NAME_BYTES) {
+            return new PlayerStats(playerName, 0, 0); // ne peut pas avoir été enregistré
+        }
+        int slot = find(name, hash(name));
+        if (slot < 0) {
+            return new PlayerStats(playerName, 0, 0);
+        }
+        int base = slot * RECORD_SIZE;
+        return new PlayerStats(playerName, table.getInt(base + R_VICTORIES), table.getInt(base + R_DEFEATS));
+    }
+
+    /**
+     * Ajoute une victoire au joueur, sur place.
+     * @param playerName le nom du joueur
+     */
+    public synchronized void addVictory(String playerName) {
+        int base = slotFor(playerName) * RECORD_SIZE;
+        table.putInt(base + R_VICTORIES, table.getInt(base + R_VICTORIES) + 1);
+    }
+
+    /**
+     * Agrandit la table à l'avance pour qu'elle puisse accueillir de nouveaux joueurs.
+     * @param players le nombre de joueurs qui pourraient être ajoutés
+     */
+    public synchronized void reserve(int players) {
+        while ((size + (long) players) * 4 > capacity * 3L && capacity < MAX_CAPACITY) {
+            grow();
+        }
+    }
+
+    /**
+     * Ajoute des victoires et des défaites au joueur, sur place.
+     * @param playerName le nom du joueur
+     * @param victories le nombre de victoires à ajouter
+     * @param defeats le nombre de défaites à ajouter
+     */
+    public synchronized void add(String playerName, int victories, int defeats) {
+        int base = slotFor(playerName) * RECORD_SIZE;
+        table.putInt(base + R_VICTORIES, table.getInt(base + R_VICTORIES) + victories);
+        table.putInt(base + R_DEFEATS, table.getInt(base + R_DEFEATS) + defeats);
+    }
+
+    /**
+     * Ajoute une défaite au joueur, sur place.
+     * @param playerName le nom du joueur
+     */
+    public synchronized void addDefeat(String playerName) {
+        int base = slotFor(playerName) * RECORD_SIZE;
+        table.putInt(base + R_DEFEATS, table.getInt(base + R_DEFEATS) + 1);
+    }
+
+    /**
+     * @param playerName le nom du joueur
+     * @return son classement Elo, ou NaN s'il n'est pas classé
+     */
+    public synchronized double getRating(String playerName) {
+        byte[] name = playerName.getBytes(StandardCharsets.UTF_8);
+        if (name.length > MAX_NAME_BYTES) {
+            return Double.NaN;
+        }
+        int slot = find(name, hash(name));
+        return slot < 0 ? Double.NaN : table.getDouble(slot * RECORD_SIZE + R_RATING);
+    }
+
+    /**
+     * Enregistre le classement Elo du joueur, sur place.
+     * @param playerName le nom du joueur
+     * @param rating son classement
+     */
+    public synchronized void setRating(String playerName, double rating) {
+        table.putDouble(slotFor(playerName) * RECORD_SIZE + R_RATING, rating);
+    }
+
+    /**
+     * Remplace les statistiques d'un joueur (utilisé lors de l'import du fichier texte).
+     * @param stats les statistiques à écrire
+     */
+    public synchronized void put(PlayerStats stats) {
+        int base = slotFor(stats.getPlayerName()) * RECORD_SIZE;
+        table.putInt(base + R_VICTORIES, stats.getVictories());
+        table.putInt(base + R_DEFEATS, stats.getDefeats());
+    }
+
+    /**
+     * Force l'écriture sur disque des pages modifiées, hors du verrou du stockage.
+     * Si la table a été agrandie, l'en-tête n'est basculé sur la nouvelle table
+     * qu'une fois celle-ci écrite, pour rester cohérent en cas d'arrêt brutal.
+     */
+    public void force() {
+        MappedByteBuffer forcedTable;
+        long forcedOffset;
+        int forcedCapacity;
+        boolean switchHeader;
+        synchronized (this) {
+            forcedTable = table;
+            forcedOffset = tableOffset;
+            forcedCapacity = capacity;
+            switchHeader = headerStale;
+        }
+        forcedTable.force();
+
+        synchronized (this) {
+            // Une autre croissance a pu avoir lieu pendant l'écriture : elle sera basculée au prochain appel
+            if (switchHeader && tableOffset == forcedOffset) {
+                header.putInt(H_VERSION, VERSION);
+                header.putInt(H_CAPACITY, forcedCapacity);
+                header.putLong(H_TABLE_OFFSET, forcedOffset);
+                headerStale = false;
+            }
+        }
+        header.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    /**
+     * Retourne la case du joueur, en la créant si besoin.
+     */
+    private int slotFor(String playerName) {
+        byte[] name = encode(playerName);
+        int hash = hash(name);
+        int slot = find(name, hash);
+        if (slot >= 0) {
+            return slot;
+        }
+
+        if ((size + 1) * 4L > capacity * 3L) {
+            grow();
+        }
+
+        slot = insert(table, capacity, name, name.length, hash);
+        size++;
+        header.putInt(H_SIZE, size);
+        return slot;
+    }
+
+    /**
+     * Sondage linéaire : retourne la case contenant le nom, ou -1.
+     */
+    private int find(byte[] name, int hash) {
+        int mask = capacity - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int base = slot * RECORD_SIZE;
+            int stored = table.getInt(base + R_HASH);
+            if (stored == 0) {
+                return -1;
+            }
+            if (stored == hash && nameEquals(base, name)) {
+                return slot;
+            }
+        }
+    }
+
+    private boolean nameEquals(int base, byte[] name) {
+        if (table.getShort(base + R_NAME_LENGTH) != name.length) {
+            return false;
+        }
+        for (int i = 0; i < name.length; i++) {
+            if (table.get(base + R_NAME + i) != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Insère un enregistrement vide dans la première case libre.
+     */
+    private static int insert(MappedByteBuffer target, int targetCapacity, byte[] name, int length, int hash) {
+        int mask = targetCapacity - 1;
+        int slot = hash & mask;
+        while (target.getInt(slot * RECORD_SIZE + R_HASH) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        int base = slot * RECORD_SIZE;
+        target.putInt(base + R_HASH, hash);
+        target.putShort(base + R_NAME_LENGTH, (short) length);
+        target.put(base + R_NAME, name, 0, length);
+        target.putDouble(base + R_RATING, Double.NaN);
+        return slot;
+    }
+
+    /**
+     * Double la capacité de la table.
+     */
+    private void grow() {
+        if (capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException("Capacité maximale du fichier de statistiques atteinte");
+        }
+        try {
+            rebuild(capacity * 2, RECORD_SIZE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Impossible d'agrandir le fichier de statistiques", e);
+        }
+    }
+
+    /**
+     * Recopie la table actuelle dans une nouvelle table écrite à la suite de l'ancienne.
+     * L'en-tête désigne l'ancienne table jusqu'au prochain {@link #force()}.
+     * @param newCapacity capacité de la nouvelle table
+     * @param recordSize taille des cases de la table actuelle ({@link #V1_RECORD_SIZE} lors d'une conversion)
+     */
+    private void rebuild(int newCapacity, int recordSize) throws IOException {
+        long newOffset = tableOffset + (long) capacity * recordSize;
+        MappedByteBuffer newTable = channel.map(FileChannel.MapMode.READ_WRITE,
+                newOffset, (long) newCapacity * RECORD_SIZE);
+
+        byte[] name = new byte[MAX_NAME_BYTES];
+        for (int slot = 0; slot < capacity; slot++) {
+            int base = slot * recordSize;
+            int hash = table.getInt(base + R_HASH);
+            if (hash == 0) continue;
+
+            int length = table.getShort(base + R_NAME_LENGTH);
+            table.get(base + R_NAME, name, 0, length);
+            int newBase = insert(newTable, newCapacity, name, length, hash) * RECORD_SIZE;
+            newTable.putInt(newBase + R_VICTORIES, table.getInt(base + R_VICTORIES));
+            newTable.putInt(newBase + R_DEFEATS, table.getInt(base + R_DEFEATS));
+            if (recordSize == RECORD_SIZE) {
+                newTable.putDouble(newBase + R_RATING, table.getDouble(base + R_RATING));
+            }
+        }
+
+        table = newTable;
+        capacity = newCapacity;
+        tableOffset = newOffset;
+        headerStale = true;
+    }
+
+    private void switchTable(long offset, int newCapacity) throws IOException {
+        table = channel.map(FileChannel.MapMode.READ_WRITE, offset, (long) newCapacity * RECORD_SIZE);
+        tableOffset = offset;
+        header.putInt(H_CAPACITY, newCapacity);
+        header.putLong(H_TABLE_OFFSET, offset);
+    }
+
+    private static byte[] encode(String playerName) {
+        byte[] name = playerName.getBytes(StandardCharsets.UTF_8);
+        if (name.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Nom de joueur trop long (" + MAX_NAME_BYTES + " octets max): " + playerName);
+        }
+        return name;
+    }
+
+    /**
+     * Hash FNV-1a des octets du nom, jamais nul (0 marque une case vide).
+     */
+    private static int hash(byte[] name) {
+        int h = 0x811C9DC5;
+        for (byte b : name) {
+            h ^= b & 0xFF;
+            h *= 0x01000193;
+        }
+        h ^= h >>> 16;
+        return h == 0 ? 1 : h;
+    }
+}
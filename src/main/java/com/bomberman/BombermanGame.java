@@ -9,11 +9,15 @@ import javafx.scene.image.ImageView;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.GridPane;
-import javafx.scene.layout.StackPane;
+import javafx.scene.layout.Pane;
 import javafx.util.Duration;
 
+import java.io.IOException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 
 /**
@@ -39,7 +43,9 @@ import java.util.*;
  * </ul>
  * <b>Annotations FXML :</b>
  * <ul>
- *   <li>gameGrid : grille principale du jeu.</li>
+ *   <li>arenaViewport : fenêtre visible de l'arène, qui suit les joueurs locaux.</li>
+ *   <li>gameGrid : cases visibles de l'arène.</li>
+ *   <li>entityLayer : calque des joueurs, bombes, power-ups et explosions, superposé à la grille.</li>
  *   <li>player1Label à player4Label : labels d'affichage des joueurs.</li>
  *   <li>winnerLabel : label d'affichage du vainqueur.</li>
  * </ul>
@@ -52,16 +58,51 @@ import java.util.*;
  */
 public class BombermanGame implements Initializable {
 
+    @FXML private Pane arenaViewport;
     @FXML private GridPane gameGrid;
+    @FXML private Pane entityLayer;
     @FXML private Label player1Label;
     @FXML private Label player2Label;
     @FXML private Label player3Label;
     @FXML private Label player4Label;
+    @FXML private Label otherPlayersLabel;
     @FXML private Label winnerLabel;
+    @FXML private Label perfLabel;
+    @FXML private Label seedLabel;
+    @FXML private Label replayLabel;
 
-    private static final int GRID_SIZE = 15;
+    public static final int MIN_ARENA_SIZE = 15;
+    public static final int MAX_ARENA_SIZE = 255;
     private static final int CELL_SIZE = 40;
     private static final int MOVEMENT_DELAY = 200; // ms entre chaque mouvement
+    private static final int BOMB_SLIDE_DELAY = 100; // ms par case d'une bombe poussée
+
+    // Durées de jeu comptées en ticks de la boucle de jeu : la partie ne dépend que de sa graine
+    // et des actions des joueurs, et peut donc être rejouée à l'identique (voir Replay)
+    static final int TICK_MS = 16;
+    static final int MOVE_DELAY_TICKS = MOVEMENT_DELAY / TICK_MS;
+    static final int FUSE_TICKS = 3000 / TICK_MS;            // mèche de 3 secondes
+    static final int CHAIN_DELAY_TICKS = 200 / TICK_MS;      // explosion en chaîne après 200 ms
+    static final int BOMB_SLIDE_TICKS = BOMB_SLIDE_DELAY / TICK_MS;
+    static final int INVINCIBILITY_TICKS = 5000 / TICK_MS;   // ~5 secondes
+    private static final int REPLAY_SEEK_TICKS = 5000 / TICK_MS;
+
+    // Vitesse de la partie : nombre de ticks joués par image de la boucle, les durées de jeu étant en ticks.
+    // Vitesse de départ modifiable avec -Dbomberman.timeScale ; au-delà de 4x, les effets sonores sont coupés.
+    public static final double MIN_TIME_SCALE = 0.25;
+    public static final double MAX_TIME_SCALE = 100;
+    private static final double[] TIME_SCALES = {0.25, 0.5, 1, 2, 4, 10, 25, 50, 100};
+    private static final double MAX_AUDIBLE_TIME_SCALE = 4;
+
+    // Instantané binaire de la partie (writeSnapshot / restoreSnapshot) : en-tête puis
+    // enregistrements de taille fixe, pour copier l'état en bloc sans rien allouer
+    public static final int SNAPSHOT_MAGIC = 0x424D5353; // "BMSS"
+    public static final short SNAPSHOT_VERSION = 2;
+    private static final int SNAPSHOT_HEADER_BYTES = 4 + 2 + 2 + 8 + 5 * 4 + PowerUp.Type.values().length * 4 + 3 * 4 + 2 * 8;
+    private static final int SNAPSHOT_PLAYER_BYTES = 22;
+    private static final int SNAPSHOT_BOMB_BYTES = 16;
+    private static final int SNAPSHOT_POWER_UP_BYTES = 6;
+    private static final PowerUp.Type[] POWER_UP_TYPES = PowerUp.Type.values();
 
     // Images du jeu
     private Image wallImage;
@@ -76,30 +117,103 @@ public class BombermanGame implements Initializable {
     // Variable pour la musique
     private AudioManager audioManager;
 
-    private Player[] players = new Player[4];
+    // Effets visuels éphémères de la partie (pulsations, fondus, clignotements)
+    private final EffectsManager effects = new EffectsManager();
+    private final FrameStats frameStats = new FrameStats();
+
+    // Métriques partagées (JMX et journal), voir Metrics
+    private final Metrics.Counter matchesStarted = Metrics.getInstance().counter("matches.started");
+    private final Metrics.Counter ticks = Metrics.getInstance().counter("ticks");
+    private final Metrics.Counter bombsPlaced = Metrics.getInstance().counter("bombs.placed");
+    private final Metrics.Histogram matchHeap = Metrics.getInstance().histogram("match.heap.bytes");
+    private PerfOverlay perfOverlay;
+
+    // Vues réutilisables des bombes, explosions et power-ups
+    private final ViewPool viewPool = new ViewPool();
+
+    // Affichage de l'arène (cases visibles, caméra) et rendu interpolé des entités
+    private ArenaView arena;
+    private EntityLayer entities;
+    private int gridSize = MIN_ARENA_SIZE;
+
+    public static final int DEFAULT_PLAYER_COUNT = 4;
+    public static final int MAX_PLAYERS = 64;
+    private static final int PLAYER_SKINS = 4; // nombre de spritesheets de joueurs
+
+    // Touches des joueurs locaux : haut, bas, gauche, droite, bombe
+    private static final KeyCode[][] PLAYER_KEYS = {
+            {KeyCode.Z, KeyCode.S, KeyCode.Q, KeyCode.D, KeyCode.A},              // Joueur 1
+            {KeyCode.UP, KeyCode.DOWN, KeyCode.LEFT, KeyCode.RIGHT, KeyCode.SPACE}, // Joueur 2
+            {KeyCode.Y, KeyCode.H, KeyCode.G, KeyCode.J, KeyCode.U},              // Joueur 3
+            {KeyCode.O, KeyCode.L, KeyCode.K, KeyCode.M, KeyCode.I}               // Joueur 4
+    };
+    private static final SpriteManager.Direction[] KEY_DIRECTIONS = {
+            SpriteManager.Direction.UP, SpriteManager.Direction.DOWN,
+            SpriteManager.Direction.LEFT, SpriteManager.Direction.RIGHT
+    };
+    private static final int[][] KEY_MOVES = {{0, -1}, {0, 1}, {-1, 0}, {1, 0}};
+
+    private int playerCount = DEFAULT_PLAYER_COUNT;
+    private PlayerRegistry players = new PlayerRegistry(MIN_ARENA_SIZE);
+    private boolean[][] spawnArea;
     private boolean[][] walls;
     private boolean[][] destructibleBlocks;
     private List<Bomb> bombs = new ArrayList<>();
     private Set<KeyCode> pressedKeys = new HashSet<>();
-    private Map<Player, Long> lastMoveTime = new HashMap<>();
+    private final boolean[] pendingBombs = new boolean[PLAYER_KEYS.length]; // posées au tick suivant
+    private final List<Bomb> dueBombs = new ArrayList<>();
 
     private List<PowerUp> powerUps = new ArrayList<>();
     private Image[] powerUpImages = new Image[PowerUp.Type.values().length];
 
     private Timeline gameLoop;
+    private Timeline victoryMusic; // musique de victoire, lancée une seconde après la fin
     private boolean gameEnded = false;
     private boolean alternativeStyle = false; // Pour basculer entre les styles
     private boolean soloMode = false;
+    private boolean botsOnly = false; // joueur 1 compris
     private BotAI botAI = new BotAI(this);
 
+    // Graine de la partie : fixée depuis les menus, ou tirée au hasard à chaque partie.
+    // Tous les tirages de la partie (blocs, power-ups) en dérivent.
+    private Long fixedSeed;
+    private long seed;
+
+    // Enregistrement de la partie en cours, et lecture d'un replay à la place de la partie
+    private Path replayDirectory;
+    private ReplayRecorder recorder;
+    private Path lastReplay;
+    private int[] tickActions = new int[0];
+    private final Replay.Encoder stateBuffer = new Replay.Encoder(1024);
+    private Replay replay;
+    private Replay.Cursor replayCursor;
+    private boolean replayPaused;
+    private boolean fastForward; // re-simulation sans affichage (déplacement dans un replay)
+    private double timeScale = initialTimeScale();
+    private double tickBacklog; // fraction de tick en attente (vitesses inférieures à 1x)
+    private int replayDesyncTick = -1;
+
+    // Hachage de Zobrist de l'état de la partie (voir StateHash), tenu à jour à chaque modification,
+    // et celui des seuls blocs destructibles (clé de la carte des dangers des bots)
+    private long stateHash;
+    private long blockHash;
+
+    // Compteurs de la partie en cours, enregistrés dans MatchRecordStore en fin de partie
+    private MatchRecordStore matchRecords; // null : résultats non enregistrés
+    private int matchTicks;
+    private int matchKills;
+    private int matchBombsPlaced;
+    private int matchBlocksDestroyed;
+    private final int[] matchPowerUps = new int[PowerUp.Type.values().length];
+
     /**
      * Définit les noms des joueurs pour le mode multijoueur
-     * @param playerNames tableau contenant les noms des joueurs (jusqu'à 4)
+     * @param playerNames tableau contenant les noms des joueurs locaux (jusqu'à 4)
      */
     public void setPlayerNames(String[] playerNames) {
         // Sauvegarder les noms des joueurs
-        String[] savedNames = new String[4];
-        for (int i = 0; i < playerNames.length && i < 4; i++) {
+        String[] savedNames = new String[PLAYER_KEYS.length];
+        for (int i = 0; i < playerNames.length && i < savedNames.length; i++) {
             if (playerNames[i] != null && !playerNames[i].trim().isEmpty()) {
                 savedNames[i] = playerNames[i].trim();
             }
@@ -109,9 +223,9 @@ public class BombermanGame implements Initializable {
         restartGame();
 
         // Restaurer les noms des joueurs après réinitialisation
-        for (int i = 0; i < savedNames.length; i++) {
+        for (int i = 0; i < savedNames.length && i < players.size(); i++) {
             if (savedNames[i] != null) {
-                players[i].name = savedNames[i];
+                players.get(i).name = savedNames[i];
             }
         }
 
@@ -121,7 +235,16 @@ public class BombermanGame implements Initializable {
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
-        statsManager = new StatsManager();
+        statsManager = StatsManager.getInstance();
+        matchRecords = MatchRecordStore.getInstance();
+        replayDirectory = Replay.DIRECTORY;
+        arena = new ArenaView(arenaViewport, gameGrid, entityLayer, CELL_SIZE);
+        entities = arena.getEntities();
+        entities.setAttachListener(effects::resume, effects::pause);
+        arena.setFrameStats(frameStats);
+        AnimationClock.getInstance().register(arena);
+        perfOverlay = new PerfOverlay(perfLabel, frameStats, () -> bombs.size(), effects);
+        AnimationClock.getInstance().register(perfOverlay);
         loadImages();
         initializeGame();
         setupGameLoop();
@@ -137,6 +260,252 @@ public class BombermanGame implements Initializable {
         restartGame();
     }
 
+    /**
+     * Passe en partie entre bots seulement, joueur 1 compris (parties sans affichage, voir HeadlessRunner).
+     */
+    public void enableBotMatch() {
+        soloMode = true;
+        botsOnly = true;
+        restartGame();
+    }
+
+    /**
+     * Lance une nouvelle partie sur une arène et avec une graine données, en une seule initialisation.
+     * @param size le nombre de cases de côté, ramené comme par {@link #setArenaSize(int)}
+     * @param seed la graine de la partie
+     */
+    void startMatch(int size, long seed) {
+        gridSize = arenaSize(size);
+        fixedSeed = seed;
+        restartGame();
+    }
+
+    /**
+     * Définit la taille de l'arène (carrée) et relance la partie si elle change.
+     * La taille est ramenée entre {@value #MIN_ARENA_SIZE} et {@value #MAX_ARENA_SIZE}
+     * et arrondie à l'impair supérieur pour que les coins restent accessibles.
+     * @param size le nombre de cases de côté
+     */
+    public void setArenaSize(int size) {
+        int newSize = arenaSize(size);
+        if (newSize != gridSize) {
+            gridSize = newSize;
+            restartGame();
+        }
+    }
+
+    private static int arenaSize(int size) {
+        int newSize = Math.max(MIN_ARENA_SIZE, Math.min(MAX_ARENA_SIZE, size));
+        if (newSize % 2 == 0) newSize++;
+        if (newSize > MAX_ARENA_SIZE) newSize -= 2;
+        return newSize;
+    }
+
+    /**
+     * @return le nombre de cases de côté de l'arène
+     */
+    public int getArenaSize() {
+        return gridSize;
+    }
+
+    /**
+     * Définit le nombre de participants (joueurs locaux et bots) et relance la partie s'il change.
+     * En multijoueur, les joueurs au-delà des quatre joueurs locaux sont des bots.
+     * Le nombre est ramené entre 2 et {@value #MAX_PLAYERS}, et à la capacité de l'arène.
+     * @param count le nombre de participants
+     */
+    public void setPlayerCount(int count) {
+        int newCount = Math.max(2, Math.min(MAX_PLAYERS, count));
+        if (newCount != playerCount) {
+            playerCount = newCount;
+            restartGame();
+        }
+    }
+
+    /**
+     * Fixe la graine des parties suivantes (relance la partie si elle change),
+     * pour rejouer exactement la même arène et les mêmes tirages.
+     * @param seed la graine, ou null pour une graine différente à chaque partie
+     */
+    public void setSeed(Long seed) {
+        if (!Objects.equals(seed, fixedSeed)) {
+            fixedSeed = seed;
+            restartGame();
+        }
+    }
+
+    /**
+     * @return la graine de la partie en cours
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Remplace l'état de la partie sans passer par l'affichage (benchmarks et tests).
+     * @param walls les murs indestructibles
+     * @param destructibleBlocks les blocs destructibles
+     * @param players les joueurs
+     * @param bombs les bombes posées
+     */
+    void loadState(boolean[][] walls, boolean[][] destructibleBlocks, PlayerRegistry players, List<Bomb> bombs) {
+        this.gridSize = walls.length;
+        this.walls = walls;
+        this.destructibleBlocks = destructibleBlocks;
+        this.players = players;
+        this.bombs = bombs;
+        rehash();
+    }
+
+    /**
+     * Enregistre les parties suivantes dans un dossier de replays (désactivé par défaut hors affichage).
+     * @param directory le dossier, ou null pour ne plus enregistrer
+     */
+    void recordReplaysTo(Path directory) {
+        replayDirectory = directory;
+    }
+
+    /**
+     * Enregistre le résultat détaillé des parties suivantes (désactivé par défaut hors affichage).
+     * @param store le stockage des résultats, ou null pour ne plus enregistrer
+     */
+    void recordMatchesTo(MatchRecordStore store) {
+        matchRecords = store;
+    }
+
+    /**
+     * @return le replay de la dernière partie terminée, ou null
+     */
+    public Path getLastReplay() {
+        return lastReplay;
+    }
+
+    /**
+     * @return le tick courant de la partie (0 avant le premier tick)
+     */
+    int getTick() {
+        return matchTicks;
+    }
+
+    /**
+     * Change la vitesse de la partie : le nombre de ticks joués par image de la boucle de jeu.
+     * Sans affichage, les ticks sont joués aussi vite que possible quelle que soit la vitesse.
+     * @param scale la vitesse, ramenée entre {@value #MIN_TIME_SCALE} et {@value #MAX_TIME_SCALE}
+     */
+    public void setTimeScale(double scale) {
+        timeScale = Math.max(MIN_TIME_SCALE, Math.min(MAX_TIME_SCALE, scale));
+        updateSeedLabel();
+    }
+
+    /**
+     * @return la vitesse de la partie (1 : temps réel)
+     */
+    public double getTimeScale() {
+        return timeScale;
+    }
+
+    // Vitesse suivante (direction 1) ou précédente (-1) parmi les paliers
+    private void stepTimeScale(int direction) {
+        int i = 0;
+        while (i < TIME_SCALES.length - 1 && TIME_SCALES[i] < timeScale) i++;
+        if (direction > 0 && TIME_SCALES[i] <= timeScale) i++;
+        if (direction < 0) i--;
+        setTimeScale(TIME_SCALES[Math.max(0, Math.min(TIME_SCALES.length - 1, i))]);
+    }
+
+    private static double initialTimeScale() {
+        String value = System.getProperty("bomberman.timeScale");
+        if (value == null) return 1;
+        try {
+            return Math.max(MIN_TIME_SCALE, Math.min(MAX_TIME_SCALE, Double.parseDouble(value)));
+        } catch (NumberFormatException e) {
+            System.err.println("Vitesse de partie invalide: " + value);
+            return 1;
+        }
+    }
+
+    // Durées des animations à la vitesse de la partie
+    private long scaledNanos(int millis) {
+        return (long) (millis * 1_000_000L / timeScale);
+    }
+
+    private double scaledMillis(int millis) {
+        return millis / timeScale;
+    }
+
+    private void updateSeedLabel() {
+        if (seedLabel == null) return;
+        seedLabel.setText("Graine : " + seed + (timeScale != 1 ? "   Vitesse x" + formatScale(timeScale) : ""));
+    }
+
+    private static String formatScale(double scale) {
+        return scale == Math.rint(scale) ? String.valueOf((long) scale) : String.valueOf(scale);
+    }
+
+    /**
+     * Hachage de l'état de la partie (blocs, joueurs, bombes et power-ups), mis à jour à chaque
+     * modification : deux parties dans le même état ont le même hachage, ce qui permet de vérifier
+     * tick par tick qu'un replay ou un pair en réseau n'a pas divergé.
+     * @return le hachage de Zobrist de l'état de la partie
+     */
+    public long getStateHash() {
+        return stateHash;
+    }
+
+    /**
+     * @return le hachage des seuls blocs destructibles de l'arène
+     */
+    long getBlockHash() {
+        return blockHash;
+    }
+
+    boolean[][] getDestructibleBlocks() {
+        return destructibleBlocks;
+    }
+
+    List<Bomb> getBombs() {
+        return bombs;
+    }
+
+    List<PowerUp> getPowerUps() {
+        return powerUps;
+    }
+
+    /**
+     * @return le premier tick où le replay en cours de lecture a divergé de la partie enregistrée, ou -1
+     */
+    int getReplayDesyncTick() {
+        return replayDesyncTick;
+    }
+
+    /**
+     * @return true si la partie est terminée
+     */
+    public boolean isGameEnded() {
+        return gameEnded;
+    }
+
+    /**
+     * @return les mesures de performance de la partie
+     */
+    public FrameStats getFrameStats() {
+        return frameStats;
+    }
+
+    /**
+     * @return les joueurs de la partie
+     */
+    public PlayerRegistry getPlayers() {
+        return players;
+    }
+
+    /**
+     * @return l'IA des bots de la partie
+     */
+    BotAI getBotAI() {
+        return botAI;
+    }
+
     public void setBotMoveDelay(int delayMs) {
         if (botAI != null) {
             botAI.setBotMoveDelay(delayMs);
@@ -151,37 +520,59 @@ public class BombermanGame implements Initializable {
         }
     }
 
+    /**
+     * Charge une image des ressources du jeu (chargement tracé dans JFR).
+     * @param path le chemin de la ressource
+     * @return l'image
+     */
+    private Image loadImage(String path) {
+        GameEvents.AssetLoad event = new GameEvents.AssetLoad();
+        event.begin();
+        Image image = null;
+        try {
+            image = new Image(getClass().getResourceAsStream(path));
+            return image;
+        } finally {
+            if (event.shouldCommit()) {
+                event.path = path;
+                event.kind = "image";
+                event.success = image != null && !image.isError();
+                event.commit();
+            }
+        }
+    }
+
     private void loadImages() {
         try {
             if (alternativeStyle) {
                 // Charger les images des éléments du jeu
-                wallImage = new Image(getClass().getResourceAsStream("/images/wall_alt.png"));
-                destructibleBlockImage = new Image(getClass().getResourceAsStream("/images/destructible_block_alt.png"));
-                bombImage = new Image(getClass().getResourceAsStream("/images/bomb.png"));
-                explosionImage = new Image(getClass().getResourceAsStream("/images/explosion.png"));
+                wallImage = loadImage("/images/wall_alt.png");
+                destructibleBlockImage = loadImage("/images/destructible_block_alt.png");
+                bombImage = loadImage("/images/bomb.png");
+                explosionImage = loadImage("/images/explosion.png");
 
                 // Charger les spritesheets individuelles pour chaque joueur
                 Image[] playerSpritesheets = new Image[4];
-                playerSpritesheets[0] = new Image(getClass().getResourceAsStream("/images/players_spritesheets/player1_spritesheet_alt.png"));
-                playerSpritesheets[1] = new Image(getClass().getResourceAsStream("/images/players_spritesheets/player2_spritesheet_alt.png"));
-                playerSpritesheets[2] = new Image(getClass().getResourceAsStream("/images/players_spritesheets/player3_spritesheet_alt.png"));
-                playerSpritesheets[3] = new Image(getClass().getResourceAsStream("/images/players_spritesheets/player4_spritesheet_alt.png"));
+                playerSpritesheets[0] = loadImage("/images/players_spritesheets/player1_spritesheet_alt.png");
+                playerSpritesheets[1] = loadImage("/images/players_spritesheets/player2_spritesheet_alt.png");
+                playerSpritesheets[2] = loadImage("/images/players_spritesheets/player3_spritesheet_alt.png");
+                playerSpritesheets[3] = loadImage("/images/players_spritesheets/player4_spritesheet_alt.png");
 
                 spriteManager = new SpriteManager(playerSpritesheets);
 
             } else {
                 // Charger les images des éléments du jeu
-                wallImage = new Image(getClass().getResourceAsStream("/images/wall.jpg"));
-                destructibleBlockImage = new Image(getClass().getResourceAsStream("/images/destructible_block.jpg"));
-                bombImage = new Image(getClass().getResourceAsStream("/images/bomb.png"));
-                explosionImage = new Image(getClass().getResourceAsStream("/images/explosion.png"));
+                wallImage = loadImage("/images/wall.jpg");
+                destructibleBlockImage = loadImage("/images/destructible_block.jpg");
+                bombImage = loadImage("/images/bomb.png");
+                explosionImage = loadImage("/images/explosion.png");
 
                 // Charger les spritesheets individuelles pour chaque joueur
                 Image[] playerSpritesheets = new Image[4];
-                playerSpritesheets[0] = new Image(getClass().getResourceAsStream("/images/players_spritesheets/player1_spritesheet.png"));
-                playerSpritesheets[1] = new Image(getClass().getResourceAsStream("/images/players_spritesheets/player2_spritesheet.png"));
-                playerSpritesheets[2] = new Image(getClass().getResourceAsStream("/images/players_spritesheets/player3_spritesheet.png"));
-                playerSpritesheets[3] = new Image(getClass().getResourceAsStream("/images/players_spritesheets/player4_spritesheet.png"));
+                playerSpritesheets[0] = loadImage("/images/players_spritesheets/player1_spritesheet.png");
+                playerSpritesheets[1] = loadImage("/images/players_spritesheets/player2_spritesheet.png");
+                playerSpritesheets[2] = loadImage("/images/players_spritesheets/player3_spritesheet.png");
+                playerSpritesheets[3] = loadImage("/images/players_spritesheets/player4_spritesheet.png");
 
                 spriteManager = new SpriteManager(playerSpritesheets);
             }
@@ -202,14 +593,22 @@ public class BombermanGame implements Initializable {
 
         // Charger les power-ups
         try {
-            powerUpImages[PowerUp.Type.BOMB_UP.ordinal()] = new Image(getClass().getResourceAsStream("/images/powerup_bomb.png"));
-            powerUpImages[PowerUp.Type.FIRE_UP.ordinal()] = new Image(getClass().getResourceAsStream("/images/powerup_fire.png"));
-            powerUpImages[PowerUp.Type.KICK_BOMB.ordinal()] = new Image(getClass().getResourceAsStream("/images/powerup_kick.png"));
-            powerUpImages[PowerUp.Type.INVINCIBLE.ordinal()] = new Image(getClass().getResourceAsStream("/images/powerup_invincible.png"));
+            powerUpImages[PowerUp.Type.BOMB_UP.ordinal()] = loadImage("/images/powerup_bomb.png");
+            powerUpImages[PowerUp.Type.FIRE_UP.ordinal()] = loadImage("/images/powerup_fire.png");
+            powerUpImages[PowerUp.Type.KICK_BOMB.ordinal()] = loadImage("/images/powerup_kick.png");
+            powerUpImages[PowerUp.Type.INVINCIBLE.ordinal()] = loadImage("/images/powerup_invincible.png");
         } catch (Exception e) {
             System.err.println("Erreur lors du chargement des images de power-ups: " + e.getMessage());
             createPlaceholderPowerUpImages();
         }
+
+        // Déclarer les sprites des vues réutilisables (les anciennes vues sont oubliées)
+        viewPool.clear();
+        viewPool.register(bombImage, CELL_SIZE - 8);
+        viewPool.register(explosionImage, CELL_SIZE);
+        for (Image powerUpImage : powerUpImages) {
+            viewPool.register(powerUpImage, 30);
+        }
     }
 
     private void createPlaceholderImages() {
@@ -244,227 +643,348 @@ public class BombermanGame implements Initializable {
     }
 
     private void initializeGame() {
-        gameGrid.getChildren().clear();
-        walls = new boolean[GRID_SIZE][GRID_SIZE];
-        destructibleBlocks = new boolean[GRID_SIZE][GRID_SIZE];
+        // Une partie abandonnée garde son replay, jusqu'au dernier tick joué
+        stopRecording();
+        replay = null;
+        replayCursor = null;
+
+        seed = fixedSeed != null ? fixedSeed : ThreadLocalRandom.current().nextLong();
+        SplittableRandom random = new SplittableRandom(seed);
+        updateSeedLabel();
+
+        // Arrêter les effets de la partie précédente et rendre ses vues avant de vider l'arène
+        releaseViews();
+        walls = new boolean[gridSize][gridSize];
+        destructibleBlocks = new boolean[gridSize][gridSize];
         gameEnded = false;
 
         // Vider les listes de bombes et de power-ups
         bombs.clear();
         powerUps.clear();
-
-        // Nettoyer les anciens animateurs
-        for (Player player : players) {
-            if (player != null && player.animator != null) {
-                player.animator.dispose();
+        Arrays.fill(pendingBombs, false);
+
+        // Remettre à zéro les compteurs de la partie
+        matchTicks = 0;
+        matchKills = 0;
+        matchBombsPlaced = 0;
+        matchBlocksDestroyed = 0;
+        Arrays.fill(matchPowerUps, 0);
+
+        // Positions de départ générées pour l'arène, avec leur zone dégagée (3x3)
+        int count = Math.min(playerCount, PlayerRegistry.maxPlayers(gridSize));
+        int[][] spawns = PlayerRegistry.generateSpawnPoints(gridSize, count);
+        spawnArea = new boolean[gridSize][gridSize];
+        for (int[] spawn : spawns) {
+            for (int x = spawn[0] - 1; x <= spawn[0] + 1; x++) {
+                for (int y = spawn[1] - 1; y <= spawn[1] + 1; y++) {
+                    spawnArea[x][y] = true;
+                }
             }
         }
 
-        players[0] = new Player(1, 1, 0, "Joueur 1");
-        players[0].isBot = false;
-        players[1] = new Player(GRID_SIZE - 2, 1, 1,"Bot 2");
-        players[1].isBot = soloMode;
-        players[2] = new Player(1, GRID_SIZE - 2, 2,"Bot 3");
-        players[2].isBot = soloMode;
-        players[3] = new Player(GRID_SIZE - 2, GRID_SIZE - 2, 3, "Bot 4");
-        players[3].isBot = soloMode;
+        // Le joueur 1 est local (sauf entre bots seulement) ; en solo les autres sont des bots,
+        // en multijoueur seuls les participants sans touches le sont
+        String[] names = new String[count];
+        boolean[] bots = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            bots[i] = botsOnly || (i > 0 && (soloMode || i >= PLAYER_KEYS.length));
+            names[i] = i == 0 && !bots[i] ? "Joueur 1" : "Bot " + (i + 1);
+        }
+        createPlayers(spawns, names, bots);
 
         // Créer le terrain
-        for (int x = 0; x < GRID_SIZE; x++) {
-            for (int y = 0; y < GRID_SIZE; y++) {
-                StackPane cell = new StackPane();
-                cell.getStyleClass().add("game-cell");
-
+        for (int x = 0; x < gridSize; x++) {
+            for (int y = 0; y < gridSize; y++) {
                 // Murs du périmètre et murs fixes
-                if (x == 0 || x == GRID_SIZE - 1 || y == 0 || y == GRID_SIZE - 1 ||
-                        (x % 2 == 0 && y % 2 == 0)) {
+                if (isFixedWall(x, y)) {
                     walls[x][y] = true;
-                    ImageView wallView = new ImageView(wallImage);
-                    wallView.setFitWidth(CELL_SIZE);
-                    wallView.setFitHeight(CELL_SIZE);
-                    wallView.setPreserveRatio(true);
-                    cell.getChildren().add(wallView);
                 }
                 // Blocs destructibles aléatoires (éviter les zones de spawn)
-                else if (!isSpawnArea(x, y) && Math.random() < 0.5) {
+                else if (!isSpawnArea(x, y) && random.nextDouble() < 0.5) {
                     destructibleBlocks[x][y] = true;
-                    ImageView blockView = new ImageView(destructibleBlockImage);
-                    blockView.setFitWidth(CELL_SIZE);
-                    blockView.setFitHeight(CELL_SIZE);
-                    blockView.setPreserveRatio(true);
-                    cell.getChildren().add(blockView);
                 }
-
-                gameGrid.add(cell, x, y);
             }
         }
 
-        // Créer les joueurs visuellement avec les sprites animés
-        for (int i = 0; i < players.length; i++) {
-            Player player = players[i];
+        rehash();
 
-            // Créer l'ImageView pour le joueur
-            player.visual = new ImageView();
-            player.visual.setFitWidth(CELL_SIZE - 4);
-            player.visual.setFitHeight(CELL_SIZE - 4);
-            player.visual.setPreserveRatio(true);
+        // Afficher l'arène (seules les cases visibles sont créées) et les joueurs
+        rebuildViews();
+    }
 
-            // Créer l'animateur pour ce joueur
-            player.animator = new PlayerAnimator(player.visual, spriteManager, player.playerIndex);
-            player.animator.idle(); // Commencer en idle
+    /**
+     * Crée les joueurs de la partie à leurs positions de départ (les anciens animateurs sont libérés).
+     * @param spawns les positions de départ {x, y}, une par joueur
+     * @param names les noms des joueurs
+     * @param bots pour chaque joueur, true si c'est un bot
+     */
+    private void createPlayers(int[][] spawns, String[] names, boolean[] bots) {
+        for (Player player : players.asList()) {
+            if (player.animator != null) {
+                player.animator.dispose();
+            }
+        }
 
-            StackPane playerCell = (StackPane) getNodeFromGridPane(player.x, player.y);
-            playerCell.getChildren().add(player.visual);
-            lastMoveTime.put(player, 0L);
+        players = new PlayerRegistry(gridSize);
+        for (int i = 0; i < names.length; i++) {
+            Player player = new Player(spawns[i][0], spawns[i][1], i, names[i]);
+            player.isBot = bots[i];
+            players.add(player);
+
+            if (presenting()) {
+                // Créer l'ImageView et l'animateur du joueur avec les sprites animés
+                player.visual = new ImageView();
+                player.visual.setFitWidth(CELL_SIZE - 4);
+                player.visual.setFitHeight(CELL_SIZE - 4);
+                player.visual.setPreserveRatio(true);
+                player.animator = new PlayerAnimator(player.visual, spriteManager, player.playerIndex % PLAYER_SKINS);
+                player.animator.idle(); // Commencer en idle
+            }
         }
+        tickActions = new int[names.length];
+    }
+
+    private boolean isFixedWall(int x, int y) {
+        return x == 0 || x == gridSize - 1 || y == 0 || y == gridSize - 1 || (x % 2 == 0 && y % 2 == 0);
     }
 
     private boolean isSpawnArea(int x, int y) {
-        // Zone de spawn pour chaque joueur (3x3 autour de chaque coin)
-        return (x <= 2 && y <= 2) || // Joueur 1
-                (x >= GRID_SIZE - 3 && y <= 2) || // Joueur 2
-                (x <= 2 && y >= GRID_SIZE - 3) || // Joueur 3
-                (x >= GRID_SIZE - 3 && y >= GRID_SIZE - 3); // Joueur 4
+        // Zone dégagée (3x3) autour de la position de départ de chaque joueur
+        return spawnArea[x][y];
     }
 
     private void setupGameLoop() {
-        gameLoop = new Timeline(new KeyFrame(Duration.millis(16), e -> gameUpdate()));
+        tickBacklog = 0;
+        gameLoop = new Timeline(new KeyFrame(Duration.millis(TICK_MS), e -> frame()));
         gameLoop.setCycleCount(Timeline.INDEFINITE);
         gameLoop.play();
     }
 
-    private void gameUpdate() {
-        if (!gameEnded) {
+    /**
+     * Image de la boucle de jeu : autant de ticks que la vitesse en demande, un tick toutes les
+     * quatre images à 0,25x et cent ticks par image à 100x. Comme toutes les durées de jeu sont
+     * comptées en ticks (déplacements, mèches, explosions en chaîne, invincibilité, bots),
+     * la vitesse s'applique à toutes de la même façon et la partie reste identique.
+     */
+    void frame() {
+        tickBacklog += timeScale;
+        while (tickBacklog >= 1) {
+            tickBacklog--;
+            gameUpdate();
+        }
+    }
+
+    /**
+     * Tick de la boucle de jeu : un tick de la partie (entrées, bots, minuteries, fin de partie),
+     * ou un tick du replay en cours de lecture.
+     */
+    void gameUpdate() {
+        if (replay != null) {
+            updateReplay();
+            return;
+        }
+        tick(null);
+    }
+
+    /**
+     * Tick de la partie avec les actions de joueurs distants (serveur, réseau) à la place du clavier :
+     * chaque joueur qui n'est pas un bot joue le mot d'action de sa position ({@link PlayerAction}),
+     * avec les mêmes limites qu'au clavier (délai entre deux déplacements).
+     * @param actions le mot d'action de chaque joueur
+     */
+    void gameUpdate(int[] actions) {
+        tick(actions);
+    }
+
+    /**
+     * Revient en arrière et re-simule des ticks sans affichage (jeu en réseau avec retour en arrière,
+     * voir {@link RollbackSession}) : l'affichage est libéré avant et reconstruit sur l'état final.
+     * @param resimulation la restauration d'un état passé et les ticks à rejouer
+     */
+    void resimulate(Runnable resimulation) {
+        releaseViews();
+        fastForward = true;
+        try {
+            resimulation.run();
+        } finally {
+            fastForward = false;
+        }
+        rebuildViews();
+    }
+
+    private void tick(int[] actions) {
+        if (gameEnded) return;
+
+        GameEvents.Tick event = new GameEvents.Tick();
+        event.begin();
+        long tickStart = System.nanoTime();
+        if (matchTicks == 0) {
+            startRecording();
+            // Compté au premier tick : les réglages successifs relancent la partie sans la jouer
+            if (!fastForward) matchesStarted.increment();
+        }
+        matchTicks++;
+        ticks.increment();
+
+        long start = frameStats.start();
+        if (actions == null) {
             handleInput();
-            checkWinCondition();
+        } else {
+            applyRemoteActions(actions);
+        }
+        frameStats.stop(FrameStats.Section.INPUT, start);
+
+        start = frameStats.start();
+        updateBots();
+        frameStats.stop(FrameStats.Section.BOTS, start);
+
+        advanceTimers();
+        recordTick();
+        checkWinCondition();
+        frameStats.endTick(System.nanoTime() - tickStart);
+
+        if (event.shouldCommit()) {
+            event.tick = matchTicks;
+            event.playersAlive = players.aliveCount();
+            event.bombs = bombs.size();
+            event.powerUps = powerUps.size();
+            event.commit();
         }
     }
 
     private void handleInput() {
-        long currentTime = System.currentTimeMillis();
+        // Joueurs locaux (ZQSD + A, Flèches + Espace, YGHJ + U, OKLM + I) : la bombe, puis le déplacement
+        for (int i = 0; i < PLAYER_KEYS.length && i < players.size(); i++) {
+            Player player = players.get(i);
+            if (player.isBot || !player.alive) {
+                continue;
+            }
+            if (pendingBombs[i]) {
+                pendingBombs[i] = false;
+                placeBomb(player);
+            }
+            if (matchTicks - player.lastMoveTick <= MOVE_DELAY_TICKS) {
+                continue;
+            }
 
-        // Joueur 1 (ZQSD + A)
-        if (players[0].alive && currentTime - lastMoveTime.get(players[0]) > MOVEMENT_DELAY) {
             SpriteManager.Direction direction = SpriteManager.Direction.IDLE;
             boolean moved = false;
 
-            if (pressedKeys.contains(KeyCode.Z)) {
-                direction = SpriteManager.Direction.UP;
-                moved = movePlayer(players[0], 0, -1);
-            }
-            else if (pressedKeys.contains(KeyCode.S)) {
-                direction = SpriteManager.Direction.DOWN;
-                moved = movePlayer(players[0], 0, 1);
-            }
-            else if (pressedKeys.contains(KeyCode.Q)) {
-                direction = SpriteManager.Direction.LEFT;
-                moved = movePlayer(players[0], -1, 0);
-            }
-            else if (pressedKeys.contains(KeyCode.D)) {
-                direction = SpriteManager.Direction.RIGHT;
-                moved = movePlayer(players[0], 1, 0);
+            for (int k = 0; k < KEY_MOVES.length; k++) {
+                if (pressedKeys.contains(PLAYER_KEYS[i][k])) {
+                    direction = KEY_DIRECTIONS[k];
+                    moved = movePlayer(player, KEY_MOVES[k][0], KEY_MOVES[k][1]);
+                    break;
+                }
             }
 
+            if (!presenting()) continue;
             if (moved) {
-                lastMoveTime.put(players[0], currentTime);
-                players[0].animator.startDirectionAnimation(direction);
+                player.animator.startDirectionAnimation(direction);
             } else if (direction == SpriteManager.Direction.IDLE) {
-                players[0].animator.idle();
+                player.animator.idle();
             }
         }
+    }
 
-        if (!soloMode) {
-            // Joueur 2 (Flèches + Espace)
-            if (players[1].alive && currentTime - lastMoveTime.get(players[1]) > MOVEMENT_DELAY) {
-                SpriteManager.Direction direction = SpriteManager.Direction.IDLE;
-                boolean moved = false;
-
-                if (pressedKeys.contains(KeyCode.UP)) {
-                    direction = SpriteManager.Direction.UP;
-                    moved = movePlayer(players[1], 0, -1);
-                } else if (pressedKeys.contains(KeyCode.DOWN)) {
-                    direction = SpriteManager.Direction.DOWN;
-                    moved = movePlayer(players[1], 0, 1);
-                } else if (pressedKeys.contains(KeyCode.LEFT)) {
-                    direction = SpriteManager.Direction.LEFT;
-                    moved = movePlayer(players[1], -1, 0);
-                } else if (pressedKeys.contains(KeyCode.RIGHT)) {
-                    direction = SpriteManager.Direction.RIGHT;
-                    moved = movePlayer(players[1], 1, 0);
-                }
-
-                if (moved) {
-                    lastMoveTime.put(players[1], currentTime);
-                    players[1].animator.startDirectionAnimation(direction);
-                } else if (direction == SpriteManager.Direction.IDLE) {
-                    players[1].animator.idle();
-                }
+    private void updateBots() {
+        // Bots (solo, ou participants au-delà des joueurs locaux)
+        for (int i = 0; i < players.size(); i++) {
+            Player bot = players.get(i);
+            if (bot.isBot && bot.alive) {
+                botAI.updateBot(bot, players, bombs, walls, destructibleBlocks);
             }
+        }
+    }
 
-            // Joueur 3 (YGHJ + U)
-            if (players[2].alive && currentTime - lastMoveTime.get(players[2]) > MOVEMENT_DELAY) {
-                SpriteManager.Direction direction = SpriteManager.Direction.IDLE;
-                boolean moved = false;
-
-                if (pressedKeys.contains(KeyCode.Y)) {
-                    direction = SpriteManager.Direction.UP;
-                    moved = movePlayer(players[2], 0, -1);
-                } else if (pressedKeys.contains(KeyCode.H)) {
-                    direction = SpriteManager.Direction.DOWN;
-                    moved = movePlayer(players[2], 0, 1);
-                } else if (pressedKeys.contains(KeyCode.G)) {
-                    direction = SpriteManager.Direction.LEFT;
-                    moved = movePlayer(players[2], -1, 0);
-                } else if (pressedKeys.contains(KeyCode.J)) {
-                    direction = SpriteManager.Direction.RIGHT;
-                    moved = movePlayer(players[2], 1, 0);
-                }
-
-                if (moved) {
-                    lastMoveTime.put(players[2], currentTime);
-                    players[2].animator.startDirectionAnimation(direction);
-                } else if (direction == SpriteManager.Direction.IDLE) {
-                    players[2].animator.idle();
-                }
+    /**
+     * Fait avancer les minuteries de la partie d'un tick : glissement des bombes poussées,
+     * mèches (les bombes arrivées à zéro explosent dans l'ordre de pose) et invincibilité.
+     */
+    private void advanceTimers() {
+        // La clé de chaque bombe est retirée du hachage avant son glissement et remise après sa mèche
+        for (int i = 0; i < bombs.size(); i++) {
+            Bomb bomb = bombs.get(i);
+            stateHash ^= StateHash.bomb(bomb);
+            if (bomb.slideSteps > 0 && --bomb.slideWait == 0) {
+                // Case suivante du glissement, calculée lors de la poussée
+                bomb.x += bomb.slideDx;
+                bomb.y += bomb.slideDy;
+                bomb.motion.moveTo(bomb.x, bomb.y, System.nanoTime(), scaledNanos(BOMB_SLIDE_DELAY));
+                bomb.slideSteps--;
+                bomb.slideWait = BOMB_SLIDE_TICKS;
             }
+        }
 
-            // Joueur 4 (OKLM + I)
-            if (players[3].alive && currentTime - lastMoveTime.get(players[3]) > MOVEMENT_DELAY) {
-                SpriteManager.Direction direction = SpriteManager.Direction.IDLE;
-                boolean moved = false;
-
-                if (pressedKeys.contains(KeyCode.O)) {
-                    direction = SpriteManager.Direction.UP;
-                    moved = movePlayer(players[3], 0, -1);
-                } else if (pressedKeys.contains(KeyCode.L)) {
-                    direction = SpriteManager.Direction.DOWN;
-                    moved = movePlayer(players[3], 0, 1);
-                } else if (pressedKeys.contains(KeyCode.K)) {
-                    direction = SpriteManager.Direction.LEFT;
-                    moved = movePlayer(players[3], -1, 0);
-                } else if (pressedKeys.contains(KeyCode.M)) {
-                    direction = SpriteManager.Direction.RIGHT;
-                    moved = movePlayer(players[3], 1, 0);
-                }
+        dueBombs.clear();
+        for (int i = 0; i < bombs.size(); i++) {
+            Bomb bomb = bombs.get(i);
+            bomb.fuse--;
+            stateHash ^= StateHash.bomb(bomb);
+            if (bomb.fuse <= 0) {
+                dueBombs.add(bomb);
+            }
+        }
+        for (int i = 0; i < dueBombs.size(); i++) {
+            explodeBomb(dueBombs.get(i));
+        }
 
-                if (moved) {
-                    lastMoveTime.put(players[3], currentTime);
-                    players[3].animator.startDirectionAnimation(direction);
-                } else if (direction == SpriteManager.Direction.IDLE) {
-                    players[3].animator.idle();
+        for (int i = 0; i < players.size(); i++) {
+            Player player = players.get(i);
+            if (player.invincibleTicks > 0) {
+                stateHash ^= StateHash.player(player);
+                if (--player.invincibleTicks == 0) {
+                    player.isInvincible = false;
                 }
+                stateHash ^= StateHash.player(player);
             }
         }
+    }
 
-        if (soloMode) {
-            for (int i = 1; i < players.length; i++) {
-                if (players[i].isBot && players[i].alive) {
-                    botAI.updateBot(players[i], Arrays.asList(players), bombs, walls, destructibleBlocks);
-                }
+    private void applyRemoteActions(int[] actions) {
+        for (int i = 0; i < players.size() && i < actions.length; i++) {
+            Player player = players.get(i);
+            int word = actions[i];
+            if (player.isBot || !player.alive || word == PlayerAction.NONE) continue;
+            if (PlayerAction.bomb(word)) {
+                placeBomb(player);
             }
+            int dx = PlayerAction.dx(word);
+            int dy = PlayerAction.dy(word);
+            if ((dx != 0 || dy != 0) && matchTicks - player.lastMoveTick > MOVE_DELAY_TICKS) {
+                movePlayer(player, dx, dy);
+            }
+        }
+    }
+
+    /**
+     * Note une action effective d'un joueur pendant le tick en cours, pour le replay.
+     */
+    private void noteAction(Player player, int action) {
+        if (recorder != null && player.playerIndex < tickActions.length) {
+            tickActions[player.playerIndex] |= action;
         }
     }
 
+    /**
+     * Applique les actions enregistrées d'un tick, joueur par joueur dans l'ordre de la partie.
+     * @param words le mot d'action de chaque joueur
+     */
+    private void applyActions(int[] words) {
+        for (int i = 0; i < players.size(); i++) {
+            int word = words[i];
+            if (word == PlayerAction.NONE) continue;
+            Player player = players.get(i);
+            if (PlayerAction.bomb(word)) {
+                placeBomb(player);
+            }
+            int dx = PlayerAction.dx(word);
+            int dy = PlayerAction.dy(word);
+            if ((dx != 0 || dy != 0) && movePlayer(player, dx, dy) && presenting() && !player.isBot) {
+                player.animator.startDirectionAnimation(KEY_DIRECTIONS[Integer.numberOfTrailingZeros(word & PlayerAction.MOVE_MASK)]);
+            }
+        }
+    }
 
     /**
      * Déplace un joueur selon le déplacement demandé (dx, dy).
@@ -482,15 +1002,17 @@ public class BombermanGame implements Initializable {
 
         // Vérifier si le joueur peut se déplacer directement à cette position
         if (canMoveTo(newX, newY)) {
-            // Retirer le joueur de l'ancienne position
-            StackPane oldCell = (StackPane) getNodeFromGridPane(player.x, player.y);
-            oldCell.getChildren().remove(player.visual);
-
-            // Déplacer vers la nouvelle position
+            // Déplacer vers la nouvelle position (le rendu glisse d'une case à l'autre)
+            int oldX = player.x;
+            int oldY = player.y;
+            stateHash ^= StateHash.player(player);
             player.x = newX;
             player.y = newY;
-            StackPane newCell = (StackPane) getNodeFromGridPane(player.x, player.y);
-            newCell.getChildren().add(player.visual);
+            players.moved(player, oldX, oldY);
+            player.motion.moveTo(newX, newY, System.nanoTime(), scaledNanos(MOVEMENT_DELAY));
+            player.lastMoveTick = matchTicks;
+            stateHash ^= StateHash.player(player);
+            noteAction(player, PlayerAction.move(dx, dy));
 
             // Vérifier si un power-up est disponible à cette position
             checkForPowerUp(player, newX, newY);
@@ -505,13 +1027,16 @@ public class BombermanGame implements Initializable {
                     // Essayer de pousser la bombe dans la même direction
                     if (tryPushBomb(bomb, dx, dy)) {
                         // Si la bombe a été poussée, permettre au joueur de se déplacer
-                        StackPane oldCell = (StackPane) getNodeFromGridPane(player.x, player.y);
-                        oldCell.getChildren().remove(player.visual);
-
+                        int oldX = player.x;
+                        int oldY = player.y;
+                        stateHash ^= StateHash.player(player);
                         player.x = newX;
                         player.y = newY;
-                        StackPane newCell = (StackPane) getNodeFromGridPane(player.x, player.y);
-                        newCell.getChildren().add(player.visual);
+                        players.moved(player, oldX, oldY);
+                        player.motion.moveTo(newX, newY, System.nanoTime(), scaledNanos(MOVEMENT_DELAY));
+                        player.lastMoveTick = matchTicks;
+                        stateHash ^= StateHash.player(player);
+                        noteAction(player, PlayerAction.move(dx, dy));
 
                         // Vérifier si un power-up est disponible à cette position
                         checkForPowerUp(player, newX, newY);
@@ -538,13 +1063,15 @@ public class BombermanGame implements Initializable {
             PowerUp powerUp = iterator.next();
             if (powerUp.getX() == x && powerUp.getY() == y && powerUp.isActive()) {
                 // Collecter le power-up
-                StackPane cell = (StackPane) getNodeFromGridPane(x, y);
-                cell.getChildren().remove(powerUp.getVisual());
+                hidePowerUp(powerUp);
                 // Jouer l'effet sonore de collecte de power-up
-                audioManager.playEffect("pickup.mp3");
+                playEffect("pickup.mp3");
 
                 // Appliquer l'effet
+                stateHash ^= StateHash.powerUp(x, y, powerUp.getType()) ^ StateHash.player(player);
                 player.applyPowerUp(powerUp.getType());
+                stateHash ^= StateHash.player(player);
+                matchPowerUps[powerUp.getType().ordinal()]++;
 
                 // Retirer de la liste
                 powerUp.collect();
@@ -560,8 +1087,8 @@ public class BombermanGame implements Initializable {
      * @param y ligne
      * @return true si la case est libre, false sinon
      */
-    private boolean canMoveTo(int x, int y) {
-        if (x < 0 || x >= GRID_SIZE || y < 0 || y >= GRID_SIZE) return false;
+    boolean canMoveTo(int x, int y) {
+        if (x < 0 || x >= gridSize || y < 0 || y >= gridSize) return false;
         if (walls[x][y] || destructibleBlocks[x][y]) return false;
 
         // Vérifier s'il y a une bombe
@@ -586,13 +1113,8 @@ public class BombermanGame implements Initializable {
         final int startY = bomb.y;
 
         // Récupérer le joueur qui pousse la bombe
-        Player pusher = null;
-        for (Player p : players) {
-            if (p.alive && p.x == startX - dx && p.y == startY - dy) {
-                pusher = p;
-                break;
-            }
-        }
+        List<Player> pushers = players.at(startX - dx, startY - dy);
+        Player pusher = pushers.isEmpty() ? null : pushers.get(0);
 
         // Calculer toutes les positions intermédiaires
         List<int[]> path = new ArrayList<>();
@@ -602,8 +1124,8 @@ public class BombermanGame implements Initializable {
         while (canMoveTo(nextX, nextY)) {
             // Vérifier si un autre joueur (différent du pusher) se trouve à cette position
             boolean playerInPath = false;
-            for (Player player : players) {
-                if (player != pusher && player.alive && player.x == nextX && player.y == nextY) {
+            for (Player player : players.at(nextX, nextY)) {
+                if (player != pusher) {
                     playerInPath = true;
                     break;
                 }
@@ -624,81 +1146,28 @@ public class BombermanGame implements Initializable {
             return false;
         }
 
-        // Retirer la bombe de sa position actuelle
-        StackPane oldCell = (StackPane) getNodeFromGridPane(bomb.x, bomb.y);
-        oldCell.getChildren().remove(bomb.visual);
-
         // Premier mouvement immédiat : déplacer directement vers la première position
         int firstTargetX = path.get(0)[0];
         int firstTargetY = path.get(0)[1];
 
-        // Mettre à jour la position logique
+        // Mettre à jour la position logique (le rendu glisse vers la nouvelle case)
+        stateHash ^= StateHash.bomb(bomb);
         bomb.x = firstTargetX;
         bomb.y = firstTargetY;
-
-        // Ajouter à la nouvelle cellule
-        StackPane firstCell = (StackPane) getNodeFromGridPane(firstTargetX, firstTargetY);
-        firstCell.getChildren().add(bomb.visual);
-        bomb.visual.toFront();
-
-        // S'il n'y a qu'une seule position, on a terminé
-        if (path.size() == 1) {
-            return true;
-        }
-
-        // Créer une séquence de pauses pour les mouvements restants
-        SequentialTransition sequentialTransition = new SequentialTransition();
-
-        for (int i = 1; i < path.size(); i++) {
-            final int index = i;
-            final int targetX = path.get(i)[0];
-            final int targetY = path.get(i)[1];
-
-            // Créer une pause de 0.25 seconde
-            PauseTransition pause = new PauseTransition(Duration.seconds(0.10));
-
-            // Action après la pause
-            pause.setOnFinished(e -> {
-                // Vérifier si la bombe a explosé pendant le déplacement
-                if (!bombs.contains(bomb)) {
-                    sequentialTransition.stop();
-                    if (bomb.visual != null) {
-                        bomb.visual.setVisible(false);
-                    }
-                    return;
-                }
-
-                // Retirer la bombe de la cellule précédente
-                StackPane prevCell = (StackPane) getNodeFromGridPane(path.get(index-1)[0], path.get(index-1)[1]);
-                prevCell.getChildren().remove(bomb.visual);
-
-                // Mettre à jour la position logique
-                bomb.x = targetX;
-                bomb.y = targetY;
-
-                // Ajouter à la nouvelle cellule
-                StackPane newCell = (StackPane) getNodeFromGridPane(targetX, targetY);
-                newCell.getChildren().add(bomb.visual);
-
-                // S'assurer que la bombe reste au premier plan
-                bomb.visual.toFront();
-            });
-
-            // Ajouter la pause à la séquence
-            sequentialTransition.getChildren().add(pause);
-        }
-
-        // Jouer la séquence complète si elle contient des transitions
-        if (!sequentialTransition.getChildren().isEmpty()) {
-            sequentialTransition.play();
-        }
-
+        bomb.motion.moveTo(firstTargetX, firstTargetY, System.nanoTime(), scaledNanos(BOMB_SLIDE_DELAY));
+
+        // Les cases restantes sont parcourues une à une par advanceTimers (arrêt si la bombe explose)
+        bomb.slideDx = dx;
+        bomb.slideDy = dy;
+        bomb.slideSteps = path.size() - 1;
+        bomb.slideWait = BOMB_SLIDE_TICKS;
+        stateHash ^= StateHash.bomb(bomb);
         return true;
     }
 
     /**
      * Place une bombe à la position du joueur si possible.
-     * Gère la limite de bombes, l'affichage et le timer d'explosion.
+     * Gère la limite de bombes et l'affichage ; la mèche est décomptée par {@link #advanceTimers()}.
      * @param player le joueur qui pose la bombe
      */
     void placeBomb(Player player) {
@@ -720,32 +1189,31 @@ public class BombermanGame implements Initializable {
 
         Bomb newBomb = new Bomb(player.x, player.y, player);
         bombs.add(newBomb);
+        stateHash ^= StateHash.bomb(newBomb);
+        matchBombsPlaced++;
+        bombsPlaced.increment();
+        noteAction(player, PlayerAction.BOMB);
+
+        showBomb(newBomb);
 
-        ImageView bombView = new ImageView(bombImage);
-        bombView.setFitWidth(CELL_SIZE - 8);
-        bombView.setFitHeight(CELL_SIZE - 8);
-        bombView.setPreserveRatio(true);
-        newBomb.visual = bombView;
+        // Jouer l'effet sonore de la bombe
+        playEffect("place_bomb.mp3");
+    }
 
-        StackPane cell = (StackPane) getNodeFromGridPane(player.x, player.y);
-        cell.getChildren().add(bombView);
+    private void showBomb(Bomb bomb) {
+        if (!presenting()) return;
+        ImageView bombView = viewPool.acquire(bombImage);
+        bomb.visual = bombView;
+        entities.add(bombView, bomb.motion);
 
         // Animation de pulsation de la bombe
-        ScaleTransition pulse = new ScaleTransition(Duration.millis(500), bombView);
-        pulse.setFromX(1.0);
-        pulse.setFromY(1.0);
-        pulse.setToX(1.2);
-        pulse.setToY(1.2);
-        pulse.setAutoReverse(true);
-        pulse.setCycleCount(6);
-        pulse.play();
-
-        // Exploser après 3 secondes
-        Timeline bombTimer = new Timeline(new KeyFrame(Duration.seconds(3), e -> explodeBomb(newBomb)));
-        bombTimer.play();
+        effects.pulse(bombView, scaledMillis(500), 1.0, 1.2, 6);
+    }
 
-        // Jouer l'effet sonore de la bombe
-        audioManager.playEffect("place_bomb.mp3");
+    private void playEffect(String name) {
+        if (presenting() && audioManager != null && timeScale <= MAX_AUDIBLE_TIME_SCALE) {
+            audioManager.playEffect(name);
+        }
     }
 
     /**
@@ -754,39 +1222,105 @@ public class BombermanGame implements Initializable {
      * @param bomb la bombe à faire exploser
      */
     private void explodeBomb(Bomb bomb) {
+        long start = frameStats.start();
+        resolveExplosion(bomb);
+        frameStats.stop(FrameStats.Section.EXPLOSIONS, start);
+    }
+
+    private void resolveExplosion(Bomb bomb) {
         // Vérifier si la bombe existe toujours et n'est pas déjà en train d'exploser
         if (bomb.exploding || !bombs.contains(bomb)) {
             return;
         }
 
+        GameEvents.Detonation event = new GameEvents.Detonation();
+        event.begin();
+
         // Marquer la bombe comme étant en cours d'explosion
         bomb.exploding = true;
 
         // Retirer la bombe de la liste
         bombs.remove(bomb);
+        stateHash ^= StateHash.bomb(bomb);
 
         // Jouer le son d'explosion
-        audioManager.playEffect("explosion.mp3");
-
-        // Retirer la bombe visuellement
-        StackPane bombCell = (StackPane) getNodeFromGridPane(bomb.x, bomb.y);
-        bombCell.getChildren().remove(bomb.visual);
+        playEffect("explosion.mp3");
+
+        // Retirer la bombe visuellement et rendre sa vue
+        if (bomb.visual != null) {
+            effects.stop(bomb.visual);
+            entities.remove(bomb.visual);
+            viewPool.release(bomb.visual);
+            bomb.visual = null;
+        }
 
-        // Liste des cellules touchées par l'explosion
-        List<int[]> explosionCells = new ArrayList<>();
-        explosionCells.add(new int[]{bomb.x, bomb.y});
+        // Cellules touchées par l'explosion, bombes et blocs atteints
+        List<Bomb> chained = new ArrayList<>();
+        List<int[]> blocksHit = new ArrayList<>();
+        List<int[]> explosionCells = blastCells(bomb, chained, blocksHit);
 
-        // Utiliser le rayon d'explosion du propriétaire de la bombe
-        int radius = bomb.owner.explosionRadius;
+        // Explosions en chaîne retardées de 200ms
+        for (Bomb bombToExplode : chained) {
+            stateHash ^= StateHash.bomb(bombToExplode);
+            bombToExplode.fuse = Math.min(bombToExplode.fuse, CHAIN_DELAY_TICKS);
+            stateHash ^= StateHash.bomb(bombToExplode);
+        }
 
-        // Explosion dans les 4 directions
-        int[][] directions = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}};
-        for (int[] dir : directions) {
-            for (int i = 1; i <= radius; i++) {
-                int x = bomb.x + dir[0] * i;
-                int y = bomb.y + dir[1] * i;
+        // Détruire les blocs destructibles
+        for (int[] block : blocksHit) {
+            destroyBlock(block[0], block[1]);
+        }
 
-                if (x < 0 || x >= GRID_SIZE || y < 0 || y >= GRID_SIZE || walls[x][y]) break;
+        // Afficher les explosions
+        if (presenting()) {
+            showExplosion(explosionCells);
+        }
+
+        // Vérifier si des joueurs sont touchés (seuls les joueurs des cases touchées sont examinés)
+        int playersHit = 0;
+        for (int[] cell : explosionCells) {
+            List<Player> hit = players.at(cell[0], cell[1]);
+            playersHit += hit.size();
+            for (int i = hit.size() - 1; i >= 0; i--) { // killPlayer retire le joueur de la case
+                killPlayer(hit.get(i));
+            }
+        }
+
+        if (event.shouldCommit()) {
+            event.x = bomb.x;
+            event.y = bomb.y;
+            event.radius = bomb.owner.explosionRadius;
+            event.chainSize = chained.size();
+            event.cellsAffected = explosionCells.size();
+            event.blocksDestroyed = blocksHit.size();
+            event.playersHit = playersHit;
+            event.commit();
+        }
+    }
+
+    /**
+     * Calcule les cases touchées par l'explosion d'une bombe, sans modifier la partie.
+     * Le souffle s'arrête sur les murs et sur le premier bloc destructible de chaque direction.
+     * @param bomb la bombe qui explose
+     * @param chained reçoit les bombes atteintes par le souffle (explosions en chaîne)
+     * @param blocksHit reçoit les blocs destructibles atteints {x, y}
+     * @return les cases touchées {x, y}, la case de la bombe en premier
+     */
+    List<int[]> blastCells(Bomb bomb, List<Bomb> chained, List<int[]> blocksHit) {
+        List<int[]> explosionCells = new ArrayList<>();
+        explosionCells.add(new int[]{bomb.x, bomb.y});
+
+        // Utiliser le rayon d'explosion du propriétaire de la bombe
+        int radius = bomb.owner.explosionRadius;
+
+        // Explosion dans les 4 directions
+        int[][] directions = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}};
+        for (int[] dir : directions) {
+            for (int i = 1; i <= radius; i++) {
+                int x = bomb.x + dir[0] * i;
+                int y = bomb.y + dir[1] * i;
+
+                if (x < 0 || x >= gridSize || y < 0 || y >= gridSize || walls[x][y]) break;
 
                 explosionCells.add(new int[]{x, y});
 
@@ -794,34 +1328,19 @@ public class BombermanGame implements Initializable {
                 for (int j = 0; j < bombs.size(); j++) {
                     Bomb otherBomb = bombs.get(j);
                     if (otherBomb.x == x && otherBomb.y == y && !otherBomb.exploding) {
-                        // Explosion en chaîne retardée de 200ms
-                        final Bomb bombToExplode = otherBomb;
-                        Timeline chainReaction = new Timeline(new KeyFrame(Duration.millis(200),
-                                e -> explodeBomb(bombToExplode)));
-                        chainReaction.play();
+                        chained.add(otherBomb);
                         break;
                     }
                 }
 
-                // Détruire les blocs destructibles
+                // Le souffle s'arrête sur le premier bloc destructible
                 if (destructibleBlocks[x][y]) {
-                    destroyBlock(x, y);
+                    blocksHit.add(new int[]{x, y});
                     break;
                 }
             }
         }
-
-        // Afficher les explosions
-        showExplosion(explosionCells);
-
-        // Vérifier si des joueurs sont touchés
-        for (int[] cell : explosionCells) {
-            for (Player player : players) {
-                if (player.x == cell[0] && player.y == cell[1]) {
-                    killPlayer(player);
-                }
-            }
-        }
+        return explosionCells;
     }
 
     /**
@@ -832,40 +1351,63 @@ public class BombermanGame implements Initializable {
     private void destroyBlock(int x, int y) {
         if (destructibleBlocks[x][y]) {
             destructibleBlocks[x][y] = false;
-            StackPane cell = (StackPane) getNodeFromGridPane(x, y);
+            blockHash ^= StateHash.block(x, y);
+            stateHash ^= StateHash.block(x, y);
+            matchBlocksDestroyed++;
 
-            // Trouver et retirer le bloc destructible
-            cell.getChildren().removeIf(node -> node instanceof ImageView &&
-                    ((ImageView) node).getImage() == destructibleBlockImage);
+            // Retirer le bloc destructible de l'affichage (s'il est visible)
+            if (presenting()) {
+                arena.refresh(x, y);
+            }
 
             // 40% de chance de générer un power-up
-            if (Math.random() < 0.4) {
-                createPowerUp(x, y, cell);
+            SplittableRandom random = cellRandom(x, y);
+            if (random.nextDouble() < 0.4) {
+                createPowerUp(x, y, random);
             }
         }
     }
 
+    /**
+     * Tirages d'une case de l'arène : ils ne dépendent que de la graine et de la case,
+     * pas de l'ordre des explosions ni de l'état d'un générateur partagé.
+     */
+    private SplittableRandom cellRandom(int x, int y) {
+        return new SplittableRandom(Long.rotateLeft(seed, 32) ^ ((long) x * MAX_ARENA_SIZE + y + 1) * 0xBF58476D1CE4E5B9L);
+    }
+
     /**
      * Crée un power-up visuel et logique à la position donnée.
      * @param x colonne
      * @param y ligne
-     * @param cell la cellule StackPane correspondante
+     * @param random les tirages de la case
      */
-    private void createPowerUp(int x, int y, StackPane cell) {
+    private void createPowerUp(int x, int y, SplittableRandom random) {
         // Choisir un type de power-up aléatoire
-        PowerUp.Type type = PowerUp.Type.values()[(int)(Math.random() * PowerUp.Type.values().length)];
+        PowerUp.Type type = PowerUp.Type.values()[random.nextInt(PowerUp.Type.values().length)];
         PowerUp powerUp = new PowerUp(x, y, type);
+        powerUps.add(powerUp);
+        stateHash ^= StateHash.powerUp(x, y, type);
+        showPowerUp(powerUp);
+    }
 
-        // Créer la représentation visuelle
-        ImageView powerUpView = new ImageView(powerUpImages[type.ordinal()]);
-        powerUpView.setFitWidth(30);
-        powerUpView.setFitHeight(30);
-        powerUpView.setPreserveRatio(true);
-
-        // Ajouter à la cellule et à la liste
+    private void showPowerUp(PowerUp powerUp) {
+        if (!presenting()) return;
+        // Créer la représentation visuelle et l'ajouter à l'arène
+        ImageView powerUpView = viewPool.acquire(powerUpImages[powerUp.getType().ordinal()]);
         powerUp.setVisual(powerUpView);
-        cell.getChildren().add(powerUpView);
-        powerUps.add(powerUp);
+        entities.addAt(powerUpView, powerUp.getX(), powerUp.getY());
+
+        // Animation de pulsation, arrêtée quand le power-up est ramassé
+        effects.pulse(powerUpView, 1000, 0.9, 1.1, Animation.INDEFINITE);
+    }
+
+    private void hidePowerUp(PowerUp powerUp) {
+        if (powerUp.getVisual() == null) return;
+        effects.stop(powerUp.getVisual());
+        entities.remove(powerUp.getVisual());
+        viewPool.release(powerUp.getVisual());
+        powerUp.setVisual(null);
     }
 
     /**
@@ -874,20 +1416,7 @@ public class BombermanGame implements Initializable {
      */
     private void showExplosion(List<int[]> cells) {
         for (int[] cell : cells) {
-            ImageView explosionView = new ImageView(explosionImage);
-            explosionView.setFitWidth(CELL_SIZE);
-            explosionView.setFitHeight(CELL_SIZE);
-            explosionView.setPreserveRatio(true);
-
-            StackPane cellPane = (StackPane) getNodeFromGridPane(cell[0], cell[1]);
-            cellPane.getChildren().add(explosionView);
-
-            // Animation d'explosion
-            FadeTransition fade = new FadeTransition(Duration.millis(500), explosionView);
-            fade.setFromValue(1.0);
-            fade.setToValue(0.0);
-            fade.setOnFinished(e -> cellPane.getChildren().remove(explosionView));
-            fade.play();
+            effects.showExplosion(entities, cell[0], cell[1], viewPool, explosionImage, scaledMillis(500));
         }
     }
 
@@ -903,26 +1432,23 @@ public class BombermanGame implements Initializable {
             // Ne pas tuer le joueur invincible
 
             // Afficher un effet visuel pour indiquer que l'invincibilité a protégé le joueur
-            Label shieldLabel = new Label("PROTECTED!");
-            shieldLabel.getStyleClass().add("shield-text");
-            StackPane cell = (StackPane) getNodeFromGridPane(player.x, player.y);
-            cell.getChildren().add(shieldLabel);
-
-            // Animation de l'effet de protection
-            FadeTransition fadeOut = new FadeTransition(Duration.millis(800), shieldLabel);
-            fadeOut.setFromValue(1.0);
-            fadeOut.setToValue(0.0);
-            fadeOut.setDelay(Duration.millis(300));
-            fadeOut.setOnFinished(e -> cell.getChildren().remove(shieldLabel));
-            fadeOut.play();
+            if (presenting()) {
+                effects.showShieldText(entities, player.x, player.y, "PROTECTED!", "shield-text", 800, 300);
+            }
 
             return;
         }
 
+        stateHash ^= StateHash.player(player);
         player.alive = false;
+        stateHash ^= StateHash.player(player);
+        players.died(player);
+        matchKills++;
+        if (!presenting()) return;
+        arena.unfollow(player.motion);
 
         // Jouer l'effet sonore de mort
-        audioManager.playEffect("death.mp3");
+        playEffect("death.mp3");
 
         // Jouer l'animation de mort
         player.animator.playDeathAnimation();
@@ -933,46 +1459,52 @@ public class BombermanGame implements Initializable {
     /**
      * Vérifie si la condition de victoire est atteinte et affiche le gagnant.
      * Met à jour les statistiques et joue les sons/animations de victoire.
+     * Hors affichage (tests, re-simulation) et pendant un replay, seule la fin de partie est notée.
      */
     private void checkWinCondition() {
         if (gameEnded) return;
 
-        long aliveCount = Arrays.stream(players).filter(p -> p.alive).count();
+        int aliveCount = players.aliveCount();
 
         if (aliveCount <= 1) {
             gameEnded = true;
-            gameLoop.stop();
+            if (replay != null) {
+                showReplayResult();
+                return;
+            }
+            stopRecording();
+            Player winner = players.firstAlive();
 
-            Player winner = Arrays.stream(players).filter(p -> p.alive).findFirst().orElse(null);
-
-            // Mettre à jour les statistiques des joueurs
-            for (Player player : players) {
-                if (player != null && !player.isBot) {
-                    if (player == winner) {
-                        // Victoire pour le gagnant
-                        statsManager.recordVictory(player.name);
-                    } else {
-                        // Défaite pour les autres
-                        statsManager.recordDefeat(player.name);
-                    }
-                }
+            // Résultats enregistrés aussi sans affichage (HeadlessRunner, salles du serveur),
+            // mais pas pendant une re-simulation, qui peut repasser plusieurs fois par la fin
+            if (!fastForward) {
+                recordResult(winner);
             }
 
+            if (!presenting()) return;
+            gameLoop.stop();
+
             if (winner != null) {
                 // Récupérer les stats du gagnant
                 PlayerStats winnerStats = statsManager.getPlayerStats(winner.name);
 
-                // Afficher un message avec les statistiques
-                winnerLabel.setText(winner.name + " GAGNE! (V: " + winnerStats.getVictories()
-                        + " - D: " + winnerStats.getDefeats() + ")");
+                // Afficher un message avec les statistiques et le classement
+                String text = winner.name + " GAGNE! (V: " + winnerStats.getVictories()
+                        + " - D: " + winnerStats.getDefeats() + ")";
+                Leaderboard leaderboard = statsManager.getLeaderboard();
+                if (!winner.isBot && leaderboard.contains(winner.name)) {
+                    text += " Elo " + Math.round(leaderboard.getRating(winner.name))
+                            + " #" + leaderboard.getRank(winner.name);
+                }
+                winnerLabel.setText(text);
                 winnerLabel.getStyleClass().add("winner-text");
 
                 // Jouer le son de victoire
                 audioManager.stopMusic();
-                audioManager.playEffect("win.mp3");
+                playEffect("win.mp3");
 
                 // Jouer la musique de victoire après un délai
-                Timeline victoryMusic = new Timeline(new KeyFrame(Duration.seconds(1), e -> {
+                victoryMusic = new Timeline(new KeyFrame(Duration.seconds(1), e -> {
                     audioManager.playMusic("victory_music.mp3");
                 }));
                 victoryMusic.play();
@@ -980,40 +1512,102 @@ public class BombermanGame implements Initializable {
                 // Animation de célébration pour le gagnant
                 winner.animator.celebrate();
 
-                // Animation de victoire
-                ScaleTransition victory = new ScaleTransition(Duration.millis(1000), winnerLabel);
-                victory.setFromX(1.0);
-                victory.setFromY(1.0);
-                victory.setToX(1.5);
-                victory.setToY(1.5);
-                victory.setAutoReverse(true);
-                victory.setCycleCount(Timeline.INDEFINITE);
-                victory.play();
+                // Animation de victoire (arrêtée au redémarrage)
+                effects.pulse(winnerLabel, 1000, 1.0, 1.5, Animation.INDEFINITE);
             } else {
                 winnerLabel.setText("MATCH NUL!");
             }
+            if (lastReplay != null) {
+                replayLabel.setText("V : revoir la partie");
+            }
         }
     }
 
     /**
-     * Met à jour l'affichage des labels des joueurs (vivant/mort).
+     * Enregistre le résultat de la partie : statistiques et classement des joueurs
+     * (les bots ne sont pas classés) et résultat détaillé.
+     * @param winner le gagnant, ou null en cas de match nul
      */
-    private void updateUI() {
-        player1Label.setText(players[0].name + (players[0].alive ? " ✓" : " ✗"));
-        player1Label.getStyleClass().removeAll("dead-player");
-        if (!players[0].alive) player1Label.getStyleClass().add("dead-player");
+    private void recordResult(Player winner) {
+        if (statsManager != null) {
+            List<String> humanPlayers = new ArrayList<>();
+            int botCount = 0;
+            for (Player player : players.asList()) {
+                if (player.isBot) {
+                    botCount++;
+                } else {
+                    humanPlayers.add(player.name);
+                }
+            }
+            statsManager.recordMatch(humanPlayers, winner != null ? winner.name : null, botCount);
+        }
+        recordMatch(winner);
+    }
 
-        player2Label.setText(players[1].name + (players[1].alive ? " ✓" : " ✗"));
-        player2Label.getStyleClass().removeAll("dead-player");
-        if (!players[1].alive) player2Label.getStyleClass().add("dead-player");
+    /**
+     * Enregistre le résultat détaillé de la partie (écriture en arrière-plan).
+     * @param winner le gagnant, ou null en cas de match nul
+     */
+    private void recordMatch(Player winner) {
+        if (matchRecords == null) return;
+        String[] names = new String[players.size()];
+        int winnerIndex = -1;
+        boolean hasBot = false;
+        for (int i = 0; i < players.size(); i++) {
+            names[i] = players.get(i).name;
+            if (players.get(i) == winner) winnerIndex = i;
+            hasBot |= players.get(i).isBot;
+        }
 
-        player3Label.setText(players[2].name + (players[2].alive ? " ✓" : " ✗"));
-        player3Label.getStyleClass().removeAll("dead-player");
-        if (!players[2].alive) player3Label.getStyleClass().add("dead-player");
+        matchRecords.append(new MatchRecord(
+                System.currentTimeMillis(),
+                matchTicks,
+                names,
+                winnerIndex,
+                winner != null && winner.isBot,
+                hasBot ? botAI.getBotMoveDelay() : -1,
+                hasBot ? BotAI.STRATEGY : "",
+                matchKills,
+                matchBombsPlaced,
+                matchBlocksDestroyed,
+                matchPowerUps.clone()
+        ));
+
+        // Mémoire utilisée en fin de partie
+        Runtime runtime = Runtime.getRuntime();
+        matchHeap.record(runtime.totalMemory() - runtime.freeMemory());
+    }
 
-        player4Label.setText(players[3].name + (players[3].alive ? " ✓" : " ✗"));
-        player4Label.getStyleClass().removeAll("dead-player");
-        if (!players[3].alive) player4Label.getStyleClass().add("dead-player");
+    /**
+     * Met à jour l'affichage des labels des joueurs (vivant/mort).
+     */
+    private void updateUI() {
+        if (player1Label == null) return;
+        Label[] labels = {player1Label, player2Label, player3Label, player4Label};
+        int othersAlive = players.aliveCount();
+        for (int i = 0; i < labels.length; i++) {
+            Label label = labels[i];
+            label.getStyleClass().removeAll("dead-player");
+            if (i >= players.size()) {
+                label.setText("");
+                continue;
+            }
+            Player player = players.get(i);
+            label.setText(player.name + (player.alive ? " ✓" : " ✗"));
+            if (player.alive) {
+                othersAlive--;
+            } else {
+                label.getStyleClass().add("dead-player");
+            }
+        }
+
+        // Résumé des participants au-delà des quatre premiers
+        int others = players.size() - labels.length;
+        otherPlayersLabel.setVisible(others > 0);
+        otherPlayersLabel.setManaged(others > 0);
+        if (others > 0) {
+            otherPlayersLabel.setText("+" + others + " bots (" + othersAlive + " ✓)");
+        }
     }
 
     /**
@@ -1024,11 +1618,42 @@ public class BombermanGame implements Initializable {
     private void handleKeyPressed(KeyEvent event) {
         pressedKeys.add(event.getCode());
 
-        // Bombes pour chaque joueur
-        if (event.getCode() == KeyCode.A && players[0].alive) placeBomb(players[0]);
-        if (event.getCode() == KeyCode.SPACE && players[1].alive) placeBomb(players[1]);
-        if (event.getCode() == KeyCode.U && players[2].alive) placeBomb(players[2]);
-        if (event.getCode() == KeyCode.I && players[3].alive) placeBomb(players[3]);
+        // Mesures de performance
+        if (event.getCode() == KeyCode.F3) {
+            perfOverlay.toggle();
+        }
+
+        // Vitesse de la partie (et du replay)
+        if (event.getCode() == KeyCode.F5) {
+            stepTimeScale(-1);
+        } else if (event.getCode() == KeyCode.F6) {
+            stepTimeScale(1);
+        }
+
+        // Lecture d'un replay : avance/retour de 5 secondes, pause ; R revient au jeu
+        if (replay != null) {
+            if (event.getCode() == KeyCode.LEFT) {
+                seekReplay(matchTicks - REPLAY_SEEK_TICKS);
+            } else if (event.getCode() == KeyCode.RIGHT) {
+                seekReplay(matchTicks + REPLAY_SEEK_TICKS);
+            } else if (event.getCode() == KeyCode.SPACE) {
+                replayPaused = !replayPaused;
+            } else if (event.getCode() == KeyCode.R) {
+                restartGame();
+            }
+            return;
+        }
+
+        // Bombes pour chaque joueur local, posées au tick suivant
+        for (int i = 0; i < PLAYER_KEYS.length && i < players.size(); i++) {
+            Player player = players.get(i);
+            if (event.getCode() == PLAYER_KEYS[i][4] && !player.isBot && player.alive) pendingBombs[i] = true;
+        }
+
+        // Revoir la partie terminée
+        if (event.getCode() == KeyCode.V && gameEnded && lastReplay != null) {
+            startReplay(lastReplay);
+        }
 
         // Restart game
         if (event.getCode() == KeyCode.R && gameEnded) {
@@ -1049,15 +1674,16 @@ public class BombermanGame implements Initializable {
      * Réinitialise la partie, les ressources et relance la boucle de jeu.
      */
     private void restartGame() {
-        winnerLabel.setText("");
-        winnerLabel.getStyleClass().removeAll("winner-text");
+        if (winnerLabel != null) {
+            winnerLabel.setText("");
+            winnerLabel.getStyleClass().removeAll("winner-text");
+            replayLabel.setText("");
+        }
 
         // Sauvegarder les noms des joueurs avant la réinitialisation
-        String[] savedNames = new String[4];
-        for (int i = 0; i < 4; i++) {
-            if (players[i] != null) {
-                savedNames[i] = players[i].name;
-            }
+        String[] savedNames = new String[players.size()];
+        for (int i = 0; i < savedNames.length; i++) {
+            savedNames[i] = players.get(i).name;
         }
 
         // Arrêter toutes les animations en cours
@@ -1071,38 +1697,660 @@ public class BombermanGame implements Initializable {
             audioManager.playMusic("background_music.mp3");
         }
 
-        // Nettoyer les anciennes ressources
-        bombs.clear();
-        powerUps.clear();
-
+        // Les anciennes ressources (bombes, power-ups, effets) sont libérées par initializeGame
         initializeGame();
 
         // Restaurer les noms des joueurs après l'initialisation
-        for (int i = 0; i < 4; i++) {
+        for (int i = 0; i < savedNames.length && i < players.size(); i++) {
             if (savedNames[i] != null && !savedNames[i].isEmpty()) {
-                players[i].name = savedNames[i];
+                players.get(i).name = savedNames[i];
             }
         }
 
-        setupGameLoop();
+        if (presenting()) {
+            setupGameLoop();
+            updateUI();
+        }
+    }
+
+    /**
+     * Libère la partie à la fermeture de sa fenêtre : arrêt de la boucle de jeu, de la musique
+     * et de l'enregistrement du replay, et désinscription de l'horloge d'animation partagée,
+     * qui sinon continuerait d'animer la partie fermée et de la garder en mémoire.
+     */
+    public void dispose() {
+        if (gameLoop != null) {
+            gameLoop.stop();
+        }
+        if (victoryMusic != null) {
+            victoryMusic.stop();
+        }
+        if (audioManager != null) {
+            audioManager.stopMusic();
+        }
+        stopRecording();
+        releaseViews();
+        for (Player player : players.asList()) {
+            if (player.animator != null) {
+                player.animator.dispose();
+            }
+        }
+        if (arena != null) {
+            AnimationClock.getInstance().unregister(arena);
+            AnimationClock.getInstance().unregister(perfOverlay);
+        }
+    }
+
+    /**
+     * @return true si la partie est affichée (faux sans interface et pendant une re-simulation)
+     */
+    private boolean presenting() {
+        return arena != null && !fastForward;
+    }
+
+    /**
+     * Arrête les effets en cours et rend les vues des bombes et power-ups à la réserve.
+     */
+    private void releaseViews() {
+        if (arena == null) return;
+        effects.stopAll();
+        for (Bomb bomb : bombs) {
+            if (bomb.visual != null) viewPool.release(bomb.visual);
+            bomb.visual = null;
+        }
+        for (PowerUp powerUp : powerUps) {
+            if (powerUp.getVisual() != null) viewPool.release(powerUp.getVisual());
+            powerUp.setVisual(null);
+        }
+    }
+
+    /**
+     * Recrée l'affichage de l'arène et de toutes les entités à partir de l'état de la partie.
+     */
+    private void rebuildViews() {
+        if (!presenting()) return;
+        arena.setArena(walls, destructibleBlocks, wallImage, destructibleBlockImage);
+        for (PowerUp powerUp : powerUps) {
+            showPowerUp(powerUp);
+        }
+        for (Bomb bomb : bombs) {
+            bomb.motion.place(bomb.x, bomb.y);
+            showBomb(bomb);
+        }
+        for (Player player : players.asList()) {
+            player.motion.place(player.x, player.y);
+            player.visual.setOpacity(1.0);
+            entities.add(player.visual, player.motion);
+            if (!player.alive) {
+                player.animator.playDeathAnimation();
+                continue;
+            }
+            player.animator.idle();
+            // La caméra suit les joueurs locaux
+            if (!player.isBot) {
+                arena.follow(player.motion);
+            }
+            if (player.invincibleTicks > 0) {
+                int cycles = player.invincibleTicks * TICK_MS / 200;
+                effects.blink(player.visual, scaledMillis(200), 0.6, 1.0, cycles | 1, null);
+            }
+        }
         updateUI();
     }
 
+    private void startRecording() {
+        if (replayDirectory == null || recorder != null) return;
+        String[] names = new String[players.size()];
+        boolean[] bots = new boolean[players.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = players.get(i).name;
+            bots[i] = players.get(i).isBot;
+        }
+        recorder = ReplayRecorder.create(replayDirectory,
+                new Replay.Header(seed, System.currentTimeMillis(), gridSize, soloMode, names, bots));
+        if (recorder != null) {
+            stateBuffer.reset();
+            writeState(stateBuffer);
+            recorder.keyframe(matchTicks, stateBuffer);
+        }
+    }
+
+    private void recordTick() {
+        if (recorder == null) return;
+        recorder.actions(matchTicks, tickActions, players.size());
+        Arrays.fill(tickActions, PlayerAction.NONE);
+        if (matchTicks % Replay.KEYFRAME_INTERVAL == 0) {
+            stateBuffer.reset();
+            writeState(stateBuffer);
+            recorder.keyframe(matchTicks, stateBuffer);
+        }
+        if (matchTicks % Replay.HASH_INTERVAL == 0) {
+            recorder.hash(matchTicks, stateHash);
+        }
+    }
+
     /**
-     * Récupère le noeud JavaFX à la position (col, row) dans la grille de jeu.
-     * @param col colonne
-     * @param row ligne
-     * @return le noeud correspondant ou null
+     * Termine le replay de la partie en cours (fin de partie, ou partie abandonnée).
      */
-    private javafx.scene.Node getNodeFromGridPane(int col, int row) {
-        for (javafx.scene.Node node : gameGrid.getChildren()) {
-            Integer column = GridPane.getColumnIndex(node);
-            Integer rowIdx = GridPane.getRowIndex(node);
-            if ((column == null ? 0 : column) == col && (rowIdx == null ? 0 : rowIdx) == row) {
-                return node;
+    void stopRecording() {
+        if (recorder == null) return;
+        if (recorder.finish(matchTicks)) {
+            lastReplay = recorder.getFile();
+        }
+        recorder = null;
+    }
+
+    /**
+     * Écrit l'état complet de la partie (image clé d'un replay). Les murs, les noms et la graine
+     * n'y figurent pas : ils sont fixés pour toute la partie (en-tête du replay). Le rythme
+     * de décision des bots non plus : il appartient à l'IA, qui ne tourne pas pendant un replay.
+     * @param out la destination
+     */
+    void writeState(Replay.Encoder out) {
+        out.writeVarint(matchTicks);
+        out.writeByte(gameEnded ? 1 : 0);
+        out.writeBits(destructibleBlocks);
+
+        out.writeVarint(players.size());
+        for (Player player : players.asList()) {
+            out.writeVarint(player.x);
+            out.writeVarint(player.y);
+            out.writeByte((player.alive ? 1 : 0) | (player.canKickBombs ? 2 : 0) | (player.isInvincible ? 4 : 0));
+            out.writeVarint(player.bombLimit);
+            out.writeVarint(player.explosionRadius);
+            out.writeVarint(player.invincibleTicks);
+            out.writeSignedVarint(matchTicks - player.lastMoveTick);
+        }
+
+        out.writeVarint(bombs.size());
+        for (Bomb bomb : bombs) {
+            out.writeVarint(bomb.x);
+            out.writeVarint(bomb.y);
+            out.writeVarint(bomb.owner.playerIndex);
+            out.writeSignedVarint(bomb.fuse);
+            out.writeSignedVarint(bomb.slideDx);
+            out.writeSignedVarint(bomb.slideDy);
+            out.writeVarint(bomb.slideSteps);
+            out.writeVarint(bomb.slideWait);
+        }
+
+        out.writeVarint(powerUps.size());
+        for (PowerUp powerUp : powerUps) {
+            out.writeVarint(powerUp.getX());
+            out.writeVarint(powerUp.getY());
+            out.writeVarint(powerUp.getType().ordinal());
+        }
+
+        out.writeVarint(matchKills);
+        out.writeVarint(matchBombsPlaced);
+        out.writeVarint(matchBlocksDestroyed);
+        for (int count : matchPowerUps) {
+            out.writeVarint(count);
+        }
+    }
+
+    /**
+     * Restaure l'état écrit par {@link #writeState(Replay.Encoder)} dans la partie en cours
+     * (mêmes joueurs, même arène). L'affichage n'est pas mis à jour.
+     * @param in l'état
+     */
+    void readState(Replay.Decoder in) {
+        matchTicks = in.readVarintInt();
+        gameEnded = in.readByte() != 0;
+        in.readBits(destructibleBlocks);
+
+        int count = in.readVarintInt();
+        if (count != players.size()) {
+            throw new IllegalStateException("État pour " + count + " joueurs, partie à " + players.size());
+        }
+        players.clearIndex();
+        for (Player player : players.asList()) {
+            player.x = in.readVarintInt();
+            player.y = in.readVarintInt();
+            int flags = in.readByte();
+            player.alive = (flags & 1) != 0;
+            player.canKickBombs = (flags & 2) != 0;
+            player.isInvincible = (flags & 4) != 0;
+            player.bombLimit = in.readVarintInt();
+            player.explosionRadius = in.readVarintInt();
+            player.invincibleTicks = in.readVarintInt();
+            player.lastMoveTick = matchTicks - in.readSignedVarint();
+        }
+        players.reindex();
+
+        bombs.clear();
+        int bombCount = in.readVarintInt();
+        for (int i = 0; i < bombCount; i++) {
+            Bomb bomb = new Bomb(in.readVarintInt(), in.readVarintInt(), players.get(in.readVarintInt()));
+            bomb.fuse = in.readSignedVarint();
+            bomb.slideDx = in.readSignedVarint();
+            bomb.slideDy = in.readSignedVarint();
+            bomb.slideSteps = in.readVarintInt();
+            bomb.slideWait = in.readVarintInt();
+            bombs.add(bomb);
+        }
+
+        powerUps.clear();
+        int powerUpCount = in.readVarintInt();
+        for (int i = 0; i < powerUpCount; i++) {
+            powerUps.add(new PowerUp(in.readVarintInt(), in.readVarintInt(), PowerUp.Type.values()[in.readVarintInt()]));
+        }
+
+        matchKills = in.readVarintInt();
+        matchBombsPlaced = in.readVarintInt();
+        matchBlocksDestroyed = in.readVarintInt();
+        for (int i = 0; i < matchPowerUps.length; i++) {
+            matchPowerUps[i] = in.readVarintInt();
+        }
+        rehash();
+    }
+
+    /**
+     * Recalcule entièrement le hachage de l'état (nouvelle partie ou état restauré) ;
+     * il est ensuite tenu à jour modification par modification.
+     */
+    private void rehash() {
+        blockHash = computeBlockHash();
+        stateHash = computeStateHash(blockHash);
+    }
+
+    /**
+     * @return le hachage de l'état recalculé sans passer par les mises à jour (vérification)
+     */
+    long computeStateHash() {
+        return computeStateHash(computeBlockHash());
+    }
+
+    private long computeBlockHash() {
+        long hash = 0;
+        for (int x = 0; x < destructibleBlocks.length; x++) {
+            for (int y = 0; y < destructibleBlocks[x].length; y++) {
+                if (destructibleBlocks[x][y]) hash ^= StateHash.block(x, y);
+            }
+        }
+        return hash;
+    }
+
+    private long computeStateHash(long blocks) {
+        long hash = blocks;
+        for (int i = 0; i < players.size(); i++) {
+            hash ^= StateHash.player(players.get(i));
+        }
+        for (int i = 0; i < bombs.size(); i++) {
+            hash ^= StateHash.bomb(bombs.get(i));
+        }
+        for (int i = 0; i < powerUps.size(); i++) {
+            PowerUp powerUp = powerUps.get(i);
+            hash ^= StateHash.powerUp(powerUp.getX(), powerUp.getY(), powerUp.getType());
+        }
+        return hash;
+    }
+
+    /**
+     * @return la taille en octets de l'instantané de la partie dans son état actuel
+     */
+    public int snapshotSize() {
+        return SNAPSHOT_HEADER_BYTES + (gridSize * gridSize + 63) / 64 * 8
+                + players.size() * SNAPSHOT_PLAYER_BYTES
+                + bombs.size() * SNAPSHOT_BOMB_BYTES
+                + powerUps.size() * SNAPSHOT_POWER_UP_BYTES;
+    }
+
+    /**
+     * Écrit un instantané complet de la partie à la position du tampon (état de jeu seulement :
+     * ni affichage ni entrées en attente). Le format est plat et versionné ; il est conçu pour
+     * être écrit et relu très souvent dans un même tampon (de préférence direct) réutilisé :
+     * sauvegardes, retour en arrière, recherche d'un bot.
+     * <pre>
+     * en-tête  : "BMSS", version, fin de partie, graine, taille de l'arène, tick, compteurs de la partie,
+     *            nombre de joueurs, de bombes et de power-ups, hachages de l'état et des blocs
+     * blocs    : un bit par case, par mots de 64 bits
+     * joueurs  : x, y, état, bombes, portée, invincibilité, dernier déplacement, prochaine décision (bot)
+     * bombes   : x, y, poseur, glissement (dx, dy), mèche, cases et ticks de glissement restants
+     * power-ups: x, y, type
+     * </pre>
+     * @param out le tampon, avec au moins {@link #snapshotSize()} octets disponibles
+     * @return le nombre d'octets écrits
+     */
+    public int writeSnapshot(ByteBuffer out) {
+        int start = out.position();
+        out.putInt(SNAPSHOT_MAGIC);
+        out.putShort(SNAPSHOT_VERSION);
+        out.putShort((short) (gameEnded ? 1 : 0));
+        out.putLong(seed);
+        out.putInt(gridSize);
+        out.putInt(matchTicks);
+        out.putInt(matchKills);
+        out.putInt(matchBombsPlaced);
+        out.putInt(matchBlocksDestroyed);
+        for (int count : matchPowerUps) {
+            out.putInt(count);
+        }
+        out.putInt(players.size());
+        out.putInt(bombs.size());
+        out.putInt(powerUps.size());
+        out.putLong(stateHash);
+        out.putLong(blockHash);
+
+        long word = 0;
+        int bit = 0;
+        for (boolean[] column : destructibleBlocks) {
+            for (boolean block : column) {
+                if (block) word |= 1L << bit;
+                if (++bit == 64) {
+                    out.putLong(word);
+                    word = 0;
+                    bit = 0;
+                }
+            }
+        }
+        if (bit > 0) out.putLong(word);
+
+        for (int i = 0; i < players.size(); i++) {
+            Player player = players.get(i);
+            out.putShort((short) player.x);
+            out.putShort((short) player.y);
+            out.put((byte) ((player.alive ? 1 : 0) | (player.canKickBombs ? 2 : 0) | (player.isInvincible ? 4 : 0)));
+            out.put((byte) 0);
+            out.putShort((short) player.bombLimit);
+            out.putShort((short) player.explosionRadius);
+            out.putInt(player.invincibleTicks);
+            out.putInt(player.lastMoveTick);
+            out.putInt(player.nextBotTick);
+        }
+        for (int i = 0; i < bombs.size(); i++) {
+            Bomb bomb = bombs.get(i);
+            out.putShort((short) bomb.x);
+            out.putShort((short) bomb.y);
+            out.putShort((short) bomb.owner.playerIndex);
+            out.put((byte) bomb.slideDx);
+            out.put((byte) bomb.slideDy);
+            out.putInt(bomb.fuse);
+            out.putShort((short) bomb.slideSteps);
+            out.putShort((short) bomb.slideWait);
+        }
+        for (int i = 0; i < powerUps.size(); i++) {
+            PowerUp powerUp = powerUps.get(i);
+            out.putShort((short) powerUp.getX());
+            out.putShort((short) powerUp.getY());
+            out.put((byte) powerUp.getType().ordinal());
+            out.put((byte) 0);
+        }
+        return out.position() - start;
+    }
+
+    /**
+     * Restaure un instantané écrit par {@link #writeSnapshot(ByteBuffer)} dans la partie en cours,
+     * qui doit avoir la même arène et les mêmes joueurs. Les bombes et power-ups existants sont
+     * réutilisés : une restauration n'alloue rien tant que leur nombre n'augmente pas.
+     * L'affichage est recréé si la partie est affichée.
+     * @param in le tampon, positionné au début de l'instantané (position avancée à sa fin)
+     * @throws IllegalArgumentException si le tampon ne contient pas un instantané de cette version
+     * @throws IllegalStateException si l'instantané vient d'une partie d'une autre forme
+     */
+    public void restoreSnapshot(ByteBuffer in) {
+        if (in.getInt() != SNAPSHOT_MAGIC) {
+            throw new IllegalArgumentException("Le tampon ne contient pas un instantané de partie");
+        }
+        short version = in.getShort();
+        if (version != SNAPSHOT_VERSION) {
+            throw new IllegalArgumentException("Version d'instantané non supportée: " + version);
+        }
+        int flags = in.getShort();
+        long snapshotSeed = in.getLong();
+        int size = in.getInt();
+        int tick = in.getInt();
+        int kills = in.getInt();
+        int bombsPlacedCount = in.getInt();
+        int blocksDestroyed = in.getInt();
+        int countersStart = in.position();
+        in.position(countersStart + matchPowerUps.length * 4);
+        int playerTotal = in.getInt();
+        int bombCount = in.getInt();
+        int powerUpCount = in.getInt();
+        long snapshotHash = in.getLong();
+        long snapshotBlockHash = in.getLong();
+        if (size != gridSize || playerTotal != players.size()) {
+            throw new IllegalStateException("Instantané d'une arène de " + size + " cases et " + playerTotal
+                    + " joueurs, partie de " + gridSize + " cases et " + players.size() + " joueurs");
+        }
+        if (in.remaining() < (size * size + 63) / 64 * 8 + playerTotal * SNAPSHOT_PLAYER_BYTES
+                + bombCount * SNAPSHOT_BOMB_BYTES + powerUpCount * SNAPSHOT_POWER_UP_BYTES) {
+            throw new IllegalArgumentException("Instantané tronqué");
+        }
+
+        releaseViews();
+        gameEnded = (flags & 1) != 0;
+        seed = snapshotSeed;
+        matchTicks = tick;
+        matchKills = kills;
+        matchBombsPlaced = bombsPlacedCount;
+        matchBlocksDestroyed = blocksDestroyed;
+        for (int i = 0; i < matchPowerUps.length; i++) {
+            matchPowerUps[i] = in.getInt(countersStart + i * 4);
+        }
+
+        long word = 0;
+        int bit = 64;
+        for (boolean[] column : destructibleBlocks) {
+            for (int y = 0; y < column.length; y++) {
+                if (bit == 64) {
+                    word = in.getLong();
+                    bit = 0;
+                }
+                column[y] = (word & (1L << bit++)) != 0;
+            }
+        }
+
+        players.clearIndex();
+        for (int i = 0; i < playerTotal; i++) {
+            Player player = players.get(i);
+            player.x = in.getShort();
+            player.y = in.getShort();
+            int state = in.get();
+            in.get();
+            player.alive = (state & 1) != 0;
+            player.canKickBombs = (state & 2) != 0;
+            player.isInvincible = (state & 4) != 0;
+            player.bombLimit = in.getShort();
+            player.explosionRadius = in.getShort();
+            player.invincibleTicks = in.getInt();
+            player.lastMoveTick = in.getInt();
+            player.nextBotTick = in.getInt();
+        }
+        players.reindex();
+
+        for (int i = 0; i < bombCount; i++) {
+            int x = in.getShort();
+            int y = in.getShort();
+            Player owner = players.get(in.getShort());
+            Bomb bomb;
+            if (i < bombs.size()) {
+                bomb = bombs.get(i);
+                bomb.x = x;
+                bomb.y = y;
+                bomb.owner = owner;
+                bomb.exploding = false;
+                bomb.motion.place(x, y);
+            } else {
+                bomb = new Bomb(x, y, owner);
+                bombs.add(bomb);
+            }
+            bomb.slideDx = in.get();
+            bomb.slideDy = in.get();
+            bomb.fuse = in.getInt();
+            bomb.slideSteps = in.getShort();
+            bomb.slideWait = in.getShort();
+        }
+        while (bombs.size() > bombCount) {
+            bombs.remove(bombs.size() - 1);
+        }
+
+        for (int i = 0; i < powerUpCount; i++) {
+            int x = in.getShort();
+            int y = in.getShort();
+            PowerUp.Type type = POWER_UP_TYPES[in.get()];
+            in.get();
+            if (i < powerUps.size()) {
+                powerUps.get(i).reset(x, y, type);
+            } else {
+                powerUps.add(new PowerUp(x, y, type));
+            }
+        }
+        while (powerUps.size() > powerUpCount) {
+            powerUps.remove(powerUps.size() - 1);
+        }
+        stateHash = snapshotHash;
+        blockHash = snapshotBlockHash;
+        rebuildViews();
+    }
+
+    /**
+     * Remplace la partie par la lecture d'un replay, depuis son début.
+     * @param file le fichier du replay
+     */
+    private void startReplay(Path file) {
+        try {
+            loadReplay(Replay.load(file));
+        } catch (IOException | IllegalStateException e) {
+            System.err.println("Erreur lors de la lecture du replay: " + e.getMessage());
+            return;
+        }
+        winnerLabel.setText("");
+        winnerLabel.getStyleClass().removeAll("winner-text");
+        if (gameLoop != null) {
+            gameLoop.stop();
+        }
+        setupGameLoop();
+    }
+
+    /**
+     * Prépare la lecture d'un replay : arène et joueurs de son en-tête, puis première image clé.
+     * @param loaded le replay
+     */
+    void loadReplay(Replay loaded) {
+        stopRecording();
+        releaseViews();
+        Replay.Header header = loaded.getHeader();
+        gridSize = header.getGridSize();
+        soloMode = header.isSoloMode();
+        seed = header.getSeed();
+        walls = new boolean[gridSize][gridSize];
+        destructibleBlocks = new boolean[gridSize][gridSize];
+        for (int x = 0; x < gridSize; x++) {
+            for (int y = 0; y < gridSize; y++) {
+                walls[x][y] = isFixedWall(x, y);
+            }
+        }
+
+        // Positions provisoires : la première image clé place les joueurs
+        int count = header.getPlayerCount();
+        String[] names = new String[count];
+        boolean[] bots = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = header.getName(i);
+            bots[i] = header.isBot(i);
+        }
+        createPlayers(new int[count][2], names, bots);
+
+        replay = loaded;
+        replayPaused = false;
+        replayDesyncTick = -1;
+        seekReplay(0);
+    }
+
+    /**
+     * Place la lecture du replay à un tick : restauration de l'image clé précédente
+     * puis re-simulation, sans affichage, des ticks qui l'en séparent.
+     * @param tick le tick visé, ramené à la durée du replay
+     */
+    void seekReplay(int tick) {
+        int target = Math.max(0, Math.min(tick, replay.getEndTick()));
+        releaseViews();
+        replayCursor = replay.seek(target);
+        readState(replayCursor.keyframe());
+
+        fastForward = true;
+        try {
+            while (matchTicks < target) {
+                replayStep();
+            }
+        } finally {
+            fastForward = false;
+        }
+        rebuildViews();
+        showReplayResult();
+        updateReplayLabel();
+    }
+
+    private void updateReplay() {
+        if (!replayPaused && matchTicks < replay.getEndTick()) {
+            replayStep();
+        }
+        updateReplayLabel();
+    }
+
+    // Un tick du replay : actions enregistrées au lieu des entrées et de l'IA
+    private void replayStep() {
+        matchTicks++;
+        replayCursor.actions(matchTicks, tickActions);
+        checkReplayHash();
+        applyActions(tickActions);
+        if (presenting()) {
+            // Les joueurs locaux qui ne bougent plus reprennent la pose d'attente
+            for (int i = 0; i < players.size(); i++) {
+                Player player = players.get(i);
+                if (!player.isBot && player.alive && matchTicks - player.lastMoveTick == MOVE_DELAY_TICKS + 1
+                        && tickActions[i] == PlayerAction.NONE) {
+                    player.animator.idle();
+                }
             }
         }
-        return null;
+        advanceTimers();
+        checkWinCondition();
+    }
+
+    // Comparaison avec le hachage enregistré à la fin du tick précédent, s'il y en a un
+    private void checkReplayHash() {
+        int hashTick = replayCursor.getHashTick();
+        if (hashTick != matchTicks - 1 || replayCursor.getHash() == stateHash || replayDesyncTick >= 0) return;
+        replayDesyncTick = hashTick;
+        System.err.println("Replay désynchronisé au tick " + hashTick + " : la partie rejouée diffère de l'enregistrement");
+    }
+
+    private void showReplayResult() {
+        if (!presenting() || winnerLabel == null) return;
+        if (!gameEnded) {
+            winnerLabel.setText("");
+            return;
+        }
+        Player winner = players.firstAlive();
+        winnerLabel.setText(winner != null ? winner.name + " GAGNE!" : "MATCH NUL!");
+    }
+
+    private void updateReplayLabel() {
+        if (replayLabel == null) return;
+        replayLabel.setText("Replay " + formatTicks(matchTicks) + " / " + formatTicks(replay.getEndTick())
+                + (replayPaused ? " (pause)" : "") + (replayDesyncTick >= 0 ? " (désynchronisé)" : "") + "   ← → : 5 s   Espace : pause   R : nouvelle partie");
+    }
+
+    private static String formatTicks(int ticks) {
+        int seconds = ticks * TICK_MS / 1000;
+        return seconds / 60 + ":" + (seconds % 60 < 10 ? "0" : "") + seconds % 60;
+    }
+
+    /**
+     * @return le gestionnaire des effets visuels de la partie
+     */
+    public EffectsManager getEffects() {
+        return effects;
+    }
+
+    /**
+     * @return les vues réutilisables de la partie (avec leurs compteurs de réutilisation)
+     */
+    public ViewPool getViewPool() {
+        return viewPool;
     }
 
     public class Player {
@@ -1110,6 +2358,7 @@ public class BombermanGame implements Initializable {
         int x, y;
         boolean alive = true;
         ImageView visual;
+        final Motion motion;
         int playerIndex;
         String name;
         boolean isBot = false;
@@ -1120,12 +2369,18 @@ public class BombermanGame implements Initializable {
         int speed = MOVEMENT_DELAY;
         boolean canKickBombs = false;
         boolean isInvincible = false;
+        int invincibleTicks;
+
+        // Rythme des actions, en ticks : dernier déplacement, et prochaine décision d'un bot
+        int lastMoveTick = -MOVE_DELAY_TICKS - 1;
+        int nextBotTick;
 
         Player(int x, int y, int playerIndex, String name) {
             this.x = x;
             this.y = y;
             this.playerIndex = playerIndex;
             this.name = name;
+            this.motion = new Motion(x, y);
         }
 
         void applyPowerUp(PowerUp.Type type) {
@@ -1141,17 +2396,11 @@ public class BombermanGame implements Initializable {
                     break;
                 case INVINCIBLE:
                     isInvincible = true;
-                    // Animation de clignotement
-                    FadeTransition blink = new FadeTransition(Duration.millis(200), visual);
-                    blink.setFromValue(0.6);
-                    blink.setToValue(1.0);
-                    blink.setCycleCount(25); // ~5 secondes
-                    blink.setAutoReverse(true); // Assure un effet de clignotement
-                    blink.setOnFinished(e -> {
-                        isInvincible = false;
-                        visual.setOpacity(1.0); // Rétablir l'opacité normale à la fin
-                    });
-                    blink.play();
+                    invincibleTicks = INVINCIBILITY_TICKS;
+                    // Animation de clignotement (~5 secondes), l'opacité est rétablie à la fin
+                    if (presenting()) {
+                        effects.blink(visual, scaledMillis(200), 0.6, 1.0, 25, null);
+                    }
                     break;
             }
         }
@@ -1223,13 +2472,21 @@ public class BombermanGame implements Initializable {
     public class Bomb {
         int x, y;
         ImageView visual;
+        final Motion motion;
         Player owner;
         boolean exploding = false;  // Pour éviter les explosions multiples
+        int fuse = FUSE_TICKS;      // Ticks avant l'explosion
+
+        // Glissement d'une bombe poussée : direction, cases restantes et ticks avant la suivante
+        int slideDx, slideDy;
+        int slideSteps;
+        int slideWait;
 
         Bomb(int x, int y, Player owner) {
             this.x = x;
             this.y = y;
             this.owner = owner;
+            this.motion = new Motion(x, y);
         }
     }
 
@@ -13,9 +13,31 @@ import com.bomberman.BombermanGame;
  */
 public class BotAI {
 
+    /** Nom de la stratégie des bots, enregistré avec les résultats de parties */
+    public static final String STRATEGY = "astar-danger";
+
     private BombermanGame game;
-    private Map<BombermanGame.Player, Long> lastBotMoveTime = new HashMap<>();
-    private int botMoveDelay = 200; // Délai en ms (modifiable)
+    private int botMoveDelay = 200; // Délai en ms (modifiable), compté en ticks de la partie
+
+    // Stratégies et résultats des décisions, rapportés dans les événements JFR
+    static final String STRATEGY_NONE = "aucune";
+    static final String STRATEGY_FLEE = "fuite";
+    static final String STRATEGY_ATTACK = "attaque";
+    static final String STRATEGY_CHASE = "poursuite";
+    static final String OUTCOME_MOVE = "déplacement";
+    static final String OUTCOME_BOMB = "bombe";
+    static final String OUTCOME_NONE = "rien";
+
+    // Décision en cours : stratégie retenue et noeuds développés par les recherches
+    private String strategy = STRATEGY_NONE;
+    private int nodesExpanded;
+
+    private final Metrics.Histogram decisionLatency = Metrics.getInstance().histogram("bot.decision.nanos");
+
+    // Cartes des dangers déjà calculées, par hachage des blocs et des bombes : les bots d'un même tick
+    // voient le plus souvent la même, et elle ne change qu'à la pose, au glissement ou à l'explosion d'une bombe
+    private static final int DANGER_MAP_ENTRIES = 64;
+    private final TranspositionTable<int[][]> dangerMaps = new TranspositionTable<>(DANGER_MAP_ENTRIES);
 
 
     /**
@@ -66,6 +88,11 @@ public class BotAI {
         this.botMoveDelay = delayMs;
     }
 
+    /** Retourne le délai en ms entre chaque action du bot */
+    public int getBotMoveDelay() {
+        return botMoveDelay;
+    }
+
     /**
      * Met à jour le bot en fonction de l'état du jeu.
      * Gère les mouvements, la pose de bombes et l'évitement des dangers.
@@ -76,51 +103,89 @@ public class BotAI {
      * @param destructibleBlocks Matrice représentant les blocs destructibles.
      */
     public void updateBot(BombermanGame.Player bot, List<BombermanGame.Player> players, List<BombermanGame.Bomb> bombs, boolean[][] walls, boolean[][] destructibleBlocks) {
+        updateBot(bot, players, null, bombs, walls, destructibleBlocks);
+    }
+
+    /**
+     * Met à jour le bot en fonction de l'état du jeu, en cherchant sa cible dans le registre des joueurs
+     * (recherche par cases autour du bot plutôt que parcours de tous les joueurs).
+     * @param bot Le joueur contrôlé par le bot.
+     * @param registry Le registre des joueurs de la partie (y compris le bot).
+     * @param bombs Liste des bombes actuellement posées.
+     * @param walls Matrice représentant les murs indestructibles.
+     * @param destructibleBlocks Matrice représentant les blocs destructibles.
+     */
+    public void updateBot(BombermanGame.Player bot, PlayerRegistry registry, List<BombermanGame.Bomb> bombs, boolean[][] walls, boolean[][] destructibleBlocks) {
+        updateBot(bot, registry.asList(), registry, bombs, walls, destructibleBlocks);
+    }
+
+    private void updateBot(BombermanGame.Player bot, List<BombermanGame.Player> players, PlayerRegistry registry,
+                           List<BombermanGame.Bomb> bombs, boolean[][] walls, boolean[][] destructibleBlocks) {
         if (!bot.alive) return;
 
-        // Vérifier le délai de mouvement
-        long currentTime = System.currentTimeMillis();
-        if (!lastBotMoveTime.containsKey(bot)) {
-            lastBotMoveTime.put(bot, 0L);
+        // Vérifier le délai de mouvement (en ticks, pour que la partie reste reproductible)
+        int tick = game.getTick();
+        if (botMoveDelay >= 0 && tick < bot.nextBotTick) {
+            return; // Ne pas bouger si le délai n'est pas écoulé
         }
 
-        if (currentTime - lastBotMoveTime.get(bot) <= botMoveDelay) { // 200ms = 0.2s
-            return; // Ne pas bouger si le délai n'est pas écoulé
+        GameEvents.BotDecision event = new GameEvents.BotDecision();
+        event.begin();
+        long start = System.nanoTime();
+        nodesExpanded = 0;
+        strategy = STRATEGY_NONE;
+
+        String outcome = decide(bot, players, registry, bombs, walls, destructibleBlocks, tick);
+        decisionLatency.record(System.nanoTime() - start);
+
+        if (event.shouldCommit()) {
+            event.bot = bot.name;
+            event.strategy = strategy;
+            event.nodesExpanded = nodesExpanded;
+            event.outcome = outcome;
+            event.commit();
         }
+    }
 
+    /**
+     * Prend la décision du bot et l'exécute.
+     * @return le résultat : {@link #OUTCOME_MOVE}, {@link #OUTCOME_BOMB} ou {@link #OUTCOME_NONE}
+     */
+    private String decide(BombermanGame.Player bot, List<BombermanGame.Player> players, PlayerRegistry registry,
+                          List<BombermanGame.Bomb> bombs, boolean[][] walls, boolean[][] destructibleBlocks,
+                          int tick) {
         int gridSize = walls.length;
-        int[][] dangerMap = computeDangerMap(bombs, walls, destructibleBlocks, gridSize);
+        int[][] dangerMap = dangerMap(bombs, walls, destructibleBlocks, gridSize);
 
         // Code existant pour le mouvement...
         // Priorité maximale: s'échapper d'une bombe ou d'une zone dangereuse
         if (dangerMap[bot.x][bot.y] > 0) {
+            strategy = STRATEGY_FLEE;
             int[] safeMove = findSafeMove(bot, dangerMap, walls, destructibleBlocks, bombs, gridSize);
             if (safeMove != null) {
-                boolean moved = game.movePlayer(bot, safeMove[0] - bot.x, safeMove[1] - bot.y);
-                if (moved) lastBotMoveTime.put(bot, currentTime);
-                return;
+                return move(bot, safeMove[0] - bot.x, safeMove[1] - bot.y, tick);
             }
         }
 
         // Chercher une cible
-        BombermanGame.Player target = findTarget(bot, players);
+        BombermanGame.Player target = findTarget(bot, players, registry);
 
         // Si aucune cible n'est disponible, ne rien faire
-        if (target == null) return;
+        if (target == null) return OUTCOME_NONE;
 
         // Vérifier si on est adjacent au joueur cible
         if (isAdjacent(bot.x, bot.y, target.x, target.y)) {
             // Ne poser une bombe que si on peut s'échapper après
+            strategy = STRATEGY_ATTACK;
             if (canEscapeAfterBomb(bot, bombs, walls, destructibleBlocks, gridSize)) {
-                game.placeBomb(bot);
-                lastBotMoveTime.put(bot, currentTime);
-                return;
+                return bomb(bot, tick);
             }
         }
 
         // Obtenir le chemin optimal
+        strategy = STRATEGY_CHASE;
         PathResult pathResult = findOptimalPath(bot, target, walls, destructibleBlocks, bombs, dangerMap, gridSize);
-        if (pathResult == null || pathResult.path.isEmpty()) return;
+        if (pathResult == null || pathResult.path.isEmpty()) return OUTCOME_NONE;
 
         // Si le premier pas est bloqué par un mur destructible, placer une bombe
         int nextX = pathResult.path.get(0)[0];
@@ -128,31 +193,42 @@ public class BotAI {
 
         if (destructibleBlocks[nextX][nextY]) {
             if (canEscapeAfterBomb(bot, bombs, walls, destructibleBlocks, gridSize)) {
-                game.placeBomb(bot);
-                lastBotMoveTime.put(bot, currentTime);
-                return;
+                return bomb(bot, tick);
             } else {
                 int[] safeMove = findSafeMove(bot, dangerMap, walls, destructibleBlocks, bombs, gridSize);
                 if (safeMove != null) {
-                    boolean moved = game.movePlayer(bot, safeMove[0] - bot.x, safeMove[1] - bot.y);
-                    if (moved) lastBotMoveTime.put(bot, currentTime);
-                    return;
+                    return move(bot, safeMove[0] - bot.x, safeMove[1] - bot.y, tick);
                 }
             }
         }
 
         // Se déplacer vers la cible
-        if (pathResult.path.size() > 0) {
-            boolean moved = game.movePlayer(bot, nextX - bot.x, nextY - bot.y);
-            if (moved) lastBotMoveTime.put(bot, currentTime);
-        }
+        return move(bot, nextX - bot.x, nextY - bot.y, tick);
+    }
+
+    private String move(BombermanGame.Player bot, int dx, int dy, int tick) {
+        if (!game.movePlayer(bot, dx, dy)) return OUTCOME_NONE;
+        scheduleNext(bot, tick);
+        return OUTCOME_MOVE;
     }
 
+    private String bomb(BombermanGame.Player bot, int tick) {
+        game.placeBomb(bot);
+        scheduleNext(bot, tick);
+        return OUTCOME_BOMB;
+    }
+
+    // Le bot agit de nouveau une fois le délai écoulé (même rythme que l'ancien délai en ms)
+    private void scheduleNext(BombermanGame.Player bot, int tick) {
+        bot.nextBotTick = tick + botMoveDelay / BombermanGame.TICK_MS + 1;
+    }
+
+
     /**
      * Classe interne représentant le résultat d'un chemin trouvé par l'algorithme A*.
      * Contient le chemin à suivre et le coût total du chemin.
      */
-    private static class PathResult {
+    static class PathResult {
         List<int[]> path;  // Le chemin à suivre
         int cost;          // Coût total du chemin (nombre de murs à casser)
 
@@ -167,14 +243,20 @@ public class BotAI {
      * Priorité au joueur humain s'il est vivant, sinon au bot vivant le plus proche.
      * @param bot Le joueur contrôlé par le bot.
      * @param players Liste des joueurs (y compris le bot).
+     * @param registry Le registre des joueurs, ou null pour parcourir la liste.
      * @return Le joueur cible ou null si aucun n'est trouvé.
      */
-    private BombermanGame.Player findTarget(BombermanGame.Player bot, List<BombermanGame.Player> players) {
+    private BombermanGame.Player findTarget(BombermanGame.Player bot, List<BombermanGame.Player> players, PlayerRegistry registry) {
         // Priorité au joueur humain s'il est vivant
         if (players.get(0).alive) {
             return players.get(0);
         }
 
+        // Avec le registre, recherche par anneaux de cases autour du bot
+        if (registry != null) {
+            return registry.nearestAlive(bot.x, bot.y, bot);
+        }
+
         // Sinon, cibler le bot vivant le plus proche
         BombermanGame.Player nearest = null;
         int minDistance = Integer.MAX_VALUE;
@@ -193,6 +275,34 @@ public class BotAI {
         return nearest;
     }
 
+    /**
+     * Carte des dangers de la position, reprise de la table de transposition si elle y est.
+     * Les cartes de la table sont partagées : elles ne doivent pas être modifiées.
+     */
+    private int[][] dangerMap(List<BombermanGame.Bomb> bombs, boolean[][] walls, boolean[][] destructibleBlocks, int gridSize) {
+        // Le hachage des blocs tenu par la partie ne décrit que son arène, pas une arène passée à part
+        if (destructibleBlocks != game.getDestructibleBlocks()) {
+            return computeDangerMap(bombs, walls, destructibleBlocks, gridSize);
+        }
+        long key = game.getBlockHash() ^ StateHash.mix(gridSize);
+        for (int i = 0; i < bombs.size(); i++) {
+            key ^= StateHash.danger(bombs.get(i));
+        }
+        int[][] danger = dangerMaps.get(key);
+        if (danger == null) {
+            danger = computeDangerMap(bombs, walls, destructibleBlocks, gridSize);
+            dangerMaps.put(key, danger);
+        }
+        return danger;
+    }
+
+    /**
+     * @return la table des cartes des dangers (compteurs de succès et d'échecs)
+     */
+    TranspositionTable<int[][]> getDangerMaps() {
+        return dangerMaps;
+    }
+
     /**
      * Calcule la carte de danger en fonction des bombes, des murs et des blocs destructibles.
      * Chaque case dangereuse est marquée avec un niveau de danger.
@@ -202,7 +312,7 @@ public class BotAI {
      * @param gridSize Taille de la grille de jeu (gridSize x gridSize).
      * @return Une matrice représentant le niveau de danger pour chaque case.
      */
-    private int[][] computeDangerMap(List<BombermanGame.Bomb> bombs, boolean[][] walls, boolean[][] destructibleBlocks, int gridSize) {
+    int[][] computeDangerMap(List<BombermanGame.Bomb> bombs, boolean[][] walls, boolean[][] destructibleBlocks, int gridSize) {
         int[][] danger = new int[gridSize][gridSize];
 
         for (BombermanGame.Bomb bomb : bombs) {
@@ -275,6 +385,7 @@ public class BotAI {
 
         while (!queue.isEmpty() && safePoint == null) {
             int[] current = queue.poll();
+            nodesExpanded++;
             int x = current[0], y = current[1];
 
             // Si cette position est sûre, c'est notre destination
@@ -370,7 +481,7 @@ public class BotAI {
      * @param gridSize Taille de la grille de jeu (gridSize x gridSize).
      * @return Un objet PathResult contenant le chemin et le coût total, ou null si aucun chemin n'est trouvé.
      */
-    private PathResult findOptimalPath(BombermanGame.Player bot, BombermanGame.Player target, boolean[][] walls, boolean[][] destructibleBlocks, List<BombermanGame.Bomb> bombs, int[][] danger, int gridSize) {
+    PathResult findOptimalPath(BombermanGame.Player bot, BombermanGame.Player target, boolean[][] walls, boolean[][] destructibleBlocks, List<BombermanGame.Bomb> bombs, int[][] danger, int gridSize) {
         // Tableau pour marquer les nœuds visités
         boolean[][] closed = new boolean[gridSize][gridSize];
 
@@ -387,6 +498,7 @@ public class BotAI {
 
         while (!openSet.isEmpty()) {
             Node current = openSet.poll();
+            nodesExpanded++;
 
             // Si nous avons atteint la cible (ou une case adjacente à la cible)
             if (current.x == target.x && current.y == target.y ||
@@ -516,7 +628,7 @@ public class BotAI {
      * @param gridSize Taille de la grille de jeu (gridSize x gridSize).
      * @return true si le bot peut s'échapper, false sinon.
      */
-    private boolean canEscapeAfterBomb(BombermanGame.Player bot, List<BombermanGame.Bomb> bombs, boolean[][] walls, boolean[][] destructibleBlocks, int gridSize) {
+    boolean canEscapeAfterBomb(BombermanGame.Player bot, List<BombermanGame.Bomb> bombs, boolean[][] walls, boolean[][] destructibleBlocks, int gridSize) {
         // Simule la pose d'une bombe
         List<BombermanGame.Bomb> simulatedBombs = new ArrayList<>(bombs);
         BombermanGame.Bomb fakeBomb = game.new Bomb(bot.x, bot.y, bot);
@@ -535,6 +647,7 @@ public class BotAI {
 
         while (!queue.isEmpty()) {
             int[] pos = queue.poll();
+            nodesExpanded++;
 
             // Si la position est sûre, on a trouvé une échappatoire
             if (dangerAfterBomb[pos[0]][pos[1]] == 0) {
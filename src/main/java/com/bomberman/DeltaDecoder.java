@@ -0,0 +1,137 @@
+package com.bomberman;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Réplication de l'état d'une salle par différences, côté client : reconstruit chaque état reçu
+ * à partir de l'état de référence qu'il complète ({@link DeltaEncoder}).
+ * <p>
+ * Le client garde les {@value DeltaEncoder#HISTORY} derniers états reçus et acquitte chacun
+ * ({@link Protocol#ACK}) : le serveur n'envoie ensuite que la différence avec un état acquitté,
+ * que le client a donc forcément gardé.
+ * </p>
+ * @author Valentin B.
+ */
+public class DeltaDecoder {
+    private final ReplicaState[] history = new ReplicaState[DeltaEncoder.HISTORY];
+    private final ReplicaState empty = new ReplicaState();
+    private ReplicaState current;
+
+    /**
+     * Décode un message {@link Protocol#STATE}.
+     * @param message le message, positionné après son type (position avancée à sa fin)
+     * @return le nouvel état, à acquitter ; l'état le plus récent reste {@link #getState()}
+     * @throws IllegalStateException si le message est tronqué ou si son état de référence n'a pas été reçu
+     */
+    public ReplicaState decode(ByteBuffer message) {
+        byte[] data;
+        int offset;
+        if (message.hasArray()) {
+            data = message.array();
+            offset = message.arrayOffset() + message.position();
+        } else {
+            data = new byte[message.remaining()];
+            message.duplicate().get(data);
+            offset = 0;
+        }
+        Replay.Decoder in = new Replay.Decoder(data, offset, message.remaining());
+        ReplicaState state = read(in);
+        message.position(message.position() + in.position() - offset);
+        if (current == null || state.seq > current.seq) current = state;
+        return state;
+    }
+
+    /**
+     * @return l'état reçu le plus récent, ou null
+     */
+    public ReplicaState getState() {
+        return current;
+    }
+
+    private ReplicaState read(Replay.Decoder in) {
+        int seq = in.readVarintInt();
+        int gap = in.readVarintInt();
+        if (seq <= 0) throw new IllegalStateException("Numéro d'état invalide: " + seq);
+        if (gap < 0 || gap >= seq) throw new IllegalStateException("Écart d'état invalide: " + gap + " pour l'état " + seq);
+        if (gap >= DeltaEncoder.HISTORY) throw new IllegalStateException("État de référence trop ancien: " + (seq - gap));
+        ReplicaState base = empty;
+        if (gap > 0) {
+            base = history[(seq - gap) % DeltaEncoder.HISTORY];
+            if (base == null || base.seq != seq - gap) {
+                throw new IllegalStateException("État de référence " + (seq - gap) + " inconnu");
+            }
+        }
+
+        ReplicaState state = history[seq % DeltaEncoder.HISTORY];
+        if (state == null) state = history[seq % DeltaEncoder.HISTORY] = new ReplicaState();
+        state.seq = seq;
+        state.gridSize = base.gridSize;
+        if (state.blocks.length != base.blocks.length) state.blocks = new long[base.blocks.length];
+        System.arraycopy(base.blocks, 0, state.blocks, 0, base.blocks.length);
+        state.tick = in.readVarintInt();
+        state.ended = in.readByte() != 0;
+        if (gap == 0) {
+            state.gridSize = in.readVarintInt();
+            if (state.gridSize <= 0 || state.gridSize > BombermanGame.MAX_ARENA_SIZE) {
+                throw new IllegalStateException("Taille d'arène invalide: " + state.gridSize);
+            }
+            state.blocks = new long[(state.gridSize * state.gridSize + 63) / 64];
+        }
+
+        int changed = in.readVarintInt();
+        int index = 0;
+        for (int i = 0; i < changed; i++) {
+            index += in.readVarintInt();
+            if (index >= state.blocks.length) throw new IllegalStateException("Mot de blocs hors de l'arène: " + index);
+            state.blocks[index] ^= in.readLong();
+        }
+
+        readEntities(in, base.players, state.players);
+        readEntities(in, base.bombs, state.bombs);
+        readEntities(in, base.powerUps, state.powerUps);
+        return state;
+    }
+
+    // Fusion des entités de référence (triées) et des opérations (triées par identifiant)
+    private static void readEntities(Replay.Decoder in, ReplicaState.Entities from, ReplicaState.Entities to) {
+        int fields = to.fields;
+        to.clear();
+        int ops = in.readVarintInt();
+        int i = 0;
+        for (int op = 0; op < ops; op++) {
+            long header = in.readVarint();
+            int id = (int) (header >>> 2);
+            int kind = (int) (header & 3);
+            while (i < from.count && from.ids[i] < id) {
+                copy(from, i++, to);
+            }
+            boolean known = i < from.count && from.ids[i] == id;
+            if (kind == DeltaEncoder.CREATE) {
+                if (known) throw new IllegalStateException("Entité " + id + " déjà créée");
+                int at = to.add(id);
+                for (int f = 0; f < fields; f++) {
+                    to.values[at + f] = in.readVarintInt();
+                }
+            } else if (!known) {
+                throw new IllegalStateException("Entité " + id + " inconnue");
+            } else if (kind == DeltaEncoder.UPDATE) {
+                int at = copy(from, i++, to);
+                int mask = in.readByte();
+                for (int f = 0; f < fields; f++) {
+                    if ((mask & 1 << f) != 0) to.values[at + f] = in.readVarintInt();
+                }
+            } else {
+                i++; // détruite
+            }
+        }
+        while (i < from.count) {
+            copy(from, i++, to);
+        }
+    }
+
+    private static int copy(ReplicaState.Entities from, int index, ReplicaState.Entities to) {
+        int at = to.add(from.ids[index]);
+        System.arraycopy(from.values, index * from.fields, to.values, at, from.fields);
+        return at;
+    }
+}
@@ -0,0 +1,200 @@
+package com.bomberman;
+
+import java.nio.ByteBuffer;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Réplication de l'état d'une salle par différences : côté serveur, chaque état envoyé n'est que
+ * la différence avec le dernier état acquitté par le client ({@link Protocol#ACK}).
+ * <p>
+ * Le serveur garde les {@value #HISTORY} derniers états relevés. Un client qui vient d'arriver,
+ * ou dont le dernier état acquitté est trop ancien (messages perdus), reçoit un état complet,
+ * c'est-à-dire la différence avec un état vide. Les clients d'une salle acquittent en général
+ * le même état : chaque différence n'est calculée qu'une fois par tick et par état de référence.
+ * </p>
+ * <pre>
+ * "S", numéro de l'état, écart avec l'état de référence (0 : état complet), tick, fin de partie,
+ * [taille de l'arène si état complet]
+ * blocs    : nombre de mots changés, puis pour chacun : écart d'indice, XOR du mot (cases changées)
+ * entités  : joueurs, bombes, power-ups : nombre d'opérations, puis pour chacune
+ *            identifiant * 4 + opération (création, mise à jour, destruction),
+ *            création : tous les champs ; mise à jour : masque des champs changés, puis ces champs
+ * </pre>
+ * Les entiers sont à longueur variable ({@link Replay.Encoder}) : un état où seuls un joueur
+ * et une mèche ont changé tient en une quinzaine d'octets.
+ * @author Valentin B.
+ */
+class DeltaEncoder {
+    static final int HISTORY = 64;
+    static final int CREATE = 0, UPDATE = 1, DESTROY = 2;
+    private static final int CACHED_BASES = 4;
+
+    private final ReplicaState[] history = new ReplicaState[HISTORY];
+    private final ReplicaState empty = new ReplicaState();
+    private final Map<BombermanGame.Bomb, int[]> bombIds = new IdentityHashMap<>(); // identifiant, dernier relevé
+    private int nextBombId = 1;
+    private int seq;
+
+    // Différences du dernier état, par état de référence
+    private final int[] cachedBase = new int[CACHED_BASES];
+    private final Replay.Encoder[] cached = new Replay.Encoder[CACHED_BASES];
+    private int cachedCount;
+
+    /**
+     * Relève l'état de la partie, qui devient l'état courant.
+     * @param game la partie
+     * @return le numéro de l'état (à partir de 1)
+     */
+    int capture(BombermanGame game) {
+        seq++;
+        ReplicaState state = history[seq % HISTORY];
+        if (state == null) state = history[seq % HISTORY] = new ReplicaState();
+        int current = seq;
+        state.capture(game, seq, bomb -> {
+            int[] entry = bombIds.computeIfAbsent(bomb, b -> new int[]{nextBombId++, 0});
+            entry[1] = current;
+            return entry[0];
+        });
+        bombIds.values().removeIf(entry -> entry[1] != current);
+        cachedCount = 0;
+        return seq;
+    }
+
+    /**
+     * @return le numéro du dernier état relevé
+     */
+    int getSeq() {
+        return seq;
+    }
+
+    /**
+     * @return le dernier état relevé
+     */
+    ReplicaState getState() {
+        return history[seq % HISTORY];
+    }
+
+    /**
+     * @param seq le numéro d'un état récent
+     * @return cet état, ou null s'il n'est plus dans l'historique
+     */
+    ReplicaState getState(int seq) {
+        return hasBaseline(seq) ? history[seq % HISTORY] : null;
+    }
+
+    /**
+     * @param base le numéro d'un état acquitté par le client, ou 0 s'il n'en a aucun
+     * @return true si la différence avec cet état est possible (sinon l'état est envoyé complet) :
+     *         état encore dans l'historique, de la même taille d'arène que l'état courant
+     */
+    boolean hasBaseline(int base) {
+        return base > 0 && base <= seq && seq - base < HISTORY && history[base % HISTORY] != null
+                && history[base % HISTORY].gridSize == history[seq % HISTORY].gridSize;
+    }
+
+    /**
+     * Écrit le message {@link Protocol#STATE} de l'état courant pour un client.
+     * @param base le dernier état acquitté par le client, ou 0 (état complet)
+     * @return le message, valable jusqu'au prochain relevé
+     */
+    ByteBuffer encode(int base) {
+        if (!hasBaseline(base)) base = 0;
+        for (int i = 0; i < cachedCount; i++) {
+            if (cachedBase[i] == base) return cached[i].asByteBuffer();
+        }
+        int slot = cachedCount < CACHED_BASES ? cachedCount++ : CACHED_BASES - 1;
+        if (cached[slot] == null) cached[slot] = new Replay.Encoder(256);
+        cachedBase[slot] = base;
+        Replay.Encoder out = cached[slot];
+        out.reset();
+        write(base > 0 ? history[base % HISTORY] : empty, history[seq % HISTORY], base, out);
+        return out.asByteBuffer();
+    }
+
+    private static void write(ReplicaState from, ReplicaState to, int base, Replay.Encoder out) {
+        out.writeByte(Protocol.STATE);
+        out.writeVarint(to.seq);
+        out.writeVarint(base > 0 ? to.seq - base : 0);
+        out.writeVarint(to.tick);
+        out.writeByte(to.ended ? 1 : 0);
+        if (base == 0) out.writeVarint(to.gridSize);
+
+        // Blocs : seulement les mots qui ont changé, par le XOR de leurs cases
+        // (état de référence de la même arène, ou arène vide pour un état complet)
+        int changed = 0;
+        for (int i = 0; i < to.blocks.length; i++) {
+            if (word(from, i, base) != to.blocks[i]) changed++;
+        }
+        out.writeVarint(changed);
+        int last = 0;
+        for (int i = 0; i < to.blocks.length; i++) {
+            long xor = word(from, i, base) ^ to.blocks[i];
+            if (xor != 0) {
+                out.writeVarint(i - last);
+                out.writeLong(xor);
+                last = i;
+            }
+        }
+
+        writeEntities(from.players, to.players, out);
+        writeEntities(from.bombs, to.bombs, out);
+        writeEntities(from.powerUps, to.powerUps, out);
+    }
+
+    private static long word(ReplicaState from, int i, int base) {
+        return base > 0 ? from.blocks[i] : 0;
+    }
+
+    // Fusion des deux listes triées par identifiant : disparues, apparues, changées
+    private static void writeEntities(ReplicaState.Entities from, ReplicaState.Entities to, Replay.Encoder out) {
+        int ops = 0;
+        for (int i = 0, j = 0; i < from.count || j < to.count; ) {
+            int order = compare(from, i, to, j);
+            if (order != 0 || differs(from, i, to, j)) ops++;
+            if (order <= 0) i++;
+            if (order >= 0) j++;
+        }
+        out.writeVarint(ops);
+        int fields = to.fields;
+        for (int i = 0, j = 0; i < from.count || j < to.count; ) {
+            int order = compare(from, i, to, j);
+            if (order < 0) {
+                out.writeVarint((long) from.ids[i] << 2 | DESTROY);
+            } else if (order > 0) {
+                out.writeVarint((long) to.ids[j] << 2 | CREATE);
+                for (int f = 0; f < fields; f++) {
+                    out.writeVarint(to.values[j * fields + f]);
+                }
+            } else if (differs(from, i, to, j)) {
+                out.writeVarint((long) to.ids[j] << 2 | UPDATE);
+                int mask = 0;
+                for (int f = 0; f < fields; f++) {
+                    if (from.values[i * fields + f] != to.values[j * fields + f]) mask |= 1 << f;
+                }
+                out.writeByte(mask);
+                for (int f = 0; f < fields; f++) {
+                    if ((mask & 1 << f) != 0) out.writeVarint(to.values[j * fields + f]);
+                }
+            }
+            if (order <= 0) i++;
+            if (order >= 0) j++;
+        }
+    }
+
+    // < 0 : l'entité i n'existe plus, > 0 : l'entité j est nouvelle, 0 : la même entité
+    private static int compare(ReplicaState.Entities from, int i, ReplicaState.Entities to, int j) {
+        if (i >= from.count) return 1;
+        if (j >= to.count) return -1;
+        return Integer.compare(from.ids[i], to.ids[j]);
+    }
+
+    private static boolean differs(ReplicaState.Entities from, int i, ReplicaState.Entities to, int j) {
+        if (i >= from.count || j >= to.count || from.ids[i] != to.ids[j]) return false;
+        int fields = to.fields;
+        for (int f = 0; f < fields; f++) {
+            if (from.values[i * fields + f] != to.values[j * fields + f]) return true;
+        }
+        return false;
+    }
+}
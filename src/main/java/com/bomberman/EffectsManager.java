@@ -0,0 +1,299 @@
+package com.bomberman;
+
+import javafx.animation.Animation;
+import javafx.animation.FadeTransition;
+import javafx.animation.ScaleTransition;
+import javafx.animation.Transition;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.util.Duration;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gestionnaire des effets visuels éphémères de la partie (pulsations, fondus, clignotements).
+ * <p>
+ * Chaque effet lancé est suivi jusqu'à sa fin : il peut être arrêté quand son entité disparaît
+ * (bombe qui explose, power-up ramassé) et tous les effets de la partie sont arrêtés au
+ * redémarrage, ce qui évite d'accumuler des animations orphelines sur de longues sessions.
+ * Les transitions terminées sont réutilisées, de même que les vues d'explosion
+ * (prises dans la {@link ViewPool} de la partie) et les textes de protection.
+ * </p>
+ * <p>
+ * À utiliser sur le thread JavaFX.
+ * </p>
+ * @author Valentin B.
+ */
+public class EffectsManager {
+
+    /**
+     * Types d'effets suivis.
+     */
+    public enum Kind {
+        PULSE,   // pulsation (bombes, power-ups, texte du vainqueur)
+        FADE,    // fondu de disparition (explosions, texte de protection)
+        BLINK    // clignotement (invincibilité)
+    }
+
+    /**
+     * Effet en cours : la transition, son type et l'action de fin éventuelle.
+     */
+    private static class Effect {
+        Transition transition;
+        Kind kind;
+        Runnable onFinished;
+    }
+
+    private final List<Effect> active = new ArrayList<>();
+    private final Map<Kind, Integer> activeCounts = new EnumMap<>(Kind.class);
+
+    // Transitions et noeuds réutilisables
+    private final Deque<ScaleTransition> spareScales = new ArrayDeque<>();
+    private final Deque<FadeTransition> spareFades = new ArrayDeque<>();
+    private final Deque<Effect> spareEffects = new ArrayDeque<>();
+    private final NodePool<Label> shieldLabels = new NodePool<>(Label::new);
+
+    public EffectsManager() {
+        for (Kind kind : Kind.values()) {
+            activeCounts.put(kind, 0);
+        }
+    }
+
+    /**
+     * Lance une pulsation (agrandissement aller-retour) sur un noeud.
+     *
+     * @param node le noeud à animer
+     * @param durationMs durée d'un aller en ms
+     * @param fromScale échelle de départ
+     * @param toScale échelle d'arrivée
+     * @param cycleCount nombre de cycles, ou {@link Animation#INDEFINITE}
+     */
+    public void pulse(Node node, double durationMs, double fromScale, double toScale, int cycleCount) {
+        ScaleTransition scale = spareScales.isEmpty() ? new ScaleTransition() : spareScales.pop();
+        scale.setNode(node);
+        scale.setDuration(Duration.millis(durationMs));
+        scale.setDelay(Duration.ZERO);
+        scale.setFromX(fromScale);
+        scale.setFromY(fromScale);
+        scale.setToX(toScale);
+        scale.setToY(toScale);
+        scale.setAutoReverse(true);
+        scale.setCycleCount(cycleCount);
+        start(scale, Kind.PULSE, null);
+        if (node.getParent() == null) {
+            scale.pause(); // hors de la scène : reprend avec resume
+        }
+    }
+
+    /**
+     * Lance un clignotement (variation d'opacité aller-retour) sur un noeud.
+     *
+     * @param node le noeud à animer
+     * @param durationMs durée d'un aller en ms
+     * @param fromOpacity opacité de départ
+     * @param toOpacity opacité d'arrivée
+     * @param cycleCount nombre de cycles
+     * @param onFinished action à la fin normale du clignotement (peut être null)
+     */
+    public void blink(Node node, double durationMs, double fromOpacity, double toOpacity, int cycleCount,
+                      Runnable onFinished) {
+        FadeTransition fade = fade(node, durationMs, 0, fromOpacity, toOpacity);
+        fade.setAutoReverse(true);
+        fade.setCycleCount(cycleCount);
+        start(fade, Kind.BLINK, onFinished);
+    }
+
+    /**
+     * Affiche une explosion sur une case, qui disparaît en fondu.
+     *
+     * @param layer le calque des entités de l'arène
+     * @param x colonne de la case
+     * @param y ligne de la case
+     * @param views la réserve de vues de la partie
+     * @param image l'image d'explosion, déclarée dans la réserve
+     * @param durationMs durée du fondu en ms
+     */
+    public void showExplosion(EntityLayer layer, int x, int y, ViewPool views, Image image, double durationMs) {
+        ImageView view = views.acquire(image);
+        fadeOutTransient(layer, x, y, view, durationMs, 0, () -> views.release(view));
+    }
+
+    /**
+     * Affiche un texte de protection sur une case, qui disparaît en fondu.
+     *
+     * @param layer le calque des entités de l'arène
+     * @param x colonne de la case
+     * @param y ligne de la case
+     * @param text le texte à afficher
+     * @param styleClass la classe CSS du texte
+     * @param durationMs durée du fondu en ms
+     * @param delayMs délai avant le début du fondu en ms
+     */
+    public void showShieldText(EntityLayer layer, int x, int y, String text, String styleClass, double durationMs, double delayMs) {
+        Label label = shieldLabels.acquire();
+        label.setText(text);
+        if (!label.getStyleClass().contains(styleClass)) {
+            label.getStyleClass().add(styleClass);
+        }
+        label.setOpacity(1.0);
+        fadeOutTransient(layer, x, y, label, durationMs, delayMs, () -> shieldLabels.release(label));
+    }
+
+    /**
+     * Ajoute un noeud sur une case puis le retire à la fin de son fondu (ou à l'arrêt de l'effet).
+     */
+    private void fadeOutTransient(EntityLayer layer, int x, int y, Node node, double durationMs, double delayMs,
+                                  Runnable release) {
+        layer.addAt(node, x, y);
+        FadeTransition fade = fade(node, durationMs, delayMs, 1.0, 0.0);
+        fade.setAutoReverse(false);
+        fade.setCycleCount(1);
+        start(fade, Kind.FADE, () -> {
+            layer.remove(node);
+            release.run();
+        });
+    }
+
+    private FadeTransition fade(Node node, double durationMs, double delayMs, double from, double to) {
+        FadeTransition fade = spareFades.isEmpty() ? new FadeTransition() : spareFades.pop();
+        fade.setNode(node);
+        fade.setDuration(Duration.millis(durationMs));
+        fade.setDelay(Duration.millis(delayMs));
+        fade.setFromValue(from);
+        fade.setToValue(to);
+        return fade;
+    }
+
+    private void start(Transition transition, Kind kind, Runnable onFinished) {
+        Effect effect = spareEffects.isEmpty() ? new Effect() : spareEffects.pop();
+        effect.transition = transition;
+        effect.kind = kind;
+        effect.onFinished = onFinished;
+        transition.setOnFinished(e -> finish(effect, true));
+
+        active.add(effect);
+        activeCounts.merge(kind, 1, Integer::sum);
+        transition.play();
+    }
+
+    /**
+     * Arrête les effets appliqués à un noeud (bombe qui explose, power-up ramassé...).
+     * Le noeud retrouve son échelle et son opacité normales.
+     *
+     * @param node le noeud concerné
+     */
+    public void stop(Node node) {
+        for (int i = active.size() - 1; i >= 0; i--) {
+            Effect effect = active.get(i);
+            if (effect.transition != null && node(effect.transition) == node) {
+                effect.transition.stop();
+                finish(effect, false);
+            }
+        }
+    }
+
+    /**
+     * Met en pause les pulsations d'un noeud retiré de la scène (hors de la fenêtre) :
+     * elles ne coûtent plus rien jusqu'à {@link #resume}. Les fondus et clignotements
+     * continuent, leur fin déclenche une action.
+     *
+     * @param node le noeud concerné
+     */
+    public void pause(Node node) {
+        for (int i = 0; i < active.size(); i++) {
+            Effect effect = active.get(i);
+            if (effect.kind == Kind.PULSE && node(effect.transition) == node) {
+                effect.transition.pause();
+            }
+        }
+    }
+
+    /**
+     * Reprend les pulsations d'un noeud revenu dans la scène.
+     *
+     * @param node le noeud concerné
+     */
+    public void resume(Node node) {
+        for (int i = 0; i < active.size(); i++) {
+            Effect effect = active.get(i);
+            if (effect.kind == Kind.PULSE && node(effect.transition) == node
+                    && effect.transition.getStatus() == Animation.Status.PAUSED) {
+                effect.transition.play();
+            }
+        }
+    }
+
+    /**
+     * Arrête tous les effets de la partie (redémarrage).
+     * Les noeuds éphémères sont retirés de la grille.
+     */
+    public void stopAll() {
+        for (int i = active.size() - 1; i >= 0; i--) {
+            Effect effect = active.get(i);
+            effect.transition.stop();
+            finish(effect, false);
+        }
+    }
+
+    /**
+     * Termine un effet et recycle sa transition.
+     * Les fondus éphémères sont toujours nettoyés ; les autres actions de fin
+     * ne sont jouées que si l'effet est allé à son terme.
+     */
+    private void finish(Effect effect, boolean completed) {
+        if (!active.remove(effect)) return;
+        activeCounts.merge(effect.kind, -1, Integer::sum);
+
+        Transition transition = effect.transition;
+        Node node = node(transition);
+        if (node != null) {
+            node.setScaleX(1.0);
+            node.setScaleY(1.0);
+            node.setOpacity(1.0);
+        }
+        if (effect.onFinished != null && (completed || effect.kind == Kind.FADE)) {
+            effect.onFinished.run();
+        }
+
+        transition.setOnFinished(null);
+        if (transition instanceof ScaleTransition) {
+            ((ScaleTransition) transition).setNode(null);
+            spareScales.push((ScaleTransition) transition);
+        } else if (transition instanceof FadeTransition) {
+            ((FadeTransition) transition).setNode(null);
+            spareFades.push((FadeTransition) transition);
+        }
+
+        effect.transition = null;
+        effect.onFinished = null;
+        spareEffects.push(effect);
+    }
+
+    private static Node node(Transition transition) {
+        if (transition instanceof ScaleTransition) return ((ScaleTransition) transition).getNode();
+        if (transition instanceof FadeTransition) return ((FadeTransition) transition).getNode();
+        return null;
+    }
+
+    /**
+     * @return le nombre d'effets en cours
+     */
+    public int getActiveCount() {
+        return active.size();
+    }
+
+    /**
+     * @param kind un type d'effet
+     * @return le nombre d'effets en cours de ce type
+     */
+    public int getActiveCount(Kind kind) {
+        return activeCounts.get(kind);
+    }
+}
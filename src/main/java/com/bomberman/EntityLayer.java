@@ -0,0 +1,293 @@
+package com.bomberman;
+
+import javafx.scene.Node;
+import javafx.scene.layout.Pane;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Calque affiché par-dessus la grille, où sont dessinées les entités de l'arène
+ * (joueurs, bombes, power-ups, explosions).
+ * <p>
+ * Les entités sont rangées par région de {@value #REGION_CELLS} x {@value #REGION_CELLS}
+ * cases, selon la case d'arrivée de leur {@link Motion}. Seules celles des régions qui
+ * recouvrent la fenêtre visible sont attachées au calque : les autres ne sont ni dans
+ * la scène ni parcourues à chaque frame, comme les cases du terrain dans {@link ArenaView}.
+ * Une entité qui change de région (joueur, bombe poussée) est reclassée au moment
+ * du pas, via son {@link Motion}.
+ * </p>
+ * <p>
+ * À chaque frame, les entités attachées sont positionnées à la position interpolée
+ * de leur déplacement, en coordonnées de l'arène.
+ * </p>
+ * @author Valentin B.
+ */
+public class EntityLayer {
+    static final int REGION_CELLS = 8;
+
+    /**
+     * Entité du calque : son noeud, son déplacement et la région où elle est rangée.
+     * Prévenue par son {@link Motion} à chaque pas pour changer de région si besoin.
+     */
+    private final class Entity implements Runnable {
+        final Node node;
+        final Motion motion;
+        final boolean owned;
+        int region = -1;
+        boolean attached;
+
+        Entity(Node node, Motion motion, boolean owned) {
+            this.node = node;
+            this.motion = motion;
+            this.owned = owned;
+        }
+
+        @Override
+        public void run() {
+            file(this);
+        }
+    }
+
+    private final Pane layer;
+    private final double pitch;
+    private final double cellSize;
+
+    private final Map<Node, Entity> entities = new HashMap<>();
+    private final List<Entity> attached = new ArrayList<>();
+    private final NodePool<Motion> fixedMotions = new NodePool<>(() -> new Motion(0, 0));
+
+    // Régions de l'arène (créées à la demande) et régions attachées, bornes incluses
+    private List<Entity>[] regions = newRegions(0);
+    private int regionsPerSide;
+    private int minRegionX, minRegionY;
+    private int maxRegionX = -1, maxRegionY = -1;
+
+    private Consumer<Node> onAttach = node -> { };
+    private Consumer<Node> onDetach = node -> { };
+
+    /**
+     * @param layer le calque superposé à la grille (même origine)
+     * @param pitch la distance entre deux cases en pixels
+     * @param cellSize la taille d'une case en pixels
+     */
+    public EntityLayer(Pane layer, double pitch, double cellSize) {
+        this.layer = layer;
+        this.pitch = pitch;
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Actions appelées quand un noeud entre dans la scène ou en sort
+     * (par exemple pour suspendre ses animations).
+     *
+     * @param onAttach appelée après l'ajout du noeud au calque
+     * @param onDetach appelée après son retrait, hors {@link #remove} et {@link #reset}
+     */
+    public void setAttachListener(Consumer<Node> onAttach, Consumer<Node> onDetach) {
+        this.onAttach = onAttach;
+        this.onDetach = onDetach;
+    }
+
+    /**
+     * Ajoute une entité mobile au calque.
+     * @param node son noeud
+     * @param motion son déplacement
+     */
+    public void add(Node node, Motion motion) {
+        add(node, motion, false);
+    }
+
+    /**
+     * Ajoute une entité immobile au calque.
+     * @param node son noeud
+     * @param x colonne
+     * @param y ligne
+     */
+    public void addAt(Node node, int x, int y) {
+        Motion motion = fixedMotions.acquire();
+        motion.place(x, y);
+        add(node, motion, true);
+    }
+
+    private void add(Node node, Motion motion, boolean owned) {
+        Entity entity = new Entity(node, motion, owned);
+        entities.put(node, entity);
+        motion.setListener(entity);
+        file(entity);
+    }
+
+    /**
+     * Retire une entité du calque.
+     * @param node son noeud
+     */
+    public void remove(Node node) {
+        Entity entity = entities.remove(node);
+        if (entity == null) return;
+        regions[entity.region].remove(entity);
+        if (entity.attached) {
+            attached.remove(entity);
+            layer.getChildren().remove(node);
+        }
+        release(entity);
+    }
+
+    /**
+     * Retire toutes les entités et découpe en régions une nouvelle arène.
+     * @param arenaSize le côté de l'arène en cases
+     */
+    public void reset(int arenaSize) {
+        for (Entity entity : entities.values()) {
+            release(entity);
+        }
+        entities.clear();
+        attached.clear();
+        layer.getChildren().clear();
+        regionsPerSide = (arenaSize + REGION_CELLS - 1) / REGION_CELLS;
+        regions = newRegions(regionsPerSide * regionsPerSide);
+        minRegionX = minRegionY = 0;
+        maxRegionX = maxRegionY = -1;
+    }
+
+    /**
+     * @return le nombre d'entités du calque
+     */
+    public int size() {
+        return entities.size();
+    }
+
+    /**
+     * @return le nombre d'entités attachées à la scène
+     */
+    public int attachedCount() {
+        return attached.size();
+    }
+
+    /**
+     * Attache les régions qui recouvrent la fenêtre, détache les autres,
+     * puis positionne les entités attachées.
+     *
+     * @param now instant de la frame en nanosecondes
+     * @param minX colonne minimale visible
+     * @param minY ligne minimale visible
+     * @param maxX colonne maximale visible
+     * @param maxY ligne maximale visible
+     */
+    public void render(long now, double minX, double minY, double maxX, double maxY) {
+        // Une case de marge : une entité en plein pas peut déborder de sa case d'arrivée
+        int fromX = regionOf(minX - 1);
+        int fromY = regionOf(minY - 1);
+        int toX = regionOf(maxX + 1);
+        int toY = regionOf(maxY + 1);
+        if (fromX != minRegionX || fromY != minRegionY || toX != maxRegionX || toY != maxRegionY) {
+            moveWindow(fromX, fromY, toX, toY);
+        }
+        for (int i = 0; i < attached.size(); i++) {
+            Entity entity = attached.get(i);
+            position(entity.node, entity.motion.getX(now), entity.motion.getY(now));
+        }
+    }
+
+    private void moveWindow(int fromX, int fromY, int toX, int toY) {
+        int oldFromX = minRegionX, oldFromY = minRegionY;
+        int oldToX = maxRegionX, oldToY = maxRegionY;
+        minRegionX = fromX;
+        minRegionY = fromY;
+        maxRegionX = toX;
+        maxRegionY = toY;
+
+        for (int i = attached.size() - 1; i >= 0; i--) {
+            Entity entity = attached.get(i);
+            if (!inWindow(entity.region)) {
+                detach(entity);
+            }
+        }
+        for (int ry = fromY; ry <= toY; ry++) {
+            for (int rx = fromX; rx <= toX; rx++) {
+                boolean wasAttached = rx >= oldFromX && rx <= oldToX && ry >= oldFromY && ry <= oldToY;
+                List<Entity> bucket = regions[ry * regionsPerSide + rx];
+                if (wasAttached || bucket == null) continue;
+                for (int i = 0; i < bucket.size(); i++) {
+                    attach(bucket.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Range une entité dans la région de sa case d'arrivée,
+     * puis l'attache ou la détache selon que cette région est visible.
+     */
+    private void file(Entity entity) {
+        int region = regionOf(entity.motion.getTargetY()) * regionsPerSide
+                + regionOf(entity.motion.getTargetX());
+        if (region == entity.region) return;
+        if (entity.region >= 0) {
+            regions[entity.region].remove(entity);
+        }
+        if (regions[region] == null) {
+            regions[region] = new ArrayList<>();
+        }
+        regions[region].add(entity);
+        entity.region = region;
+
+        boolean visible = inWindow(region);
+        if (visible && !entity.attached) {
+            attach(entity);
+        } else if (!visible && entity.attached) {
+            detach(entity);
+        }
+    }
+
+    private void attach(Entity entity) {
+        entity.attached = true;
+        attached.add(entity);
+        layer.getChildren().add(entity.node);
+        place(entity.node, entity.motion, System.nanoTime());
+        onAttach.accept(entity.node);
+    }
+
+    private void detach(Entity entity) {
+        entity.attached = false;
+        attached.remove(entity);
+        layer.getChildren().remove(entity.node);
+        onDetach.accept(entity.node);
+    }
+
+    private void release(Entity entity) {
+        entity.motion.setListener(null);
+        if (entity.owned) {
+            fixedMotions.release(entity.motion);
+        }
+    }
+
+    private boolean inWindow(int region) {
+        int rx = region % regionsPerSide;
+        int ry = region / regionsPerSide;
+        return rx >= minRegionX && rx <= maxRegionX && ry >= minRegionY && ry <= maxRegionY;
+    }
+
+    private int regionOf(double cell) {
+        int region = (int) Math.floor(cell / REGION_CELLS);
+        return Math.max(0, Math.min(region, regionsPerSide - 1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Entity>[] newRegions(int count) {
+        return (List<Entity>[]) new List<?>[count];
+    }
+
+    private void place(Node node, Motion motion, long now) {
+        position(node, motion.getX(now), motion.getY(now));
+    }
+
+    private void position(Node node, double x, double y) {
+        double width = node.getLayoutBounds().getWidth();
+        double height = node.getLayoutBounds().getHeight();
+        node.setTranslateX(x * pitch + (cellSize - width) / 2);
+        node.setTranslateY(y * pitch + (cellSize - height) / 2);
+    }
+}
@@ -0,0 +1,236 @@
+package com.bomberman;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * Mesures de performance de la partie : images par seconde, durée des ticks de simulation
+ * et temps passé dans chaque section chaude (entrées, bots, explosions, rendu).
+ * <p>
+ * Les mesures sont gardées dans des tampons circulaires de taille fixe ({@value #WINDOW}
+ * derniers échantillons) alloués une fois pour toutes : enregistrer un échantillon ne fait
+ * aucune allocation, la collecte peut donc rester active en permanence.
+ * </p>
+ * <p>
+ * Utilisation : {@link #start()} / {@link #stop(Section, long)} autour d'une section,
+ * {@link #endTick(long)} à la fin de chaque tick de simulation et {@link #frame(long)}
+ * à chaque image. Le temps de rendu, mesuré entre deux ticks, est compté dans le tick suivant.
+ * </p>
+ * @author Valentin B.
+ */
+public class FrameStats {
+    public static final int WINDOW = 120; // ~2 s à 60 images par seconde
+
+    // Bornes supérieures (ms) des classes de l'histogramme des ticks, la dernière classe est ouverte
+    public static final double[] HISTOGRAM_BOUNDS_MS = {1, 2, 4, 8, 16, 33};
+
+    /**
+     * Sections chaudes mesurées.
+     */
+    public enum Section {
+        INPUT("Entrées"),
+        BOTS("Bots"),
+        EXPLOSIONS("Explosions"),
+        RENDER("Rendu");
+
+        private final String label;
+
+        Section(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private static final int SECTIONS = Section.values().length;
+
+    private boolean enabled = true;
+
+    // Images : intervalles entre deux images (ns)
+    private final long[] frameIntervals = new long[WINDOW];
+    private int frameCount;
+    private long lastFrame = -1;
+
+    // Ticks : durée totale et temps par section (ns)
+    private final long[] tickTimes = new long[WINDOW];
+    private final long[][] sectionTimes = new long[SECTIONS][WINDOW];
+    private final long[] pendingSections = new long[SECTIONS];
+    private int tickCount;
+
+    // Allocation du thread mesuré (thread JavaFX), par échantillonnage
+    private final com.sun.management.ThreadMXBean threads = allocationBean();
+    private long lastAllocatedBytes = -1;
+    private long lastAllocationSample;
+    private double allocationRate;
+
+    /**
+     * @param enabled false pour ne plus rien mesurer ({@link #start()} renvoie alors 0)
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return l'instant de début d'une section (ns), à passer à {@link #stop(Section, long)}
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Ajoute le temps écoulé depuis {@code start} à une section du tick en cours.
+     * @param section la section mesurée
+     * @param start la valeur renvoyée par {@link #start()}
+     */
+    public void stop(Section section, long start) {
+        if (enabled && start != 0) {
+            pendingSections[section.ordinal()] += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Termine un tick de simulation : sa durée et le temps de chaque section sont enregistrés.
+     * @param tickNanos la durée du tick (ns)
+     */
+    public void endTick(long tickNanos) {
+        if (!enabled) return;
+        int slot = tickCount % WINDOW;
+        tickTimes[slot] = tickNanos;
+        for (int s = 0; s < SECTIONS; s++) {
+            sectionTimes[s][slot] = pendingSections[s];
+            pendingSections[s] = 0;
+        }
+        tickCount++;
+    }
+
+    /**
+     * Enregistre une image affichée.
+     * @param now l'instant de l'image (ns)
+     */
+    public void frame(long now) {
+        if (!enabled) return;
+        if (lastFrame >= 0) {
+            frameIntervals[frameCount % WINDOW] = now - lastFrame;
+            frameCount++;
+        }
+        lastFrame = now;
+    }
+
+    /**
+     * @return le nombre d'images par seconde sur la fenêtre, 0 sans mesure
+     */
+    public double getFps() {
+        int n = Math.min(frameCount, WINDOW);
+        long total = 0;
+        for (int i = 0; i < n; i++) {
+            total += frameIntervals[i];
+        }
+        return total > 0 ? n * 1e9 / total : 0;
+    }
+
+    /**
+     * @return la durée moyenne d'un tick sur la fenêtre (ms)
+     */
+    public double getAverageTickMs() {
+        return average(tickTimes);
+    }
+
+    /**
+     * @return la durée du tick le plus long de la fenêtre (ms)
+     */
+    public double getMaxTickMs() {
+        int n = Math.min(tickCount, WINDOW);
+        long max = 0;
+        for (int i = 0; i < n; i++) {
+            max = Math.max(max, tickTimes[i]);
+        }
+        return max / 1e6;
+    }
+
+    /**
+     * @param section une section
+     * @return le temps moyen passé dans la section par tick sur la fenêtre (ms)
+     */
+    public double getAverageMs(Section section) {
+        return average(sectionTimes[section.ordinal()]);
+    }
+
+    private double average(long[] samples) {
+        int n = Math.min(tickCount, WINDOW);
+        if (n == 0) return 0;
+        long total = 0;
+        for (int i = 0; i < n; i++) {
+            total += samples[i];
+        }
+        return total / 1e6 / n;
+    }
+
+    /**
+     * Remplit l'histogramme des durées de tick de la fenêtre.
+     * @param counts tableau de {@code HISTOGRAM_BOUNDS_MS.length + 1} classes, réutilisé par l'appelant
+     */
+    public void histogram(int[] counts) {
+        Arrays.fill(counts, 0);
+        int n = Math.min(tickCount, WINDOW);
+        for (int i = 0; i < n; i++) {
+            double ms = tickTimes[i] / 1e6;
+            int bucket = 0;
+            while (bucket < HISTOGRAM_BOUNDS_MS.length && ms >= HISTOGRAM_BOUNDS_MS[bucket]) {
+                bucket++;
+            }
+            counts[bucket]++;
+        }
+    }
+
+    /**
+     * Échantillonne les octets alloués par le thread appelant pour calculer le débit d'allocation.
+     * À appeler régulièrement depuis le thread mesuré.
+     * @param now l'instant de l'échantillon (ns)
+     */
+    public void sampleAllocation(long now) {
+        if (threads == null || !enabled) return;
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        if (allocated < 0) return; // mesure non supportée ou désactivée
+        if (lastAllocatedBytes >= 0 && now > lastAllocationSample) {
+            allocationRate = (allocated - lastAllocatedBytes) * 1e9 / (now - lastAllocationSample);
+        }
+        lastAllocatedBytes = allocated;
+        lastAllocationSample = now;
+    }
+
+    /**
+     * @return le débit d'allocation du thread mesuré (octets par seconde), 0 si indisponible
+     */
+    public double getAllocationRate() {
+        return allocationRate;
+    }
+
+    /**
+     * @return le nombre de ticks enregistrés depuis la création
+     */
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+                if (threads.isThreadAllocatedMemorySupported()) {
+                    threads.setThreadAllocatedMemoryEnabled(true);
+                    return threads;
+                }
+            }
+        } catch (UnsupportedOperationException | SecurityException e) {
+            System.err.println("Mesure des allocations indisponible: " + e.getMessage());
+        }
+        return null;
+    }
+}
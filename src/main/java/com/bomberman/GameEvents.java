@@ -0,0 +1,120 @@
+package com.bomberman;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Événements Java Flight Recorder émis par le jeu.
+ * <p>
+ * Chaque événement couvre une opération (tick, explosion, décision d'un bot, sauvegarde
+ * des statistiques, chargement d'une ressource) : sa durée est celle de l'opération.
+ * Hors enregistrement, {@code begin()} et {@code shouldCommit()} ne font rien et les
+ * champs ne sont pas remplis ; le coût est alors négligeable. La durée de l'événement
+ * (en nanosecondes dans l'enregistrement) donne le temps passé dans l'opération.
+ * </p>
+ * <p>
+ * Pour capturer une session : {@code -XX:StartFlightRecording=filename=bomberman.jfr},
+ * puis {@code jfr print --events com.bomberman.Tick bomberman.jfr}.
+ * </p>
+ * @author Valentin B.
+ */
+public final class GameEvents {
+
+    private GameEvents() {
+    }
+
+    @Name("com.bomberman.Tick")
+    @Label("Tick de simulation")
+    @Category({"Bomberman", "Simulation"})
+    public static class Tick extends Event {
+        @Label("Tick")
+        public int tick;
+
+        @Label("Joueurs vivants")
+        public int playersAlive;
+
+        @Label("Bombes")
+        public int bombs;
+
+        @Label("Power-ups")
+        public int powerUps;
+    }
+
+    @Name("com.bomberman.Detonation")
+    @Label("Explosion")
+    @Category({"Bomberman", "Simulation"})
+    public static class Detonation extends Event {
+        @Label("Colonne")
+        public int x;
+
+        @Label("Ligne")
+        public int y;
+
+        @Label("Rayon")
+        public int radius;
+
+        @Label("Bombes en chaîne")
+        @Description("Bombes atteintes par le souffle, qui exploseront à leur tour")
+        public int chainSize;
+
+        @Label("Cases touchées")
+        public int cellsAffected;
+
+        @Label("Blocs détruits")
+        public int blocksDestroyed;
+
+        @Label("Joueurs touchés")
+        public int playersHit;
+    }
+
+    @Name("com.bomberman.BotDecision")
+    @Label("Décision d'un bot")
+    @Category({"Bomberman", "IA"})
+    public static class BotDecision extends Event {
+        @Label("Bot")
+        public String bot;
+
+        @Label("Stratégie")
+        @Description("fuite, attaque, poursuite ou aucune")
+        public String strategy;
+
+        @Label("Noeuds explorés")
+        @Description("Noeuds développés par la recherche de chemin et les recherches de fuite")
+        public int nodesExpanded;
+
+        @Label("Résultat")
+        @Description("déplacement, bombe ou rien")
+        public String outcome;
+    }
+
+    @Name("com.bomberman.StatsSave")
+    @Label("Sauvegarde des statistiques")
+    @Category({"Bomberman", "Persistance"})
+    public static class StatsSave extends Event {
+        @Label("Stockage")
+        public String store;
+
+        @Label("Joueurs")
+        public int players;
+
+        @Label("Réussie")
+        public boolean success;
+    }
+
+    @Name("com.bomberman.AssetLoad")
+    @Label("Chargement d'une ressource")
+    @Category({"Bomberman", "Ressources"})
+    public static class AssetLoad extends Event {
+        @Label("Ressource")
+        public String path;
+
+        @Label("Type")
+        public String kind;
+
+        @Label("Réussi")
+        public boolean success;
+    }
+}
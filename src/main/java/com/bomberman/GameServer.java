@@ -0,0 +1,291 @@
+package com.bomberman;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serveur de jeu faisant autorité ({@code Main --server}) : il simule les parties de nombreuses
+ * salles ({@link ServerRoom}) et n'accepte des clients que leurs actions.
+ * <p>
+ * Le serveur ne dépend pas du transport : il reçoit les messages de ses clients comme
+ * {@link NetHandler}, que ce soit par TCP ({@link TcpServer}, un seul thread pour toutes les
+ * connexions) ou par une liaison locale. Les salles sont créées au premier client et fermées
+ * au départ du dernier ; leurs ticks sont répartis sur un groupe de threads de simulation,
+ * un par coeur par défaut, indépendamment du nombre de connexions. Sans thread de simulation,
+ * les salles n'avancent qu'à l'appel de {@link #tick()} (tests et mesures sur {@link LoopbackNetwork}).
+ * </p>
+ * <p>
+ * Les métriques {@code server.*} du registre ({@link Metrics}) donnent le nombre de salles et de
+ * clients, le débit et la durée des ticks ; {@link #report(PrintStream)} détaille le coût de chaque salle.
+ * </p>
+ * @author Valentin B.
+ */
+public class GameServer implements NetHandler, Closeable {
+    static final String USAGE = String.join(System.lineSeparator(),
+            "Usage : Main --server [options]",
+            "  --port P          port TCP (" + Protocol.DEFAULT_PORT + ")",
+            "  --size N          taille de l'arène des salles (15)",
+            "  --players N       places par salle, clients et bots (4)",
+            "  --tick-threads N  threads de simulation (nombre de coeurs)",
+            "  --report S        intervalle en secondes du relevé par salle (10)");
+
+    private final int arenaSize;
+    private final int playerCount;
+    private final ScheduledExecutorService ticker; // null : ticks à la demande
+    private Long roomSeed;
+    private MatchRecordStore matchRecords; // null : résultats détaillés non enregistrés
+    private Path replayDirectory; // null : parties non enregistrées en replay
+    private final ConcurrentMap<Integer, ServerRoom> rooms = new ConcurrentHashMap<>();
+    private final ConcurrentMap<NetLink, ServerRoom> members = new ConcurrentHashMap<>();
+    private final Map<Integer, long[]> lastReport = new TreeMap<>(); // salle -> CPU, octets reçus, envoyés
+    private long lastReportNanos = System.nanoTime();
+
+    /**
+     * @param arenaSize le nombre de cases de côté de l'arène des salles
+     * @param playerCount le nombre de places par salle (clients et bots)
+     * @param tickThreads le nombre de threads de simulation, 0 pour faire avancer les salles par {@link #tick()}
+     */
+    public GameServer(int arenaSize, int playerCount, int tickThreads) {
+        this.arenaSize = arenaSize;
+        this.playerCount = playerCount;
+        ticker = tickThreads <= 0 ? null : Executors.newScheduledThreadPool(tickThreads, r -> {
+            Thread thread = new Thread(r, "server-tick");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Metrics metrics = Metrics.getInstance();
+        metrics.gauge("server.rooms", rooms::size);
+        metrics.gauge("server.clients", members::size);
+    }
+
+    @Override
+    public void onMessage(NetLink link, ByteBuffer message) {
+        int bytes = message.remaining() + Protocol.FRAME_HEADER_BYTES;
+        try {
+            byte type = message.get();
+            switch (type) {
+                case Protocol.JOIN:
+                    join(link, message.getInt(), Protocol.readName(message), bytes);
+                    break;
+                case Protocol.INPUT: {
+                    ServerRoom room = members.get(link);
+                    message.getInt(); // tick du client, pour le suivi de la latence
+                    int word = message.getInt();
+                    if (room != null) room.input(link, word, bytes);
+                    break;
+                }
+                case Protocol.ACK: {
+                    ServerRoom room = members.get(link);
+                    int seq = message.getInt();
+                    if (room != null) room.ack(link, seq, bytes);
+                    break;
+                }
+                case Protocol.LEAVE:
+                    leave(link);
+                    break;
+                default:
+                    System.err.println("Message inconnu d'un client: " + type);
+                    link.close();
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            System.err.println("Message invalide d'un client: " + e.getMessage());
+            link.close();
+        }
+    }
+
+    @Override
+    public void onClosed(NetLink link) {
+        leave(link);
+    }
+
+    private synchronized void join(NetLink link, int roomId, String name, int bytes) {
+        if (members.containsKey(link)) leave(link);
+        ServerRoom room = rooms.computeIfAbsent(roomId, this::openRoom);
+        room.received(bytes);
+        if (room.join(link, name) < 0) {
+            link.send(Protocol.full(roomId));
+            if (room.getClientCount() == 0) closeRoom(room);
+            return;
+        }
+        members.put(link, room);
+    }
+
+    private synchronized void leave(NetLink link) {
+        ServerRoom room = members.remove(link);
+        if (room != null && room.leave(link)) {
+            closeRoom(room);
+        }
+    }
+
+    private ServerRoom openRoom(int id) {
+        long seed = roomSeed != null ? roomSeed + id : ThreadLocalRandom.current().nextLong();
+        Path replays = replayDirectory != null ? replayDirectory.resolve("salle-" + id) : null;
+        ServerRoom room = new ServerRoom(id, arenaSize, playerCount, seed, matchRecords, replays);
+        if (ticker != null) {
+            room.task = ticker.scheduleAtFixedRate(room::tick, BombermanGame.TICK_MS, BombermanGame.TICK_MS,
+                    TimeUnit.MILLISECONDS);
+        }
+        return room;
+    }
+
+    private void closeRoom(ServerRoom room) {
+        if (room.task != null) room.task.cancel(false);
+        rooms.remove(room.id, room);
+        room.close();
+    }
+
+    /**
+     * Fixe la graine des salles ouvertes ensuite : graine + numéro de la salle (parties reproductibles).
+     * @param seed la graine, ou null pour des parties tirées au hasard
+     */
+    public synchronized void setRoomSeed(Long seed) {
+        roomSeed = seed;
+    }
+
+    /**
+     * Enregistre le résultat détaillé des parties des salles ouvertes ensuite.
+     * @param store le stockage des résultats, ou null pour ne pas enregistrer
+     */
+    public synchronized void recordMatchesTo(MatchRecordStore store) {
+        matchRecords = store;
+    }
+
+    /**
+     * Enregistre en replay les parties des salles ouvertes ensuite, chaque salle dans
+     * son sous-dossier {@code salle-<numéro>}.
+     * @param directory le dossier des replays, ou null pour ne pas enregistrer
+     */
+    public synchronized void recordReplaysTo(Path directory) {
+        replayDirectory = directory;
+    }
+
+    /**
+     * Fait avancer toutes les salles d'un tick, dans l'ordre de leur numéro (serveur sans thread de simulation).
+     */
+    public void tick() {
+        List<ServerRoom> open = new ArrayList<>(rooms.values());
+        open.sort((a, b) -> Integer.compare(a.id, b.id));
+        for (ServerRoom room : open) {
+            room.tick();
+        }
+    }
+
+    /**
+     * @return le nombre de salles ouvertes
+     */
+    public int getRoomCount() {
+        return rooms.size();
+    }
+
+    /**
+     * @return le nombre de clients dans les salles
+     */
+    public int getClientCount() {
+        return members.size();
+    }
+
+    ServerRoom getRoom(int id) {
+        return rooms.get(id);
+    }
+
+    /**
+     * Écrit le coût de chaque salle depuis le relevé précédent : part d'un coeur prise par
+     * ses ticks et débits reçu et envoyé.
+     * @param out la sortie du relevé
+     */
+    public synchronized void report(PrintStream out) {
+        long now = System.nanoTime();
+        double seconds = Math.max(1e-9, (now - lastReportNanos) / 1e9);
+        lastReportNanos = now;
+        List<ServerRoom> open = new ArrayList<>(rooms.values());
+        open.sort((a, b) -> Integer.compare(a.id, b.id));
+        out.printf("%d salles, %d clients%n", open.size(), members.size());
+
+        Map<Integer, long[]> current = new TreeMap<>();
+        for (ServerRoom room : open) {
+            long[] totals = {room.getCpuNanos(), room.getBytesIn(), room.getBytesOut()};
+            long[] previous = lastReport.getOrDefault(room.id, new long[3]);
+            current.put(room.id, totals);
+            out.printf("  salle %d : %d clients, tick %d, CPU %.2f %%, reçu %.1f Ko/s, envoyé %.1f Ko/s%n",
+                    room.id, room.getClientCount(), room.getTick(),
+                    100.0 * (totals[0] - previous[0]) / 1e9 / seconds,
+                    (totals[1] - previous[1]) / 1024.0 / seconds,
+                    (totals[2] - previous[2]) / 1024.0 / seconds);
+        }
+        lastReport.clear();
+        lastReport.putAll(current);
+    }
+
+    @Override
+    public void close() {
+        if (ticker != null) ticker.shutdownNow();
+        for (ServerRoom room : rooms.values()) {
+            room.close();
+        }
+        rooms.clear();
+        members.clear();
+    }
+
+    public static void main(String[] args) {
+        int port = Protocol.DEFAULT_PORT;
+        int size = BombermanGame.MIN_ARENA_SIZE;
+        int players = BombermanGame.DEFAULT_PLAYER_COUNT;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int reportSeconds = 10;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String name = args[i];
+                if (i + 1 >= args.length) throw new IllegalArgumentException("Valeur manquante pour " + name);
+                int value = Integer.parseInt(args[++i]);
+                if (value <= 0) throw new IllegalArgumentException(name + " doit être positif: " + value);
+                switch (name) {
+                    case "--port": port = value; break;
+                    case "--size": size = value; break;
+                    case "--players": players = value; break;
+                    case "--tick-threads": threads = value; break;
+                    case "--report": reportSeconds = value; break;
+                    default: throw new IllegalArgumentException("Option inconnue: " + name);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        GameServer server = new GameServer(size, players, threads);
+        server.recordMatchesTo(MatchRecordStore.getInstance());
+        server.recordReplaysTo(Replay.DIRECTORY);
+        try (TcpServer tcp = new TcpServer(new InetSocketAddress(port), server)) {
+            tcp.start();
+            System.out.printf("Serveur à l'écoute sur le port %d (arène %d, %d places par salle, %d threads)%n",
+                    tcp.getPort(), size, players, threads);
+            while (true) {
+                Thread.sleep(reportSeconds * 1000L);
+                server.report(System.out);
+            }
+        } catch (IOException e) {
+            System.err.println("Erreur du serveur: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            server.close();
+        }
+    }
+}
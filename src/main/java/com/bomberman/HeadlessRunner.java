@@ -0,0 +1,278 @@
+package com.bomberman;
+
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parties entre bots en série, sans affichage, réparties sur tous les coeurs de la machine
+ * ({@code Main --headless}), pour l'équilibrage et les tests de non-régression.
+ * <p>
+ * La partie n°i a la graine {@code graine + i} ; les tailles d'arène et les délais des bots donnés
+ * sont parcourus dans l'ordre (toutes les combinaisons). Chaque thread a sa propre partie, réutilisée
+ * d'un match à l'autre, et prend le prochain numéro de partie libre : le résultat d'une partie ne
+ * dépend que de son numéro, pas du nombre de threads ni de l'ordre d'exécution.
+ * </p>
+ * <p>
+ * Le bilan donne le débit (parties et ticks par seconde), la répartition des victoires par position
+ * de départ, la durée des parties et les centiles de latence (partie, tick, décision d'un bot).
+ * </p>
+ * @author Valentin B.
+ */
+public class HeadlessRunner {
+    static final String USAGE = String.join(System.lineSeparator(),
+            "Usage : Main --headless [options]",
+            "  --matches N      nombre de parties (1000)",
+            "  --seed S         graine de la première partie, les suivantes en +1 (1)",
+            "  --sizes A,B...   tailles d'arène, parcourues à tour de rôle (15)",
+            "  --players N      nombre de bots par partie (4)",
+            "  --bot-delay D,.. délais des bots entre deux actions en ms, parcourus à tour de rôle (200)",
+            "  --max-ticks T    limite de ticks par partie, au-delà la partie est arrêtée (11250, 3 minutes)",
+            "  --threads N      nombre de threads (nombre de coeurs)",
+            "  --replays DIR    enregistre chaque partie en replay dans ce dossier (désactivé)");
+    private static final long PROGRESS_SECONDS = 5;
+
+    /**
+     * Paramètres d'une série de parties.
+     */
+    static class Options {
+        int matches = 1000;
+        long seed = 1;
+        int[] sizes = {BombermanGame.MIN_ARENA_SIZE};
+        int players = BombermanGame.DEFAULT_PLAYER_COUNT;
+        int[] botDelays = {200};
+        int maxTicks = 3 * 60 * 1000 / BombermanGame.TICK_MS;
+        int threads = Runtime.getRuntime().availableProcessors();
+        MatchRecordStore records; // null : résultats détaillés non enregistrés
+        Path replays; // null : parties non enregistrées en replay
+
+        /**
+         * @param args les options de la ligne de commande
+         * @return les paramètres
+         * @throws IllegalArgumentException si une option est inconnue ou mal formée
+         */
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String name = args[i];
+                if (i + 1 >= args.length) throw new IllegalArgumentException("Valeur manquante pour " + name);
+                String value = args[++i];
+                try {
+                    switch (name) {
+                        case "--matches": options.matches = positive(name, Integer.parseInt(value)); break;
+                        case "--seed": options.seed = Long.parseLong(value); break;
+                        case "--sizes": options.sizes = list(value); break;
+                        case "--players": options.players = positive(name, Integer.parseInt(value)); break;
+                        case "--bot-delay": options.botDelays = list(value); break;
+                        case "--max-ticks": options.maxTicks = positive(name, Integer.parseInt(value)); break;
+                        case "--threads": options.threads = positive(name, Integer.parseInt(value)); break;
+                        case "--replays": options.replays = Paths.get(value); break;
+                        default: throw new IllegalArgumentException("Option inconnue: " + name);
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Valeur invalide pour " + name + ": " + value);
+                }
+            }
+            return options;
+        }
+
+        private static int positive(String name, int value) {
+            if (value <= 0) throw new IllegalArgumentException(name + " doit être positif: " + value);
+            return value;
+        }
+
+        private static int[] list(String value) {
+            return Arrays.stream(value.split(",")).mapToInt(v -> Integer.parseInt(v.trim())).toArray();
+        }
+
+        int size(int match) {
+            return sizes[match % sizes.length];
+        }
+
+        int botDelay(int match) {
+            return botDelays[match / sizes.length % botDelays.length];
+        }
+    }
+
+    /**
+     * Résultats d'une série : par partie, puis agrégés.
+     */
+    static class Summary {
+        static final int DRAW = -1;    // aucun survivant
+        static final int TIMEOUT = -2; // limite de ticks atteinte
+
+        final Options options;
+        final int[] winners; // position de départ du gagnant, DRAW ou TIMEOUT
+        final int[] ticks;
+        final Metrics.Histogram matchNanos = new Metrics.Histogram();
+        final Metrics.Histogram tickNanos = new Metrics.Histogram();
+        long elapsedNanos;
+
+        Summary(Options options) {
+            this.options = options;
+            winners = new int[options.matches];
+            ticks = new int[options.matches];
+        }
+
+        long totalTicks() {
+            long total = 0;
+            for (int t : ticks) total += t;
+            return total;
+        }
+
+        int count(int outcome) {
+            int n = 0;
+            for (int winner : winners) {
+                if (winner == outcome) n++;
+            }
+            return n;
+        }
+
+        void print(PrintStream out) {
+            int n = options.matches;
+            double seconds = elapsedNanos / 1e9;
+            out.printf("%d parties en %.1f s sur %d threads : %.1f parties/s, %.0f ticks/s%n",
+                    n, seconds, options.threads, n / seconds, totalTicks() / seconds);
+
+            StringBuilder wins = new StringBuilder("Victoires :");
+            for (int slot = 0; slot < options.players; slot++) {
+                int count = count(slot);
+                if (count > 0) wins.append(String.format(" Bot %d %.1f %%,", slot + 1, 100.0 * count / n));
+            }
+            wins.append(String.format(" nulles %.1f %%, limite de ticks %.1f %%",
+                    100.0 * count(DRAW) / n, 100.0 * count(TIMEOUT) / n));
+            out.println(wins);
+
+            int[] sorted = ticks.clone();
+            Arrays.sort(sorted);
+            out.printf("Durée des parties (ticks) : moyenne %.0f, p50 %d, p90 %d, max %d%n",
+                    (double) totalTicks() / n, sorted[(n - 1) / 2], sorted[(int) ((n - 1) * 0.9)], sorted[n - 1]);
+            printLatency(out, "Latence d'une partie (ms)", matchNanos, 1e6);
+            printLatency(out, "Latence d'un tick (µs)", tickNanos, 1e3);
+            printLatency(out, "Décision d'un bot (µs)", Metrics.getInstance().histogram("bot.decision.nanos"), 1e3);
+        }
+
+        private static void printLatency(PrintStream out, String label, Metrics.Histogram histogram, double unit) {
+            out.printf("%s : p50 %.1f, p90 %.1f, p99 %.1f, max %.1f%n", label,
+                    histogram.getPercentile(50) / unit, histogram.getPercentile(90) / unit,
+                    histogram.getPercentile(99) / unit, histogram.getMax() / unit);
+        }
+    }
+
+    public static void main(String[] args) {
+        Options options;
+        try {
+            options = Options.parse(args);
+            options.records = MatchRecordStore.getInstance();
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        System.out.printf("%d parties, arènes %s, %d bots, délais %s ms, limite %d ticks, graines %d à %d%n",
+                options.matches, Arrays.toString(options.sizes), options.players, Arrays.toString(options.botDelays),
+                options.maxTicks, options.seed, options.seed + options.matches - 1);
+        try {
+            run(options, System.out).print(System.out);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            options.records.flush();
+        }
+    }
+
+    /**
+     * Joue toutes les parties de la série.
+     * @param options les paramètres de la série
+     * @param progress reçoit l'avancement toutes les quelques secondes, peut être null
+     * @return les résultats
+     * @throws InterruptedException si le thread appelant est interrompu (les parties sont abandonnées)
+     */
+    static Summary run(Options options, PrintStream progress) throws InterruptedException {
+        Summary summary = new Summary(options);
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger done = new AtomicInteger();
+        int threads = Math.min(options.threads, options.matches);
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "headless-runner");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long start = System.nanoTime();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(pool.submit(() -> shard(options, summary, next, done)));
+        }
+        pool.shutdown();
+        try {
+            while (!pool.awaitTermination(PROGRESS_SECONDS, TimeUnit.SECONDS)) {
+                if (progress != null) {
+                    progress.printf("... %d / %d parties%n", done.get(), options.matches);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        summary.elapsedNanos = System.nanoTime() - start;
+
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Échec d'une partie", e.getCause());
+            }
+        }
+        return summary;
+    }
+
+    // Un thread : sa partie et ses histogrammes, ajoutés au bilan à la fin
+    private static void shard(Options options, Summary summary, AtomicInteger next, AtomicInteger done) {
+        Metrics.Histogram matchNanos = new Metrics.Histogram();
+        Metrics.Histogram tickNanos = new Metrics.Histogram();
+        BombermanGame game = new BombermanGame();
+        game.setPlayerCount(options.players);
+        game.enableBotMatch();
+        game.recordMatchesTo(options.records);
+        game.recordReplaysTo(options.replays);
+
+        for (int match = next.getAndIncrement(); match < options.matches; match = next.getAndIncrement()) {
+            if (Thread.currentThread().isInterrupted()) return;
+            long matchStart = System.nanoTime();
+            game.setBotMoveDelay(options.botDelay(match));
+            game.startMatch(options.size(match), options.seed + match);
+
+            long tickStart = System.nanoTime();
+            while (!game.isGameEnded() && game.getTick() < options.maxTicks) {
+                game.gameUpdate();
+                long now = System.nanoTime();
+                tickNanos.record(now - tickStart);
+                tickStart = now;
+            }
+
+            PlayerRegistry players = game.getPlayers();
+            if (!game.isGameEnded()) {
+                summary.winners[match] = Summary.TIMEOUT;
+            } else if (players.aliveCount() == 0) {
+                summary.winners[match] = Summary.DRAW;
+            } else {
+                summary.winners[match] = players.firstAlive().playerIndex;
+            }
+            summary.ticks[match] = game.getTick();
+            matchNanos.record(System.nanoTime() - matchStart);
+            done.incrementAndGet();
+        }
+        summary.matchNanos.add(matchNanos);
+        summary.tickNanos.add(tickNanos);
+    }
+}
@@ -0,0 +1,298 @@
+package com.bomberman;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Classement des joueurs par classement Elo, mis à jour à chaque partie.
+ * <p>
+ * Les joueurs sont rangés dans une skip list indexée (chaque lien connaît le nombre
+ * de joueurs qu'il saute) : le rang d'un joueur, le joueur à un rang donné, les K premiers
+ * et les voisins d'un rang s'obtiennent en O(log n) (plus la taille du résultat).
+ * </p>
+ * <p>
+ * Alimenté par {@link StatsManager}, qui sauvegarde les classements avec les statistiques.
+ * </p>
+ * @author Valentin B.
+ */
+public class Leaderboard {
+    public static final double INITIAL_RATING = 1000;
+    public static final double BOT_RATING = 1000; // classement fixe des bots (non classés)
+    private static final double K_FACTOR = 32;
+    private static final int MAX_LEVEL = 32;
+
+    /**
+     * Position d'un joueur dans le classement (immuable).
+     */
+    public static class Entry {
+        private final String playerName;
+        private final double rating;
+
+        Entry(String playerName, double rating) {
+            this.playerName = playerName;
+            this.rating = rating;
+        }
+
+        public String getPlayerName() { return playerName; }
+        public double getRating() { return rating; }
+
+        /**
+         * Ordre du classement : meilleur classement d'abord, puis par nom.
+         */
+        boolean before(Entry other) {
+            if (rating != other.rating) return rating > other.rating;
+            return playerName.compareTo(other.playerName) < 0;
+        }
+    }
+
+    /**
+     * Nœud de la skip list : span[i] = nombre de joueurs sautés par le lien next[i].
+     */
+    private static class Node {
+        final Entry entry;
+        final Node[] next;
+        final int[] span;
+
+        Node(Entry entry, int level) {
+            this.entry = entry;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Node head = new Node(null, MAX_LEVEL);
+    private int level = 1;
+
+    /**
+     * Met à jour les classements après une partie (Elo multijoueur par paires).
+     * <p>
+     * Le gagnant bat chaque autre participant, les perdants font match nul entre eux.
+     * Les bots comptent comme des adversaires de classement {@link #BOT_RATING}
+     * mais ne sont pas classés.
+     * </p>
+     * @param ratedPlayers les joueurs classés ayant participé
+     * @param winner le nom du gagnant (joueur ou bot), null en cas de match nul
+     * @param botOpponents le nombre de bots ayant participé
+     */
+    public synchronized void recordMatch(List<String> ratedPlayers, String winner, int botOpponents) {
+        int participants = ratedPlayers.size() + botOpponents;
+        if (participants < 2) return;
+        boolean botWon = winner != null && !ratedPlayers.contains(winner);
+
+        // Les variations sont calculées sur les classements d'avant la partie
+        double[] deltas = new double[ratedPlayers.size()];
+        for (int i = 0; i < ratedPlayers.size(); i++) {
+            String player = ratedPlayers.get(i);
+            double rating = getRating(player);
+            double delta = 0;
+
+            for (String opponent : ratedPlayers) {
+                if (opponent.equals(player)) continue;
+                delta += eloDelta(rating, getRating(opponent), score(player, opponent, winner));
+            }
+            for (int b = 0; b < botOpponents; b++) {
+                double score = player.equals(winner) ? 1 : (botWon ? 0 : 0.5);
+                delta += eloDelta(rating, BOT_RATING, score);
+            }
+            deltas[i] = delta / (participants - 1);
+        }
+
+        for (int i = 0; i < ratedPlayers.size(); i++) {
+            String player = ratedPlayers.get(i);
+            setRating(player, getRating(player) + deltas[i]);
+        }
+    }
+
+    private static double score(String player, String opponent, String winner) {
+        if (player.equals(winner)) return 1;
+        if (opponent.equals(winner)) return 0;
+        return 0.5;
+    }
+
+    private static double eloDelta(double rating, double opponentRating, double score) {
+        double expected = 1.0 / (1.0 + Math.pow(10, (opponentRating - rating) / 400.0));
+        return K_FACTOR * (score - expected);
+    }
+
+    /**
+     * @param playerName le nom du joueur
+     * @return son classement Elo, ou {@link #INITIAL_RATING} s'il n'a jamais joué
+     */
+    public synchronized double getRating(String playerName) {
+        Entry entry = entries.get(playerName);
+        return entry != null ? entry.rating : INITIAL_RATING;
+    }
+
+    /**
+     * @param playerName le nom du joueur
+     * @return true si le joueur est classé
+     */
+    public synchronized boolean contains(String playerName) {
+        return entries.containsKey(playerName);
+    }
+
+    /**
+     * Définit le classement d'un joueur (chargement ou mise à jour), en O(log n).
+     * @param playerName le nom du joueur
+     * @param rating son nouveau classement
+     */
+    public synchronized void setRating(String playerName, double rating) {
+        Entry old = entries.get(playerName);
+        if (old != null) {
+            delete(old);
+        }
+        Entry entry = new Entry(playerName, rating);
+        entries.put(playerName, entry);
+        insert(entry);
+    }
+
+    /**
+     * @return le nombre de joueurs classés
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @param playerName le nom du joueur
+     * @return son rang (1 = premier), ou -1 s'il n'est pas classé
+     */
+    public synchronized int getRank(String playerName) {
+        Entry entry = entries.get(playerName);
+        if (entry == null) return -1;
+
+        int rank = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && (x.next[i].entry == entry || x.next[i].entry.before(entry))) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x.entry == entry) return rank;
+        }
+        return -1;
+    }
+
+    /**
+     * @param rank un rang (1 = premier)
+     * @return le joueur à ce rang, ou null si le rang est hors du classement
+     */
+    public synchronized Entry getByRank(int rank) {
+        Node node = nodeAt(rank);
+        return node != null ? node.entry : null;
+    }
+
+    /**
+     * @param k le nombre de joueurs voulus
+     * @return les k meilleurs joueurs, du premier au k-ième
+     */
+    public synchronized List<Entry> top(int k) {
+        return range(1, k);
+    }
+
+    /**
+     * @param rank le rang central (1 = premier)
+     * @param radius le nombre de voisins de chaque côté
+     * @return les joueurs classés de {@code rank - radius} à {@code rank + radius}
+     */
+    public synchronized List<Entry> around(int rank, int radius) {
+        int from = Math.max(1, rank - radius);
+        return range(from, rank + radius - from + 1);
+    }
+
+    private List<Entry> range(int fromRank, int count) {
+        List<Entry> result = new ArrayList<>(Math.max(0, Math.min(count, entries.size())));
+        for (Node x = nodeAt(fromRank); x != null && result.size() < count; x = x.next[0]) {
+            result.add(x.entry);
+        }
+        return result;
+    }
+
+    private Node nodeAt(int rank) {
+        if (rank < 1 || rank > entries.size()) return null;
+        int traversed = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= rank) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (traversed == rank) return x;
+        }
+        return null;
+    }
+
+    private void insert(Entry entry) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = (i == level - 1) ? 0 : rank[i + 1];
+            while (x.next[i] != null && x.next[i].entry.before(entry)) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        int size = entries.size() - 1; // l'entrée est déjà dans la map
+        int newLevel = randomLevel();
+        if (newLevel > level) {
+            for (int i = level; i < newLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = newLevel;
+        }
+
+        Node node = new Node(entry, newLevel);
+        for (int i = 0; i < newLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = (rank[0] - rank[i]) + 1;
+        }
+        for (int i = newLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+    }
+
+    private void delete(Entry entry) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && x.next[i].entry.before(entry)) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        Node target = x.next[0];
+        if (target == null || target.entry != entry) return;
+
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == target) {
+                update[i].span[i] += target.span[i] - 1;
+                update[i].next[i] = target.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+    }
+
+    private static int randomLevel() {
+        int lvl = 1;
+        while (lvl < MAX_LEVEL && ThreadLocalRandom.current().nextBoolean()) {
+            lvl++;
+        }
+        return lvl;
+    }
+}
@@ -0,0 +1,333 @@
+package com.bomberman;
+
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+/**
+ * Réseau simulé dans le processus, pour tester et mesurer le jeu en réseau sans sockets : les
+ * liaisons ({@link NetLink}) qu'il crée se transmettent leurs messages dans des conditions réglables
+ * ({@link Conditions}) : latence, gigue, pertes, désordre et débit limité.
+ * <p>
+ * Le temps est virtuel : rien n'arrive tant que l'horloge n'avance pas ({@link #advance(long)}),
+ * et les messages sont alors remis dans l'ordre de leur heure d'arrivée, sur le thread appelant.
+ * Tous les tirages viennent de la graine du réseau : une même suite d'envois donne toujours les
+ * mêmes arrivées, sur n'importe quelle machine. Chaque message est noté dans un journal
+ * ({@link #getLog()}) avec sa taille, son heure d'envoi et son heure d'arrivée ou sa perte.
+ * </p>
+ * <p>
+ * Le serveur ({@link GameServer}) comme les pairs ({@link RollbackSession}) se branchent dessus
+ * en tant que {@link NetHandler}, à la place de TCP.
+ * </p>
+ * @author Valentin B.
+ */
+public class LoopbackNetwork {
+    private final Conditions defaults;
+    private final SplittableRandom random;
+    private final PriorityQueue<Packet> inFlight = new PriorityQueue<>();
+    private final List<PacketRecord> log = new ArrayList<>();
+    private long nowMicros;
+    private long sent;
+    private int endpoints;
+
+    /**
+     * Conditions d'un sens d'une liaison. Par défaut : aucune latence, aucune perte, débit illimité.
+     */
+    public static final class Conditions {
+        double latencyMillis;
+        double jitterMillis;
+        double loss;
+        double reorder;
+        double reorderDelayMillis = 2 * BombermanGame.TICK_MS;
+        long bytesPerSecond;
+        double queueLimitMillis = 1000;
+
+        /**
+         * @param millis le délai d'acheminement minimal d'un message
+         */
+        public Conditions latency(double millis) {
+            latencyMillis = millis;
+            return this;
+        }
+
+        /**
+         * @param millis le délai supplémentaire maximal, tiré uniformément pour chaque message
+         *               (des messages proches peuvent ainsi arriver dans le désordre)
+         */
+        public Conditions jitter(double millis) {
+            jitterMillis = millis;
+            return this;
+        }
+
+        /**
+         * @param probability la probabilité qu'un message soit perdu (0 à 1)
+         */
+        public Conditions loss(double probability) {
+            loss = probability;
+            return this;
+        }
+
+        /**
+         * @param probability la probabilité qu'un message soit retardé et doublé par les suivants (0 à 1)
+         * @param delayMillis le retard d'un tel message
+         */
+        public Conditions reorder(double probability, double delayMillis) {
+            reorder = probability;
+            reorderDelayMillis = delayMillis;
+            return this;
+        }
+
+        /**
+         * @param bytes le débit du lien en octets par seconde (0 : illimité) ; les messages attendent
+         *              que le lien soit libre
+         * @param queueLimitMillis l'attente maximale d'un message avant le lien, au-delà il est perdu
+         */
+        public Conditions bandwidth(long bytes, double queueLimitMillis) {
+            bytesPerSecond = bytes;
+            this.queueLimitMillis = queueLimitMillis;
+            return this;
+        }
+    }
+
+    /**
+     * Une ligne du journal : un message, de son envoi à son arrivée ou à sa perte.
+     */
+    public static final class PacketRecord {
+        public enum Status { DELIVERED, LOST, QUEUE_FULL, PENDING }
+
+        public final long id;
+        public final int from;
+        public final int to;
+        public final int bytes;
+        public final double sentMillis;
+        double deliveredMillis = -1;
+        Status status = Status.PENDING;
+
+        PacketRecord(long id, int from, int to, int bytes, double sentMillis) {
+            this.id = id;
+            this.from = from;
+            this.to = to;
+            this.bytes = bytes;
+            this.sentMillis = sentMillis;
+        }
+
+        /**
+         * @return l'heure d'arrivée prévue ou effective, ou -1 si le message est perdu
+         */
+        public double getDeliveredMillis() {
+            return deliveredMillis;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+    }
+
+    /**
+     * Message en route : remis à son destinataire à l'heure prévue (ordre d'envoi à heure égale).
+     */
+    private static final class Packet implements Comparable<Packet> {
+        final Endpoint to;
+        final ByteBuffer message;
+        final long deliverAt;
+        final PacketRecord record;
+
+        Packet(Endpoint to, ByteBuffer message, long deliverAt, PacketRecord record) {
+            this.to = to;
+            this.message = message;
+            this.deliverAt = deliverAt;
+            this.record = record;
+        }
+
+        @Override
+        public int compareTo(Packet other) {
+            int byTime = Long.compare(deliverAt, other.deliverAt);
+            return byTime != 0 ? byTime : Long.compare(record.id, other.record.id);
+        }
+    }
+
+    /**
+     * Extrémité d'une liaison : ce qu'elle envoie arrive à l'autre extrémité, dans les conditions du sens.
+     */
+    private final class Endpoint implements NetLink {
+        final int id;
+        final NetHandler handler;
+        final Conditions conditions; // de cette extrémité vers l'autre
+        Endpoint peer;
+        long linkFreeAt;             // fin de l'émission du message précédent (débit limité)
+        boolean closed;
+
+        Endpoint(NetHandler handler, Conditions conditions) {
+            this.id = endpoints++;
+            this.handler = handler;
+            this.conditions = conditions;
+        }
+
+        @Override
+        public void send(ByteBuffer message) {
+            synchronized (LoopbackNetwork.this) {
+                if (closed) return;
+                transmit(this, message);
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (LoopbackNetwork.this) {
+                if (closed) return;
+                closed = true;
+                peer.closed = true;
+            }
+            handler.onClosed(this);
+            peer.handler.onClosed(peer);
+        }
+    }
+
+    /**
+     * Réseau parfait : remise immédiate, sans perte.
+     */
+    public LoopbackNetwork() {
+        this(new Conditions(), 0);
+    }
+
+    /**
+     * @param latencyMillis le délai d'acheminement d'un message, dans chaque sens, sans autre défaut
+     */
+    public LoopbackNetwork(double latencyMillis) {
+        this(new Conditions().latency(latencyMillis), 0);
+    }
+
+    /**
+     * @param conditions les conditions de chaque sens des liaisons créées par {@link #connect(NetHandler, NetHandler)}
+     * @param seed la graine de tous les tirages (pertes, gigue, désordre)
+     */
+    public LoopbackNetwork(Conditions conditions, long seed) {
+        this.defaults = conditions;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Relie deux pairs dans les conditions du réseau.
+     * @param first le gestionnaire du premier pair
+     * @param second le gestionnaire du second pair
+     * @return la liaison du premier pair vers le second, puis celle du second vers le premier
+     */
+    public NetLink[] connect(NetHandler first, NetHandler second) {
+        return connect(first, second, defaults, defaults);
+    }
+
+    /**
+     * Relie deux pairs avec des conditions propres à chaque sens (lien montant et descendant d'un client).
+     * @param first le gestionnaire du premier pair
+     * @param second le gestionnaire du second pair
+     * @param firstToSecond les conditions des messages du premier pair vers le second
+     * @param secondToFirst les conditions des messages du second pair vers le premier
+     * @return la liaison du premier pair vers le second, puis celle du second vers le premier
+     */
+    public synchronized NetLink[] connect(NetHandler first, NetHandler second,
+                                          Conditions firstToSecond, Conditions secondToFirst) {
+        Endpoint a = new Endpoint(first, firstToSecond);
+        Endpoint b = new Endpoint(second, secondToFirst);
+        a.peer = b;
+        b.peer = a;
+        return new NetLink[]{a, b};
+    }
+
+    // Décide du sort d'un message : perte, attente du lien, latence, gigue, retard de désordre
+    private void transmit(Endpoint from, ByteBuffer message) {
+        Conditions conditions = from.conditions;
+        int bytes = message.remaining();
+        PacketRecord record = new PacketRecord(sent++, from.id, from.peer.id, bytes, nowMicros / 1000.0);
+        log.add(record);
+
+        long start = nowMicros;
+        if (conditions.bytesPerSecond > 0) {
+            start = Math.max(nowMicros, from.linkFreeAt);
+            if (start - nowMicros > conditions.queueLimitMillis * 1000) {
+                record.status = PacketRecord.Status.QUEUE_FULL;
+                return;
+            }
+            from.linkFreeAt = start + bytes * 1_000_000L / conditions.bytesPerSecond;
+            start = from.linkFreeAt;
+        }
+        if (conditions.loss > 0 && random.nextDouble() < conditions.loss) {
+            record.status = PacketRecord.Status.LOST;
+            return;
+        }
+        double delay = conditions.latencyMillis;
+        if (conditions.jitterMillis > 0) delay += random.nextDouble() * conditions.jitterMillis;
+        if (conditions.reorder > 0 && random.nextDouble() < conditions.reorder) delay += conditions.reorderDelayMillis;
+        long deliverAt = start + Math.round(delay * 1000);
+        record.deliveredMillis = deliverAt / 1000.0;
+
+        ByteBuffer copy = ByteBuffer.allocate(bytes).put(message.duplicate()).flip();
+        inFlight.add(new Packet(from.peer, copy, deliverAt, record));
+    }
+
+    /**
+     * Avance l'horloge et remet les messages arrivés entre-temps (y compris ceux envoyés en réponse
+     * pendant la remise, s'ils arrivent avant la nouvelle heure).
+     * @param millis la durée écoulée
+     */
+    public void advance(long millis) {
+        long target;
+        synchronized (this) {
+            target = nowMicros + millis * 1000;
+        }
+        while (true) {
+            Packet packet;
+            synchronized (this) {
+                if (inFlight.isEmpty() || inFlight.peek().deliverAt > target) {
+                    nowMicros = target;
+                    return;
+                }
+                packet = inFlight.poll();
+                nowMicros = Math.max(nowMicros, packet.deliverAt);
+                if (packet.to.closed) {
+                    packet.record.status = PacketRecord.Status.LOST;
+                    continue;
+                }
+                packet.record.status = PacketRecord.Status.DELIVERED;
+            }
+            packet.to.handler.onMessage(packet.to, packet.message);
+        }
+    }
+
+    /**
+     * @return l'heure virtuelle, en millisecondes
+     */
+    public synchronized double now() {
+        return nowMicros / 1000.0;
+    }
+
+    /**
+     * @return le journal de tous les messages envoyés, dans l'ordre d'envoi
+     */
+    public synchronized List<PacketRecord> getLog() {
+        return Collections.unmodifiableList(new ArrayList<>(log));
+    }
+
+    /**
+     * Vide le journal (les messages en route restent en route).
+     */
+    public synchronized void clearLog() {
+        log.clear();
+    }
+
+    /**
+     * Écrit le journal en CSV : numéro, extrémités, taille, envoi et arrivée en ms, sort du message.
+     * @param out la sortie
+     */
+    public synchronized void writeLog(PrintStream out) {
+        out.println("id,from,to,bytes,sent_ms,delivered_ms,status");
+        for (PacketRecord record : log) {
+            out.printf(Locale.ROOT, "%d,%d,%d,%d,%.3f,%.3f,%s%n", record.id, record.from, record.to,
+                    record.bytes, record.sentMillis, record.deliveredMillis, record.status);
+        }
+    }
+}
@@ -3,23 +3,47 @@ package com.bomberman;
 import javafx.application.Application;
 import javafx.stage.Stage;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
 /**
  * Point d'entrée principal de l'application Bomberman.
  * <p>
- * Lance le menu principal via JavaFX.
+ * Lance le menu principal via JavaFX, avec {@code --headless} une série de parties
+ * entre bots sans affichage ({@link HeadlessRunner}), ou avec {@code --server} le serveur
+ * de jeu en réseau ({@link GameServer}).
  * </p>
  * @author Valentin B. - Thomas A. - Akim A.
  */
 public class Main extends Application {
+    private static final Path METRICS_LOG = Paths.get("bomberman_metrics.log");
+    private static final long METRICS_PERIOD_SECONDS = 60;
 
     @Override
     public void start(Stage primaryStage) {
+        // Métriques exposées en JMX et relevées chaque minute dans le journal
+        Metrics.getInstance().startReporting(METRICS_LOG, METRICS_PERIOD_SECONDS);
+
         // Lancer le menu principal
         MainMenu mainMenu = new MainMenu();
         mainMenu.start(primaryStage);
     }
 
+    @Override
+    public void stop() {
+        Metrics.getInstance().stopReporting(METRICS_LOG);
+    }
+
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--headless")) {
+            HeadlessRunner.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--server")) {
+            GameServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         launch(args);
     }
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.bomberman;
+
+/**
+ * Résultat détaillé d'une partie terminée.
+ * <p>
+ * Écrit par {@link MatchRecordStore} dans un fichier en colonnes pour l'analyse
+ * de grands nombres de parties (taux de victoire par difficulté, durée moyenne...).
+ * </p>
+ * @author Valentin B.
+ */
+public class MatchRecord {
+    private final long timestamp;
+    private final int durationTicks;
+    private final String[] players;
+    private final int winnerIndex;      // -1 en cas de match nul
+    private final boolean winnerIsBot;
+    private final int botDelay;         // délai des bots en ms, -1 sans bot
+    private final String botStrategy;
+    private final int kills;
+    private final int bombsPlaced;
+    private final int blocksDestroyed;
+    private final int[] powerUps;       // nombre de power-ups ramassés, indexé par PowerUp.Type.ordinal()
+
+    /**
+     * Constructeur d'un résultat de partie.
+     *
+     * @param timestamp date de fin de partie (ms depuis l'epoch)
+     * @param durationTicks durée de la partie en ticks de simulation
+     * @param players noms des participants, dans l'ordre des joueurs
+     * @param winnerIndex indice du gagnant dans {@code players}, -1 en cas de match nul
+     * @param winnerIsBot true si le gagnant est un bot
+     * @param botDelay délai entre deux actions des bots (ms), -1 sans bot
+     * @param botStrategy nom de la stratégie des bots
+     * @param kills nombre de joueurs éliminés
+     * @param bombsPlaced nombre de bombes posées
+     * @param blocksDestroyed nombre de blocs détruits
+     * @param powerUps nombre de power-ups ramassés par type
+     */
+    public MatchRecord(long timestamp, int durationTicks, String[] players, int winnerIndex, boolean winnerIsBot,
+                       int botDelay, String botStrategy, int kills, int bombsPlaced, int blocksDestroyed,
+                       int[] powerUps) {
+        this.timestamp = timestamp;
+        this.durationTicks = durationTicks;
+        this.players = players;
+        this.winnerIndex = winnerIndex;
+        this.winnerIsBot = winnerIsBot;
+        this.botDelay = botDelay;
+        this.botStrategy = botStrategy;
+        this.kills = kills;
+        this.bombsPlaced = bombsPlaced;
+        this.blocksDestroyed = blocksDestroyed;
+        this.powerUps = powerUps;
+    }
+
+    public long getTimestamp() { return timestamp; }
+    public int getDurationTicks() { return durationTicks; }
+    public String[] getPlayers() { return players; }
+    public int getWinnerIndex() { return winnerIndex; }
+    public boolean isWinnerBot() { return winnerIsBot; }
+    public int getBotDelay() { return botDelay; }
+    public String getBotStrategy() { return botStrategy; }
+    public int getKills() { return kills; }
+    public int getBombsPlaced() { return bombsPlaced; }
+    public int getBlocksDestroyed() { return blocksDestroyed; }
+    public int getPowerUps(PowerUp.Type type) { return powerUps[type.ordinal()]; }
+}
@@ -0,0 +1,477 @@
+package com.bomberman;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Stockage en colonnes, en ajout seul, des résultats détaillés de parties.
+ * <p>
+ * Les résultats sont regroupés par blocs de {@link #BLOCK_ROWS} parties. Dans un bloc,
+ * chaque colonne est écrite d'un seul tenant, précédée d'un répertoire (nom, taille en octets)
+ * qui permet à la lecture de sauter les colonnes inutiles.
+ * Les requêtes parcourent le fichier bloc par bloc : la mémoire utilisée ne dépend que
+ * de la taille d'un bloc, pas du nombre de parties enregistrées.
+ * </p>
+ * <p>
+ * L'écriture des blocs se fait sur un thread dédié : {@link #append(MatchRecord)} ne fait
+ * qu'ajouter le résultat à un tampon.
+ * </p>
+ * @author Valentin B.
+ */
+public class MatchRecordStore implements AutoCloseable {
+    static final int BLOCK_ROWS = 256;
+    private static final int BLOCK_MAGIC = 0x424D4352; // "BMCR"
+    private static final String RECORDS_FILE = "match_records.col";
+
+    // Noms des colonnes
+    public static final String TIMESTAMP = "timestamp";
+    public static final String DURATION = "duration_ticks";
+    public static final String WINNER = "winner";
+    public static final String WINNER_IS_BOT = "winner_is_bot";
+    public static final String BOT_DELAY = "bot_delay";
+    public static final String BOT_STRATEGY = "bot_strategy";
+    public static final String PLAYERS = "players";
+    public static final String KILLS = "kills";
+    public static final String BOMBS_PLACED = "bombs_placed";
+    public static final String BLOCKS_DESTROYED = "blocks_destroyed";
+
+    private static MatchRecordStore instance;
+
+    private final Path path;
+    private final ExecutorService writerThread;
+    private final Thread shutdownHook;
+    private List<MatchRecord> pending = new ArrayList<>();
+
+    /**
+     * Retourne le stockage partagé par toutes les parties.
+     * @return l'instance unique, créée au premier appel
+     */
+    public static synchronized MatchRecordStore getInstance() {
+        if (instance == null) {
+            instance = new MatchRecordStore(Paths.get(RECORDS_FILE));
+        }
+        return instance;
+    }
+
+    /**
+     * Nom de la colonne comptant les power-ups ramassés d'un type donné.
+     * @param type le type de power-up
+     * @return le nom de la colonne
+     */
+    public static String powerUpColumn(PowerUp.Type type) {
+        return "powerup_" + type.name().toLowerCase();
+    }
+
+    /**
+     * Crée un stockage sur le fichier donné (créé à la première écriture).
+     * @param path chemin du fichier
+     */
+    public MatchRecordStore(Path path) {
+        this.path = path;
+        this.writerThread = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "match-records-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.shutdownHook = new Thread(this::close, "match-records-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Ajoute un résultat de partie. L'écriture sur disque a lieu en arrière-plan
+     * lorsqu'un bloc est complet.
+     * @param record le résultat à enregistrer
+     */
+    public synchronized void append(MatchRecord record) {
+        pending.add(record);
+        if (pending.size() >= BLOCK_ROWS) {
+            submitPending();
+        }
+    }
+
+    /**
+     * Écrit le bloc en cours (même incomplet) et attend la fin de l'écriture.
+     */
+    public void flush() {
+        Future<?> done;
+        synchronized (this) {
+            done = submitPending();
+        }
+        try {
+            done.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Erreur lors de l'écriture des résultats de parties: " + e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        if (writerThread.isShutdown()) return;
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // Arrêt de la JVM en cours : close() est justement appelé par le crochet
+        }
+        flush();
+        writerThread.shutdown();
+    }
+
+    private Future<?> submitPending() {
+        List<MatchRecord> rows = pending;
+        pending = new ArrayList<>();
+        if (writerThread.isShutdown()) {
+            writeBlock(rows);
+            return CompletableFuture.completedFuture(null);
+        }
+        return writerThread.submit(() -> writeBlock(rows));
+    }
+
+    /**
+     * Ajoute un bloc à la fin du fichier.
+     */
+    private void writeBlock(List<MatchRecord> rows) {
+        if (rows.isEmpty()) return;
+
+        // Chaque colonne est sérialisée séparément pour connaître sa taille
+        Map<String, byte[]> columns = new LinkedHashMap<>();
+        try {
+            columns.put(TIMESTAMP, column(out -> { for (MatchRecord r : rows) out.writeLong(r.getTimestamp()); }));
+            columns.put(DURATION, intColumn(rows, MatchRecord::getDurationTicks));
+            columns.put(WINNER, intColumn(rows, MatchRecord::getWinnerIndex));
+            columns.put(WINNER_IS_BOT, intColumn(rows, r -> r.isWinnerBot() ? 1 : 0));
+            columns.put(BOT_DELAY, intColumn(rows, MatchRecord::getBotDelay));
+            columns.put(BOT_STRATEGY, column(out -> { for (MatchRecord r : rows) out.writeUTF(r.getBotStrategy()); }));
+            columns.put(PLAYERS, column(out -> {
+                for (MatchRecord r : rows) {
+                    out.writeShort(r.getPlayers().length);
+                    for (String player : r.getPlayers()) out.writeUTF(player);
+                }
+            }));
+            columns.put(KILLS, intColumn(rows, MatchRecord::getKills));
+            columns.put(BOMBS_PLACED, intColumn(rows, MatchRecord::getBombsPlaced));
+            columns.put(BLOCKS_DESTROYED, intColumn(rows, MatchRecord::getBlocksDestroyed));
+            for (PowerUp.Type type : PowerUp.Type.values()) {
+                columns.put(powerUpColumn(type), intColumn(rows, r -> r.getPowerUps(type)));
+            }
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)))) {
+                out.writeInt(BLOCK_MAGIC);
+                out.writeInt(rows.size());
+                out.writeInt(columns.size());
+                for (Map.Entry<String, byte[]> column : columns.entrySet()) {
+                    out.writeUTF(column.getKey());
+                    out.writeInt(column.getValue().length);
+                }
+                for (byte[] data : columns.values()) {
+                    out.write(data);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'écriture des résultats de parties: " + e.getMessage());
+        }
+    }
+
+    private interface ColumnWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private interface IntField {
+        int get(MatchRecord record);
+    }
+
+    /**
+     * Accesseur d'une colonne entière, ou null si la colonne n'est pas entière.
+     */
+    private static IntField intField(String column) {
+        switch (column) {
+            case DURATION: return MatchRecord::getDurationTicks;
+            case WINNER: return MatchRecord::getWinnerIndex;
+            case WINNER_IS_BOT: return r -> r.isWinnerBot() ? 1 : 0;
+            case BOT_DELAY: return MatchRecord::getBotDelay;
+            case KILLS: return MatchRecord::getKills;
+            case BOMBS_PLACED: return MatchRecord::getBombsPlaced;
+            case BLOCKS_DESTROYED: return MatchRecord::getBlocksDestroyed;
+            default:
+                for (PowerUp.Type type : PowerUp.Type.values()) {
+                    if (powerUpColumn(type).equals(column)) return r -> r.getPowerUps(type);
+                }
+                return null;
+        }
+    }
+
+    private static byte[] column(ColumnWriter writer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writer.write(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] intColumn(List<MatchRecord> rows, IntField field) throws IOException {
+        return column(out -> { for (MatchRecord r : rows) out.writeInt(field.get(r)); });
+    }
+
+    /**
+     * Bloc de résultats en cours de lecture. Seules les colonnes demandées sont chargées ;
+     * les tableaux sont réutilisés d'un bloc à l'autre.
+     */
+    public static class Block {
+        private int rows;
+        private final Map<String, int[]> ints = new HashMap<>();
+        private final Map<String, long[]> longs = new HashMap<>();
+        private final Map<String, String[]> strings = new HashMap<>();
+        private final Map<String, String[][]> stringLists = new HashMap<>();
+
+        /** @return le nombre de parties dans ce bloc */
+        public int rows() { return rows; }
+
+        /** @return les valeurs d'une colonne entière (valides jusqu'à {@link #rows()}) */
+        public int[] ints(String column) { return ints.get(column); }
+
+        /** @return les valeurs d'une colonne longue (valides jusqu'à {@link #rows()}) */
+        public long[] longs(String column) { return longs.get(column); }
+
+        /** @return les valeurs d'une colonne texte (valides jusqu'à {@link #rows()}) */
+        public String[] strings(String column) { return strings.get(column); }
+
+        /** @return les listes de joueurs (valides jusqu'à {@link #rows()}) */
+        public String[][] players() { return stringLists.get(PLAYERS); }
+
+        private void read(String column, DataInputStream in) throws IOException {
+            switch (column) {
+                case TIMESTAMP: {
+                    long[] values = longs.computeIfAbsent(column, c -> new long[BLOCK_ROWS]);
+                    for (int i = 0; i < rows; i++) values[i] = in.readLong();
+                    break;
+                }
+                case BOT_STRATEGY: {
+                    String[] values = strings.computeIfAbsent(column, c -> new String[BLOCK_ROWS]);
+                    for (int i = 0; i < rows; i++) values[i] = in.readUTF();
+                    break;
+                }
+                case PLAYERS: {
+                    String[][] values = stringLists.computeIfAbsent(column, c -> new String[BLOCK_ROWS][]);
+                    for (int i = 0; i < rows; i++) {
+                        String[] names = new String[in.readShort()];
+                        for (int j = 0; j < names.length; j++) names[j] = in.readUTF();
+                        values[i] = names;
+                    }
+                    break;
+                }
+                default: {
+                    int[] values = ints.computeIfAbsent(column, c -> new int[BLOCK_ROWS]);
+                    for (int i = 0; i < rows; i++) values[i] = in.readInt();
+                }
+            }
+        }
+
+        /**
+         * Remplit une colonne à partir de résultats encore en mémoire.
+         */
+        private void fill(String column, List<MatchRecord> records) {
+            switch (column) {
+                case TIMESTAMP: {
+                    long[] values = longs.computeIfAbsent(column, c -> new long[BLOCK_ROWS]);
+                    for (int i = 0; i < rows; i++) values[i] = records.get(i).getTimestamp();
+                    break;
+                }
+                case BOT_STRATEGY: {
+                    String[] values = strings.computeIfAbsent(column, c -> new String[BLOCK_ROWS]);
+                    for (int i = 0; i < rows; i++) values[i] = records.get(i).getBotStrategy();
+                    break;
+                }
+                case PLAYERS: {
+                    String[][] values = stringLists.computeIfAbsent(column, c -> new String[BLOCK_ROWS][]);
+                    for (int i = 0; i < rows; i++) values[i] = records.get(i).getPlayers();
+                    break;
+                }
+                default: {
+                    IntField field = intField(column);
+                    if (field == null) return; // colonne inconnue, absente comme à la lecture
+                    int[] values = ints.computeIfAbsent(column, c -> new int[BLOCK_ROWS]);
+                    for (int i = 0; i < rows; i++) values[i] = field.get(records.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Flux limité aux premiers octets du fichier : les blocs ajoutés pendant
+     * une lecture ne sont pas vus.
+     */
+    private static class LimitedInputStream extends FilterInputStream {
+        private long remaining;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) return -1;
+            int b = super.read();
+            if (b >= 0) remaining--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) return -1;
+            int n = super.read(buffer, offset, (int) Math.min(length, remaining));
+            if (n > 0) remaining -= n;
+            return n;
+        }
+    }
+
+    /**
+     * Parcourt tous les résultats bloc par bloc en ne lisant que les colonnes demandées.
+     * Les blocs écrits sont lus depuis le fichier, puis les résultats encore en mémoire
+     * sont visités comme un dernier bloc : une requête n'écrit jamais de bloc incomplet.
+     * @param columns les colonnes à charger
+     * @param visitor appelé pour chaque bloc (le bloc est réutilisé après l'appel)
+     */
+    public void scan(Set<String> columns, Consumer<Block> visitor) {
+        List<MatchRecord> tail;
+        Future<Long> size;
+        synchronized (this) {
+            tail = new ArrayList<>(pending);
+            // La taille du fichier est relevée par le thread d'écriture, après les blocs
+            // déjà soumis et avant ceux qui contiendront les résultats copiés ci-dessus
+            size = writerThread.isShutdown()
+                    ? CompletableFuture.completedFuture(persistedSize())
+                    : writerThread.submit(this::persistedSize);
+        }
+        long persisted;
+        try {
+            persisted = size.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            System.err.println("Erreur lors de la lecture des résultats de parties: " + e.getCause());
+            return;
+        }
+
+        Block block = new Block();
+        if (persisted > 0) {
+            scanFile(persisted, columns, block, visitor);
+        }
+        if (!tail.isEmpty()) {
+            block.rows = tail.size();
+            for (String column : columns) {
+                block.fill(column, tail);
+            }
+            visitor.accept(block);
+        }
+    }
+
+    private long persistedSize() {
+        try {
+            return Files.exists(path) ? Files.size(path) : 0;
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la lecture des résultats de parties: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Lit les blocs contenus dans les {@code length} premiers octets du fichier.
+     */
+    private void scanFile(long length, Set<String> columns, Block block, Consumer<Block> visitor) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new LimitedInputStream(Files.newInputStream(path), length)))) {
+            while (true) {
+                int magic;
+                try {
+                    magic = in.readInt();
+                } catch (EOFException e) {
+                    break; // fin du fichier
+                }
+                if (magic != BLOCK_MAGIC) {
+                    System.err.println("Bloc de résultats invalide, lecture interrompue");
+                    break;
+                }
+
+                block.rows = in.readInt();
+                int columnCount = in.readInt();
+                String[] names = new String[columnCount];
+                int[] sizes = new int[columnCount];
+                for (int c = 0; c < columnCount; c++) {
+                    names[c] = in.readUTF();
+                    sizes[c] = in.readInt();
+                }
+
+                for (int c = 0; c < columnCount; c++) {
+                    if (columns.contains(names[c])) {
+                        block.read(names[c], in);
+                    } else {
+                        in.skipNBytes(sizes[c]);
+                    }
+                }
+                visitor.accept(block);
+            }
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la lecture des résultats de parties: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return le nombre de parties enregistrées
+     */
+    public long count() {
+        long[] count = {0};
+        scan(Collections.emptySet(), block -> count[0] += block.rows());
+        return count[0];
+    }
+
+    /**
+     * @return la durée moyenne d'une partie en ticks (0 sans partie)
+     */
+    public double averageDurationTicks() {
+        long[] sum = {0, 0};
+        scan(Set.of(DURATION), block -> {
+            int[] durations = block.ints(DURATION);
+            for (int i = 0; i < block.rows(); i++) sum[0] += durations[i];
+            sum[1] += block.rows();
+        });
+        return sum[1] == 0 ? 0 : (double) sum[0] / sum[1];
+    }
+
+    /**
+     * Taux de victoire des bots pour chaque délai de bot (parties avec bots uniquement).
+     * @return le taux de victoire des bots (entre 0 et 1) par délai en ms, trié par délai
+     */
+    public SortedMap<Integer, Double> botWinRateByDelay() {
+        Map<Integer, int[]> totals = new HashMap<>(); // délai -> [victoires de bots, parties]
+        scan(Set.of(BOT_DELAY, WINNER_IS_BOT), block -> {
+            int[] delays = block.ints(BOT_DELAY);
+            int[] botWins = block.ints(WINNER_IS_BOT);
+            for (int i = 0; i < block.rows(); i++) {
+                if (delays[i] < 0) continue;
+                int[] total = totals.computeIfAbsent(delays[i], d -> new int[2]);
+                total[0] += botWins[i];
+                total[1]++;
+            }
+        });
+
+        SortedMap<Integer, Double> rates = new TreeMap<>();
+        for (Map.Entry<Integer, int[]> entry : totals.entrySet()) {
+            rates.put(entry.getKey(), (double) entry.getValue()[0] / entry.getValue()[1]);
+        }
+        return rates;
+    }
+}
@@ -0,0 +1,336 @@
+package com.bomberman;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Registre des métriques du jeu : compteurs, jauges et histogrammes de latence.
+ * <p>
+ * Les métriques sont créées à la première utilisation par leur nom et peuvent être
+ * mises à jour depuis n'importe quel thread sans verrou. Elles sont exposées en JMX
+ * ({@code com.bomberman:type=Metrics}, un attribut par valeur) et peuvent être écrites
+ * périodiquement dans un fichier journal ({@link #startReporting(Path, long)}),
+ * pour suivre une session longue sans profileur.
+ * </p>
+ * @author Valentin B.
+ */
+public class Metrics {
+    public static final String OBJECT_NAME = "com.bomberman:type=Metrics";
+
+    private static Metrics instance;
+
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private ScheduledExecutorService reporter;
+
+    /**
+     * Retourne le registre partagé par tout le jeu, exposé en JMX.
+     * @return l'instance unique, créée au premier appel
+     */
+    public static synchronized Metrics getInstance() {
+        if (instance == null) {
+            instance = new Metrics();
+            instance.registerMBean();
+        }
+        return instance;
+    }
+
+    /**
+     * Crée un registre indépendant, non exposé. Hors tests, utiliser {@link #getInstance()}.
+     */
+    Metrics() {
+        Runtime runtime = Runtime.getRuntime();
+        gauge("heap.used", () -> runtime.totalMemory() - runtime.freeMemory());
+    }
+
+    /**
+     * Compteur croissant (parties, ticks, bombes posées...).
+     */
+    public static class Counter {
+        private final LongAdder value = new LongAdder();
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long delta) {
+            value.add(delta);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    /**
+     * Histogramme de valeurs positives à précision relative fixe (façon HdrHistogram).
+     * <p>
+     * Chaque puissance de deux est découpée en {@value #SUB_BUCKETS} classes : une valeur
+     * est retrouvée à moins de 1 % près, avec un tableau de taille fixe et sans allocation
+     * à l'enregistrement. Les valeurs au-delà de 2^{@value #MAX_BITS} sont ramenées à cette borne.
+     * </p>
+     */
+    public static class Histogram {
+        static final int SUB_BITS = 7;
+        static final int SUB_BUCKETS = 1 << SUB_BITS;
+        static final int MAX_BITS = 40; // ~18 minutes en nanosecondes
+        private static final int HALF = SUB_BUCKETS / 2;
+
+        private final AtomicLongArray counts = new AtomicLongArray(index((1L << MAX_BITS) - 1) + 1);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        /**
+         * @param value une valeur positive (nanosecondes, octets...)
+         */
+        public void record(long value) {
+            long v = Math.max(0, Math.min(value, (1L << MAX_BITS) - 1));
+            counts.incrementAndGet(index(v));
+            count.increment();
+            sum.add(v);
+            max.accumulateAndGet(v, Math::max);
+        }
+
+        /**
+         * Ajoute les enregistrements d'un autre histogramme, par exemple celui d'un autre thread
+         * (chaque thread enregistre dans le sien, sans se disputer les mêmes compteurs).
+         * @param other l'histogramme à ajouter
+         */
+        public void add(Histogram other) {
+            for (int i = 0; i < counts.length(); i++) {
+                long n = other.counts.get(i);
+                if (n != 0) counts.addAndGet(i, n);
+            }
+            count.add(other.count.sum());
+            sum.add(other.sum.sum());
+            max.accumulateAndGet(other.max.get(), Math::max);
+        }
+
+        static int index(long value) {
+            if (value < SUB_BUCKETS) return (int) value;
+            int level = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS + 1;
+            return level * HALF + (int) (value >>> level);
+        }
+
+        /**
+         * @return la plus grande valeur de la classe d'indice donné
+         */
+        static long highestValue(int index) {
+            if (index < SUB_BUCKETS) return index;
+            int level = index / HALF - 1;
+            long sub = index - (long) level * HALF;
+            return ((sub + 1) << level) - 1;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        public double getMean() {
+            long n = count.sum();
+            return n == 0 ? 0 : (double) sum.sum() / n;
+        }
+
+        /**
+         * @param percentile le centile voulu (0 à 100)
+         * @return la valeur sous laquelle se trouve ce pourcentage des enregistrements
+         */
+        public long getPercentile(double percentile) {
+            long n = count.sum();
+            if (n == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+            long seen = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                seen += counts.get(i);
+                if (seen >= rank) {
+                    return Math.min(highestValue(i), max.get());
+                }
+            }
+            return max.get();
+        }
+    }
+
+    /**
+     * @param name le nom du compteur
+     * @return le compteur, créé s'il n'existe pas
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, k -> new Counter());
+    }
+
+    /**
+     * Déclare (ou remplace) une jauge, lue à chaque export.
+     * @param name le nom de la jauge
+     * @param supplier la valeur courante
+     */
+    public void gauge(String name, LongSupplier supplier) {
+        gauges.put(name, supplier);
+    }
+
+    /**
+     * @param name le nom de l'histogramme
+     * @return l'histogramme, créé s'il n'existe pas
+     */
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, k -> new Histogram());
+    }
+
+    /**
+     * Valeurs actuelles de toutes les métriques, par nom. Chaque histogramme donne
+     * {@code .count}, {@code .mean}, {@code .p50}, {@code .p90}, {@code .p99} et {@code .max}.
+     * @return les valeurs, triées par nom
+     */
+    public SortedMap<String, Number> snapshot() {
+        SortedMap<String, Number> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.get()));
+        gauges.forEach((name, gauge) -> values.put(name, gauge.getAsLong()));
+        histograms.forEach((name, histogram) -> {
+            values.put(name + ".count", histogram.getCount());
+            values.put(name + ".mean", histogram.getMean());
+            values.put(name + ".p50", histogram.getPercentile(50));
+            values.put(name + ".p90", histogram.getPercentile(90));
+            values.put(name + ".p99", histogram.getPercentile(99));
+            values.put(name + ".max", histogram.getMax());
+        });
+        return values;
+    }
+
+    /**
+     * Écrit toutes les métriques dans un fichier journal à intervalle régulier (une ligne par relevé),
+     * sur un thread dédié.
+     * @param file le fichier journal, complété à chaque relevé
+     * @param periodSeconds l'intervalle entre deux relevés
+     */
+    public synchronized void startReporting(Path file, long periodSeconds) {
+        if (reporter != null) return;
+        reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(() -> writeReport(file), periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Arrête l'écriture périodique, après un dernier relevé.
+     * @param file le fichier journal
+     */
+    public synchronized void stopReporting(Path file) {
+        if (reporter == null) return;
+        reporter.shutdownNow();
+        reporter = null;
+        writeReport(file);
+    }
+
+    void writeReport(Path file) {
+        StringBuilder line = new StringBuilder(LocalDateTime.now().toString());
+        for (Map.Entry<String, Number> entry : snapshot().entrySet()) {
+            line.append(' ').append(entry.getKey()).append('=').append(entry.getValue());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(line.toString());
+            writer.newLine();
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'écriture des métriques: " + e.getMessage());
+        }
+    }
+
+    private void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new MetricsMBean(), name);
+            }
+        } catch (JMException | SecurityException e) {
+            System.err.println("Erreur lors de l'exposition JMX des métriques: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Vue JMX du registre : un attribut en lecture seule par valeur de {@link #snapshot()}.
+     */
+    private class MetricsMBean implements DynamicMBean {
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            Number value = snapshot().get(attribute);
+            if (value == null) throw new AttributeNotFoundException(attribute);
+            return value;
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            SortedMap<String, Number> values = snapshot();
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                if (values.containsKey(attribute)) {
+                    list.add(new Attribute(attribute, values.get(attribute)));
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Attribut en lecture seule: " + attribute.getName());
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+            // Aucune opération n'est exposée
+            throw new ReflectionException(new NoSuchMethodException(actionName));
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            SortedMap<String, Number> values = snapshot();
+            MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[values.size()];
+            int i = 0;
+            for (Map.Entry<String, Number> entry : values.entrySet()) {
+                attributes[i++] = new MBeanAttributeInfo(entry.getKey(), entry.getValue().getClass().getName(),
+                        entry.getKey(), true, false, false);
+            }
+            return new MBeanInfo(Metrics.class.getName(), "Métriques du jeu", attributes, null, null, null);
+        }
+    }
+}
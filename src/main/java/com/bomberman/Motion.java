@@ -0,0 +1,98 @@
+package com.bomberman;
+
+/**
+ * Déplacement d'une entité (joueur, bombe poussée) d'une case à une autre, pour l'affichage.
+ * <p>
+ * La simulation déplace les entités case par case ; le rendu interpole leur position
+ * entre la case de départ et la case d'arrivée pendant la durée du pas,
+ * ce qui donne un mouvement fluide sans changer le rythme de la simulation.
+ * </p>
+ * @author Valentin B.
+ */
+public class Motion {
+    private int fromX, fromY;
+    private int toX, toY;
+    private long startNanos;
+    private long durationNanos;
+    private Runnable listener; // prévenu à chaque changement de case d'arrivée (EntityLayer)
+
+    /**
+     * @param x case de départ (colonne)
+     * @param y case de départ (ligne)
+     */
+    public Motion(int x, int y) {
+        place(x, y);
+    }
+
+    /**
+     * Place l'entité sur une case, sans transition.
+     * @param x colonne
+     * @param y ligne
+     */
+    public void place(int x, int y) {
+        fromX = toX = x;
+        fromY = toY = y;
+        durationNanos = 0;
+        if (listener != null) listener.run();
+    }
+
+    /**
+     * Démarre un pas depuis la case actuelle vers une nouvelle case.
+     * @param x colonne d'arrivée
+     * @param y ligne d'arrivée
+     * @param nowNanos instant du pas (horloge {@link System#nanoTime()})
+     * @param durationNanos durée d'affichage du pas
+     */
+    public void moveTo(int x, int y, long nowNanos, long durationNanos) {
+        fromX = toX;
+        fromY = toY;
+        toX = x;
+        toY = y;
+        startNanos = nowNanos;
+        this.durationNanos = durationNanos;
+        if (listener != null) listener.run();
+    }
+
+    /**
+     * @return la colonne de la case d'arrivée
+     */
+    public int getTargetX() {
+        return toX;
+    }
+
+    /**
+     * @return la ligne de la case d'arrivée
+     */
+    public int getTargetY() {
+        return toY;
+    }
+
+    /**
+     * @param listener action appelée après chaque {@link #place} ou {@link #moveTo}, ou null
+     */
+    void setListener(Runnable listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @param nowNanos instant de l'affichage
+     * @return la colonne affichée, fractionnaire pendant un pas
+     */
+    public double getX(long nowNanos) {
+        return fromX + (toX - fromX) * progress(nowNanos);
+    }
+
+    /**
+     * @param nowNanos instant de l'affichage
+     * @return la ligne affichée, fractionnaire pendant un pas
+     */
+    public double getY(long nowNanos) {
+        return fromY + (toY - fromY) * progress(nowNanos);
+    }
+
+    private double progress(long nowNanos) {
+        if (durationNanos <= 0) return 1.0;
+        double progress = (double) (nowNanos - startNanos) / durationNanos;
+        return progress < 0 ? 0 : Math.min(progress, 1.0);
+    }
+}
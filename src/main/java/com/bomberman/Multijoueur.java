@@ -262,6 +262,12 @@ public class Multijoueur extends Application {
                     BombermanGame controller = loader.getController();
                     // Appliquer le style alternatif si activé dans les options
                     controller.setAlternativeStyle(Option.Settings.alternativeStyle);
+                    // Appliquer la taille d'arène choisie dans les options
+                    controller.setArenaSize(Option.Settings.arenaSize);
+                    // Au-delà des quatre joueurs, les participants sont des bots
+                    controller.setPlayerCount(Option.Settings.playerCount);
+                    // Graine choisie dans les options (partie reproductible)
+                    controller.setSeed(Option.Settings.seed);
                     // Passer les noms des joueurs
                     controller.setPlayerNames(validPseudos);
 
@@ -282,6 +288,7 @@ public class Multijoueur extends Application {
                     root.requestFocus();
 
                     gameStage.setOnHidden(ev -> {
+                        controller.dispose(); // Libère la partie fermée
                         stage.show(); // Réaffiche le menu multijoueur quand la partie se ferme
                     });
 
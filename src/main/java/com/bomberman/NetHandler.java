@@ -0,0 +1,23 @@
+package com.bomberman;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reçoit les messages arrivés par une liaison réseau ({@link NetLink}).
+ * @author Valentin B.
+ */
+public interface NetHandler {
+    /**
+     * Un message est arrivé. Les messages d'une même liaison arrivent un par un, dans l'ordre.
+     * @param link la liaison d'où vient le message
+     * @param message le message, valable seulement pendant l'appel (à copier pour le garder)
+     */
+    void onMessage(NetLink link, ByteBuffer message);
+
+    /**
+     * La liaison est fermée, par le pair ou localement ; plus aucun message n'arrivera.
+     * @param link la liaison fermée
+     */
+    default void onClosed(NetLink link) {
+    }
+}
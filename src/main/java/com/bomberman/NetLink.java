@@ -0,0 +1,22 @@
+package com.bomberman;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Liaison réseau vers un pair (client ou serveur), qui transporte des messages entiers
+ * ({@link Protocol}). Le découpage en trames et le transport (TCP, boucle locale simulée)
+ * sont l'affaire de l'implémentation : le jeu ne voit que des messages.
+ * @author Valentin B.
+ */
+public interface NetLink {
+    /**
+     * Envoie un message au pair, sans bloquer l'appelant plus que le temps de le copier.
+     * @param message le message, de la position à la limite du tampon (le tampon n'est pas modifié)
+     */
+    void send(ByteBuffer message);
+
+    /**
+     * Ferme la liaison ; le gestionnaire est prévenu par {@link NetHandler#onClosed(NetLink)}.
+     */
+    void close();
+}
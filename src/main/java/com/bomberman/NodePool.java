@@ -0,0 +1,78 @@
+package com.bomberman;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Supplier;
+
+/**
+ * Réserve d'objets réutilisables (noeuds JavaFX déjà configurés).
+ * <p>
+ * {@link #acquire()} rend un objet libéré s'il y en a un (succès) et n'en crée
+ * un nouveau qu'à défaut (échec) : les compteurs de succès et d'échecs permettent
+ * de vérifier qu'en cours de partie presque plus rien n'est alloué.
+ * </p>
+ * @param <T> le type des objets de la réserve
+ * @author Valentin B.
+ */
+public class NodePool<T> {
+    private final Supplier<T> factory;
+    private final Deque<T> free = new ArrayDeque<>();
+    private long hits;
+    private long misses;
+
+    /**
+     * @param factory crée un nouvel objet, déjà configuré, quand la réserve est vide
+     */
+    public NodePool(Supplier<T> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * @return un objet libéré, ou un nouvel objet si la réserve est vide
+     */
+    public T acquire() {
+        T item = free.poll();
+        if (item != null) {
+            hits++;
+            return item;
+        }
+        misses++;
+        return factory.get();
+    }
+
+    /**
+     * Rend un objet à la réserve. L'objet ne doit plus être utilisé par l'appelant.
+     * @param item l'objet à rendre
+     */
+    public void release(T item) {
+        free.push(item);
+    }
+
+    /**
+     * Vide la réserve (les compteurs sont conservés).
+     */
+    public void clear() {
+        free.clear();
+    }
+
+    /**
+     * @return le nombre d'objets disponibles
+     */
+    public int getIdleCount() {
+        return free.size();
+    }
+
+    /**
+     * @return le nombre d'acquisitions servies par un objet réutilisé
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return le nombre d'acquisitions ayant nécessité une création
+     */
+    public long getMisses() {
+        return misses;
+    }
+}
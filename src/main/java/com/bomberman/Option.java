@@ -6,6 +6,9 @@ import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.Spinner;
+import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
@@ -15,7 +18,8 @@ import javafx.stage.Stage;
 /**
  * Fenêtre des options du jeu Bomberman.
  * <p>
- * Permet d'activer un style graphique alternatif et de revenir au menu principal.
+ * Permet d'activer un style graphique alternatif, de choisir la taille de l'arène,
+ * le nombre de participants et la graine des parties, et de revenir au menu principal.
  * </p>
  * @author Akim A. - Valentin B.
  */
@@ -105,7 +109,7 @@ public class Option extends Application {
     }
 
     /**
-     * Configure le contenu principal de la fenêtre (checkbox style alternatif et bouton retour).
+     * Configure le contenu principal de la fenêtre (checkbox style alternatif, taille de l'arène et bouton retour).
      *
      * @param stage la fenêtre sur laquelle les actions pourront agir (retour au menu principal)
      */
@@ -139,6 +143,42 @@ public class Option extends Application {
 
         });
 
+        // Taille de l'arène (cases de côté, valeurs impaires)
+        Label arenaLabel = new Label("Taille de l'arène");
+        arenaLabel.setStyle("-fx-font-size: 18px; -fx-text-fill: white;");
+        Spinner<Integer> arenaSpinner = new Spinner<>(BombermanGame.MIN_ARENA_SIZE,
+                BombermanGame.MAX_ARENA_SIZE, Settings.arenaSize, 2);
+        arenaSpinner.setEditable(true);
+        arenaSpinner.setMaxWidth(120);
+        arenaSpinner.valueProperty().addListener((obs, oldVal, newVal) -> {
+            Settings.arenaSize = newVal;
+        });
+
+        // Nombre de participants (joueurs et bots)
+        Label playersLabel = new Label("Nombre de participants");
+        playersLabel.setStyle("-fx-font-size: 18px; -fx-text-fill: white;");
+        Spinner<Integer> playersSpinner = new Spinner<>(2, BombermanGame.MAX_PLAYERS, Settings.playerCount);
+        playersSpinner.setEditable(true);
+        playersSpinner.setMaxWidth(120);
+        playersSpinner.valueProperty().addListener((obs, oldVal, newVal) -> {
+            Settings.playerCount = newVal;
+        });
+
+        // Graine des parties (vide = aléatoire), pour rejouer une partie à l'identique
+        Label seedLabel = new Label("Graine (vide = aléatoire)");
+        seedLabel.setStyle("-fx-font-size: 18px; -fx-text-fill: white;");
+        TextField seedField = new TextField(Settings.seed != null ? Settings.seed.toString() : "");
+        seedField.setMaxWidth(220);
+        seedField.textProperty().addListener((obs, oldVal, newVal) -> {
+            try {
+                Settings.seed = newVal.trim().isEmpty() ? null : Long.parseLong(newVal.trim());
+                seedField.setStyle("");
+            } catch (NumberFormatException ex) {
+                Settings.seed = null;
+                seedField.setStyle("-fx-border-color: red;");
+            }
+        });
+
         // Bouton "Retour" pour revenir au menu principal
         Button backButton = new Button("Retour");
         backButton.setStyle(
@@ -184,7 +224,8 @@ public class Option extends Application {
         });
 
         // Ajout de la checkbox et du bouton retour dans la boîte d’options
-        optionBox.getChildren().addAll(styleCheckBox, backButton);
+        optionBox.getChildren().addAll(styleCheckBox, arenaLabel, arenaSpinner,
+                playersLabel, playersSpinner, seedLabel, seedField, backButton);
         centerBox.getChildren().add(optionBox);
 
         // Ajout du contenu principal dans le conteneur principal
@@ -196,6 +237,9 @@ public class Option extends Application {
      */
     public static class Settings {
         public static boolean alternativeStyle = false; // option style alternatif.
+        public static int arenaSize = BombermanGame.MIN_ARENA_SIZE; // taille de l'arène (cases de côté)
+        public static int playerCount = BombermanGame.DEFAULT_PLAYER_COUNT; // joueurs et bots
+        public static Long seed = null; // graine des parties, null pour une graine aléatoire
     }
 
     /**
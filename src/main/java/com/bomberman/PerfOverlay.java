@@ -0,0 +1,106 @@
+package com.bomberman;
+
+import javafx.scene.control.Label;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Affichage des mesures de performance par-dessus l'arène (F3 pour l'afficher ou le masquer).
+ * <p>
+ * Enregistre chaque image dans les {@link FrameStats} de la partie et, quand il est visible,
+ * rafraîchit son texte quatre fois par seconde : images par seconde, histogramme des durées
+ * de tick, temps par section, bombes, effets et animations actifs, débit d'allocation.
+ * </p>
+ * @author Valentin B.
+ */
+public class PerfOverlay implements AnimationClock.Listener {
+    private static final long REFRESH_NANOS = 250_000_000L;
+
+    private final Label label;
+    private final FrameStats stats;
+    private final IntSupplier activeBombs;
+    private final EffectsManager effects;
+
+    private final StringBuilder text = new StringBuilder(256);
+    private final int[] histogram = new int[FrameStats.HISTOGRAM_BOUNDS_MS.length + 1];
+    private long lastRefresh;
+
+    /**
+     * @param label le texte affiché par-dessus l'arène
+     * @param stats les mesures de la partie
+     * @param activeBombs le nombre de bombes posées
+     * @param effects les effets visuels de la partie
+     */
+    public PerfOverlay(Label label, FrameStats stats, IntSupplier activeBombs, EffectsManager effects) {
+        this.label = label;
+        this.stats = stats;
+        this.activeBombs = activeBombs;
+        this.effects = effects;
+        label.setVisible(false);
+        label.setMouseTransparent(true);
+    }
+
+    /**
+     * Affiche ou masque les mesures (la collecte continue dans les deux cas).
+     */
+    public void toggle() {
+        label.setVisible(!label.isVisible());
+        lastRefresh = 0;
+    }
+
+    public boolean isShowing() {
+        return label.isVisible();
+    }
+
+    @Override
+    public void tick(long now) {
+        stats.frame(now);
+        if (now - lastRefresh < REFRESH_NANOS) return;
+        lastRefresh = now;
+        stats.sampleAllocation(now);
+        if (label.isVisible()) {
+            label.setText(format());
+        }
+    }
+
+    private String format() {
+        text.setLength(0);
+        text.append("FPS ");
+        appendDecimal(stats.getFps());
+        text.append("   tick ");
+        appendDecimal(stats.getAverageTickMs());
+        text.append(" ms (max ");
+        appendDecimal(stats.getMaxTickMs());
+        text.append(")\n");
+
+        // Histogramme des ticks : une colonne par classe de durée
+        stats.histogram(histogram);
+        double[] bounds = FrameStats.HISTOGRAM_BOUNDS_MS;
+        for (int i = 0; i < histogram.length; i++) {
+            text.append(i < bounds.length ? "<" : ">=").append((int) bounds[Math.min(i, bounds.length - 1)])
+                    .append(':').append(histogram[i]).append(' ');
+        }
+        text.append('\n');
+
+        for (FrameStats.Section section : FrameStats.Section.values()) {
+            text.append(section.getLabel()).append(' ');
+            appendDecimal(stats.getAverageMs(section));
+            text.append(" ms  ");
+        }
+        text.append('\n');
+
+        text.append("Bombes ").append(activeBombs.getAsInt())
+                .append("  Effets ").append(effects.getActiveCount())
+                .append("  Animations ").append(AnimationClock.getInstance().getListenerCount())
+                .append("  Alloc ");
+        appendDecimal(stats.getAllocationRate() / (1024 * 1024));
+        text.append(" Mo/s");
+        return text.toString();
+    }
+
+    // Une décimale, sans passer par String.format
+    private void appendDecimal(double value) {
+        long tenths = Math.round(value * 10);
+        text.append(tenths / 10).append('.').append(Math.abs(tenths % 10));
+    }
+}
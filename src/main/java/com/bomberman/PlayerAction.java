@@ -0,0 +1,61 @@
+package com.bomberman;
+
+/**
+ * Action d'un joueur pendant un tick, codée sur un mot de quelques bits.
+ * <p>
+ * Un mot combine au plus une direction et la pose d'une bombe (appliquée avant le déplacement).
+ * C'est ce mot qui est enregistré dans les replays : rejouer les mots de chaque joueur
+ * à partir de la même graine reproduit exactement la partie, bots compris.
+ * </p>
+ * @author Valentin B.
+ */
+public final class PlayerAction {
+    public static final int NONE = 0;
+    public static final int UP = 1;
+    public static final int DOWN = 1 << 1;
+    public static final int LEFT = 1 << 2;
+    public static final int RIGHT = 1 << 3;
+    public static final int BOMB = 1 << 4;
+
+    static final int MOVE_MASK = UP | DOWN | LEFT | RIGHT;
+
+    private PlayerAction() {
+    }
+
+    /**
+     * @param dx déplacement horizontal (-1, 0 ou 1)
+     * @param dy déplacement vertical (-1, 0 ou 1)
+     * @return le bit de direction correspondant, {@link #NONE} sans déplacement
+     */
+    public static int move(int dx, int dy) {
+        if (dy < 0) return UP;
+        if (dy > 0) return DOWN;
+        if (dx < 0) return LEFT;
+        if (dx > 0) return RIGHT;
+        return NONE;
+    }
+
+    /**
+     * @param word un mot d'action
+     * @return le déplacement horizontal demandé
+     */
+    public static int dx(int word) {
+        return (word & LEFT) != 0 ? -1 : (word & RIGHT) != 0 ? 1 : 0;
+    }
+
+    /**
+     * @param word un mot d'action
+     * @return le déplacement vertical demandé
+     */
+    public static int dy(int word) {
+        return (word & UP) != 0 ? -1 : (word & DOWN) != 0 ? 1 : 0;
+    }
+
+    /**
+     * @param word un mot d'action
+     * @return true si le mot demande la pose d'une bombe
+     */
+    public static boolean bomb(int word) {
+        return (word & BOMB) != 0;
+    }
+}
@@ -0,0 +1,283 @@
+package com.bomberman;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Registre des joueurs d'une partie, en nombre quelconque (joueurs locaux et bots).
+ * <p>
+ * En plus de la liste des joueurs, le registre tient à jour le nombre de joueurs vivants
+ * et un index des joueurs vivants par case : la condition de victoire est en O(1),
+ * et trouver les joueurs touchés par une explosion ou bloquant une bombe poussée ne
+ * demande que de regarder les cases concernées, quel que soit le nombre de joueurs.
+ * </p>
+ * <p>
+ * Les positions de départ sont générées pour la taille de l'arène
+ * ({@link #generateSpawnPoints(int, int)}).
+ * </p>
+ * @author Valentin B.
+ */
+public class PlayerRegistry {
+    private final int gridSize;
+    private final List<BombermanGame.Player> players = new ArrayList<>();
+    private final List<BombermanGame.Player> readOnly = Collections.unmodifiableList(players);
+    private final ArrayList<BombermanGame.Player>[] cells; // joueurs vivants par case, créées à la demande
+    private int aliveCount;
+
+    /**
+     * @param gridSize le nombre de cases de côté de l'arène
+     */
+    public PlayerRegistry(int gridSize) {
+        this.gridSize = gridSize;
+        this.cells = newCells(gridSize * gridSize);
+    }
+
+    /**
+     * Java ne sait pas créer un tableau de type générique : le tableau est créé
+     * en {@code ArrayList<?>[]}, et ne contiendra que des listes de joueurs.
+     */
+    @SuppressWarnings("unchecked")
+    private static ArrayList<BombermanGame.Player>[] newCells(int count) {
+        return (ArrayList<BombermanGame.Player>[]) new ArrayList<?>[count];
+    }
+
+    /**
+     * Ajoute un joueur vivant à sa position actuelle.
+     * @param player le joueur
+     */
+    public void add(BombermanGame.Player player) {
+        players.add(player);
+        if (player.alive) {
+            aliveCount++;
+            cell(player.x, player.y, true).add(player);
+        }
+    }
+
+    /**
+     * @param index l'indice du joueur (ordre d'ajout)
+     * @return le joueur
+     */
+    public BombermanGame.Player get(int index) {
+        return players.get(index);
+    }
+
+    /**
+     * @return le nombre de joueurs de la partie
+     */
+    public int size() {
+        return players.size();
+    }
+
+    /**
+     * @return tous les joueurs, dans l'ordre d'ajout (liste non modifiable)
+     */
+    public List<BombermanGame.Player> asList() {
+        return readOnly;
+    }
+
+    /**
+     * @return le nombre de joueurs vivants
+     */
+    public int aliveCount() {
+        return aliveCount;
+    }
+
+    /**
+     * Met à jour l'index après le déplacement d'un joueur.
+     * @param player le joueur, déjà à sa nouvelle position
+     * @param oldX son ancienne colonne
+     * @param oldY son ancienne ligne
+     */
+    public void moved(BombermanGame.Player player, int oldX, int oldY) {
+        if (!player.alive || (oldX == player.x && oldY == player.y)) return;
+        List<BombermanGame.Player> old = cell(oldX, oldY, false);
+        if (old != null) old.remove(player);
+        cell(player.x, player.y, true).add(player);
+    }
+
+    /**
+     * Retire un joueur éliminé de l'index des joueurs vivants.
+     * @param player le joueur, déjà marqué comme mort
+     */
+    public void died(BombermanGame.Player player) {
+        List<BombermanGame.Player> cell = cell(player.x, player.y, false);
+        if (cell != null && cell.remove(player)) {
+            aliveCount--;
+        }
+    }
+
+    /**
+     * Vide l'index des cases, avant de modifier en bloc les positions et l'état des joueurs
+     * (restauration d'un état de la partie). À faire suivre de {@link #reindex()}.
+     */
+    public void clearIndex() {
+        for (BombermanGame.Player player : players) {
+            List<BombermanGame.Player> cell = cell(player.x, player.y, false);
+            if (cell != null) cell.clear();
+        }
+        aliveCount = 0;
+    }
+
+    /**
+     * Reconstruit l'index des joueurs vivants à partir de leur état actuel, après {@link #clearIndex()}.
+     */
+    public void reindex() {
+        for (BombermanGame.Player player : players) {
+            if (player.alive) {
+                aliveCount++;
+                cell(player.x, player.y, true).add(player);
+            }
+        }
+    }
+
+    /**
+     * @param x colonne
+     * @param y ligne
+     * @return les joueurs vivants sur la case (liste partagée, à ne pas modifier)
+     */
+    public List<BombermanGame.Player> at(int x, int y) {
+        List<BombermanGame.Player> cell = cell(x, y, false);
+        return cell != null ? cell : Collections.emptyList();
+    }
+
+    /**
+     * @return le premier joueur vivant (le gagnant quand il n'en reste qu'un), ou null
+     */
+    public BombermanGame.Player firstAlive() {
+        for (BombermanGame.Player player : players) {
+            if (player.alive) return player;
+        }
+        return null;
+    }
+
+    /**
+     * Trouve le joueur vivant le plus proche (distance de Manhattan).
+     * <p>
+     * Les cases sont parcourues par anneaux de distance croissante tant que c'est moins
+     * coûteux que de parcourir les joueurs vivants ; au-delà, on parcourt les joueurs.
+     * </p>
+     * @param x colonne de départ
+     * @param y ligne de départ
+     * @param exclude un joueur à ignorer (celui qui cherche), peut être null
+     * @return le joueur vivant le plus proche, ou null
+     */
+    public BombermanGame.Player nearestAlive(int x, int y, BombermanGame.Player exclude) {
+        int candidates = aliveCount - (exclude != null && exclude.alive ? 1 : 0);
+        if (candidates <= 0) return null;
+
+        // Un anneau de rayon d compte 4d cases : on s'arrête quand les anneaux coûtent plus que la liste
+        int scanned = 0;
+        for (int d = 0; d < 2 * gridSize && scanned <= candidates; d++) {
+            BombermanGame.Player found = scanRing(x, y, d, exclude);
+            if (found != null) return found;
+            scanned += Math.max(1, 4 * d);
+        }
+
+        BombermanGame.Player nearest = null;
+        int minDistance = Integer.MAX_VALUE;
+        for (BombermanGame.Player player : players) {
+            if (player == exclude || !player.alive) continue;
+            int distance = Math.abs(player.x - x) + Math.abs(player.y - y);
+            if (distance < minDistance) {
+                minDistance = distance;
+                nearest = player;
+            }
+        }
+        return nearest;
+    }
+
+    private BombermanGame.Player scanRing(int x, int y, int d, BombermanGame.Player exclude) {
+        if (d == 0) return firstOther(x, y, exclude);
+        for (int i = 0; i < d; i++) {
+            // Les quatre côtés du losange de rayon d
+            BombermanGame.Player found = firstOther(x + i, y - d + i, exclude);
+            if (found == null) found = firstOther(x + d - i, y + i, exclude);
+            if (found == null) found = firstOther(x - i, y + d - i, exclude);
+            if (found == null) found = firstOther(x - d + i, y - i, exclude);
+            if (found != null) return found;
+        }
+        return null;
+    }
+
+    private BombermanGame.Player firstOther(int x, int y, BombermanGame.Player exclude) {
+        List<BombermanGame.Player> cell = cell(x, y, false);
+        if (cell == null) return null;
+        for (int i = 0; i < cell.size(); i++) {
+            if (cell.get(i) != exclude) return cell.get(i);
+        }
+        return null;
+    }
+
+    private List<BombermanGame.Player> cell(int x, int y, boolean create) {
+        if (x < 0 || x >= gridSize || y < 0 || y >= gridSize) return null;
+        int index = x * gridSize + y;
+        if (cells[index] == null && create) {
+            cells[index] = new ArrayList<>(1);
+        }
+        return cells[index];
+    }
+
+    /**
+     * @param gridSize le nombre de cases de côté de l'arène (impair)
+     * @return le nombre maximal de joueurs pour cette arène (une case de départ libre chacun)
+     */
+    public static int maxPlayers(int gridSize) {
+        int side = (gridSize - 1) / 2; // cases de coordonnées impaires, jamais des murs
+        return side * side;
+    }
+
+    /**
+     * Génère des positions de départ réparties sur l'arène.
+     * <p>
+     * Jusqu'à quatre joueurs, les coins (haut-gauche, haut-droit, bas-gauche, bas-droit).
+     * Au-delà, les coins puis les autres points d'un quadrillage régulier de l'arène.
+     * Toutes les positions sont des cases de coordonnées impaires, qui ne sont jamais des murs.
+     * </p>
+     * @param gridSize le nombre de cases de côté de l'arène (impair)
+     * @param count le nombre de joueurs, au plus {@link #maxPlayers(int)}
+     * @return les positions {x, y} de chaque joueur
+     */
+    public static int[][] generateSpawnPoints(int gridSize, int count) {
+        if (count > maxPlayers(gridSize)) {
+            throw new IllegalArgumentException("Trop de joueurs pour une arène de " + gridSize + " cases: " + count);
+        }
+        int far = gridSize - 2;
+        int[][] corners = {{1, 1}, {far, 1}, {1, far}, {far, far}};
+        int[][] spawns = new int[count][];
+        boolean[] used = new boolean[gridSize * gridSize];
+        int n = 0;
+
+        for (int[] corner : corners) {
+            if (n == count) break;
+            if (!used[corner[0] * gridSize + corner[1]]) {
+                used[corner[0] * gridSize + corner[1]] = true;
+                spawns[n++] = corner;
+            }
+        }
+
+        // Quadrillage de plus en plus fin jusqu'à avoir assez de points
+        int side = (gridSize - 1) / 2;
+        for (int k = Math.min(side, (int) Math.ceil(Math.sqrt(count))); n < count; k = Math.min(side, k + 1)) {
+            for (int i = 0; i < k && n < count; i++) {
+                for (int j = 0; j < k && n < count; j++) {
+                    int x = latticeCoordinate(i, k, side);
+                    int y = latticeCoordinate(j, k, side);
+                    if (!used[x * gridSize + y]) {
+                        used[x * gridSize + y] = true;
+                        spawns[n++] = new int[]{x, y};
+                    }
+                }
+            }
+        }
+        return spawns;
+    }
+
+    /**
+     * i-ème point (sur k) réparti entre la première et la dernière case impaire.
+     */
+    private static int latticeCoordinate(int i, int k, int side) {
+        if (k == 1) return 1;
+        return 1 + 2 * (int) Math.round((double) i * (side - 1) / (k - 1));
+    }
+}
@@ -1,16 +1,20 @@
 package com.bomberman;
 
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * Représente les statistiques d'un joueur (nom, victoires, défaites).
  * <p>
- * Utilisé par StatsManager pour la gestion des scores.
+ * Utilisé par StatsManager pour la gestion des scores. Les compteurs sont des
+ * {@link LongAdder} : plusieurs parties peuvent enregistrer leurs résultats en même temps
+ * sans verrou ni mise à jour perdue.
  * </p>
  * @author Valentin B.
  */
 public class PlayerStats {
-    private String playerName;
-    private int victories;
-    private int defeats;
+    private final String playerName;
+    private final LongAdder victories = new LongAdder();
+    private final LongAdder defeats = new LongAdder();
 
     /**
      * Constructeur pour initialiser les statistiques d'un joueur.
@@ -21,8 +25,8 @@ public class PlayerStats {
      */
     public PlayerStats(String playerName, int victories, int defeats) {
         this.playerName = playerName;
-        this.victories = victories;
-        this.defeats = defeats;
+        this.victories.add(victories);
+        this.defeats.add(defeats);
     }
 
 
@@ -31,23 +35,23 @@ public class PlayerStats {
     }
 
     public int getVictories() {
-        return victories;
+        return victories.intValue();
     }
 
     public int getDefeats() {
-        return defeats;
+        return defeats.intValue();
     }
 
     public void addVictory() {
-        victories++;
+        victories.increment();
     }
 
     public void addDefeat() {
-        defeats++;
+        defeats.increment();
     }
 
     @Override
     public String toString() {
-        return playerName + "," + victories + "," + defeats;
+        return playerName + "," + getVictories() + "," + getDefeats();
     }
 }
\ No newline at end of file
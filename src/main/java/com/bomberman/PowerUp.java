@@ -1,13 +1,12 @@
 package com.bomberman;
 
-import javafx.animation.ScaleTransition;
 import javafx.scene.image.ImageView;
-import javafx.util.Duration;
 
 /**
  * Représente un power-up sur la grille de jeu.
  * <p>
- * Gère le type, la position, l'état et l'animation visuelle du power-up.
+ * Gère le type, la position, l'état et l'image du power-up.
+ * Son animation de pulsation est gérée par {@link EffectsManager}.
  * </p>
  * @author Thomas A.
  */
@@ -47,21 +46,26 @@ public class PowerUp {
     public ImageView getVisual() { return visual; }
 
     /**
-     * Définit l'image visuelle du power-up et démarre une animation de pulsation.
+     * Réutilise le power-up pour une autre position (restauration d'un état de la partie).
+     *
+     * @param x    Position X du power-up sur la grille
+     * @param y    Position Y du power-up sur la grille
+     * @param type Type de power-up
+     */
+    void reset(int x, int y, Type type) {
+        this.x = x;
+        this.y = y;
+        this.type = type;
+        this.active = true;
+        this.visual = null;
+    }
+
+    /**
+     * Définit l'image visuelle du power-up.
      *
      * @param visual ImageView représentant le power-up
      */
     public void setVisual(ImageView visual) {
         this.visual = visual;
-
-        // Animation de pulsation
-        ScaleTransition pulse = new ScaleTransition(Duration.millis(1000), visual);
-        pulse.setFromX(0.9);
-        pulse.setFromY(0.9);
-        pulse.setToX(1.1);
-        pulse.setToY(1.1);
-        pulse.setAutoReverse(true);
-        pulse.setCycleCount(ScaleTransition.INDEFINITE);
-        pulse.play();
     }
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+package com.bomberman;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Messages échangés entre le serveur de jeu ({@link GameServer}) et ses clients.
+ * <p>
+ * Chaque message commence par un octet de type. Sur TCP, il est précédé de sa longueur sur
+ * quatre octets ({@link #FRAME_HEADER_BYTES}). Le serveur fait autorité : les clients n'envoient
+ * que leurs actions, le serveur simule la partie et renvoie son état à chaque tick, sous forme de
+ * différence avec le dernier état acquitté par le client ({@link DeltaEncoder}).
+ * </p>
+ * <pre>
+ * client → serveur
+ *   JOIN    salle (int), nom (UTF-8 : longueur (short) puis octets)
+ *   INPUT   tick du client (int), mot d'action {@link PlayerAction} (int), tenu jusqu'au suivant
+ *   ACK     numéro du dernier état reçu (int)
+ *   LEAVE
+ * serveur → client
+ *   WELCOME salle (int), position du joueur (int), taille de l'arène (int), nombre de joueurs (int), graine (long)
+ *   FULL    salle (int) : plus de place dans la salle
+ *   STATE   différence avec un état acquitté, ou état complet ({@link DeltaEncoder})
+ * entre pairs ({@link RollbackSession})
+ *   PEER_INPUT position du joueur (byte), premier tick (int), nombre d'actions (byte), une action par octet
+ * </pre>
+ * @author Valentin B.
+ */
+public final class Protocol {
+    public static final int DEFAULT_PORT = 7777;
+    public static final int FRAME_HEADER_BYTES = 4;
+    public static final int MAX_MESSAGE_BYTES = 1 << 20;
+
+    public static final byte JOIN = 'J';
+    public static final byte INPUT = 'I';
+    public static final byte ACK = 'A';
+    public static final byte LEAVE = 'L';
+    public static final byte WELCOME = 'W';
+    public static final byte FULL = 'F';
+    public static final byte STATE = 'S';
+    public static final byte PEER_INPUT = 'P';
+
+    private static final int MAX_NAME_BYTES = 64;
+
+    private Protocol() {
+    }
+
+    /**
+     * @param room la salle à rejoindre (créée si elle n'existe pas)
+     * @param name le nom du joueur, tronqué à 64 octets
+     */
+    public static ByteBuffer join(int room, String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, MAX_NAME_BYTES);
+        ByteBuffer message = ByteBuffer.allocate(1 + 4 + 2 + length);
+        message.put(JOIN).putInt(room).putShort((short) length).put(bytes, 0, length);
+        return message.flip();
+    }
+
+    /**
+     * @param tick le tick du client au moment de l'action
+     * @param word le mot d'action, tenu par le serveur jusqu'au suivant (la bombe n'est posée qu'une fois)
+     */
+    public static ByteBuffer input(int tick, int word) {
+        return ByteBuffer.allocate(1 + 4 + 4).put(INPUT).putInt(tick).putInt(word).flip();
+    }
+
+    /**
+     * @param seq le numéro du dernier état reçu, que le serveur peut prendre comme référence
+     */
+    public static ByteBuffer ack(int seq) {
+        return ByteBuffer.allocate(1 + 4).put(ACK).putInt(seq).flip();
+    }
+
+    public static ByteBuffer leave() {
+        return ByteBuffer.allocate(1).put(LEAVE).flip();
+    }
+
+    public static ByteBuffer welcome(int room, int slot, int arenaSize, int playerCount, long seed) {
+        return ByteBuffer.allocate(1 + 4 * 4 + 8)
+                .put(WELCOME).putInt(room).putInt(slot).putInt(arenaSize).putInt(playerCount).putLong(seed)
+                .flip();
+    }
+
+    public static ByteBuffer full(int room) {
+        return ByteBuffer.allocate(1 + 4).put(FULL).putInt(room).flip();
+    }
+
+    /**
+     * Lit le nom d'un message {@link #JOIN}, après la salle.
+     * @param message le message, positionné sur le nom
+     * @return le nom
+     */
+    static String readName(ByteBuffer message) {
+        int length = message.getShort();
+        if (length < 0 || length > MAX_NAME_BYTES || length > message.remaining()) {
+            throw new IllegalArgumentException("Nom invalide: " + length + " octets");
+        }
+        byte[] bytes = new byte[length];
+        message.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
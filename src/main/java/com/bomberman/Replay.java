@@ -0,0 +1,595 @@
+package com.bomberman;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Replay d'une partie : sa graine et, tick par tick, les actions des joueurs ({@link PlayerAction}).
+ * <p>
+ * La simulation ne dépend que de la graine et des actions : rejouer les actions enregistrées
+ * reproduit la partie à l'identique, sans relancer l'IA des bots. Le fichier est compact
+ * (entiers à longueur variable, ticks en écart au précédent, seules les actions effectives
+ * sont écrites : quelques Ko par minute de jeu).
+ * </p>
+ * <p>
+ * Toutes les {@value #KEYFRAME_INTERVAL} ticks, un état complet de la partie (image clé)
+ * est ajouté au flux, et un index des images clés termine le fichier : aller à un instant
+ * donné revient à restaurer l'image clé précédente puis à re-simuler au plus
+ * {@value #KEYFRAME_INTERVAL} ticks. Un fichier sans index (partie interrompue) reste lisible,
+ * l'index est alors reconstruit en parcourant le flux.
+ * </p>
+ * <p>
+ * Toutes les {@value #HASH_INTERVAL} ticks, le hachage de l'état de la partie ({@link StateHash})
+ * est aussi enregistré : la lecture le compare à celui de la partie rejouée et détecte ainsi
+ * une divergence (version du jeu différente, fichier altéré) à la seconde près.
+ * </p>
+ * <pre>
+ * en-tête   : "BMRP", version, graine, début (ms), taille de l'arène, mode solo, joueurs (nom, bot)
+ * flux      : 'K' tick, longueur, état | 'A' écart de tick, joueur, mot d'action
+ *             | 'H' écart de tick, hachage de l'état (8 octets) | 'E' tick de fin
+ * index     : tick de fin, nombre d'images clés, (écart de tick, écart de position)...
+ * fin       : position de l'index (4 octets), "BMRI"
+ * </pre>
+ * @author Valentin B.
+ */
+public class Replay {
+    public static final Path DIRECTORY = Paths.get(System.getProperty("bomberman.replay.dir", "replays"));
+    public static final String EXTENSION = ".bmr";
+    public static final int KEYFRAME_INTERVAL = 300; // ~5 secondes
+    public static final int HASH_INTERVAL = 60;      // ~1 seconde
+
+    static final int MAGIC = 0x424D5250;       // "BMRP"
+    static final int INDEX_MAGIC = 0x424D5249; // "BMRI"
+    static final int VERSION = 2; // 1 : sans hachages
+    static final int KEYFRAME = 'K';
+    static final int ACTION = 'A';
+    static final int HASH = 'H';
+    static final int END = 'E';
+    static final int TRAILER_SIZE = 8;
+
+    private final byte[] data;
+    private final Header header;
+    private final int streamStart;
+    private final int[] keyframeTicks;
+    private final int[] keyframeOffsets;
+    private final int endTick;
+    private final boolean complete;
+
+    private Replay(byte[] data, Header header, int streamStart, int[] keyframeTicks, int[] keyframeOffsets,
+                   int endTick, boolean complete) {
+        this.data = data;
+        this.header = header;
+        this.streamStart = streamStart;
+        this.keyframeTicks = keyframeTicks;
+        this.keyframeOffsets = keyframeOffsets;
+        this.endTick = endTick;
+        this.complete = complete;
+    }
+
+    /**
+     * Lit un fichier de replay.
+     * @param file le fichier
+     * @return le replay
+     * @throws IOException si le fichier est illisible ou n'est pas un replay
+     */
+    public static Replay load(Path file) throws IOException {
+        return parse(Files.readAllBytes(file));
+    }
+
+    /**
+     * @param data le contenu d'un fichier de replay
+     * @return le replay
+     * @throws IOException si le contenu n'est pas un replay valide
+     */
+    static Replay parse(byte[] data) throws IOException {
+        try {
+            Decoder in = new Decoder(data, 0, data.length);
+            if (in.readInt() != MAGIC) throw new IOException("Ce fichier n'est pas un replay");
+            int version = in.readByte();
+            if (version < 1 || version > VERSION) throw new IOException("Version de replay non supportée: " + version);
+            Header header = Header.read(in);
+            int streamStart = in.position();
+
+            Replay indexed = readIndex(data, header, streamStart);
+            return indexed != null ? indexed : scan(data, header, streamStart);
+        } catch (IllegalStateException e) {
+            throw new IOException("Replay invalide: " + e.getMessage(), e);
+        }
+    }
+
+    // Index écrit en fin de fichier par ReplayRecorder.finish
+    private static Replay readIndex(byte[] data, Header header, int streamStart) {
+        if (data.length < streamStart + TRAILER_SIZE) return null;
+        Decoder trailer = new Decoder(data, data.length - TRAILER_SIZE, TRAILER_SIZE);
+        int indexOffset = trailer.readInt();
+        if (trailer.readInt() != INDEX_MAGIC || indexOffset < streamStart || indexOffset > data.length - TRAILER_SIZE) {
+            return null;
+        }
+
+        Decoder in = new Decoder(data, indexOffset, data.length - TRAILER_SIZE - indexOffset);
+        int endTick = in.readVarintInt();
+        int count = in.readVarintInt();
+        int[] ticks = new int[count];
+        int[] offsets = new int[count];
+        int tick = 0;
+        int offset = streamStart;
+        for (int i = 0; i < count; i++) {
+            tick += in.readVarintInt();
+            offset += in.readVarintInt();
+            ticks[i] = tick;
+            offsets[i] = offset;
+        }
+        return new Replay(data, header, streamStart, ticks, offsets, endTick, true);
+    }
+
+    // Sans index : parcours du flux jusqu'à la fin ou au premier enregistrement incomplet
+    private static Replay scan(byte[] data, Header header, int streamStart) {
+        int[] ticks = new int[16];
+        int[] offsets = new int[16];
+        int count = 0;
+        int tick = 0;
+        Decoder in = new Decoder(data, streamStart, data.length - streamStart);
+        try {
+            while (in.hasRemaining()) {
+                int offset = in.position();
+                int type = in.readByte();
+                if (type == KEYFRAME) {
+                    int keyframeTick = in.readVarintInt();
+                    in.skip(in.readVarintInt());
+                    if (count == ticks.length) {
+                        ticks = Arrays.copyOf(ticks, count * 2);
+                        offsets = Arrays.copyOf(offsets, count * 2);
+                    }
+                    ticks[count] = keyframeTick;
+                    offsets[count++] = offset;
+                    tick = keyframeTick;
+                } else if (type == ACTION) {
+                    int actionTick = tick + in.readVarintInt();
+                    in.readVarint();
+                    in.readVarint();
+                    tick = actionTick;
+                } else if (type == HASH) {
+                    tick += in.readVarintInt();
+                    in.readLong();
+                } else if (type == END) {
+                    tick = in.readVarintInt();
+                    break;
+                } else {
+                    break;
+                }
+            }
+        } catch (IllegalStateException e) {
+            // Dernier enregistrement incomplet : le replay s'arrête au précédent
+        }
+        if (count == 0) throw new IllegalStateException("aucune image clé");
+        return new Replay(data, header, streamStart, Arrays.copyOf(ticks, count), Arrays.copyOf(offsets, count),
+                tick, false);
+    }
+
+    public Header getHeader() {
+        return header;
+    }
+
+    /**
+     * @return le dernier tick de la partie enregistrée
+     */
+    public int getEndTick() {
+        return endTick;
+    }
+
+    /**
+     * @return false si l'enregistrement a été interrompu (index reconstruit à la lecture)
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * @return le nombre d'images clés du replay
+     */
+    public int getKeyframeCount() {
+        return keyframeTicks.length;
+    }
+
+    /**
+     * Se place sur l'image clé la plus proche avant un tick (recherche dichotomique dans l'index).
+     * @param tick le tick visé
+     * @return un curseur sur cette image clé, qui lit ensuite les actions tick par tick
+     */
+    public Cursor seek(int tick) {
+        int i = Arrays.binarySearch(keyframeTicks, tick);
+        if (i < 0) i = Math.max(0, -i - 2);
+        return new Cursor(keyframeOffsets[i]);
+    }
+
+    /**
+     * Lecture du flux à partir d'une image clé.
+     */
+    public final class Cursor {
+        private final Decoder in;
+        private final int keyframeTick;
+        private final int keyframeOffset;
+        private final int keyframeLength;
+        private int tick;
+        private int hashTick = -1;
+        private long hash;
+
+        private Cursor(int offset) {
+            in = new Decoder(data, offset, data.length - offset);
+            if (in.readByte() != KEYFRAME) throw new IllegalStateException("index de replay invalide");
+            keyframeTick = in.readVarintInt();
+            keyframeLength = in.readVarintInt();
+            keyframeOffset = in.position();
+            in.skip(keyframeLength);
+            tick = keyframeTick;
+        }
+
+        /**
+         * @return le tick de l'image clé
+         */
+        public int getKeyframeTick() {
+            return keyframeTick;
+        }
+
+        /**
+         * @return l'état de la partie à la fin du tick de l'image clé
+         */
+        public Decoder keyframe() {
+            return new Decoder(data, keyframeOffset, keyframeLength);
+        }
+
+        /**
+         * @return le tick du dernier hachage lu par {@link #actions(int, int[])}, -1 s'il n'y en a pas encore
+         */
+        public int getHashTick() {
+            return hashTick;
+        }
+
+        /**
+         * @return le dernier hachage de l'état lu, celui de la partie à la fin du tick {@link #getHashTick()}
+         */
+        public long getHash() {
+            return hash;
+        }
+
+        /**
+         * Lit les actions d'un tick, à appeler pour chaque tick suivant l'image clé, dans l'ordre.
+         * Le hachage enregistré à la fin du tick précédent, s'il y en a un, est lu au passage.
+         * @param tick le tick à lire
+         * @param words reçoit le mot d'action de chaque joueur (0 sans action)
+         */
+        public void actions(int tick, int[] words) {
+            Arrays.fill(words, PlayerAction.NONE);
+            while (in.hasRemaining()) {
+                int mark = in.position();
+                int type = in.readByte();
+                if (type == ACTION) {
+                    int actionTick = this.tick + in.readVarintInt();
+                    if (actionTick > tick) {
+                        in.position(mark);
+                        return;
+                    }
+                    int player = in.readVarintInt();
+                    int word = in.readVarintInt();
+                    this.tick = actionTick;
+                    if (actionTick == tick && player < words.length) {
+                        words[player] |= word;
+                    }
+                } else if (type == KEYFRAME) {
+                    int keyframeTick = in.readVarintInt();
+                    if (keyframeTick > tick) {
+                        in.position(mark);
+                        return;
+                    }
+                    in.skip(in.readVarintInt());
+                    this.tick = keyframeTick;
+                } else if (type == HASH) {
+                    int hashTick = this.tick + in.readVarintInt();
+                    if (hashTick > tick) {
+                        in.position(mark);
+                        return;
+                    }
+                    this.hash = in.readLong();
+                    this.tick = hashTick;
+                    this.hashTick = hashTick;
+                } else {
+                    in.position(mark);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * En-tête du replay : tout ce qu'il faut pour recréer la partie avant la première image clé.
+     */
+    public static final class Header {
+        private final long seed;
+        private final long startMillis;
+        private final int gridSize;
+        private final boolean soloMode;
+        private final String[] names;
+        private final boolean[] bots;
+
+        /**
+         * @param seed la graine de la partie
+         * @param startMillis le début de la partie (ms depuis l'epoch)
+         * @param gridSize le nombre de cases de côté de l'arène
+         * @param soloMode true en mode solo
+         * @param names les noms des joueurs, dans l'ordre
+         * @param bots pour chaque joueur, true si c'est un bot
+         */
+        public Header(long seed, long startMillis, int gridSize, boolean soloMode, String[] names, boolean[] bots) {
+            this.seed = seed;
+            this.startMillis = startMillis;
+            this.gridSize = gridSize;
+            this.soloMode = soloMode;
+            this.names = names;
+            this.bots = bots;
+        }
+
+        public long getSeed() { return seed; }
+        public long getStartMillis() { return startMillis; }
+        public int getGridSize() { return gridSize; }
+        public boolean isSoloMode() { return soloMode; }
+        public int getPlayerCount() { return names.length; }
+        public String getName(int player) { return names[player]; }
+        public boolean isBot(int player) { return bots[player]; }
+
+        void write(Encoder out) {
+            out.writeLong(seed);
+            out.writeVarint(startMillis);
+            out.writeVarint(gridSize);
+            out.writeByte(soloMode ? 1 : 0);
+            out.writeVarint(names.length);
+            for (int i = 0; i < names.length; i++) {
+                out.writeString(names[i]);
+                out.writeByte(bots[i] ? 1 : 0);
+            }
+        }
+
+        static Header read(Decoder in) {
+            long seed = in.readLong();
+            long startMillis = in.readVarint();
+            int gridSize = in.readVarintInt();
+            boolean soloMode = in.readByte() != 0;
+            int count = in.readVarintInt();
+            if (count > BombermanGame.MAX_PLAYERS) throw new IllegalStateException("trop de joueurs: " + count);
+            String[] names = new String[count];
+            boolean[] bots = new boolean[count];
+            for (int i = 0; i < count; i++) {
+                names[i] = in.readString();
+                bots[i] = in.readByte() != 0;
+            }
+            return new Header(seed, startMillis, gridSize, soloMode, names, bots);
+        }
+    }
+
+    /**
+     * Écriture en mémoire (tableau agrandi au besoin) : entiers à longueur variable (7 bits par octet),
+     * entiers signés en zigzag, chaînes UTF-8 et grilles de booléens en bits.
+     */
+    public static final class Encoder {
+        private byte[] buffer;
+        private int size;
+
+        public Encoder(int capacity) {
+            buffer = new byte[Math.max(16, capacity)];
+        }
+
+        public void reset() {
+            size = 0;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            out.write(buffer, 0, size);
+        }
+
+        /**
+         * @return le contenu écrit, sans copie (valable jusqu'à la prochaine écriture)
+         */
+        public ByteBuffer asByteBuffer() {
+            return ByteBuffer.wrap(buffer, 0, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+
+        public void writeByte(int value) {
+            ensure(1);
+            buffer[size++] = (byte) value;
+        }
+
+        public void writeInt(int value) {
+            ensure(4);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                buffer[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        public void writeLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        /**
+         * @param value un entier positif (ou traité comme non signé), 1 octet jusqu'à 127
+         */
+        public void writeVarint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        /**
+         * @param value un entier signé, petit en valeur absolue de préférence (codage zigzag)
+         */
+        public void writeSignedVarint(int value) {
+            writeVarint(((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+        }
+
+        public void writeBytes(byte[] bytes, int offset, int length) {
+            ensure(length);
+            System.arraycopy(bytes, offset, buffer, size, length);
+            size += length;
+        }
+
+        public void writeEncoder(Encoder other) {
+            writeBytes(other.buffer, 0, other.size);
+        }
+
+        public void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length);
+            writeBytes(bytes, 0, bytes.length);
+        }
+
+        /**
+         * Écrit une grille carrée de booléens, un bit par case (colonne par colonne).
+         */
+        public void writeBits(boolean[][] grid) {
+            int bits = 0;
+            int count = 0;
+            for (boolean[] column : grid) {
+                for (boolean cell : column) {
+                    if (cell) bits |= 1 << count;
+                    if (++count == 8) {
+                        writeByte(bits);
+                        bits = 0;
+                        count = 0;
+                    }
+                }
+            }
+            if (count > 0) writeByte(bits);
+        }
+    }
+
+    /**
+     * Lecture d'une portion de tableau écrite par un {@link Encoder}.
+     * Une lecture au-delà de la portion lève une {@link IllegalStateException}.
+     */
+    public static final class Decoder {
+        private final byte[] data;
+        private final int limit;
+        private int position;
+
+        public Decoder(byte[] data, int offset, int length) {
+            this.data = data;
+            this.position = offset;
+            this.limit = offset + length;
+        }
+
+        public boolean hasRemaining() {
+            return position < limit;
+        }
+
+        public int position() {
+            return position;
+        }
+
+        public void position(int position) {
+            this.position = position;
+        }
+
+        public void skip(int length) {
+            require(length);
+            position += length;
+        }
+
+        private void require(int length) {
+            if (length < 0 || position + length > limit) throw new IllegalStateException("données tronquées");
+        }
+
+        public int readByte() {
+            require(1);
+            return data[position++] & 0xFF;
+        }
+
+        public int readInt() {
+            require(4);
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                value = (value << 8) | (data[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        public long readLong() {
+            require(8);
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (data[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        public long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new IllegalStateException("entier trop long");
+        }
+
+        public int readVarintInt() {
+            long value = readVarint();
+            if (value > Integer.MAX_VALUE) throw new IllegalStateException("entier hors limites: " + value);
+            return (int) value;
+        }
+
+        public int readSignedVarint() {
+            int value = (int) readVarint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        public String readString() {
+            int length = readVarintInt();
+            require(length);
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        /**
+         * Lit une grille carrée de booléens écrite par {@link Encoder#writeBits(boolean[][])}.
+         * @param grid la grille à remplir, de la même taille qu'à l'écriture
+         */
+        public void readBits(boolean[][] grid) {
+            int bits = 0;
+            int count = 8;
+            for (boolean[] column : grid) {
+                for (int y = 0; y < column.length; y++) {
+                    if (count == 8) {
+                        bits = readByte();
+                        count = 0;
+                    }
+                    column[y] = (bits & (1 << count++)) != 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.bomberman;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+/**
+ * Enregistre une partie en cours dans un fichier de replay (format décrit dans {@link Replay}).
+ * <p>
+ * Les enregistrements sont accumulés en mémoire et écrits dans le fichier à chaque image clé,
+ * si bien qu'une partie interrompue reste lisible jusqu'à sa dernière image clé.
+ * L'index des images clés est écrit par {@link #finish(int)}. En cas d'erreur d'écriture,
+ * l'enregistrement s'arrête sans interrompre la partie.
+ * </p>
+ * @author Valentin B.
+ */
+public class ReplayRecorder {
+    private static final DateTimeFormatter FILE_DATE = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final Path file;
+    private final OutputStream out;
+    private final Replay.Encoder pending = new Replay.Encoder(4096);
+    private final int streamStart;
+    private long written;
+    private int lastTick;
+    private int[] keyframeTicks = new int[16];
+    private int[] keyframeOffsets = new int[16];
+    private int keyframeCount;
+    private boolean failed;
+
+    /**
+     * Crée le fichier de replay d'une nouvelle partie, nommé d'après sa date et sa graine.
+     * @param directory le dossier des replays, créé au besoin
+     * @param header l'en-tête de la partie
+     * @return l'enregistreur, ou null si le fichier n'a pas pu être créé
+     */
+    public static ReplayRecorder create(Path directory, Replay.Header header) {
+        Path file = directory.resolve("partie-" + LocalDateTime.now().format(FILE_DATE) + "-"
+                + Long.toUnsignedString(header.getSeed(), 36) + Replay.EXTENSION);
+        try {
+            Files.createDirectories(directory);
+            return new ReplayRecorder(file, header);
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la création du replay: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @param file le fichier du replay (remplacé s'il existe)
+     * @param header l'en-tête de la partie
+     * @throws IOException si le fichier ne peut pas être créé
+     */
+    public ReplayRecorder(Path file, Replay.Header header) throws IOException {
+        this.file = file;
+        this.out = new BufferedOutputStream(Files.newOutputStream(file));
+        pending.writeInt(Replay.MAGIC);
+        pending.writeByte(Replay.VERSION);
+        header.write(pending);
+        streamStart = pending.size();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return le nombre d'octets enregistrés jusqu'ici
+     */
+    public long size() {
+        return written + pending.size();
+    }
+
+    /**
+     * Enregistre les actions effectives d'un tick (les joueurs sans action ne coûtent rien).
+     * @param tick le tick
+     * @param words le mot d'action de chaque joueur
+     * @param count le nombre de joueurs
+     */
+    public void actions(int tick, int[] words, int count) {
+        for (int player = 0; player < count; player++) {
+            if (words[player] == PlayerAction.NONE) continue;
+            pending.writeByte(Replay.ACTION);
+            pending.writeVarint(tick - lastTick);
+            pending.writeVarint(player);
+            pending.writeVarint(words[player]);
+            lastTick = tick;
+        }
+    }
+
+    /**
+     * Enregistre le hachage de l'état de la partie à la fin d'un tick.
+     * @param tick le tick
+     * @param hash le hachage de l'état ({@link BombermanGame#getStateHash()})
+     */
+    public void hash(int tick, long hash) {
+        pending.writeByte(Replay.HASH);
+        pending.writeVarint(tick - lastTick);
+        pending.writeLong(hash);
+        lastTick = tick;
+    }
+
+    /**
+     * Enregistre l'état complet de la partie à la fin d'un tick, puis écrit le fichier.
+     * @param tick le tick
+     * @param state l'état, écrit par la partie
+     */
+    public void keyframe(int tick, Replay.Encoder state) {
+        if (keyframeCount == keyframeTicks.length) {
+            keyframeTicks = Arrays.copyOf(keyframeTicks, keyframeCount * 2);
+            keyframeOffsets = Arrays.copyOf(keyframeOffsets, keyframeCount * 2);
+        }
+        keyframeTicks[keyframeCount] = tick;
+        keyframeOffsets[keyframeCount++] = (int) size();
+
+        pending.writeByte(Replay.KEYFRAME);
+        pending.writeVarint(tick);
+        pending.writeVarint(state.size());
+        pending.writeEncoder(state);
+        lastTick = tick;
+        flush();
+    }
+
+    /**
+     * Termine le replay : tick de fin et index des images clés, puis ferme le fichier.
+     * @param endTick le dernier tick de la partie
+     * @return true si le replay complet a été écrit
+     */
+    public boolean finish(int endTick) {
+        pending.writeByte(Replay.END);
+        pending.writeVarint(endTick);
+
+        int indexOffset = (int) size();
+        pending.writeVarint(endTick);
+        pending.writeVarint(keyframeCount);
+        int tick = 0;
+        int offset = streamStart;
+        for (int i = 0; i < keyframeCount; i++) {
+            pending.writeVarint(keyframeTicks[i] - tick);
+            pending.writeVarint(keyframeOffsets[i] - offset);
+            tick = keyframeTicks[i];
+            offset = keyframeOffsets[i];
+        }
+        pending.writeInt(indexOffset);
+        pending.writeInt(Replay.INDEX_MAGIC);
+        flush();
+
+        try {
+            out.close();
+        } catch (IOException e) {
+            fail(e);
+        }
+        return !failed;
+    }
+
+    private void flush() {
+        if (failed) return;
+        try {
+            pending.writeTo(out);
+            out.flush();
+            written += pending.size();
+        } catch (IOException e) {
+            fail(e);
+        }
+        pending.reset();
+    }
+
+    private void fail(IOException e) {
+        if (!failed) {
+            System.err.println("Erreur lors de l'écriture du replay: " + e.getMessage());
+        }
+        failed = true;
+    }
+}
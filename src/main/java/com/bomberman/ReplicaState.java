@@ -0,0 +1,234 @@
+package com.bomberman;
+
+import java.util.Arrays;
+import java.util.function.ToIntFunction;
+
+/**
+ * État d'une partie tel que le serveur le réplique chez ses clients ({@link DeltaEncoder},
+ * {@link DeltaDecoder}) : ce qu'il faut pour afficher la partie, sans les minuteries internes.
+ * <p>
+ * Les blocs destructibles sont un bit par case (indice {@code x * taille + y}), par mots de 64 bits.
+ * Les entités (joueurs, bombes, power-ups) sont des lignes de quelques champs entiers, rangées par
+ * identifiant croissant : la position du joueur, un numéro attribué par le serveur à chaque bombe,
+ * la case et le type du power-up. La mèche d'une bombe est répliquée par le tick de son explosion,
+ * quantifié par pas de {@value #FUSE_QUANTUM} ticks : il ne change pas d'un tick à l'autre (sauf
+ * explosion en chaîne), et le client en déduit la mèche restante.
+ * </p>
+ * @author Valentin B.
+ */
+public class ReplicaState {
+    static final int FUSE_QUANTUM = 8;
+
+    // Champs d'un joueur
+    static final int PLAYER_X = 0, PLAYER_Y = 1, PLAYER_FLAGS = 2, PLAYER_BOMBS = 3, PLAYER_RADIUS = 4;
+    static final int PLAYER_FIELDS = 5;
+    static final int ALIVE = 1, KICK = 2, INVINCIBLE = 4;
+    // Champs d'une bombe (poseur : indice + 1, 0 sans poseur ; fin de la mèche : tick / FUSE_QUANTUM)
+    static final int BOMB_X = 0, BOMB_Y = 1, BOMB_OWNER = 2, BOMB_FUSE_END = 3;
+    static final int BOMB_FIELDS = 4;
+    // Champs d'un power-up
+    static final int POWER_UP_X = 0, POWER_UP_Y = 1, POWER_UP_TYPE = 2;
+    static final int POWER_UP_FIELDS = 3;
+
+    int seq;
+    int tick;
+    boolean ended;
+    int gridSize;
+    long[] blocks = new long[0];
+    final Entities players = new Entities(PLAYER_FIELDS);
+    final Entities bombs = new Entities(BOMB_FIELDS);
+    final Entities powerUps = new Entities(POWER_UP_FIELDS);
+
+    /**
+     * Entités d'un même genre : identifiants croissants et champs de chaque entité à la suite.
+     */
+    static final class Entities {
+        final int fields;
+        int count;
+        int[] ids = new int[8];
+        int[] values;
+
+        Entities(int fields) {
+            this.fields = fields;
+            values = new int[ids.length * fields];
+        }
+
+        void clear() {
+            count = 0;
+        }
+
+        /**
+         * Ajoute une entité à la fin.
+         * @param id son identifiant
+         * @return le décalage de ses champs dans {@link #values}
+         */
+        int add(int id) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+                values = Arrays.copyOf(values, count * 2 * fields);
+            }
+            ids[count] = id;
+            return count++ * fields;
+        }
+
+        // Tri par identifiant, par insertion : les entités arrivent presque toujours déjà triées
+        void sort() {
+            int[] row = null;
+            for (int i = 1; i < count; i++) {
+                int id = ids[i];
+                if (ids[i - 1] <= id) continue;
+                if (row == null) row = new int[fields];
+                System.arraycopy(values, i * fields, row, 0, fields);
+                int j = i - 1;
+                while (j >= 0 && ids[j] > id) {
+                    ids[j + 1] = ids[j];
+                    System.arraycopy(values, j * fields, values, (j + 1) * fields, fields);
+                    j--;
+                }
+                ids[j + 1] = id;
+                System.arraycopy(row, 0, values, (j + 1) * fields, fields);
+            }
+        }
+
+        /**
+         * @return la position de l'entité, ou -1
+         */
+        int indexOf(int id) {
+            int index = Arrays.binarySearch(ids, 0, count, id);
+            return index >= 0 ? index : -1;
+        }
+
+        int get(int index, int field) {
+            return values[index * fields + field];
+        }
+
+        boolean sameAs(Entities other) {
+            return count == other.count
+                    && Arrays.equals(ids, 0, count, other.ids, 0, count)
+                    && Arrays.equals(values, 0, count * fields, other.values, 0, count * fields);
+        }
+    }
+
+    /**
+     * Relève l'état d'une partie.
+     * @param game la partie
+     * @param seq le numéro de l'état
+     * @param bombIds donne l'identifiant de chaque bombe, stable tant qu'elle est posée
+     */
+    void capture(BombermanGame game, int seq, ToIntFunction<BombermanGame.Bomb> bombIds) {
+        this.seq = seq;
+        tick = game.getTick();
+        ended = game.isGameEnded();
+        gridSize = game.getArenaSize();
+
+        int words = (gridSize * gridSize + 63) / 64;
+        if (blocks.length != words) blocks = new long[words];
+        Arrays.fill(blocks, 0);
+        boolean[][] grid = game.getDestructibleBlocks();
+        for (int x = 0; x < gridSize; x++) {
+            for (int y = 0; y < gridSize; y++) {
+                if (grid[x][y]) {
+                    int bit = x * gridSize + y;
+                    blocks[bit >>> 6] |= 1L << bit;
+                }
+            }
+        }
+
+        players.clear();
+        PlayerRegistry registry = game.getPlayers();
+        for (int i = 0; i < registry.size(); i++) {
+            BombermanGame.Player player = registry.get(i);
+            int at = players.add(i);
+            players.values[at + PLAYER_X] = player.x;
+            players.values[at + PLAYER_Y] = player.y;
+            players.values[at + PLAYER_FLAGS] = (player.alive ? ALIVE : 0) | (player.canKickBombs ? KICK : 0)
+                    | (player.isInvincible ? INVINCIBLE : 0);
+            players.values[at + PLAYER_BOMBS] = player.bombLimit;
+            players.values[at + PLAYER_RADIUS] = player.explosionRadius;
+        }
+
+        bombs.clear();
+        for (BombermanGame.Bomb bomb : game.getBombs()) {
+            int at = bombs.add(bombIds.applyAsInt(bomb));
+            bombs.values[at + BOMB_X] = bomb.x;
+            bombs.values[at + BOMB_Y] = bomb.y;
+            bombs.values[at + BOMB_OWNER] = bomb.owner != null ? bomb.owner.playerIndex + 1 : 0;
+            bombs.values[at + BOMB_FUSE_END] = (tick + Math.max(0, bomb.fuse) + FUSE_QUANTUM - 1) / FUSE_QUANTUM;
+        }
+        bombs.sort();
+
+        powerUps.clear();
+        for (PowerUp powerUp : game.getPowerUps()) {
+            int cell = powerUp.getX() * BombermanGame.MAX_ARENA_SIZE + powerUp.getY();
+            int at = powerUps.add(cell << 2 | powerUp.getType().ordinal());
+            powerUps.values[at + POWER_UP_X] = powerUp.getX();
+            powerUps.values[at + POWER_UP_Y] = powerUp.getY();
+            powerUps.values[at + POWER_UP_TYPE] = powerUp.getType().ordinal();
+        }
+        powerUps.sort();
+    }
+
+    /**
+     * @return true si les deux états sont identiques (numéro d'état compris)
+     */
+    boolean sameAs(ReplicaState other) {
+        return seq == other.seq && tick == other.tick && ended == other.ended && gridSize == other.gridSize
+                && Arrays.equals(blocks, other.blocks)
+                && players.sameAs(other.players) && bombs.sameAs(other.bombs) && powerUps.sameAs(other.powerUps);
+    }
+
+    public int getSeq() {
+        return seq;
+    }
+
+    public int getTick() {
+        return tick;
+    }
+
+    public boolean isEnded() {
+        return ended;
+    }
+
+    public int getGridSize() {
+        return gridSize;
+    }
+
+    /**
+     * @return true s'il y a un bloc destructible sur la case (x, y)
+     */
+    public boolean isBlock(int x, int y) {
+        int bit = x * gridSize + y;
+        return (blocks[bit >>> 6] & 1L << bit) != 0;
+    }
+
+    public int getPlayerCount() {
+        return players.count;
+    }
+
+    public int getPlayerX(int index) {
+        return players.get(index, PLAYER_X);
+    }
+
+    public int getPlayerY(int index) {
+        return players.get(index, PLAYER_Y);
+    }
+
+    public boolean isPlayerAlive(int index) {
+        return (players.get(index, PLAYER_FLAGS) & ALIVE) != 0;
+    }
+
+    public int getBombCount() {
+        return bombs.count;
+    }
+
+    /**
+     * @return la mèche restante de la i-ème bombe en ticks, arrondie au pas supérieur
+     */
+    public int getBombFuse(int index) {
+        return Math.max(0, bombs.get(index, BOMB_FUSE_END) * FUSE_QUANTUM - tick);
+    }
+
+    public int getPowerUpCount() {
+        return powerUps.count;
+    }
+}
@@ -0,0 +1,297 @@
+package com.bomberman;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Jeu en réseau entre pairs avec retour en arrière (façon GGPO) : chaque pair simule toute la
+ * partie, sans attendre les actions des autres joueurs.
+ * <p>
+ * L'action locale est envoyée aux pairs et jouée {@code inputDelay} ticks plus tard, sur tous les
+ * pairs au même tick. Pour un joueur distant dont l'action n'est pas encore arrivée, la session
+ * prédit qu'il garde sa dernière direction connue (sans reposer de bombe). Quand l'action réelle
+ * arrive et diffère de la prédiction, la session restaure l'instantané pris avant ce tick
+ * ({@link BombermanGame#writeSnapshot(ByteBuffer)}) et re-simule jusqu'au tick courant.
+ * La simulation étant déterministe, tous les pairs ont finalement la même partie.
+ * </p>
+ * <p>
+ * Le retard d'entrée masque une partie de la latence (moins de retours en arrière, mais une
+ * réaction plus lente) ; la prédiction masque le reste, dans la limite de
+ * {@value #MAX_PREDICTION} ticks d'avance sur les actions reçues : au-delà, la session attend.
+ * Chaque message répète les {@value #REDUNDANCY} dernières actions locales, pour qu'une perte
+ * soit réparée par le message suivant. Les messages des pairs peuvent arriver de n'importe quel thread.
+ * </p>
+ * @author Valentin B.
+ */
+public class RollbackSession implements NetHandler {
+    static final int MAX_PREDICTION = 16;
+    static final int REDUNDANCY = 8;
+    private static final int INPUT_RING = 128; // actions gardées par joueur, en ticks
+    private static final int SNAPSHOT_RING = MAX_PREDICTION + 2;
+
+    private final BombermanGame game;
+    private final int localSlot;
+    private final int humans;
+    private final int inputDelay;
+    private final List<NetLink> peers = new ArrayList<>();
+
+    // Actions des joueurs par tick : mot, tick auquel le mot correspond (-1 : inconnu), mot joué
+    private final int[][] words;
+    private final int[][] wordTicks;
+    private final int[][] played;
+    private final int[] confirmed;    // dernier tick jusqu'auquel toutes les actions du joueur sont connues
+    private final int[] latestTick;   // tick de la plus récente action connue du joueur
+    private final int[] actions;
+
+    private final ByteBuffer[] snapshots = new ByteBuffer[SNAPSHOT_RING]; // état avant chaque tick
+    private final long[] hashes = new long[SNAPSHOT_RING];                // hachage après chaque tick
+    private final ByteBuffer outgoing = ByteBuffer.allocate(1 + 1 + 4 + 1 + REDUNDANCY);
+    private int tick;                 // prochain tick à simuler
+    private int rollbackTo = Integer.MAX_VALUE;
+
+    private long rollbacks;
+    private long resimulatedTicks;
+    private long stalls;
+    private int maxRollback;
+    private final Metrics.Histogram rollbackNanos = Metrics.getInstance().histogram("rollback.nanos");
+    private final Metrics.Histogram rollbackTicks = Metrics.getInstance().histogram("rollback.ticks");
+
+    /**
+     * @param game la partie, déjà lancée (même graine, même arène et mêmes joueurs chez tous les pairs)
+     * @param localSlot la position du joueur local
+     * @param humans le nombre de joueurs en réseau, aux positions 0 à humans - 1 (les autres sont des bots)
+     * @param inputDelay le retard des actions, en ticks
+     */
+    public RollbackSession(BombermanGame game, int localSlot, int humans, int inputDelay) {
+        int players = game.getPlayers().size();
+        if (humans < 1 || humans > players || localSlot < 0 || localSlot >= humans) {
+            throw new IllegalArgumentException("Position " + localSlot + " invalide pour " + humans + " joueurs");
+        }
+        if (inputDelay < 0 || inputDelay > MAX_PREDICTION) {
+            throw new IllegalArgumentException("Retard des actions invalide: " + inputDelay);
+        }
+        this.game = game;
+        this.localSlot = localSlot;
+        this.humans = humans;
+        this.inputDelay = inputDelay;
+        words = new int[humans][INPUT_RING];
+        wordTicks = new int[humans][INPUT_RING];
+        played = new int[humans][INPUT_RING];
+        confirmed = new int[humans];
+        latestTick = new int[humans];
+        actions = new int[players];
+        for (int slot = 0; slot < humans; slot++) {
+            Arrays.fill(wordTicks[slot], -1);
+            // Les premiers ticks, avant que la première action arrive, sont joués sans action par tous
+            for (int t = 0; t < inputDelay; t++) {
+                store(slot, t, PlayerAction.NONE);
+            }
+            confirmed[slot] = inputDelay - 1;
+            latestTick[slot] = inputDelay - 1;
+        }
+        for (int i = 0; i < players; i++) {
+            game.getPlayers().get(i).isBot = i >= humans;
+        }
+        // Un replay s'écrit tick après tick : incompatible avec les retours en arrière
+        game.recordReplaysTo(null);
+    }
+
+    /**
+     * Ajoute un pair, qui reçoit les actions locales (réseau maillé : une liaison par pair).
+     * @param link la liaison vers le pair ; ses messages sont à passer à {@link #onMessage(NetLink, ByteBuffer)}
+     */
+    public void addPeer(NetLink link) {
+        peers.add(link);
+    }
+
+    /**
+     * Joue un tick avec l'action locale, après un éventuel retour en arrière.
+     * @param localWord l'action du joueur local ({@link PlayerAction}), jouée dans {@code inputDelay} ticks
+     * @return false si la session attend les actions des pairs (trop d'avance) : rien n'est joué,
+     *         et l'action locale est à redonner au tick suivant
+     */
+    public synchronized boolean advance(int localWord) {
+        if (tick - minConfirmed() > MAX_PREDICTION) {
+            stalls++;
+            return false;
+        }
+        int inputTick = tick + inputDelay;
+        store(localSlot, inputTick, localWord);
+        confirm(localSlot);
+        sendInputs(inputTick);
+
+        rollback();
+        simulate();
+        return true;
+    }
+
+    private void rollback() {
+        if (rollbackTo >= tick) {
+            rollbackTo = Integer.MAX_VALUE;
+            return;
+        }
+        int from = rollbackTo;
+        int target = tick;
+        rollbackTo = Integer.MAX_VALUE;
+        long start = System.nanoTime();
+        game.resimulate(() -> {
+            ByteBuffer snapshot = snapshots[from % SNAPSHOT_RING];
+            snapshot.rewind();
+            game.restoreSnapshot(snapshot);
+            tick = from;
+            while (tick < target) {
+                simulate();
+            }
+        });
+        rollbacks++;
+        resimulatedTicks += target - from;
+        maxRollback = Math.max(maxRollback, target - from);
+        rollbackTicks.record(target - from);
+        rollbackNanos.record(System.nanoTime() - start);
+    }
+
+    // Joue le tick courant : instantané de l'état d'avant, puis actions connues ou prédites
+    private void simulate() {
+        int size = game.snapshotSize();
+        ByteBuffer snapshot = snapshots[tick % SNAPSHOT_RING];
+        if (snapshot == null || snapshot.capacity() < size) {
+            snapshot = snapshots[tick % SNAPSHOT_RING] = ByteBuffer.allocateDirect(size * 2);
+        }
+        snapshot.clear();
+        game.writeSnapshot(snapshot);
+
+        int index = tick % INPUT_RING;
+        for (int slot = 0; slot < humans; slot++) {
+            int word = wordTicks[slot][index] == tick ? words[slot][index] : predict(slot);
+            played[slot][index] = word;
+            actions[slot] = word;
+        }
+        game.gameUpdate(actions);
+        hashes[tick % SNAPSHOT_RING] = game.getStateHash();
+        tick++;
+    }
+
+    // La dernière direction connue du joueur, sans la bombe
+    private int predict(int slot) {
+        int known = latestTick[slot];
+        if (known < 0 || wordTicks[slot][known % INPUT_RING] != known) return PlayerAction.NONE;
+        return words[slot][known % INPUT_RING] & PlayerAction.MOVE_MASK;
+    }
+
+    private void store(int slot, int inputTick, int word) {
+        int index = inputTick % INPUT_RING;
+        words[slot][index] = word;
+        wordTicks[slot][index] = inputTick;
+        latestTick[slot] = Math.max(latestTick[slot], inputTick);
+    }
+
+    private void confirm(int slot) {
+        int next = confirmed[slot] + 1;
+        while (wordTicks[slot][next % INPUT_RING] == next) {
+            next++;
+        }
+        confirmed[slot] = next - 1;
+    }
+
+    private int minConfirmed() {
+        int min = Integer.MAX_VALUE;
+        for (int slot = 0; slot < humans; slot++) {
+            min = Math.min(min, confirmed[slot]);
+        }
+        return min;
+    }
+
+    private void sendInputs(int lastTick) {
+        int first = Math.max(inputDelay, lastTick - REDUNDANCY + 1);
+        int count = lastTick - first + 1;
+        outgoing.clear();
+        outgoing.put(Protocol.PEER_INPUT).put((byte) localSlot).putInt(first).put((byte) count);
+        for (int t = first; t <= lastTick; t++) {
+            outgoing.put((byte) words[localSlot][t % INPUT_RING]);
+        }
+        outgoing.flip();
+        for (NetLink peer : peers) {
+            peer.send(outgoing);
+        }
+    }
+
+    /**
+     * Actions d'un pair : enregistrées, et retour en arrière au prochain tick si une prédiction était fausse.
+     */
+    @Override
+    public synchronized void onMessage(NetLink link, ByteBuffer message) {
+        try {
+            if (message.get() != Protocol.PEER_INPUT) return;
+            int slot = message.get();
+            int first = message.getInt();
+            int count = message.get();
+            if (slot < 0 || slot >= humans || slot == localSlot || count < 0 || first < 0) {
+                throw new IllegalArgumentException("actions du joueur " + slot + " invalides");
+            }
+            for (int i = 0; i < count; i++) {
+                int t = first + i;
+                int word = message.get() & 0xFF;
+                int index = t % INPUT_RING;
+                if (t <= confirmed[slot] || t >= tick + INPUT_RING || wordTicks[slot][index] == t) continue;
+                store(slot, t, word);
+                // Tick déjà joué avec une prédiction différente : à rejouer
+                if (t < tick && played[slot][index] != word) {
+                    rollbackTo = Math.min(rollbackTo, t);
+                }
+            }
+            confirm(slot);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            System.err.println("Message invalide d'un pair: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return le prochain tick à jouer
+     */
+    public synchronized int getTick() {
+        return tick;
+    }
+
+    /**
+     * @return le dernier tick dont les actions de tous les joueurs sont connues (état définitif)
+     */
+    public synchronized int getConfirmedTick() {
+        // Un tick à rejouer au prochain appel n'est pas encore définitif
+        return Math.min(minConfirmed(), Math.min(tick, rollbackTo) - 1);
+    }
+
+    /**
+     * Hachage de l'état après un tick récent, pour vérifier que les pairs ont la même partie.
+     * @param tick un tick déjà joué, parmi les {@value #MAX_PREDICTION} derniers
+     * @return le hachage de l'état après ce tick (définitif si le tick est confirmé)
+     */
+    public synchronized long getStateHash(int tick) {
+        if (tick < 0 || tick >= this.tick || this.tick - tick > MAX_PREDICTION) {
+            throw new IllegalArgumentException("Tick hors de l'historique: " + tick);
+        }
+        return hashes[tick % SNAPSHOT_RING];
+    }
+
+    public int getInputDelay() {
+        return inputDelay;
+    }
+
+    public long getRollbacks() {
+        return rollbacks;
+    }
+
+    public long getResimulatedTicks() {
+        return resimulatedTicks;
+    }
+
+    public int getMaxRollback() {
+        return maxRollback;
+    }
+
+    public long getStalls() {
+        return stalls;
+    }
+}
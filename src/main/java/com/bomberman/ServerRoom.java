@@ -0,0 +1,241 @@
+package com.bomberman;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Salle du serveur de jeu : une partie sans affichage, simulée par le serveur, et les clients
+ * qui y jouent ({@link GameServer}).
+ * <p>
+ * Chaque client prend la place d'un bot ; les places libres restent jouées par des bots, et
+ * un client qui part rend la sienne à un bot. Le serveur tient l'action envoyée par chaque
+ * client jusqu'à la suivante (la bombe n'est posée qu'une fois) et fait avancer la partie
+ * d'un tick toutes les {@value BombermanGame#TICK_MS} ms, puis envoie à chaque client la différence
+ * entre le nouvel état et le dernier qu'il a acquitté ({@link DeltaEncoder}).
+ * Une nouvelle partie commence quelques secondes après la fin de la précédente.
+ * </p>
+ * <p>
+ * La salle mesure son propre coût : temps CPU de ses ticks et octets reçus et envoyés.
+ * Ses méthodes sont synchronisées : les messages arrivent du thread réseau, les ticks d'un
+ * thread de simulation.
+ * </p>
+ * @author Valentin B.
+ */
+class ServerRoom {
+    static final int RESTART_TICKS = 3000 / BombermanGame.TICK_MS;
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    final int id;
+    private final BombermanGame game = new BombermanGame();
+    private final NetLink[] clients;
+    private final String[] names;
+    private final int[] actions;
+    private final int[] acked; // dernier état acquitté par le client de chaque place, 0 : aucun
+    private final DeltaEncoder replication = new DeltaEncoder();
+    private int clientCount;
+    private boolean changed = true;
+    private int restartTicks;
+    ScheduledFuture<?> task;
+
+    // Coût de la salle, lu par le relevé du serveur
+    private final LongAdder cpuNanos = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final Metrics.Counter serverBytesIn = Metrics.getInstance().counter("server.bytes.in");
+    private final Metrics.Counter serverBytesOut = Metrics.getInstance().counter("server.bytes.out");
+    private final Metrics.Histogram tickNanos = Metrics.getInstance().histogram("server.room.tick.nanos");
+
+    /**
+     * @param id le numéro de la salle
+     * @param arenaSize le nombre de cases de côté de l'arène
+     * @param playerCount le nombre de places (clients et bots)
+     * @param seed la graine de la première partie, les suivantes en +1
+     * @param records le stockage des résultats détaillés des parties, ou null
+     * @param replays le dossier des replays des parties, ou null
+     */
+    ServerRoom(int id, int arenaSize, int playerCount, long seed, MatchRecordStore records, Path replays) {
+        this.id = id;
+        game.setPlayerCount(playerCount);
+        game.enableBotMatch();
+        game.recordMatchesTo(records);
+        game.recordReplaysTo(replays);
+        game.startMatch(arenaSize, seed);
+        int places = game.getPlayers().size();
+        clients = new NetLink[places];
+        names = new String[places];
+        actions = new int[places];
+        acked = new int[places];
+    }
+
+    /**
+     * Fait entrer un client à la première place libre et lui envoie {@link Protocol#WELCOME}.
+     * @param link la liaison du client
+     * @param name le nom du joueur
+     * @return sa place, ou -1 si la salle est pleine
+     */
+    synchronized int join(NetLink link, String name) {
+        for (int slot = 0; slot < clients.length; slot++) {
+            if (clients[slot] == null) {
+                clients[slot] = link;
+                names[slot] = name;
+                actions[slot] = PlayerAction.NONE;
+                acked[slot] = 0;
+                clientCount++;
+                applySlot(slot);
+                send(link, Protocol.welcome(id, slot, game.getArenaSize(), clients.length, game.getSeed()));
+                changed = true;
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Fait sortir un client : sa place est rendue à un bot.
+     * @param link la liaison du client
+     * @return true si la salle est vide
+     */
+    synchronized boolean leave(NetLink link) {
+        int slot = slotOf(link);
+        if (slot >= 0) {
+            clients[slot] = null;
+            names[slot] = null;
+            actions[slot] = PlayerAction.NONE;
+            clientCount--;
+            applySlot(slot);
+        }
+        return clientCount == 0;
+    }
+
+    /**
+     * Ferme la salle : le replay de la partie en cours est terminé.
+     */
+    synchronized void close() {
+        game.stopRecording();
+    }
+
+    /**
+     * Retient l'action d'un client pour les ticks suivants.
+     * @param link la liaison du client
+     * @param word le mot d'action ; une bombe demandée reste due jusqu'au prochain tick
+     * @param bytes la taille du message reçu
+     */
+    synchronized void input(NetLink link, int word, int bytes) {
+        received(bytes);
+        int slot = slotOf(link);
+        if (slot >= 0) {
+            actions[slot] = word | (actions[slot] & PlayerAction.BOMB);
+        }
+    }
+
+    /**
+     * Retient le dernier état reçu par un client, référence des prochaines différences.
+     * @param link la liaison du client
+     * @param seq le numéro de l'état
+     * @param bytes la taille du message reçu
+     */
+    synchronized void ack(NetLink link, int seq, int bytes) {
+        received(bytes);
+        int slot = slotOf(link);
+        if (slot >= 0 && seq > acked[slot] && seq <= replication.getSeq()) {
+            acked[slot] = seq;
+        }
+    }
+
+    void received(int bytes) {
+        bytesIn.add(bytes);
+        serverBytesIn.add(bytes);
+    }
+
+    /**
+     * Un tick de la salle : la partie avance (ou la suivante commence) et l'état est envoyé aux clients.
+     */
+    synchronized void tick() {
+        long wallStart = System.nanoTime();
+        long cpuStart = cpuTime();
+        if (!game.isGameEnded()) {
+            game.gameUpdate(actions);
+            for (int i = 0; i < actions.length; i++) {
+                actions[i] &= ~PlayerAction.BOMB;
+            }
+            if (game.isGameEnded()) restartTicks = RESTART_TICKS;
+            changed = true;
+        } else if (--restartTicks <= 0) {
+            game.startMatch(game.getArenaSize(), game.getSeed() + 1);
+            for (int slot = 0; slot < clients.length; slot++) {
+                applySlot(slot);
+            }
+            changed = true;
+        }
+        if (changed && clientCount > 0) {
+            broadcastState();
+        }
+        changed = false;
+        cpuNanos.add(cpuTime() - cpuStart);
+        tickNanos.record(System.nanoTime() - wallStart);
+    }
+
+    private void broadcastState() {
+        replication.capture(game);
+        for (int slot = 0; slot < clients.length; slot++) {
+            if (clients[slot] != null) send(clients[slot], replication.encode(acked[slot]));
+        }
+    }
+
+    private void send(NetLink link, ByteBuffer message) {
+        int bytes = message.remaining() + Protocol.FRAME_HEADER_BYTES;
+        link.send(message);
+        bytesOut.add(bytes);
+        serverBytesOut.add(bytes);
+    }
+
+    // Joueur de la place : le client s'il y en a un, sinon un bot
+    private void applySlot(int slot) {
+        BombermanGame.Player player = game.getPlayers().get(slot);
+        player.isBot = clients[slot] == null;
+        player.name = clients[slot] != null ? names[slot] : "Bot " + (slot + 1);
+    }
+
+    private int slotOf(NetLink link) {
+        for (int slot = 0; slot < clients.length; slot++) {
+            if (clients[slot] == link) return slot;
+        }
+        return -1;
+    }
+
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    /**
+     * @param seq le numéro d'un état récent
+     * @return l'état envoyé aux clients sous ce numéro, ou null s'il n'est plus dans l'historique
+     */
+    synchronized ReplicaState getReplicatedState(int seq) {
+        return replication.getState(seq);
+    }
+
+    synchronized int getClientCount() {
+        return clientCount;
+    }
+
+    synchronized int getTick() {
+        return game.getTick();
+    }
+
+    long getCpuNanos() {
+        return cpuNanos.sum();
+    }
+
+    long getBytesIn() {
+        return bytesIn.sum();
+    }
+
+    long getBytesOut() {
+        return bytesOut.sum();
+    }
+}
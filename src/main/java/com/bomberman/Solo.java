@@ -355,6 +355,9 @@ public class Solo extends Application {
                 Parent root = loader.load();
                 BombermanGame controller = loader.getController();
                 controller.setAlternativeStyle(Option.Settings.alternativeStyle);
+                controller.setArenaSize(Option.Settings.arenaSize);
+                controller.setPlayerCount(Option.Settings.playerCount);
+                controller.setSeed(Option.Settings.seed);
                 controller.enableSoloMode();
                 controller.setBotMoveDelay(botDelayMs); // <-- Ajoutez cette ligne
 
@@ -368,6 +371,7 @@ public class Solo extends Application {
                 root.requestFocus();
 
                 gameStage.setOnHidden(ev -> {
+                    controller.dispose();
                     stage.show();
                 });
 
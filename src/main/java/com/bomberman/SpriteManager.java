@@ -3,15 +3,17 @@ package com.bomberman;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.image.WritableImage;
-import javafx.animation.Timeline;
-import javafx.animation.KeyFrame;
-import javafx.util.Duration;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
 
 /**
  * Classe pour gérer les sprites des joueurs dans le jeu Bomberman.
  * <p>
  * Permet de charger des spritesheets, d'extraire des sprites individuels,
  * de gérer les animations et de fournir des sprites de remplacement si nécessaire.
+ * Les sprites extraits sont mis en cache : changer de frame n'alloue pas de nouvelle image.
  * </p>
  * @author Thomas A. - Valentin B.
  */
@@ -64,8 +66,14 @@ public class SpriteManager {
         DOWN, UP, LEFT, RIGHT, IDLE
     }
 
+    // Sprites déjà extraits : [joueur][ligne][colonne]
+    private final Image[][][] spriteCache;
+    private Image[] placeholderCache = new Image[4];
+    private final Map<Animation, SpriteCell[]> animationCells = new EnumMap<>(Animation.class);
+
     public SpriteManager(Image[] playerSpritesheets) {
         this.playerSpritesheets = playerSpritesheets;
+        this.spriteCache = new Image[playerSpritesheets == null ? 0 : playerSpritesheets.length][ROWS][COLUMNS];
     }
 
     /**
@@ -89,6 +97,13 @@ public class SpriteManager {
             return createPlaceholderSprite(playerIndex);
         }
 
+        int row = cell.getRow();
+        int column = cell.getColumn();
+        boolean cacheable = row >= 0 && row < ROWS && column >= 0 && column < COLUMNS;
+        if (cacheable && spriteCache[playerIndex][row][column] != null) {
+            return spriteCache[playerIndex][row][column];
+        }
+
         Image spritesheet = playerSpritesheets[playerIndex];
 
         // Calculer les coordonnées dans la spritesheet
@@ -100,8 +115,12 @@ public class SpriteManager {
         if (y + SPRITE_HEIGHT > spritesheet.getHeight()) y = 0;
 
         // Extraire le sprite
-        return new WritableImage(spritesheet.getPixelReader(),
+        Image sprite = new WritableImage(spritesheet.getPixelReader(),
                 x, y, SPRITE_WIDTH, SPRITE_HEIGHT);
+        if (cacheable) {
+            spriteCache[playerIndex][row][column] = sprite;
+        }
+        return sprite;
     }
 
     /**
@@ -113,13 +132,17 @@ public class SpriteManager {
         return getSprite(playerIndex, new SpriteCell(animation.getRow(), column));
     }
 
-    /**
-     * Crée un sprite de remplacement coloré si la spritesheet n'est pas disponible
-     */
     /**
      * Crée un sprite de remplacement coloré si la spritesheet n'est pas disponible
      */
     private Image createPlaceholderSprite(int playerIndex) {
+        if (playerIndex >= placeholderCache.length) {
+            placeholderCache = Arrays.copyOf(placeholderCache, playerIndex + 1);
+        }
+        if (placeholderCache[playerIndex] != null) {
+            return placeholderCache[playerIndex];
+        }
+
         int[] colors = {0xFFFFFFFF, 0xFFFF69B4, 0xFFFF4500, 0xFF0000FF}; // Blanc, Rose, Orange/Rouge, Bleu
 
         WritableImage image = new WritableImage(SPRITE_WIDTH, SPRITE_HEIGHT);
@@ -133,16 +156,21 @@ public class SpriteManager {
             }
         }
 
+        placeholderCache[playerIndex] = image;
         return image;
     }
 
     /**
-     * Retourne toutes les cases d'une animation spécifique
+     * Retourne toutes les cases d'une animation spécifique (tableau partagé, à ne pas modifier)
      */
     public SpriteCell[] getCellsForAnimation(Animation animation) {
-        SpriteCell[] cells = new SpriteCell[FRAMES_PER_ANIMATION];
-        for (int i = 0; i < FRAMES_PER_ANIMATION; i++) {
-            cells[i] = new SpriteCell(animation.getRow(), i);
+        SpriteCell[] cells = animationCells.get(animation);
+        if (cells == null) {
+            cells = new SpriteCell[FRAMES_PER_ANIMATION];
+            for (int i = 0; i < FRAMES_PER_ANIMATION; i++) {
+                cells[i] = new SpriteCell(animation.getRow(), i);
+            }
+            animationCells.put(animation, cells);
         }
         return cells;
     }
@@ -185,18 +213,31 @@ public class SpriteManager {
 
 /**
  * Classe pour gérer les animations des joueurs
- * Compatible avec le nouveau système de cases
+ * Compatible avec le nouveau système de cases.
+ * <p>
+ * L'animateur ne possède pas de Timeline : il est avancé par l'{@link AnimationClock}
+ * partagée, qui calcule la frame à afficher à partir du temps écoulé. Changer d'animation
+ * revient à changer d'état, sans rien allouer.
+ * </p>
  */
-class PlayerAnimator {
+class PlayerAnimator implements AnimationClock.Listener {
+    private static final long NANOS_PER_MS = 1_000_000L;
+
     private final ImageView imageView;
     private final SpriteManager spriteManager;
     private final int playerIndex;
-    private Timeline animationTimeline;
     private int currentFrame = 0;
     private SpriteManager.Animation currentAnimation;
     private SpriteManager.SpriteCell[] currentAnimationCells;
     private boolean isAnimating = false;
 
+    // État de l'animation en cours, avancée par l'horloge partagée
+    private long frameDurationNanos;
+    private boolean loop;
+    private long startTime = -1;        // -1 : fixé au prochain tick de l'horloge
+    private boolean clearOnFinish = false; // effacer le sprite à la fin (mort)
+    private boolean registered = false;
+
     public PlayerAnimator(ImageView imageView, SpriteManager spriteManager, int playerIndex) {
         this.imageView = imageView;
         this.spriteManager = spriteManager;
@@ -224,30 +265,70 @@ class PlayerAnimator {
         }
     }
 
+    /**
+     * Avance l'animation, appelé par l'{@link AnimationClock} à chaque frame.
+     * @param now temps de la frame en nanosecondes
+     */
+    @Override
+    public void tick(long now) {
+        if (!isAnimating) return;
+        if (startTime < 0) {
+            startTime = now;
+        }
+
+        long frame = (now - startTime) / frameDurationNanos;
+        int length = currentAnimationCells.length;
+
+        if (!loop && frame >= length) {
+            // Animation terminée
+            isAnimating = false;
+            if (clearOnFinish) {
+                imageView.setImage(null); // Effacer l'image après la mort
+            }
+            return;
+        }
+
+        int index = (int) (frame % length);
+        if (index != currentFrame) {
+            currentFrame = index;
+            updateSprite();
+        }
+    }
+
     /**
      * Afficher une case spécifique
      */
     public void showCell(SpriteManager.SpriteCell cell) {
-        dispose(); // Arrête toute animation en cours
-        isAnimating = false;
+        stopAnimation(); // Arrête toute animation en cours
         imageView.setImage(spriteManager.getSprite(playerIndex, cell));
     }
 
     /**
-     * Arrête les animations en cours
+     * Arrête les animations en cours et détache l'animateur de l'horloge partagée
      */
     public void dispose() {
-        if (animationTimeline != null) {
-            animationTimeline.stop();
+        stopAnimation();
+        if (registered) {
+            AnimationClock.getInstance().unregister(this);
+            registered = false;
         }
+    }
+
+    private void stopAnimation() {
         isAnimating = false;
+        clearOnFinish = false;
     }
 
     /**
-     * Démarre une animation selon la direction
+     * Démarre une animation selon la direction.
+     * Si la même animation est déjà en cours, elle continue sans repartir de zéro.
      */
     public void startDirectionAnimation(SpriteManager.Direction direction) {
-        currentAnimation = SpriteManager.getAnimationForDirection(direction);
+        SpriteManager.Animation animation = SpriteManager.getAnimationForDirection(direction);
+        if (isAnimating && loop && currentAnimation == animation) {
+            return;
+        }
+        currentAnimation = animation;
         currentAnimationCells = spriteManager.getCellsForAnimation(currentAnimation);
         startAnimation(125, true); // 125ms par frame, en boucle
     }
@@ -256,7 +337,10 @@ class PlayerAnimator {
      * Positionne le personnage en idle
      */
     public void idle() {
-        dispose();
+        if (!isAnimating && currentAnimation == SpriteManager.Animation.IDLE && currentFrame == 0) {
+            return; // Déjà en idle
+        }
+        stopAnimation();
         currentAnimation = SpriteManager.Animation.IDLE;
         currentFrame = 0; // Frame du milieu pour idle
         updateSprite();
@@ -266,57 +350,38 @@ class PlayerAnimator {
      * Démarre l'animation de mort
      */
     public void playDeathAnimation() {
-        dispose();
         currentAnimation = SpriteManager.Animation.DEATH;
         currentAnimationCells = spriteManager.getCellsForAnimation(currentAnimation);
         startAnimation(200, false); // 200ms par frame, pas de boucle
         // Après la dernière frame, on fait disparaitre le joueur
-        animationTimeline.setOnFinished(e -> {
-            imageView.setImage(null); // Effacer l'image après la mort
-            isAnimating = false; // Marquer comme non animé
-        });
+        clearOnFinish = true;
     }
 
     /**
      * Démarre l'animation de célébration
      */
     public void celebrate() {
-        dispose();
         currentAnimation = SpriteManager.Animation.CELEBRATE;
         currentAnimationCells = spriteManager.getCellsForAnimation(currentAnimation);
         startAnimation(300, true); // 300ms par frame, en boucle
     }
 
-    /**
-     * Démarre une animation avec les paramètres spécifiés
-     */
     /**
      * Démarre une animation avec les paramètres spécifiés
      */
     private void startAnimation(int frameDuration, boolean loop) {
-        dispose();
+        stopAnimation();
+        this.frameDurationNanos = frameDuration * NANOS_PER_MS;
+        this.loop = loop;
+        this.startTime = -1;
         currentFrame = 0;
         isAnimating = true;
+        updateSprite();
 
-        animationTimeline = new Timeline(
-                new KeyFrame(Duration.millis(frameDuration), e -> {
-                    updateSprite();
-                    if (currentAnimationCells != null) {
-                        currentFrame = (currentFrame + 1) % currentAnimationCells.length;
-                    } else {
-                        currentFrame = (currentFrame + 1) % 3;
-                    }
-                })
-        );
-
-        if (loop) {
-            animationTimeline.setCycleCount(Timeline.INDEFINITE);
-        } else {
-            animationTimeline.setCycleCount(currentAnimationCells != null ?
-                    currentAnimationCells.length : 3);
+        if (!registered) {
+            AnimationClock.getInstance().register(this);
+            registered = true;
         }
-
-        animationTimeline.play();
     }
 
     /**
@@ -346,8 +411,7 @@ class PlayerAnimator {
      * Affiche une séquence de cellules personnalisée
      */
     public void showCustomCells(SpriteManager.SpriteCell[] cells, int frameDuration, boolean loop) {
-        dispose();
         currentAnimationCells = cells;
         startAnimation(frameDuration, loop);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,90 @@
+package com.bomberman;
+
+/**
+ * Hachage de Zobrist de l'état d'une partie, sur 64 bits.
+ * <p>
+ * Chaque élément de l'état (bloc d'une case, joueur, bombe, power-up) a sa propre clé, et le
+ * hachage de la partie est le XOR des clés de tous ses éléments. Une modification se reporte
+ * donc en deux XOR, en retirant l'ancienne clé de l'élément puis en ajoutant la nouvelle, sans
+ * reparcourir l'arène ({@link BombermanGame#getStateHash()}).
+ * </p>
+ * <p>
+ * Les clés ne sont pas tirées dans des tables (une arène compte jusqu'à 65 025 cases) mais
+ * calculées en mélangeant l'indice de la case ou du joueur et les valeurs de l'élément
+ * (finaliseur de SplitMix64). Elles ne dépendent ni de la graine ni du processus : deux instances
+ * du jeu, un replay et sa partie ou deux pairs en réseau, ont le même hachage pour le même état.
+ * </p>
+ * @author Valentin B.
+ */
+public final class StateHash {
+    // Sels des types d'éléments, pour que deux éléments différents d'une même case aient des clés différentes
+    private static final long BLOCK = 0x9E3779B97F4A7C15L;
+    private static final long PLAYER = 0xC2B2AE3D27D4EB4FL;
+    private static final long BOMB = 0x165667B19E3779F9L;
+    private static final long POWER_UP = 0xD6E8FEB86659FD93L;
+    private static final long DANGER = 0xA0761D6478BD642FL;
+
+    private StateHash() {
+    }
+
+    /**
+     * @return la clé du bloc destructible de la case (x, y)
+     */
+    public static long block(int x, int y) {
+        return mix(BLOCK + cell(x, y));
+    }
+
+    /**
+     * @param player un joueur
+     * @return la clé du joueur : position, état, bonus et rythme de ses déplacements
+     */
+    public static long player(BombermanGame.Player player) {
+        long state = (long) cell(player.x, player.y) << 32
+                | (player.bombLimit & 0xFFFFL) << 16
+                | (player.explosionRadius & 0xFFL) << 8
+                | (player.alive ? 1 : 0) | (player.canKickBombs ? 2 : 0) | (player.isInvincible ? 4 : 0);
+        long timers = (long) player.invincibleTicks << 32 | (player.lastMoveTick & 0xFFFFFFFFL);
+        return mix(mix(PLAYER + player.playerIndex ^ state) ^ timers);
+    }
+
+    /**
+     * @param bomb une bombe
+     * @return la clé de la bombe : position, poseur, mèche et glissement
+     */
+    public static long bomb(BombermanGame.Bomb bomb) {
+        long state = (long) cell(bomb.x, bomb.y) << 32
+                | (bomb.owner.playerIndex & 0xFFFFL) << 16
+                | (bomb.slideDx & 0xFFL) << 8 | (bomb.slideDy & 0xFFL);
+        long timers = (long) bomb.fuse << 32 | (bomb.slideSteps & 0xFFFFL) << 16 | (bomb.slideWait & 0xFFFFL);
+        return mix(mix(BOMB ^ state) ^ timers);
+    }
+
+    /**
+     * @return la clé d'un power-up de ce type sur la case (x, y)
+     */
+    public static long powerUp(int x, int y, PowerUp.Type type) {
+        return mix(POWER_UP + ((long) cell(x, y) << 8 | type.ordinal()));
+    }
+
+    /**
+     * Clé d'une bombe pour la carte des dangers des bots, qui ne dépend que de sa case et de sa portée
+     * (pas de la mèche, qui change à chaque tick).
+     * @param bomb une bombe
+     * @return la clé de la bombe pour la carte des dangers
+     */
+    public static long danger(BombermanGame.Bomb bomb) {
+        int radius = bomb.owner != null ? bomb.owner.explosionRadius : 2;
+        return mix(DANGER + ((long) cell(bomb.x, bomb.y) << 16 | radius));
+    }
+
+    private static int cell(int x, int y) {
+        return x * BombermanGame.MAX_ARENA_SIZE + y;
+    }
+
+    // Finaliseur de SplitMix64 : chaque bit de l'entrée change en moyenne la moitié des bits de la sortie
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,29 +1,191 @@
 package com.bomberman;
 
 import java.io.*;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * Gestionnaire des sons et musiques du jeu Bomberman.
+ * Gestionnaire des statistiques (victoires/défaites) des joueurs.
  * <p>
- * Permet de jouer, arrêter et configurer le volume des musiques et effets sonores.
+ * Les statistiques sont tenues en mémoire et persistées dans un fichier texte.
+ * Les enregistrements de victoires et de défaites ne touchent pas au disque :
+ * ils sont transmis à un {@link StatsWriter} qui les écrit par lots en arrière-plan.
+ * </p>
+ * <p>
+ * Une seule instance est partagée par tout le processus ({@link #getInstance()}) :
+ * toutes les parties ouvertes, y compris sans interface, enregistrent leurs résultats
+ * dans la même table concurrente et un seul thread écrit le fichier.
+ * </p>
+ * <p>
+ * Le gestionnaire alimente aussi le {@link Leaderboard} (classement Elo) ; les classements
+ * sont sauvegardés en quatrième colonne du fichier texte, ou dans la case du joueur
+ * du stockage binaire.
+ * </p>
+ * <p>
+ * Pour de très grands nombres de joueurs, la propriété système
+ * {@code -Dbomberman.stats.binary=true} remplace la table en mémoire et le fichier texte
+ * par un {@link BinaryStatsStore} projeté en mémoire : rien n'est chargé au démarrage
+ * et les compteurs sont modifiés directement dans le fichier. Comme pour le fichier texte,
+ * le thread JavaFX ne touche pas au fichier : les modifications sont mises en attente
+ * et appliquées par le thread d'écriture, qui agrandit aussi la table si besoin.
+ * </p>
+ * <p>
+ * Avec le stockage binaire, le classement en mémoire n'est pas reconstruit à partir de tout
+ * le fichier : il contient les {@value #PERSISTED_TOP} meilleurs joueurs de la session
+ * précédente (noms conservés dans {@code player_stats.top}, classements relus dans le fichier)
+ * et les joueurs ayant joué depuis le démarrage, dont le classement est relu au premier match.
+ * L'ouverture coûte donc au plus {@value #PERSISTED_TOP} recherches, quel que soit le nombre
+ * de joueurs ; en contrepartie, le rang d'un joueur hors de ce classement n'est compté
+ * que parmi les joueurs chargés.
  * </p>
  * @author Valentin B.
  */
 public class StatsManager {
-    private static final String STATS_FILE = "player_stats.txt";
-    private Map<String, PlayerStats> playerStatsMap = new HashMap<>();
+    // Dossier des fichiers de statistiques : dossier courant, sauf -Dbomberman.stats.dir (benchmarks)
+    private static final File STATS_DIR = new File(System.getProperty("bomberman.stats.dir", "."));
+    private static final boolean USE_BINARY_STORE = Boolean.getBoolean("bomberman.stats.binary");
+    static final int PERSISTED_TOP = 100;
+
+    private static StatsManager instance;
 
-    public StatsManager() {
-        loadStats();
+    private final File statsFile;
+    private final File binaryStatsFile;
+    private final File topFile; // meilleurs joueurs du stockage binaire
+    private final ConcurrentMap<String, PlayerStats> playerStatsMap = new ConcurrentHashMap<>();
+    private final Leaderboard leaderboard = new Leaderboard();
+    private final StatsWriter writer;
+    private BinaryStatsStore binaryStore; // null si le fichier texte est utilisé
+    // Modifications du stockage binaire pas encore appliquées par le thread d'écriture
+    private final ConcurrentMap<String, PendingUpdate> pendingUpdates = new ConcurrentHashMap<>();
+    private final Object pendingLock = new Object();
+    private final Metrics.Histogram saveLatency = Metrics.getInstance().histogram("stats.save.nanos");
+
+    /**
+     * Retourne le gestionnaire de statistiques partagé par toutes les parties.
+     * @return l'instance unique, créée au premier appel
+     */
+    public static synchronized StatsManager getInstance() {
+        if (instance == null) {
+            instance = new StatsManager();
+        }
+        return instance;
+    }
+
+    /**
+     * Crée un gestionnaire indépendant. Hors tests, utiliser {@link #getInstance()}
+     * pour qu'un seul gestionnaire possède le fichier de statistiques.
+     */
+    StatsManager() {
+        this(STATS_DIR, USE_BINARY_STORE);
     }
 
     /**
-     * Classe représentant les statistiques d'un joueur.
+     * Crée un gestionnaire sur un dossier de statistiques donné (tests).
+     * @param directory dossier des fichiers de statistiques
+     * @param binary true pour utiliser le stockage binaire
      */
-    private void loadStats() {
-        File file = new File(STATS_FILE);
+    StatsManager(File directory, boolean binary) {
+        statsFile = new File(directory, "player_stats.txt");
+        binaryStatsFile = new File(directory, "player_stats.bin");
+        topFile = new File(directory, "player_stats.top");
+        if (binary) {
+            openBinaryStore();
+        }
+        if (binaryStore == null) {
+            loadStats(statsFile, playerStatsMap, leaderboard);
+        }
+        writer = new StatsWriter(this::saveStats);
+    }
+
+    /**
+     * Ouvre le stockage binaire, en y important le fichier texte lors de la première ouverture.
+     * En cas d'échec, le fichier texte est utilisé.
+     */
+    private void openBinaryStore() {
+        boolean firstOpen = !binaryStatsFile.exists();
+        try {
+            binaryStore = new BinaryStatsStore(binaryStatsFile.toPath());
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'ouverture des statistiques binaires: " + e.getMessage());
+            return;
+        }
+
+        File textFile = statsFile;
+        if (!firstOpen) {
+            loadTopRatings();
+            return;
+        }
+        if (!textFile.exists()) {
+            return;
+        }
+
+        // Import ligne par ligne, sans garder les statistiques en mémoire
+        try (BufferedReader reader = new BufferedReader(new FileReader(textFile))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                PlayerStats stats = parseLine(line, leaderboard);
+                if (stats != null) {
+                    binaryStore.put(stats);
+                    storeRating(stats.getPlayerName());
+                }
+            }
+            binaryStore.force();
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'import des statistiques: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Charge dans le classement les meilleurs joueurs enregistrés à la dernière sauvegarde.
+     */
+    private void loadTopRatings() {
+        if (!topFile.exists()) return;
+        try (BufferedReader reader = new BufferedReader(new FileReader(topFile))) {
+            String name;
+            while ((name = reader.readLine()) != null) {
+                loadRating(name);
+            }
+        } catch (IOException e) {
+            System.err.println("Erreur lors du chargement du classement: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Charge dans le classement le classement enregistré d'un joueur, s'il en a un.
+     */
+    private void loadRating(String playerName) {
+        if (leaderboard.contains(playerName)) return;
+        double rating = binaryStore.getRating(playerName);
+        if (!Double.isNaN(rating)) {
+            leaderboard.setRating(playerName, rating);
+        }
+    }
+
+    /**
+     * Enregistre les noms des meilleurs joueurs, rechargés à la prochaine ouverture.
+     */
+    private void saveTopRatings() {
+        try (BufferedWriter out = new BufferedWriter(new FileWriter(topFile))) {
+            for (Leaderboard.Entry entry : leaderboard.top(PERSISTED_TOP)) {
+                out.write(entry.getPlayerName());
+                out.newLine();
+            }
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la sauvegarde du classement: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Charge les statistiques des joueurs depuis le fichier texte.
+     * Ne démarre aucun thread : les benchmarks mesurent le chargement seul.
+     * @param file le fichier de statistiques
+     * @param statsMap reçoit les statistiques lues
+     * @param leaderboard reçoit les classements lus
+     */
+    static void loadStats(File file, Map<String, PlayerStats> statsMap, Leaderboard leaderboard) {
         if (!file.exists()) {
             return; // Le fichier sera créé lors de la première sauvegarde
         }
@@ -31,18 +193,9 @@ public class StatsManager {
         try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
             String line;
             while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length == 3) {
-                    try {
-                        PlayerStats stats = new PlayerStats(
-                                parts[0],
-                                Integer.parseInt(parts[1]),
-                                Integer.parseInt(parts[2])
-                        );
-                        playerStatsMap.put(parts[0], stats);
-                    } catch (NumberFormatException e) {
-                        System.err.println("Format invalide pour la ligne: " + line);
-                    }
+                PlayerStats stats = parseLine(line, leaderboard);
+                if (stats != null) {
+                    statsMap.put(stats.getPlayerName(), stats);
                 }
             }
         } catch (IOException e) {
@@ -50,36 +203,140 @@ public class StatsManager {
         }
     }
 
+    /**
+     * Lit une ligne "nom,victoires,défaites[,classement]" du fichier texte.
+     * Le classement, s'il est présent, est transmis au {@link Leaderboard}.
+     * @param line la ligne à lire
+     * @param leaderboard reçoit le classement lu
+     * @return les statistiques lues, ou null si la ligne est invalide
+     */
+    private static PlayerStats parseLine(String line, Leaderboard leaderboard) {
+        String[] parts = line.split(",");
+        if (parts.length != 3 && parts.length != 4) {
+            return null;
+        }
+        try {
+            PlayerStats stats = new PlayerStats(parts[0], Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+            if (parts.length == 4) {
+                leaderboard.setRating(parts[0], Double.parseDouble(parts[3]));
+            }
+            return stats;
+        } catch (NumberFormatException e) {
+            System.err.println("Format invalide pour la ligne: " + line);
+            return null;
+        }
+    }
+
     /**
      * Enregistre les statistiques des joueurs dans le fichier.
-     * Chaque ligne contient le nom du joueur, le nombre de victoires et de défaites.
+     * Chaque ligne contient le nom du joueur, le nombre de victoires et de défaites,
+     * puis son classement Elo s'il est classé.
+     * Avec le stockage binaire, compteurs et classements sont déjà dans le fichier projeté.
      */
-    public void saveStats() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(STATS_FILE))) {
-            for (PlayerStats stats : playerStatsMap.values()) {
-                writer.write(stats.toString());
+    public synchronized void saveStats() {
+        GameEvents.StatsSave event = new GameEvents.StatsSave();
+        event.begin();
+        long start = System.nanoTime();
+        if (binaryStore != null) {
+            applyPendingUpdates();
+            binaryStore.force();
+            saveTopRatings();
+            saveLatency.record(System.nanoTime() - start);
+            commitSave(event, "binaire", binaryStore.size(), true);
+            return;
+        }
+
+        // Copie sans verrou : les enregistrements continuent pendant l'écriture
+        List<String> lines = new ArrayList<>(playerStatsMap.size());
+        for (PlayerStats stats : playerStatsMap.values()) {
+            String name = stats.getPlayerName();
+            lines.add(leaderboard.contains(name) ? stats + "," + leaderboard.getRating(name) : stats.toString());
+        }
+
+        boolean saved = false;
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(statsFile))) {
+            for (String line : lines) {
+                writer.write(line);
                 writer.newLine();
             }
+            saved = true;
         } catch (IOException e) {
             System.err.println("Erreur lors de la sauvegarde des statistiques: " + e.getMessage());
         }
+        saveLatency.record(System.nanoTime() - start);
+        commitSave(event, "texte", lines.size(), saved);
+    }
+
+    /**
+     * Applique au stockage binaire les modifications en attente (thread d'écriture).
+     */
+    private void applyPendingUpdates() {
+        // La croissance éventuelle a lieu ici, hors du verrou partagé avec les lectures
+        binaryStore.reserve(pendingUpdates.size());
+        for (Map.Entry<String, PendingUpdate> entry : pendingUpdates.entrySet()) {
+            String name = entry.getKey();
+            PendingUpdate update = entry.getValue();
+            // Le verrou évite qu'une lecture voie la modification à la fois appliquée et en attente
+            synchronized (pendingLock) {
+                try {
+                    binaryStore.add(name, update.victories, update.defeats);
+                    if (!Double.isNaN(update.rating)) {
+                        binaryStore.setRating(name, update.rating);
+                    }
+                } catch (IllegalArgumentException | IllegalStateException e) {
+                    System.err.println(e.getMessage());
+                }
+                pendingUpdates.computeIfPresent(name, (n, current) -> current.minus(update));
+            }
+        }
+    }
+
+    private static void commitSave(GameEvents.StatsSave event, String store, int players, boolean success) {
+        if (event.shouldCommit()) {
+            event.store = store;
+            event.players = players;
+            event.success = success;
+            event.commit();
+        }
+    }
+
+    /**
+     * Écrit immédiatement les modifications en attente et attend la fin de l'écriture.
+     */
+    public void flush() {
+        writer.flush();
+    }
+
+    /**
+     * Écrit les modifications en attente puis arrête le thread d'écriture.
+     */
+    public void close() {
+        writer.close();
+        if (binaryStore != null) {
+            try {
+                binaryStore.close();
+            } catch (IOException e) {
+                System.err.println("Erreur lors de la fermeture des statistiques binaires: " + e.getMessage());
+            }
+        }
     }
 
     /**
      * Enregistre une victoire pour un joueur.
+     * L'écriture sur disque est différée et regroupée par le {@link StatsWriter}.
      * @param playerName le nom du joueur qui a gagné
      */
     public void recordVictory(String playerName) {
         if (playerName == null || playerName.trim().isEmpty()) return;
 
-        PlayerStats stats = playerStatsMap.get(playerName);
-        if (stats == null) {
-            stats = new PlayerStats(playerName, 1, 0);
-            playerStatsMap.put(playerName, stats);
-        } else {
-            stats.addVictory();
+        if (binaryStore != null) {
+            pendingUpdates.merge(playerName, new PendingUpdate(1, 0, Double.NaN), PendingUpdate::plus);
+            writer.submit(playerName);
+            return;
         }
-        saveStats();
+
+        playerStatsMap.computeIfAbsent(playerName, name -> new PlayerStats(name, 0, 0)).addVictory();
+        writer.submit(playerName);
     }
 
     /**
@@ -89,14 +346,68 @@ public class StatsManager {
     public void recordDefeat(String playerName) {
         if (playerName == null || playerName.trim().isEmpty()) return;
 
-        PlayerStats stats = playerStatsMap.get(playerName);
-        if (stats == null) {
-            stats = new PlayerStats(playerName, 0, 1);
-            playerStatsMap.put(playerName, stats);
-        } else {
-            stats.addDefeat();
+        if (binaryStore != null) {
+            pendingUpdates.merge(playerName, new PendingUpdate(0, 1, Double.NaN), PendingUpdate::plus);
+            writer.submit(playerName);
+            return;
         }
-        saveStats();
+
+        playerStatsMap.computeIfAbsent(playerName, name -> new PlayerStats(name, 0, 0)).addDefeat();
+        writer.submit(playerName);
+    }
+
+    /**
+     * Enregistre le résultat d'une partie : victoire du gagnant, défaite des autres
+     * joueurs et mise à jour de leur classement Elo.
+     * @param players les joueurs humains ayant participé
+     * @param winner le nom du gagnant (joueur ou bot), null en cas de match nul
+     * @param botOpponents le nombre de bots ayant participé
+     */
+    public void recordMatch(List<String> players, String winner, int botOpponents) {
+        List<String> rated = new ArrayList<>();
+        for (String player : players) {
+            if (player != null && !player.trim().isEmpty()) rated.add(player);
+        }
+
+        if (binaryStore != null) {
+            // Joueurs pas encore chargés : la partie part de leur classement enregistré
+            for (String player : rated) {
+                loadRating(player);
+            }
+        }
+
+        // Le classement est mis à jour avant d'être sauvegardé avec les compteurs
+        leaderboard.recordMatch(rated, winner, botOpponents);
+        for (String player : rated) {
+            if (binaryStore != null && leaderboard.contains(player)) {
+                pendingUpdates.merge(player, new PendingUpdate(0, 0, leaderboard.getRating(player)),
+                        PendingUpdate::plus);
+            }
+            if (player.equals(winner)) {
+                recordVictory(player);
+            } else {
+                recordDefeat(player);
+            }
+        }
+    }
+
+    /**
+     * Recopie le classement d'un joueur dans sa case du stockage binaire.
+     */
+    private void storeRating(String playerName) {
+        if (!leaderboard.contains(playerName)) return;
+        try {
+            binaryStore.setRating(playerName, leaderboard.getRating(playerName));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    /**
+     * @return le classement Elo des joueurs
+     */
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
     }
 
     /**
@@ -105,6 +416,50 @@ public class StatsManager {
      * @return les statistiques du joueur, ou un objet PlayerStats vide si le joueur n'existe pas
      */
     public PlayerStats getPlayerStats(String playerName) {
-        return playerStatsMap.getOrDefault(playerName, new PlayerStats(playerName, 0, 0));
+        if (binaryStore != null) {
+            synchronized (pendingLock) {
+                PlayerStats stored = binaryStore.get(playerName);
+                PendingUpdate update = pendingUpdates.get(playerName);
+                if (update == null) return stored;
+                return new PlayerStats(playerName, stored.getVictories() + update.victories,
+                        stored.getDefeats() + update.defeats);
+            }
+        }
+        PlayerStats stats = playerStatsMap.get(playerName);
+        return stats != null ? stats : new PlayerStats(playerName, 0, 0);
+    }
+
+    /**
+     * Modification du stockage binaire en attente : victoires et défaites à ajouter,
+     * dernier classement (NaN s'il n'a pas changé).
+     */
+    private static final class PendingUpdate {
+        final int victories;
+        final int defeats;
+        final double rating;
+
+        PendingUpdate(int victories, int defeats, double rating) {
+            this.victories = victories;
+            this.defeats = defeats;
+            this.rating = rating;
+        }
+
+        PendingUpdate plus(PendingUpdate other) {
+            return new PendingUpdate(victories + other.victories, defeats + other.defeats,
+                    Double.isNaN(other.rating) ? rating : other.rating);
+        }
+
+        /**
+         * @return ce qui reste en attente une fois {@code applied} appliquée, ou null s'il ne reste rien
+         */
+        PendingUpdate minus(PendingUpdate applied) {
+            int remainingVictories = victories - applied.victories;
+            int remainingDefeats = defeats - applied.defeats;
+            double remainingRating = Double.compare(rating, applied.rating) == 0 ? Double.NaN : rating;
+            if (remainingVictories == 0 && remainingDefeats == 0 && Double.isNaN(remainingRating)) {
+                return null;
+            }
+            return new PendingUpdate(remainingVictories, remainingDefeats, remainingRating);
+        }
     }
-}
\ No newline at end of file
+}
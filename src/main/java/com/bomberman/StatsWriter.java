@@ -0,0 +1,159 @@
+package com.bomberman;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Écrivain en arrière-plan (write-behind) des statistiques.
+ * <p>
+ * Les modifications de statistiques sont mises en file puis regroupées par lots :
+ * l'écriture sur disque n'a lieu que lorsque le lot atteint {@link #BATCH_SIZE}
+ * modifications, lorsque {@link #FLUSH_INTERVAL_MS} ms se sont écoulées depuis la
+ * première modification en attente, sur demande explicite ({@link #flush()}) ou à l'arrêt.
+ * Le thread JavaFX n'attend donc jamais le disque.
+ * </p>
+ * @author Valentin B.
+ */
+class StatsWriter implements AutoCloseable {
+    static final int BATCH_SIZE = 32;
+    static final long FLUSH_INTERVAL_MS = 2000;
+
+    // Marqueur de fin pour arrêter le thread d'écriture
+    private static final Object POISON = new Object();
+
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    private final Runnable flushAction;
+    private final Thread thread;
+    private final Thread shutdownHook;
+    private volatile boolean closed = false;
+
+    /**
+     * Crée et démarre l'écrivain.
+     * @param flushAction action d'écriture sur disque, exécutée sur le thread d'écriture
+     */
+    StatsWriter(Runnable flushAction) {
+        this.flushAction = flushAction;
+        this.thread = new Thread(this::run, "stats-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+        this.shutdownHook = new Thread(this::close, "stats-writer-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Signale une modification de statistiques à persister.
+     * @param playerName le joueur dont les statistiques ont changé
+     */
+    void submit(String playerName) {
+        if (closed) {
+            // Plus de thread d'écriture : on écrit directement
+            flushAction.run();
+            return;
+        }
+        queue.offer(playerName);
+    }
+
+    /**
+     * Force l'écriture des modifications en attente et attend qu'elle soit terminée.
+     */
+    void flush() {
+        if (closed || !thread.isAlive()) {
+            return;
+        }
+        CountDownLatch latch = new CountDownLatch(1);
+        queue.offer(latch);
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Écrit les modifications restantes puis arrête le thread d'écriture.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // Arrêt de la JVM en cours : close() est justement appelé par le crochet
+        }
+        queue.offer(POISON);
+        try {
+            thread.join(FLUSH_INTERVAL_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        int pending = 0;
+        long deadline = 0;
+        List<CountDownLatch> waiters = new ArrayList<>();
+
+        try {
+            while (true) {
+                Object item;
+                if (pending == 0) {
+                    item = queue.take();
+                } else {
+                    long remaining = deadline - System.currentTimeMillis();
+                    item = remaining > 0 ? queue.poll(remaining, TimeUnit.MILLISECONDS) : null;
+                }
+
+                if (item == POISON) {
+                    if (pending > 0) writeBatch();
+                    return;
+                }
+
+                if (item instanceof CountDownLatch) {
+                    waiters.add((CountDownLatch) item);
+                } else if (item != null) {
+                    if (pending == 0) {
+                        deadline = System.currentTimeMillis() + FLUSH_INTERVAL_MS;
+                    }
+                    pending++;
+                }
+
+                // Écrire si le lot est plein, si le délai est écoulé ou si quelqu'un attend
+                if (item == null || pending >= BATCH_SIZE || !waiters.isEmpty()) {
+                    if (pending > 0) writeBatch();
+                    pending = 0;
+                    for (CountDownLatch waiter : waiters) {
+                        waiter.countDown();
+                    }
+                    waiters.clear();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Ne laisser personne bloqué dans flush() après l'arrêt
+            List<Object> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            for (Object item : remaining) {
+                if (item instanceof CountDownLatch) {
+                    waiters.add((CountDownLatch) item);
+                }
+            }
+            for (CountDownLatch waiter : waiters) {
+                waiter.countDown();
+            }
+        }
+    }
+
+    private void writeBatch() {
+        try {
+            flushAction.run();
+        } catch (RuntimeException e) {
+            System.err.println("Erreur lors de l'écriture différée des statistiques: " + e.getMessage());
+        }
+    }
+}
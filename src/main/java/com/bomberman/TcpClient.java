@@ -0,0 +1,105 @@
+package com.bomberman;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Connexion TCP d'un client au serveur de jeu ({@link TcpServer}).
+ * <p>
+ * Les envois sont bloquants (les messages d'un client sont petits et rares) ; les messages
+ * du serveur sont lus par un thread dédié et passés au gestionnaire, dans l'ordre.
+ * </p>
+ * @author Valentin B.
+ */
+public class TcpClient implements NetLink {
+    private final SocketChannel channel;
+    private final NetHandler handler;
+    private final Thread reader;
+    private final ByteBuffer header = ByteBuffer.allocate(Protocol.FRAME_HEADER_BYTES);
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private TcpClient(SocketChannel channel, NetHandler handler) {
+        this.channel = channel;
+        this.handler = handler;
+        reader = new Thread(this::readLoop, "client-network");
+        reader.setDaemon(true);
+    }
+
+    /**
+     * Se connecte au serveur et commence à lire ses messages.
+     * @param address l'adresse du serveur
+     * @param handler reçoit les messages du serveur, sur le thread de lecture
+     * @return la connexion
+     * @throws IOException si le serveur ne répond pas
+     */
+    public static TcpClient connect(InetSocketAddress address, NetHandler handler) throws IOException {
+        SocketChannel channel = SocketChannel.open(address);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        TcpClient client = new TcpClient(channel, handler);
+        client.reader.start();
+        return client;
+    }
+
+    @Override
+    public synchronized void send(ByteBuffer message) {
+        if (closed.get()) return;
+        ByteBuffer frame = ByteBuffer.allocate(Protocol.FRAME_HEADER_BYTES + message.remaining());
+        frame.putInt(message.remaining()).put(message.duplicate()).flip();
+        try {
+            while (frame.hasRemaining()) {
+                channel.write(frame);
+            }
+        } catch (IOException e) {
+            close();
+        }
+    }
+
+    private void readLoop() {
+        ByteBuffer body = ByteBuffer.allocate(4096);
+        try {
+            while (!closed.get()) {
+                header.clear();
+                readFully(header);
+                int length = header.getInt(0);
+                if (length <= 0 || length > Protocol.MAX_MESSAGE_BYTES) {
+                    throw new IOException("Trame invalide du serveur: " + length + " octets");
+                }
+                if (body.capacity() < length) {
+                    body = ByteBuffer.allocate(Integer.highestOneBit(length) << 1);
+                }
+                body.clear().limit(length);
+                readFully(body);
+                body.flip();
+                handler.onMessage(this, body);
+            }
+        } catch (IOException e) {
+            if (!closed.get() && !(e instanceof EOFException)) {
+                System.err.println("Connexion au serveur perdue: " + e.getMessage());
+            }
+        } finally {
+            close();
+        }
+    }
+
+    private void readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) throw new EOFException();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) return;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Erreur à la fermeture de la connexion: " + e.getMessage());
+        }
+        handler.onClosed(this);
+    }
+}
@@ -0,0 +1,236 @@
+package com.bomberman;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Transport TCP du serveur de jeu : toutes les connexions sont servies par un seul thread
+ * (NIO, un {@link Selector}), qui découpe les trames et passe les messages au gestionnaire.
+ * <p>
+ * Les envois peuvent venir de n'importe quel thread (les ticks des salles) : le message est
+ * copié dans une file propre à la connexion, que le thread réseau vide dès que la socket
+ * l'accepte. Un client trop lent pour suivre ne ralentit personne : au-delà de
+ * {@value #MAX_QUEUED} messages en attente, les suivants sont abandonnés (l'état suivant
+ * remplace de toute façon le précédent).
+ * </p>
+ * @author Valentin B.
+ */
+public class TcpServer implements Closeable {
+    static final int MAX_QUEUED = 64;
+    private static final int READ_BUFFER_BYTES = 4096;
+
+    private final NetHandler handler;
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final Queue<Connection> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final Metrics.Counter dropped = Metrics.getInstance().counter("server.messages.dropped");
+    private Thread thread;
+    private volatile boolean running;
+
+    /**
+     * @param address l'adresse d'écoute (port 0 : un port libre, voir {@link #getPort()})
+     * @param handler reçoit les messages des clients, sur le thread réseau
+     * @throws IOException si le port ne peut pas être ouvert
+     */
+    public TcpServer(InetSocketAddress address, NetHandler handler) throws IOException {
+        this.handler = handler;
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(address);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        Metrics.getInstance().gauge("server.connections", connections::size);
+    }
+
+    /**
+     * @return le port d'écoute
+     */
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * @return le nombre de connexions ouvertes
+     */
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    /**
+     * Démarre le thread réseau.
+     */
+    public synchronized void start() {
+        if (thread != null) return;
+        running = true;
+        thread = new Thread(this::run, "server-network");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                for (Connection connection = pendingWrites.poll(); connection != null; connection = pendingWrites.poll()) {
+                    connection.flush();
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        Connection connection = (Connection) key.attachment();
+                        if (key.isReadable()) connection.read();
+                        if (key.isValid() && key.isWritable()) connection.flush();
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (running) System.err.println("Erreur du thread réseau: " + e.getMessage());
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) return;
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        Connection connection = new Connection(channel);
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        connections.add(connection);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        for (Connection connection : connections) {
+            connection.close();
+        }
+        try {
+            server.close();
+            selector.close();
+        } catch (IOException e) {
+            System.err.println("Erreur à la fermeture du serveur: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Une connexion cliente : tampon de lecture des trames et file des trames à envoyer.
+     */
+    private class Connection implements NetLink {
+        private final SocketChannel channel;
+        private SelectionKey key;
+        private ByteBuffer in = ByteBuffer.allocate(READ_BUFFER_BYTES);
+        private final Queue<ByteBuffer> out = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean writePending = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void send(ByteBuffer message) {
+            if (closed.get()) return;
+            if (queued.get() >= MAX_QUEUED) {
+                dropped.increment();
+                return;
+            }
+            ByteBuffer frame = ByteBuffer.allocate(Protocol.FRAME_HEADER_BYTES + message.remaining());
+            frame.putInt(message.remaining()).put(message.duplicate()).flip();
+            out.add(frame);
+            queued.incrementAndGet();
+            if (writePending.compareAndSet(false, true)) {
+                pendingWrites.add(this);
+                selector.wakeup();
+            }
+        }
+
+        // Thread réseau : lit ce qui est arrivé et passe chaque trame complète au gestionnaire
+        void read() {
+            try {
+                if (channel.read(in) < 0) {
+                    close();
+                    return;
+                }
+            } catch (IOException e) {
+                close();
+                return;
+            }
+            in.flip();
+            while (in.remaining() >= Protocol.FRAME_HEADER_BYTES) {
+                int length = in.getInt(in.position());
+                if (length <= 0 || length > Protocol.MAX_MESSAGE_BYTES) {
+                    System.err.println("Trame invalide d'un client: " + length + " octets");
+                    close();
+                    return;
+                }
+                if (in.remaining() < Protocol.FRAME_HEADER_BYTES + length) break;
+                int start = in.position() + Protocol.FRAME_HEADER_BYTES;
+                handler.onMessage(this, in.slice(start, length));
+                if (closed.get()) return;
+                in.position(start + length);
+            }
+            in.compact();
+            if (!in.hasRemaining()) {
+                // Trame plus grande que le tampon : on l'agrandit
+                ByteBuffer larger = ByteBuffer.allocate(in.capacity() * 2);
+                in.flip();
+                in = larger.put(in);
+            }
+        }
+
+        // Thread réseau : envoie les trames en attente, et attend la socket si elle est pleine
+        void flush() {
+            writePending.set(false);
+            if (closed.get()) return;
+            try {
+                for (ByteBuffer frame = out.peek(); frame != null; frame = out.peek()) {
+                    channel.write(frame);
+                    if (frame.hasRemaining()) {
+                        key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                        return;
+                    }
+                    out.poll();
+                    queued.decrementAndGet();
+                }
+                if (key.isValid()) key.interestOps(SelectionKey.OP_READ);
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!closed.compareAndSet(false, true)) return;
+            connections.remove(this);
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Erreur à la fermeture d'une connexion: " + e.getMessage());
+            }
+            out.clear();
+            handler.onClosed(this);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.bomberman;
+
+import java.util.Arrays;
+
+/**
+ * Table de transposition bornée : résultats d'évaluation rangés par hachage de position
+ * ({@link StateHash}), pour ne pas réévaluer une position déjà vue.
+ * <p>
+ * La table est à accès direct : chaque hachage a une seule place (ses bits de poids faible),
+ * et une nouvelle entrée remplace celle qui l'occupait. La taille reste donc fixe quelle que soit
+ * la durée de la partie ; le hachage complet est gardé avec l'entrée pour écarter les collisions
+ * de place. Les compteurs de succès et d'échecs mesurent l'intérêt de la table.
+ * </p>
+ * @param <V> le type des résultats
+ * @author Valentin B.
+ */
+public class TranspositionTable<V> {
+    private final long[] keys;
+    private final Object[] values;
+    private final int mask;
+    private long hits;
+    private long misses;
+
+    /**
+     * @param capacity le nombre d'entrées, arrondi à la puissance de deux supérieure
+     */
+    public TranspositionTable(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        keys = new long[size];
+        values = new Object[size];
+        mask = size - 1;
+    }
+
+    /**
+     * @param key le hachage de la position
+     * @return le résultat rangé pour cette position, ou null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int slot = (int) key & mask;
+        if (values[slot] != null && keys[slot] == key) {
+            hits++;
+            return (V) values[slot];
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Range le résultat d'une position, à la place de l'entrée qui occupait sa place.
+     * @param key le hachage de la position
+     * @param value le résultat
+     */
+    public void put(long key, V value) {
+        int slot = (int) key & mask;
+        keys[slot] = key;
+        values[slot] = value;
+    }
+
+    /**
+     * Vide la table (les compteurs sont conservés).
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+    }
+
+    /**
+     * @return le nombre d'entrées de la table
+     */
+    public int capacity() {
+        return values.length;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,94 @@
+package com.bomberman;
+
+import javafx.scene.Parent;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.Pane;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Réserves d'{@link ImageView} pré-configurées, une par sprite (bombe, explosion, chaque power-up).
+ * <p>
+ * Une vue est prise à la création de son entité (bombe posée, power-up apparu, case d'explosion)
+ * et rendue à sa disparition, ce qui évite d'allouer et de reconfigurer une vue à chaque fois.
+ * </p>
+ * @author Valentin B.
+ */
+public class ViewPool {
+    private final Map<Image, NodePool<ImageView>> pools = new HashMap<>();
+
+    /**
+     * Déclare un sprite et la taille de ses vues.
+     * @param image l'image du sprite
+     * @param size la largeur et hauteur des vues en pixels
+     */
+    public void register(Image image, double size) {
+        pools.put(image, new NodePool<>(() -> {
+            ImageView view = new ImageView(image);
+            view.setFitWidth(size);
+            view.setFitHeight(size);
+            view.setPreserveRatio(true);
+            return view;
+        }));
+    }
+
+    /**
+     * @param image un sprite déclaré avec {@link #register(Image, double)}
+     * @return une vue affichant ce sprite
+     */
+    public ImageView acquire(Image image) {
+        NodePool<ImageView> pool = pools.get(image);
+        if (pool == null) {
+            throw new IllegalArgumentException("Sprite non déclaré dans la réserve de vues");
+        }
+        return pool.acquire();
+    }
+
+    /**
+     * Rend une vue à la réserve de son sprite, après l'avoir retirée de la grille
+     * et remise dans son état initial.
+     * @param view la vue à rendre
+     */
+    public void release(ImageView view) {
+        Parent parent = view.getParent();
+        if (parent instanceof Pane) {
+            ((Pane) parent).getChildren().remove(view);
+        }
+        view.setOpacity(1.0);
+        view.setScaleX(1.0);
+        view.setScaleY(1.0);
+        view.setVisible(true);
+
+        NodePool<ImageView> pool = pools.get(view.getImage());
+        if (pool != null) {
+            pool.release(view);
+        }
+    }
+
+    /**
+     * Oublie tous les sprites déclarés (changement de style graphique).
+     */
+    public void clear() {
+        pools.clear();
+    }
+
+    /**
+     * @return le nombre total d'acquisitions servies par une vue réutilisée
+     */
+    public long getHits() {
+        long hits = 0;
+        for (NodePool<ImageView> pool : pools.values()) hits += pool.getHits();
+        return hits;
+    }
+
+    /**
+     * @return le nombre total d'acquisitions ayant nécessité une création
+     */
+    public long getMisses() {
+        long misses = 0;
+        for (NodePool<ImageView> pool : pools.values()) misses += pool.getMisses();
+        return misses;
+    }
+}
@@ -3,6 +3,9 @@ module bomberman {
     requires javafx.fxml;
     requires javafx.graphics;
     requires javafx.media;
+    requires java.management;
+    requires jdk.jfr;
+    requires jdk.management;
     requires org.testng;
 
     opens com.bomberman to javafx.fxml;
@@ -0,0 +1,112 @@
+package com.bomberman;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryStatsStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testUpdatesInPlaceAndReopen() throws Exception {
+        Path file = tempDir.resolve("stats.bin");
+        try (BinaryStatsStore store = new BinaryStatsStore(file)) {
+            store.addVictory("Alice");
+            store.addVictory("Alice");
+            store.addDefeat("Alice");
+            store.addDefeat("Bob");
+        }
+
+        // Réouverture : les valeurs sont relues depuis le fichier
+        try (BinaryStatsStore store = new BinaryStatsStore(file)) {
+            assertEquals(2, store.size());
+            PlayerStats alice = store.get("Alice");
+            assertEquals(2, alice.getVictories());
+            assertEquals(1, alice.getDefeats());
+            assertEquals(1, store.get("Bob").getDefeats());
+            assertEquals(0, store.get("Inconnu").getVictories());
+        }
+    }
+
+    @Test
+    void testGrowKeepsAllRecords() throws Exception {
+        Path file = tempDir.resolve("grow.bin");
+        int count = BinaryStatsStore.INITIAL_CAPACITY * 4;
+        try (BinaryStatsStore store = new BinaryStatsStore(file)) {
+            for (int i = 0; i < count; i++) {
+                store.put(new PlayerStats("Joueur" + i, i, i % 7));
+            }
+            assertTrue(store.capacity() > BinaryStatsStore.INITIAL_CAPACITY);
+        }
+
+        try (BinaryStatsStore store = new BinaryStatsStore(file)) {
+            assertEquals(count, store.size());
+            for (int i = 0; i < count; i += 97) {
+                PlayerStats stats = store.get("Joueur" + i);
+                assertEquals(i, stats.getVictories());
+                assertEquals(i % 7, stats.getDefeats());
+            }
+        }
+    }
+
+    @Test
+    void testHeaderSwitchesToGrownTableOnlyOnForce() throws Exception {
+        Path file = tempDir.resolve("switch.bin");
+        try (BinaryStatsStore store = new BinaryStatsStore(file)) {
+            store.force();
+            for (int i = 0; i < BinaryStatsStore.INITIAL_CAPACITY; i++) {
+                store.addVictory("Joueur" + i);
+            }
+            assertTrue(store.capacity() > BinaryStatsStore.INITIAL_CAPACITY);
+
+            // Tant que la nouvelle table n'est pas écrite, l'en-tête désigne l'ancienne
+            assertEquals(BinaryStatsStore.INITIAL_CAPACITY, headerCapacity(file));
+            store.force();
+            assertEquals(store.capacity(), headerCapacity(file));
+        }
+    }
+
+    private static int headerCapacity(Path file) throws Exception {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(BinaryStatsStore.HEADER_SIZE);
+            channel.read(header, 0);
+            return header.getInt(8);
+        }
+    }
+
+    @Test
+    void testRatingsSurviveGrowAndReopen() throws Exception {
+        Path file = tempDir.resolve("ratings.bin");
+        try (BinaryStatsStore store = new BinaryStatsStore(file)) {
+            store.addVictory("Sans classement");
+            store.setRating("Alice", 1016.5);
+            for (int i = 0; i < BinaryStatsStore.INITIAL_CAPACITY; i++) {
+                store.addDefeat("Joueur" + i);
+            }
+        }
+
+        try (BinaryStatsStore store = new BinaryStatsStore(file)) {
+            assertEquals(1016.5, store.getRating("Alice"), 0.0);
+            assertTrue(Double.isNaN(store.getRating("Sans classement")));
+            assertTrue(Double.isNaN(store.getRating("Inconnu")));
+            assertTrue(Double.isNaN(store.getRating("Joueur0")));
+        }
+    }
+
+    @Test
+    void testNameTooLongIsRejected() throws Exception {
+        try (BinaryStatsStore store = new BinaryStatsStore(tempDir.resolve("long.bin"))) {
+            String longName = "x".repeat(BinaryStatsStore.MAX_NAME_BYTES + 1);
+            assertThrows(IllegalArgumentException.class, () -> store.addVictory(longName));
+            assertEquals(0, store.get(longName).getVictories());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.bomberman;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrameStatsTest {
+
+    private FrameStats stats;
+
+    @BeforeEach
+    void setUp() {
+        stats = new FrameStats();
+    }
+
+    @Test
+    void testFps() {
+        long now = 0;
+        for (int i = 0; i <= 10; i++) {
+            stats.frame(now);
+            now += 20_000_000L; // 20 ms
+        }
+        assertEquals(50.0, stats.getFps(), 0.001);
+    }
+
+    @Test
+    void testTickAverageMaxAndHistogram() {
+        stats.endTick(500_000L);     // 0,5 ms
+        stats.endTick(3_000_000L);   // 3 ms
+        stats.endTick(40_000_000L);  // 40 ms
+
+        assertEquals(3, stats.getTickCount());
+        assertEquals(40.0, stats.getMaxTickMs(), 0.001);
+        assertEquals(43.5 / 3, stats.getAverageTickMs(), 0.001);
+
+        int[] counts = new int[FrameStats.HISTOGRAM_BOUNDS_MS.length + 1];
+        stats.histogram(counts);
+        assertEquals(1, counts[0]);                  // < 1 ms
+        assertEquals(1, counts[2]);                  // [2, 4[ ms
+        assertEquals(1, counts[counts.length - 1]);  // >= 33 ms
+    }
+
+    @Test
+    void testWindowKeepsLatestSamples() {
+        for (int i = 0; i < FrameStats.WINDOW; i++) {
+            stats.endTick(50_000_000L);
+        }
+        for (int i = 0; i < FrameStats.WINDOW; i++) {
+            stats.endTick(1_000_000L);
+        }
+        assertEquals(1.0, stats.getMaxTickMs(), 0.001);
+    }
+
+    @Test
+    void testSectionsAttributedToNextTick() throws InterruptedException {
+        long start = stats.start();
+        Thread.sleep(2);
+        stats.stop(FrameStats.Section.EXPLOSIONS, start);
+        stats.endTick(0);
+        stats.endTick(0);
+
+        // Le temps mesuré n'est compté que dans le premier tick
+        assertTrue(stats.getAverageMs(FrameStats.Section.EXPLOSIONS) >= 1.0);
+        assertEquals(0.0, stats.getAverageMs(FrameStats.Section.BOTS));
+    }
+
+    @Test
+    void testDisabledRecordsNothing() {
+        stats.setEnabled(false);
+        assertEquals(0, stats.start());
+        stats.endTick(1_000_000L);
+        assertEquals(0, stats.getTickCount());
+    }
+}
@@ -0,0 +1,78 @@
+package com.bomberman;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameEventsTest {
+
+    private static final String TEST_FILE = "player_stats.txt";
+
+    @AfterEach
+    void tearDown() {
+        new File(TEST_FILE).delete();
+    }
+
+    private static List<RecordedEvent> record(String eventName, Runnable action) throws IOException {
+        Path dump = Files.createTempFile("bomberman", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(eventName).withoutThreshold();
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(dump);
+            return RecordingFile.readAllEvents(dump);
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+    }
+
+    @Test
+    void testStatsSaveEvent() throws IOException {
+        StatsManager statsManager = new StatsManager();
+        statsManager.recordVictory("Alice");
+        try {
+            List<RecordedEvent> events = record("com.bomberman.StatsSave", statsManager::saveStats);
+
+            assertFalse(events.isEmpty());
+            RecordedEvent event = events.get(events.size() - 1);
+            assertEquals("texte", event.getString("store"));
+            assertEquals(1, event.getInt("players"));
+            assertTrue(event.getBoolean("success"));
+        } finally {
+            statsManager.close();
+        }
+    }
+
+    @Test
+    void testBotDecisionEvent() throws IOException {
+        BombermanGame game = new BotAITest.DummyGame();
+        BotAI botAI = new BotAI(game);
+        BombermanGame.Player bot = game.new Player(1, 1, 0, "Bot");
+        List<BombermanGame.Player> players = new ArrayList<>(List.of(bot));
+        List<BombermanGame.Bomb> bombs = new ArrayList<>(List.of(game.new Bomb(1, 1, bot)));
+        boolean[][] walls = new boolean[5][5];
+        boolean[][] destructibleBlocks = new boolean[5][5];
+
+        List<RecordedEvent> events = record("com.bomberman.BotDecision",
+                () -> botAI.updateBot(bot, players, bombs, walls, destructibleBlocks));
+
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("Bot", event.getString("bot"));
+        assertEquals(BotAI.STRATEGY_FLEE, event.getString("strategy"));
+        assertEquals(BotAI.OUTCOME_MOVE, event.getString("outcome"));
+        assertTrue(event.getInt("nodesExpanded") > 0);
+    }
+}
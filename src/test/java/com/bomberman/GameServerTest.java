@@ -0,0 +1,187 @@
+package com.bomberman;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameServerTest {
+    private GameServer server;
+    private TcpServer tcp;
+    private final List<TcpClient> clients = new ArrayList<>();
+
+    /**
+     * Client de test : garde les messages du serveur autres que l'état, décode et acquitte les états.
+     */
+    private static class Recorder implements NetHandler {
+        final BlockingQueue<ByteBuffer> messages = new LinkedBlockingQueue<>();
+        final DeltaDecoder decoder = new DeltaDecoder();
+        final AtomicReference<ReplicaState> lastState = new AtomicReference<>();
+        final AtomicLong stateBytes = new AtomicLong();
+        final AtomicInteger states = new AtomicInteger();
+
+        @Override
+        public void onMessage(NetLink link, ByteBuffer message) {
+            if (message.get(message.position()) == Protocol.STATE) {
+                stateBytes.addAndGet(message.remaining());
+                states.incrementAndGet();
+                message.get();
+                ReplicaState state = decoder.decode(message);
+                link.send(Protocol.ack(state.getSeq()));
+                lastState.set(decoder.getState());
+            } else {
+                messages.add(ByteBuffer.allocate(message.remaining()).put(message).flip());
+            }
+        }
+
+        ByteBuffer next() throws InterruptedException {
+            ByteBuffer message = messages.poll(5, TimeUnit.SECONDS);
+            assertNotNull(message, "Pas de réponse du serveur");
+            return message;
+        }
+    }
+
+    private void start(int players) throws IOException {
+        server = new GameServer(BombermanGame.MIN_ARENA_SIZE, players, 2);
+        tcp = new TcpServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), server);
+        tcp.start();
+    }
+
+    private TcpClient connect(Recorder recorder) throws IOException {
+        TcpClient client = TcpClient.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), tcp.getPort()), recorder);
+        clients.add(client);
+        return client;
+    }
+
+    private static void await(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail(message);
+            Thread.sleep(10);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        clients.forEach(TcpClient::close);
+        if (tcp != null) tcp.close();
+        if (server != null) server.close();
+    }
+
+    @Test
+    void testClientPlaysInServerRoom() throws Exception {
+        start(4);
+        Recorder first = new Recorder();
+        Recorder second = new Recorder();
+        TcpClient client = connect(first);
+        client.send(Protocol.join(7, "Alice"));
+        connect(second).send(Protocol.join(7, "Bob"));
+
+        ByteBuffer welcome = first.next();
+        assertEquals(Protocol.WELCOME, welcome.get());
+        assertEquals(7, welcome.getInt());
+        assertEquals(0, welcome.getInt());
+        int size = welcome.getInt();
+        int players = welcome.getInt();
+        ByteBuffer other = second.next();
+        assertEquals(1, other.getInt(5), "Le second client prend la place suivante");
+        assertEquals(1, server.getRoomCount());
+        assertEquals(2, server.getClientCount());
+
+        // Le client reconstruit la partie du serveur à partir des différences
+        client.send(Protocol.input(0, PlayerAction.RIGHT));
+        await(() -> {
+            ReplicaState state = first.lastState.get();
+            return state != null && state.getPlayerX(0) == 2;
+        }, "Le joueur ne s'est pas déplacé sur le serveur");
+        ReplicaState state = first.lastState.get();
+        assertEquals(size, state.getGridSize());
+        assertEquals(players, state.getPlayerCount());
+
+        // Une fois les états acquittés, seules les différences sont envoyées
+        await(() -> first.states.get() > 60, "Le client reçoit un état par tick");
+        assertTrue(first.stateBytes.get() / first.states.get() < 64,
+                "Trop d'octets par état: " + first.stateBytes.get() / first.states.get());
+    }
+
+    @Test
+    void testRoomsOpenAndCloseWithTheirClients() throws Exception {
+        start(4);
+        List<Recorder> recorders = new ArrayList<>();
+        for (int room = 0; room < 20; room++) {
+            Recorder recorder = new Recorder();
+            recorders.add(recorder);
+            connect(recorder).send(Protocol.join(room, "Joueur " + room));
+        }
+        for (Recorder recorder : recorders) {
+            assertEquals(Protocol.WELCOME, recorder.next().get());
+        }
+        assertEquals(20, server.getRoomCount());
+        await(() -> recorders.stream().allMatch(r -> r.lastState.get() != null), "Toutes les salles envoient leur état");
+        assertTrue(Metrics.getInstance().counter("server.bytes.out").get() > 0);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        server.report(new PrintStream(bytes, true, StandardCharsets.UTF_8));
+        assertTrue(bytes.toString(StandardCharsets.UTF_8).contains("salle 19 : 1 clients"));
+
+        clients.forEach(TcpClient::close);
+        await(() -> server.getRoomCount() == 0, "Les salles vides sont fermées");
+        assertEquals(0, server.getClientCount());
+    }
+
+    @Test
+    void testRoomRecordsReplays(@TempDir Path dir) throws Exception {
+        start(4);
+        server.recordReplaysTo(dir);
+        Recorder recorder = new Recorder();
+        connect(recorder).send(Protocol.join(3, "Alice"));
+        assertEquals(Protocol.WELCOME, recorder.next().get());
+        await(() -> recorder.states.get() > 20, "La salle n'avance pas");
+
+        // La salle fermée termine le replay de sa partie en cours
+        clients.forEach(TcpClient::close);
+        await(() -> server.getRoomCount() == 0, "La salle vide est fermée");
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(dir.resolve("salle-3"))) {
+            files = listing.collect(Collectors.toList());
+        }
+        assertEquals(1, files.size());
+        assertTrue(Replay.load(files.get(0)).getEndTick() > 0);
+    }
+
+    @Test
+    void testFullRoomRefusesClients() throws Exception {
+        start(2);
+        Recorder[] recorders = {new Recorder(), new Recorder(), new Recorder()};
+        for (Recorder recorder : recorders) {
+            connect(recorder).send(Protocol.join(1, "Joueur"));
+        }
+        assertEquals(Protocol.WELCOME, recorders[0].next().get());
+        assertEquals(Protocol.WELCOME, recorders[1].next().get());
+        assertEquals(Protocol.FULL, recorders[2].next().get());
+        assertEquals(2, server.getClientCount());
+        assertEquals(1, server.getRoomCount());
+    }
+}
@@ -0,0 +1,85 @@
+package com.bomberman;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeadlessRunnerTest {
+
+    private static HeadlessRunner.Options options(int threads) {
+        return HeadlessRunner.Options.parse(new String[]{
+                "--matches", "12", "--seed", "100", "--sizes", "15,17", "--players", "4",
+                "--bot-delay", "0,200", "--max-ticks", "3000", "--threads", String.valueOf(threads)});
+    }
+
+    @Test
+    void testParseOptions() {
+        HeadlessRunner.Options options = options(3);
+        assertEquals(12, options.matches);
+        assertEquals(100, options.seed);
+        assertArrayEquals(new int[]{15, 17}, options.sizes);
+        assertEquals(3000, options.maxTicks);
+        assertEquals(3, options.threads);
+        // Toutes les combinaisons de tailles et de délais
+        assertEquals(15, options.size(0));
+        assertEquals(17, options.size(1));
+        assertEquals(0, options.botDelay(1));
+        assertEquals(200, options.botDelay(2));
+
+        assertThrows(IllegalArgumentException.class, () -> HeadlessRunner.Options.parse(new String[]{"--inconnue", "1"}));
+        assertThrows(IllegalArgumentException.class, () -> HeadlessRunner.Options.parse(new String[]{"--matches"}));
+        assertThrows(IllegalArgumentException.class, () -> HeadlessRunner.Options.parse(new String[]{"--matches", "0"}));
+        assertThrows(IllegalArgumentException.class, () -> HeadlessRunner.Options.parse(new String[]{"--sizes", "a"}));
+    }
+
+    @Test
+    void testResultsDoNotDependOnThreads() throws InterruptedException {
+        HeadlessRunner.Summary single = HeadlessRunner.run(options(1), null);
+        HeadlessRunner.Summary sharded = HeadlessRunner.run(options(4), null);
+        assertArrayEquals(single.winners, sharded.winners);
+        assertArrayEquals(single.ticks, sharded.ticks);
+
+        int outcomes = single.count(HeadlessRunner.Summary.DRAW) + single.count(HeadlessRunner.Summary.TIMEOUT);
+        for (int slot = 0; slot < 4; slot++) {
+            outcomes += single.count(slot);
+        }
+        assertEquals(12, outcomes);
+        assertEquals(12, single.matchNanos.getCount());
+        assertEquals(single.totalTicks(), single.tickNanos.getCount());
+    }
+
+    @Test
+    void testMatchesAreRecorded(@TempDir Path directory) throws InterruptedException {
+        HeadlessRunner.Options options = options(2);
+        options.records = new MatchRecordStore(directory.resolve("matches.col"));
+        HeadlessRunner.Summary summary = HeadlessRunner.run(options, null);
+
+        // Toutes les parties terminées sont enregistrées, avec le délai de leurs bots
+        assertTrue(options.records.count() > 0);
+        assertEquals(12 - summary.count(HeadlessRunner.Summary.TIMEOUT), options.records.count());
+        options.records.scan(Set.of(MatchRecordStore.BOT_DELAY), block -> {
+            for (int i = 0; i < block.rows(); i++) {
+                int delay = block.ints(MatchRecordStore.BOT_DELAY)[i];
+                assertTrue(delay == 0 || delay == 200, "délai " + delay);
+            }
+        });
+        options.records.close();
+    }
+
+    @Test
+    void testSummaryReport() throws InterruptedException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        HeadlessRunner.run(options(2), null).print(new PrintStream(bytes, true, StandardCharsets.UTF_8));
+        String report = bytes.toString(StandardCharsets.UTF_8);
+        assertTrue(report.contains("parties/s"), report);
+        assertTrue(report.contains("Victoires :"), report);
+        assertTrue(report.contains("Latence d'un tick"), report);
+    }
+}
@@ -0,0 +1,59 @@
+package com.bomberman;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardTest {
+
+    @Test
+    void testWinnerGainsAndLosersLose() {
+        Leaderboard leaderboard = new Leaderboard();
+        leaderboard.recordMatch(List.of("Alice", "Bob", "Carol"), "Alice", 1);
+
+        assertTrue(leaderboard.getRating("Alice") > Leaderboard.INITIAL_RATING);
+        assertTrue(leaderboard.getRating("Bob") < Leaderboard.INITIAL_RATING);
+        assertEquals(leaderboard.getRating("Bob"), leaderboard.getRating("Carol"), 1e-9);
+        assertEquals(1, leaderboard.getRank("Alice"));
+        assertEquals(-1, leaderboard.getRank("Inconnu"));
+    }
+
+    @Test
+    void testBotWinLowersHumanRating() {
+        Leaderboard leaderboard = new Leaderboard();
+        leaderboard.recordMatch(List.of("Alice"), "Bot 2", 3);
+        assertTrue(leaderboard.getRating("Alice") < Leaderboard.INITIAL_RATING);
+    }
+
+    @Test
+    void testRanksMatchSortedOrder() {
+        Leaderboard leaderboard = new Leaderboard();
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            leaderboard.setRating("J" + (i % 500), random.nextInt(3000));
+        }
+
+        List<Leaderboard.Entry> expected = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            expected.add(leaderboard.getByRank(leaderboard.getRank("J" + i)));
+        }
+        expected.sort(Comparator.comparingDouble(Leaderboard.Entry::getRating).reversed()
+                .thenComparing(Leaderboard.Entry::getPlayerName));
+
+        assertEquals(500, leaderboard.size());
+        for (int rank = 1; rank <= 500; rank++) {
+            Leaderboard.Entry entry = expected.get(rank - 1);
+            assertEquals(rank, leaderboard.getRank(entry.getPlayerName()));
+            assertSame(entry, leaderboard.getByRank(rank));
+        }
+
+        assertEquals(expected.subList(0, 10), leaderboard.top(10));
+        assertEquals(expected.subList(97, 104), leaderboard.around(101, 3));
+        assertEquals(expected.subList(0, 3), leaderboard.around(1, 2));
+    }
+}
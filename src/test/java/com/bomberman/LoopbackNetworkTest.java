@@ -0,0 +1,191 @@
+package com.bomberman;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoopbackNetworkTest {
+
+    /**
+     * Pair de test : note le numéro de chaque message reçu (ses quatre premiers octets) et l'heure d'arrivée.
+     */
+    private static final class Receiver implements NetHandler {
+        final LoopbackNetwork network;
+        final List<Integer> received = new ArrayList<>();
+        final List<Double> times = new ArrayList<>();
+
+        Receiver(LoopbackNetwork network) {
+            this.network = network;
+        }
+
+        @Override
+        public void onMessage(NetLink link, ByteBuffer message) {
+            received.add(message.getInt());
+            times.add(network.now());
+        }
+    }
+
+    private static ByteBuffer message(int number, int bytes) {
+        ByteBuffer message = ByteBuffer.allocate(bytes);
+        message.putInt(0, number);
+        return message;
+    }
+
+    // Un message par milliseconde pendant une seconde, puis tout ce qui reste à arriver
+    private static Receiver run(LoopbackNetwork.Conditions conditions, long seed) {
+        LoopbackNetwork network = new LoopbackNetwork(conditions, seed);
+        Receiver receiver = new Receiver(network);
+        NetLink link = network.connect(new Receiver(network), receiver)[0];
+        for (int i = 0; i < 1000; i++) {
+            link.send(message(i, 100));
+            network.advance(1);
+        }
+        network.advance(10_000);
+        return receiver;
+    }
+
+    @Test
+    void testSameSeedGivesSameRun() {
+        LoopbackNetwork.Conditions conditions = new LoopbackNetwork.Conditions()
+                .latency(40).jitter(15).loss(0.1).reorder(0.05, 30);
+        Receiver first = run(conditions, 42);
+        Receiver second = run(conditions, 42);
+        assertEquals(first.received, second.received);
+        assertEquals(first.times, second.times);
+        assertNotEquals(first.received, run(conditions, 43).received);
+    }
+
+    @Test
+    void testLatencyJitterAndLoss() {
+        LoopbackNetwork network = new LoopbackNetwork(new LoopbackNetwork.Conditions()
+                .latency(40).jitter(10).loss(0.2), 7);
+        Receiver receiver = new Receiver(network);
+        NetLink link = network.connect(new Receiver(network), receiver)[0];
+        for (int i = 0; i < 1000; i++) {
+            link.send(message(i, 100));
+            network.advance(1);
+        }
+        network.advance(1000);
+
+        int delivered = receiver.received.size();
+        assertTrue(delivered > 750 && delivered < 850, "Environ 20 % de pertes: " + delivered);
+        for (LoopbackNetwork.PacketRecord record : network.getLog()) {
+            if (record.getStatus() == LoopbackNetwork.PacketRecord.Status.DELIVERED) {
+                double latency = record.getDeliveredMillis() - record.sentMillis;
+                assertTrue(latency >= 40 && latency <= 50, "Latence hors des bornes: " + latency);
+            } else {
+                assertEquals(LoopbackNetwork.PacketRecord.Status.LOST, record.getStatus());
+            }
+        }
+        assertEquals(1000, network.getLog().size());
+    }
+
+    @Test
+    void testReorderAndJitterShuffleArrivals() {
+        Receiver inOrder = run(new LoopbackNetwork.Conditions().latency(20), 1);
+        for (int i = 0; i < inOrder.received.size(); i++) {
+            assertEquals(i, inOrder.received.get(i));
+        }
+
+        Receiver shuffled = run(new LoopbackNetwork.Conditions().latency(20).reorder(0.1, 10), 1);
+        assertEquals(1000, shuffled.received.size());
+        int outOfOrder = 0;
+        for (int i = 1; i < shuffled.received.size(); i++) {
+            if (shuffled.received.get(i) < shuffled.received.get(i - 1)) outOfOrder++;
+        }
+        assertTrue(outOfOrder > 50, "Messages doublés: " + outOfOrder);
+    }
+
+    @Test
+    void testBandwidthCapQueuesThenDrops() {
+        // 10 Ko/s : un message de 1000 octets occupe le lien 100 ms
+        LoopbackNetwork network = new LoopbackNetwork(new LoopbackNetwork.Conditions()
+                .latency(5).bandwidth(10_000, 500), 3);
+        Receiver receiver = new Receiver(network);
+        NetLink link = network.connect(new Receiver(network), receiver)[0];
+        for (int i = 0; i < 10; i++) {
+            link.send(message(i, 1000));
+        }
+        network.advance(10_000);
+
+        // Six messages passent : le premier part aussitôt, les cinq suivants attendent
+        // au plus 500 ms (limite comprise) ; les quatre derniers sont perdus
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), receiver.received);
+        for (int i = 0; i < receiver.times.size(); i++) {
+            assertEquals(100 * (i + 1) + 5, receiver.times.get(i), 1e-6);
+        }
+        assertEquals(4, network.getLog().stream()
+                .filter(r -> r.getStatus() == LoopbackNetwork.PacketRecord.Status.QUEUE_FULL).count());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        network.writeLog(new PrintStream(bytes, true, StandardCharsets.UTF_8));
+        String csv = bytes.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.startsWith("id,from,to,bytes,sent_ms,delivered_ms,status"), csv);
+        assertTrue(csv.contains("0,0,1,1000,0.000,105.000,DELIVERED"), csv);
+    }
+
+    /**
+     * Client du serveur de jeu : décode et acquitte les états.
+     */
+    private static final class GameClient implements NetHandler {
+        final DeltaDecoder decoder = new DeltaDecoder();
+        int rejected;
+
+        @Override
+        public void onMessage(NetLink link, ByteBuffer message) {
+            if (message.get() != Protocol.STATE) return;
+            try {
+                ReplicaState state = decoder.decode(message);
+                link.send(Protocol.ack(state.getSeq()));
+            } catch (IllegalStateException e) {
+                rejected++; // différence arrivée après un état complet plus récent
+            }
+        }
+    }
+
+    @Test
+    void testServerReplicationSurvivesBadNetwork() {
+        GameServer server = new GameServer(31, 8, 0);
+        server.setRoomSeed(5L);
+        LoopbackNetwork network = new LoopbackNetwork(new LoopbackNetwork.Conditions()
+                .latency(40).jitter(20).loss(0.1).reorder(0.05, 50).bandwidth(32_000, 250), 11);
+        GameClient[] clients = {new GameClient(), new GameClient()};
+        int[] endpoints = new int[clients.length];
+        for (int i = 0; i < clients.length; i++) {
+            NetLink link = network.connect(clients[i], server)[0];
+            link.send(Protocol.join(1, "Client " + i));
+            endpoints[i] = i * 2;
+        }
+
+        int ticks = 1200;
+        for (int tick = 0; tick < ticks; tick++) {
+            network.advance(BombermanGame.TICK_MS);
+            server.tick();
+        }
+        network.advance(500);
+
+        ServerRoom room = server.getRoom(1);
+        for (GameClient client : clients) {
+            ReplicaState state = client.decoder.getState();
+            assertNotNull(state);
+            ReplicaState sent = room.getReplicatedState(state.getSeq());
+            assertNotNull(sent, "Le client suit le serveur de près");
+            assertTrue(state.sameAs(sent), "Le client a l'état envoyé par le serveur");
+        }
+
+        // Débit descendant par client, messages perdus compris
+        double seconds = network.now() / 1000;
+        for (int endpoint : endpoints) {
+            long bytes = network.getLog().stream().filter(r -> r.to == endpoint).mapToLong(r -> r.bytes).sum();
+            assertTrue(bytes / seconds < 4 * 1024, "Débit par client: " + bytes / seconds + " o/s");
+        }
+        server.close();
+    }
+}
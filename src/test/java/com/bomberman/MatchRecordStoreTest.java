@@ -0,0 +1,73 @@
+package com.bomberman;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.SortedMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchRecordStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private MatchRecord record(int duration, int botDelay, boolean botWins) {
+        return new MatchRecord(0L, duration, new String[]{"Joueur 1", "Bot 2"}, botWins ? 1 : 0, botWins,
+                botDelay, BotAI.STRATEGY, 1, 4, 3, new int[PowerUp.Type.values().length]);
+    }
+
+    @Test
+    void testAggregatesSpanSeveralBlocks() {
+        MatchRecordStore store = new MatchRecordStore(tempDir.resolve("matches.col"));
+        int matches = MatchRecordStore.BLOCK_ROWS * 3 + 10;
+        for (int i = 0; i < matches; i++) {
+            // Délai 100 : les bots gagnent une partie sur deux ; délai 300 : jamais
+            store.append(record(100 + (i % 2) * 100, i % 2 == 0 ? 100 : 300, i % 4 == 0));
+        }
+
+        assertEquals(matches, store.count());
+        assertEquals(150.0, store.averageDurationTicks(), 0.5);
+
+        SortedMap<Integer, Double> rates = store.botWinRateByDelay();
+        assertEquals(0.5, rates.get(100), 0.01);
+        assertEquals(0.0, rates.get(300), 0.0);
+        store.close();
+    }
+
+    @Test
+    void testScanReadsOnlyRequestedColumns() {
+        MatchRecordStore store = new MatchRecordStore(tempDir.resolve("columns.col"));
+        store.append(record(42, 200, true));
+
+        store.scan(Set.of(MatchRecordStore.DURATION), block -> {
+            assertEquals(1, block.rows());
+            assertEquals(42, block.ints(MatchRecordStore.DURATION)[0]);
+            assertNull(block.players());
+        });
+        store.close();
+    }
+
+    @Test
+    void testQueriesDoNotWritePartialBlocks() throws Exception {
+        Path file = tempDir.resolve("tail.col");
+        MatchRecordStore store = new MatchRecordStore(file);
+        for (int i = 0; i < MatchRecordStore.BLOCK_ROWS + 3; i++) {
+            store.append(record(10, 100, false));
+        }
+
+        // Le bloc complet est écrit, les trois derniers résultats restent en mémoire
+        assertEquals(MatchRecordStore.BLOCK_ROWS + 3, store.count());
+        long size = Files.size(file);
+        assertEquals(10.0, store.averageDurationTicks(), 0.0);
+        assertEquals(MatchRecordStore.BLOCK_ROWS + 3, store.count());
+        assertEquals(size, Files.size(file));
+
+        store.close();
+        assertTrue(Files.size(file) > size);
+        assertEquals(MatchRecordStore.BLOCK_ROWS + 3, store.count());
+    }
+}
@@ -0,0 +1,106 @@
+package com.bomberman;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsTest {
+
+    private Metrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new Metrics();
+    }
+
+    @Test
+    void testCounterAndGauge() {
+        metrics.counter("ticks").increment();
+        metrics.counter("ticks").add(4);
+        metrics.gauge("bombs", () -> 7);
+
+        Map<String, Number> values = metrics.snapshot();
+        assertEquals(5L, values.get("ticks"));
+        assertEquals(7L, values.get("bombs"));
+        assertTrue(values.containsKey("heap.used"));
+    }
+
+    @Test
+    void testHistogramIndexRoundTrip() {
+        // Chaque valeur tombe dans une classe qui la contient, avec moins de 1 % d'écart
+        for (long v : new long[]{0, 1, 127, 128, 129, 255, 256, 1000, 123_456, 987_654_321L}) {
+            int index = Metrics.Histogram.index(v);
+            long high = Metrics.Histogram.highestValue(index);
+            assertTrue(high >= v, "classe trop basse pour " + v);
+            assertTrue(high - v <= Math.max(1, v / 64), "classe trop large pour " + v);
+            if (index > 0) {
+                assertTrue(Metrics.Histogram.highestValue(index - 1) < v);
+            }
+        }
+    }
+
+    @Test
+    void testHistogramPercentiles() {
+        Metrics.Histogram histogram = metrics.histogram("latency");
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMax());
+        assertEquals(500_500, histogram.getMean(), 0.001);
+        assertEquals(500_000, histogram.getPercentile(50), 500_000 / 100.0);
+        assertEquals(990_000, histogram.getPercentile(99), 990_000 / 100.0);
+        assertEquals(1_000_000, histogram.getPercentile(100));
+    }
+
+    @Test
+    void testMatchCountedOnceWhenItStarts() {
+        Metrics.Counter started = Metrics.getInstance().counter("matches.started");
+        long before = started.get();
+
+        // Chaque réglage relance la partie sans qu'elle soit jouée
+        BombermanGame game = new BombermanGame();
+        game.setArenaSize(15);
+        game.setSeed(7L);
+        game.enableBotMatch();
+        assertEquals(before, started.get());
+
+        game.gameUpdate();
+        game.gameUpdate();
+        assertEquals(before + 1, started.get());
+    }
+
+    @Test
+    void testReportAppendsLines() throws Exception {
+        Path log = Files.createTempFile("metrics", ".log");
+        try {
+            metrics.counter("matches.started").increment();
+            metrics.writeReport(log);
+            metrics.writeReport(log);
+
+            List<String> lines = Files.readAllLines(log);
+            assertEquals(2, lines.size());
+            assertTrue(lines.get(0).contains(" matches.started=1"));
+        } finally {
+            Files.deleteIfExists(log);
+        }
+    }
+
+    @Test
+    void testSharedRegistryExposedOverJmx() throws Exception {
+        Metrics.getInstance().counter("jmx.test").add(3);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertEquals(3L, server.getAttribute(new ObjectName(Metrics.OBJECT_NAME), "jmx.test"));
+    }
+}
@@ -0,0 +1,38 @@
+package com.bomberman;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MotionTest {
+
+    @Test
+    void testPlacedEntityStaysOnItsCell() {
+        Motion motion = new Motion(3, 4);
+
+        assertEquals(3.0, motion.getX(0), 1e-9);
+        assertEquals(4.0, motion.getY(123_456_789L), 1e-9);
+    }
+
+    @Test
+    void testStepIsInterpolated() {
+        Motion motion = new Motion(1, 1);
+        motion.moveTo(2, 1, 1_000L, 200L);
+
+        assertEquals(1.0, motion.getX(1_000L), 1e-9);
+        assertEquals(1.5, motion.getX(1_100L), 1e-9);
+        assertEquals(2.0, motion.getX(1_200L), 1e-9);
+        assertEquals(2.0, motion.getX(5_000L), 1e-9, "Le pas terminé reste sur la case d'arrivée");
+        assertEquals(1.0, motion.getY(1_100L), 1e-9);
+    }
+
+    @Test
+    void testNextStepStartsFromPreviousTarget() {
+        Motion motion = new Motion(1, 1);
+        motion.moveTo(1, 2, 0L, 100L);
+        motion.moveTo(1, 3, 100L, 100L);
+
+        assertEquals(2.0, motion.getY(100L), 1e-9);
+        assertEquals(2.5, motion.getY(150L), 1e-9);
+    }
+}
@@ -0,0 +1,47 @@
+package com.bomberman;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NodePoolTest {
+
+    @Test
+    void testAcquireCreatesWhenEmpty() {
+        NodePool<StringBuilder> pool = new NodePool<>(StringBuilder::new);
+
+        StringBuilder first = pool.acquire();
+        StringBuilder second = pool.acquire();
+
+        assertNotSame(first, second);
+        assertEquals(0, pool.getHits());
+        assertEquals(2, pool.getMisses());
+    }
+
+    @Test
+    void testReleasedItemIsReused() {
+        NodePool<StringBuilder> pool = new NodePool<>(StringBuilder::new);
+
+        StringBuilder item = pool.acquire();
+        pool.release(item);
+        assertEquals(1, pool.getIdleCount());
+
+        assertSame(item, pool.acquire());
+        assertEquals(1, pool.getHits());
+        assertEquals(1, pool.getMisses());
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test
+    void testClearKeepsCounters() {
+        NodePool<StringBuilder> pool = new NodePool<>(StringBuilder::new);
+        pool.release(pool.acquire());
+
+        pool.clear();
+
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(1, pool.getMisses());
+        pool.acquire();
+        assertEquals(2, pool.getMisses());
+    }
+}
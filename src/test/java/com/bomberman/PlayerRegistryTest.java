@@ -0,0 +1,98 @@
+package com.bomberman;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerRegistryTest {
+
+    private BombermanGame game;
+    private PlayerRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        game = new BombermanGame();
+        registry = new PlayerRegistry(15);
+    }
+
+    private BombermanGame.Player add(int x, int y) {
+        BombermanGame.Player player = game.new Player(x, y, registry.size(), "P" + registry.size());
+        registry.add(player);
+        return player;
+    }
+
+    @Test
+    void testSpawnPointsStartWithCorners() {
+        int[][] spawns = PlayerRegistry.generateSpawnPoints(15, 4);
+        assertArrayEquals(new int[]{1, 1}, spawns[0]);
+        assertArrayEquals(new int[]{13, 1}, spawns[1]);
+        assertArrayEquals(new int[]{1, 13}, spawns[2]);
+        assertArrayEquals(new int[]{13, 13}, spawns[3]);
+    }
+
+    @Test
+    void testSpawnPointsAreDistinctOddCells() {
+        int gridSize = 31;
+        int count = PlayerRegistry.maxPlayers(gridSize);
+        int[][] spawns = PlayerRegistry.generateSpawnPoints(gridSize, count);
+        assertEquals(count, spawns.length);
+
+        Set<Integer> seen = new HashSet<>();
+        for (int[] spawn : spawns) {
+            assertEquals(1, spawn[0] % 2);
+            assertEquals(1, spawn[1] % 2);
+            assertTrue(spawn[0] < gridSize - 1 && spawn[1] < gridSize - 1);
+            assertTrue(seen.add(spawn[0] * gridSize + spawn[1]), "Position en double");
+        }
+    }
+
+    @Test
+    void testTooManyPlayersRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PlayerRegistry.generateSpawnPoints(15, PlayerRegistry.maxPlayers(15) + 1));
+    }
+
+    @Test
+    void testIndexFollowsMovesAndDeaths() {
+        BombermanGame.Player a = add(1, 1);
+        BombermanGame.Player b = add(3, 1);
+        assertEquals(2, registry.aliveCount());
+        assertTrue(registry.at(1, 1).contains(a));
+
+        a.x = 2;
+        registry.moved(a, 1, 1);
+        assertTrue(registry.at(1, 1).isEmpty());
+        assertTrue(registry.at(2, 1).contains(a));
+
+        b.alive = false;
+        registry.died(b);
+        registry.died(b); // sans effet la seconde fois
+        assertEquals(1, registry.aliveCount());
+        assertTrue(registry.at(3, 1).isEmpty());
+        assertSame(a, registry.firstAlive());
+    }
+
+    @Test
+    void testNearestAlive() {
+        BombermanGame.Player self = add(7, 7);
+        add(1, 1);
+        BombermanGame.Player close = add(9, 8);
+        BombermanGame.Player closest = add(7, 5);
+
+        assertSame(closest, registry.nearestAlive(7, 7, self));
+
+        closest.alive = false;
+        registry.died(closest);
+        assertSame(close, registry.nearestAlive(7, 7, self));
+    }
+
+    @Test
+    void testNearestAliveNoCandidate() {
+        BombermanGame.Player self = add(7, 7);
+        assertNull(registry.nearestAlive(7, 7, self));
+    }
+}
@@ -0,0 +1,184 @@
+package com.bomberman;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayTest {
+
+    private static final int MAX_TICKS = 4000;
+
+    @TempDir
+    Path tempDir;
+
+    private static byte[] state(BombermanGame game) {
+        Replay.Encoder out = new Replay.Encoder(256);
+        game.writeState(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Joue une partie solo sans affichage (le joueur 1 ne bouge pas, les bots jouent)
+     * et garde l'état de la partie à quelques ticks.
+     */
+    private BombermanGame playMatch(long seed, Map<Integer, byte[]> states) {
+        BombermanGame game = new BombermanGame();
+        game.recordReplaysTo(tempDir);
+        game.setSeed(seed);
+        game.enableSoloMode();
+        while (!game.isGameEnded() && game.getTick() < MAX_TICKS) {
+            game.gameUpdate();
+            if (game.getTick() % 97 == 0) {
+                states.put(game.getTick(), state(game));
+            }
+        }
+        states.put(game.getTick(), state(game));
+        game.stopRecording();
+        return game;
+    }
+
+    @Test
+    void testEncoderRoundTrip() {
+        Replay.Encoder out = new Replay.Encoder(1);
+        long[] values = {0, 1, 127, 128, 300, Integer.MAX_VALUE, Long.MAX_VALUE, -1};
+        for (long value : values) {
+            out.writeVarint(value);
+        }
+        out.writeSignedVarint(-5);
+        out.writeSignedVarint(Integer.MIN_VALUE);
+        out.writeString("Joueur é");
+        boolean[][] grid = new boolean[5][5];
+        grid[0][0] = grid[2][3] = grid[4][4] = true;
+        out.writeBits(grid);
+        out.writeLong(0x0123456789ABCDEFL);
+
+        Replay.Decoder in = new Replay.Decoder(out.toByteArray(), 0, out.size());
+        for (long value : values) {
+            assertEquals(value, in.readVarint());
+        }
+        assertEquals(-5, in.readSignedVarint());
+        assertEquals(Integer.MIN_VALUE, in.readSignedVarint());
+        assertEquals("Joueur é", in.readString());
+        boolean[][] read = new boolean[5][5];
+        in.readBits(read);
+        assertTrue(Arrays.deepEquals(grid, read));
+        assertEquals(0x0123456789ABCDEFL, in.readLong());
+        assertFalse(in.hasRemaining());
+        assertThrows(IllegalStateException.class, in::readByte);
+    }
+
+    @Test
+    void testSmallActionsAreOneByte() {
+        Replay.Encoder out = new Replay.Encoder(16);
+        out.writeVarint(PlayerAction.BOMB | PlayerAction.LEFT);
+        assertEquals(1, out.size());
+        assertEquals(PlayerAction.LEFT, PlayerAction.move(PlayerAction.dx(PlayerAction.LEFT), 0));
+        assertEquals(PlayerAction.DOWN, PlayerAction.move(0, PlayerAction.dy(PlayerAction.DOWN)));
+    }
+
+    @Test
+    void testReplayReproducesMatchAtAnyTick() throws IOException {
+        Map<Integer, byte[]> states = new TreeMap<>();
+        BombermanGame game = playMatch(42L, states);
+        Path file = game.getLastReplay();
+        assertNotNull(file, "La partie doit être enregistrée");
+
+        Replay replay = Replay.load(file);
+        assertTrue(replay.isComplete());
+        assertEquals(game.getTick(), replay.getEndTick());
+        assertEquals(42L, replay.getHeader().getSeed());
+        assertEquals(game.getPlayers().size(), replay.getHeader().getPlayerCount());
+
+        // Quelques Ko par minute de jeu (3750 ticks)
+        double minutes = replay.getEndTick() / 3750.0;
+        assertTrue(Files.size(file) < 8 * 1024 * Math.max(1, minutes), "Replay trop gros: " + Files.size(file));
+
+        // Dans le désordre, pour revenir en arrière comme pour avancer
+        BombermanGame viewer = new BombermanGame();
+        viewer.loadReplay(replay);
+        Integer[] ticks = states.keySet().toArray(new Integer[0]);
+        for (int i = ticks.length - 1; i >= 0; i -= 2) {
+            viewer.seekReplay(ticks[i]);
+            assertArrayEquals(states.get(ticks[i]), state(viewer), "État différent au tick " + ticks[i]);
+        }
+        for (int i = 0; i < ticks.length; i += 2) {
+            viewer.seekReplay(ticks[i]);
+            assertArrayEquals(states.get(ticks[i]), state(viewer), "État différent au tick " + ticks[i]);
+        }
+    }
+
+    @Test
+    void testSeekStartsFromPreviousKeyframe() throws IOException {
+        BombermanGame game = playMatch(7L, new TreeMap<>());
+        Replay replay = Replay.load(game.getLastReplay());
+        assertEquals(replay.getEndTick() / Replay.KEYFRAME_INTERVAL + 1, replay.getKeyframeCount());
+        assertEquals(0, replay.seek(0).getKeyframeTick());
+        assertEquals(0, replay.seek(Replay.KEYFRAME_INTERVAL - 1).getKeyframeTick());
+        if (replay.getEndTick() >= Replay.KEYFRAME_INTERVAL + 10) {
+            assertEquals(Replay.KEYFRAME_INTERVAL, replay.seek(Replay.KEYFRAME_INTERVAL + 10).getKeyframeTick());
+        }
+    }
+
+    @Test
+    void testInterruptedReplayIsStillReadable() throws IOException {
+        BombermanGame game = playMatch(42L, new TreeMap<>());
+        byte[] data = Files.readAllBytes(game.getLastReplay());
+        Replay complete = Replay.parse(data);
+
+        // Sans l'index ni la fin du flux, comme après un arrêt brutal du jeu
+        Replay truncated = Replay.parse(Arrays.copyOf(data, data.length - 20));
+        assertFalse(truncated.isComplete());
+        assertTrue(truncated.getKeyframeCount() >= 1);
+        assertTrue(truncated.getEndTick() <= complete.getEndTick());
+    }
+
+    @Test
+    void testReplayChecksStateHashes() throws IOException {
+        BombermanGame game = playMatch(42L, new TreeMap<>());
+        Replay replay = Replay.load(game.getLastReplay());
+
+        BombermanGame viewer = new BombermanGame();
+        viewer.loadReplay(replay);
+        viewer.seekReplay(replay.getEndTick());
+        assertEquals(-1, viewer.getReplayDesyncTick());
+        assertEquals(game.getStateHash(), viewer.getStateHash());
+
+        // Un pas de côté du joueur 1, que l'enregistrement ne contient pas : détecté au hachage suivant
+        viewer.seekReplay(10);
+        BombermanGame.Player player = viewer.getPlayers().get(0);
+        assertTrue(viewer.movePlayer(player, 1, 0) || viewer.movePlayer(player, 0, 1));
+        while (viewer.getTick() < 2 * Replay.HASH_INTERVAL) {
+            viewer.gameUpdate();
+        }
+        assertEquals(Replay.HASH_INTERVAL, viewer.getReplayDesyncTick());
+    }
+
+    @Test
+    void testRejectsOtherFiles() {
+        assertThrows(IOException.class, () -> Replay.parse(new byte[]{1, 2, 3, 4, 5}));
+        assertThrows(IOException.class, () -> Replay.parse(new byte[0]));
+    }
+
+    @Test
+    void testDisposeFinishesRecording() throws IOException {
+        // Fenêtre fermée en cours de partie : le replay est terminé et relisible
+        BombermanGame game = new BombermanGame();
+        game.recordReplaysTo(tempDir);
+        game.enableSoloMode();
+        for (int i = 0; i < 50; i++) {
+            game.gameUpdate();
+        }
+        game.dispose();
+
+        assertNotNull(game.getLastReplay());
+        assertEquals(50, Replay.parse(Files.readAllBytes(game.getLastReplay())).getEndTick());
+    }
+}
@@ -0,0 +1,145 @@
+package com.bomberman;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicationTest {
+
+    private static BombermanGame match(int size, int players, long seed) {
+        BombermanGame game = new BombermanGame();
+        game.setPlayerCount(players);
+        game.enableBotMatch();
+        game.startMatch(size, seed);
+        return game;
+    }
+
+    private static ReplicaState receive(DeltaDecoder decoder, ByteBuffer message) {
+        ByteBuffer copy = ByteBuffer.allocate(message.remaining()).put(message.duplicate()).flip();
+        assertEquals(Protocol.STATE, copy.get());
+        ReplicaState state = decoder.decode(copy);
+        assertFalse(copy.hasRemaining(), "Message lu en entier");
+        return state;
+    }
+
+    @Test
+    void testDeltasRebuildServerState() {
+        BombermanGame game = match(31, 16, 5);
+        DeltaEncoder encoder = new DeltaEncoder();
+        DeltaDecoder decoder = new DeltaDecoder();
+        int acked = 0;
+        int bombs = 0;
+        for (int tick = 0; tick < 2000 && !game.isGameEnded(); tick++) {
+            game.gameUpdate();
+            int seq = encoder.capture(game);
+            ReplicaState state = receive(decoder, encoder.encode(acked));
+            assertTrue(state.sameAs(encoder.getState()), "État différent au tick " + tick);
+            bombs += state.getBombCount();
+            // Les acquittements arrivent avec quelques ticks de retard
+            if (seq > 3) acked = seq - 3;
+        }
+        assertTrue(bombs > 0, "La partie doit avoir des bombes à répliquer");
+        assertTrue(encoder.getState().players.count == 16);
+    }
+
+    @Test
+    void testLostStatesFallBackToFullState() {
+        BombermanGame game = match(21, 8, 9);
+        DeltaEncoder encoder = new DeltaEncoder();
+        DeltaDecoder decoder = new DeltaDecoder();
+        Random network = new Random(1);
+        int acked = 0;
+        int received = 0;
+        for (int tick = 0; tick < 1500 && !game.isGameEnded(); tick++) {
+            game.gameUpdate();
+            encoder.capture(game);
+            boolean outage = tick >= 300 && tick < 400;
+            ByteBuffer message = encoder.encode(acked);
+            if (outage || network.nextInt(10) < 3) continue; // état perdu
+            if (!encoder.hasBaseline(acked)) {
+                assertEquals(0, message.get(message.position() + 1 + varintLength(encoder.getSeq())),
+                        "Un état complet après une longue coupure");
+            }
+            ReplicaState state = receive(decoder, message);
+            assertTrue(state.sameAs(encoder.getState()), "État différent au tick " + tick);
+            received++;
+            if (network.nextInt(10) >= 3) acked = state.getSeq(); // acquittement perdu sinon
+        }
+        assertTrue(received > 500);
+    }
+
+    private static int varintLength(int value) {
+        int length = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            length++;
+        }
+        return length;
+    }
+
+    @Test
+    void testUnknownBaselineIsRejected() {
+        BombermanGame game = match(15, 4, 3);
+        DeltaEncoder encoder = new DeltaEncoder();
+        encoder.capture(game);
+        game.gameUpdate();
+        encoder.capture(game);
+        // Le client n'a jamais reçu l'état 1 : la différence avec lui est inutilisable
+        assertThrows(IllegalStateException.class, () -> receive(new DeltaDecoder(), encoder.encode(1)));
+    }
+
+    @Test
+    void testArenaChangeSendsFullState() {
+        BombermanGame game = match(15, 4, 3);
+        DeltaEncoder encoder = new DeltaEncoder();
+        DeltaDecoder decoder = new DeltaDecoder();
+        int acked = encoder.capture(game);
+        receive(decoder, encoder.encode(0));
+
+        // Nouvelle partie sur une arène plus grande : l'état acquitté n'est plus une référence
+        game.startMatch(21, 4);
+        encoder.capture(game);
+        assertFalse(encoder.hasBaseline(acked));
+        ReplicaState state = receive(decoder, encoder.encode(acked));
+        assertEquals(21, state.getGridSize());
+        assertTrue(state.sameAs(encoder.getState()));
+    }
+
+    @Test
+    void testMalformedGapIsRejected() {
+        DeltaDecoder decoder = new DeltaDecoder();
+        // Écart plus grand que le numéro d'état, puis écart au-delà de l'historique
+        int[][] headers = {{1, 5}, {3, 3}, {DeltaEncoder.HISTORY + 10, DeltaEncoder.HISTORY}};
+        for (int[] header : headers) {
+            Replay.Encoder out = new Replay.Encoder(16);
+            out.writeByte(Protocol.STATE);
+            out.writeVarint(header[0]);
+            out.writeVarint(header[1]);
+            assertThrows(IllegalStateException.class, () -> receive(decoder, out.asByteBuffer()));
+        }
+    }
+
+    @Test
+    void testDeltasStayInLowKilobytesPerSecond() {
+        BombermanGame game = match(51, 32, 11);
+        DeltaEncoder encoder = new DeltaEncoder();
+        DeltaDecoder decoder = new DeltaDecoder();
+        long full = 0;
+        long deltas = 0;
+        int ticks = 0;
+        for (; ticks < 1500 && !game.isGameEnded(); ticks++) {
+            game.gameUpdate();
+            int seq = encoder.capture(game);
+            if (ticks == 0) full = encoder.encode(0).remaining();
+            ByteBuffer message = encoder.encode(seq - 1);
+            deltas += message.remaining() + Protocol.FRAME_HEADER_BYTES;
+            receive(decoder, message);
+        }
+        double bytesPerSecond = deltas * 1000.0 / BombermanGame.TICK_MS / ticks;
+        assertTrue(full > 300, "L'état complet contient les blocs de l'arène: " + full);
+        assertTrue(bytesPerSecond < 8 * 1024, "Débit trop élevé: " + bytesPerSecond + " o/s");
+    }
+}
@@ -0,0 +1,141 @@
+package com.bomberman;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollbackSessionTest {
+    private static final long SEED = 21;
+
+    private static BombermanGame match() {
+        BombermanGame game = new BombermanGame();
+        game.setPlayerCount(4);
+        game.enableBotMatch();
+        game.startMatch(BombermanGame.MIN_ARENA_SIZE, SEED);
+        return game;
+    }
+
+    // Action scriptée d'un joueur : change de direction de temps en temps, pose parfois une bombe
+    private static int script(int slot, int tick) {
+        SplittableRandom random = new SplittableRandom(slot * 1_000_003L + tick / 12);
+        int word = new int[]{PlayerAction.UP, PlayerAction.DOWN, PlayerAction.LEFT, PlayerAction.RIGHT,
+                PlayerAction.NONE}[random.nextInt(5)];
+        if (tick % 40 == slot) word |= PlayerAction.BOMB;
+        return word;
+    }
+
+    /**
+     * Deux pairs reliés par le réseau simulé, chacun avec sa partie.
+     */
+    private static final class Peers {
+        final LoopbackNetwork network;
+        final BombermanGame[] games = {match(), match()};
+        final RollbackSession[] sessions = new RollbackSession[2];
+        final List<List<Integer>> inputs = List.of(new ArrayList<>(), new ArrayList<>()); // actions effectivement jouées
+
+        Peers(double latencyMillis, int inputDelay) {
+            this(new LoopbackNetwork(latencyMillis), inputDelay);
+        }
+
+        Peers(LoopbackNetwork network, int inputDelay) {
+            this.network = network;
+            for (int slot = 0; slot < 2; slot++) {
+                sessions[slot] = new RollbackSession(games[slot], slot, 2, inputDelay);
+            }
+            var links = network.connect(sessions[0], sessions[1]);
+            sessions[0].addPeer(links[0]);
+            sessions[1].addPeer(links[1]);
+        }
+
+        void frame(boolean scripted) {
+            network.advance(BombermanGame.TICK_MS);
+            for (int slot = 0; slot < 2; slot++) {
+                RollbackSession session = sessions[slot];
+                int word = scripted ? script(slot, session.getTick()) : PlayerAction.NONE;
+                if (session.advance(word)) inputs.get(slot).add(word);
+            }
+        }
+    }
+
+    @Test
+    void testPeersConvergeOnTheSameGame() {
+        Peers peers = new Peers(50, 2); // 100 ms aller-retour
+        assertConverge(peers);
+        for (RollbackSession session : peers.sessions) {
+            assertEquals(0, session.getStalls(), "100 ms d'aller-retour restent dans la prédiction");
+        }
+    }
+
+    @Test
+    void testPeersConvergeOverLossyNetwork() {
+        // Les actions perdues sont répétées par les messages suivants
+        LoopbackNetwork network = new LoopbackNetwork(new LoopbackNetwork.Conditions()
+                .latency(45).jitter(20).loss(0.15).reorder(0.05, 40), 3);
+        Peers peers = new Peers(network, 3);
+        assertConverge(peers);
+        long lost = network.getLog().stream()
+                .filter(r -> r.getStatus() == LoopbackNetwork.PacketRecord.Status.LOST).count();
+        assertTrue(lost > 100, "Messages perdus: " + lost);
+    }
+
+    private static void assertConverge(Peers peers) {
+        int delay = peers.sessions[0].getInputDelay();
+        for (int frame = 0; frame < 600; frame++) {
+            peers.frame(true);
+        }
+        for (int frame = 0; frame < 20; frame++) {
+            peers.frame(false);
+        }
+
+        // Partie de référence : les actions réelles, jouées sans réseau au même tick que chez les pairs
+        int confirmed = Math.min(peers.sessions[0].getConfirmedTick(), peers.sessions[1].getConfirmedTick());
+        assertTrue(confirmed >= 600, "Ticks confirmés: " + confirmed);
+        BombermanGame reference = match();
+        reference.getPlayers().get(0).isBot = false;
+        reference.getPlayers().get(1).isBot = false;
+        int[] actions = new int[4];
+        for (int tick = 0; tick <= confirmed; tick++) {
+            for (int slot = 0; slot < 2; slot++) {
+                int index = tick - delay;
+                actions[slot] = index >= 0 ? peers.inputs.get(slot).get(index) : PlayerAction.NONE;
+            }
+            reference.gameUpdate(actions);
+        }
+        assertEquals(reference.getStateHash(), peers.sessions[0].getStateHash(confirmed));
+        assertEquals(reference.getStateHash(), peers.sessions[1].getStateHash(confirmed));
+
+        for (RollbackSession session : peers.sessions) {
+            assertTrue(session.getRollbacks() > 0, "Des prédictions fausses ont été corrigées");
+            assertTrue(session.getMaxRollback() <= RollbackSession.MAX_PREDICTION);
+        }
+    }
+
+    @Test
+    void testLocalInputIsPlayedAfterInputDelayOnly() {
+        Peers peers = new Peers(50, 2);
+        BombermanGame.Player local = peers.games[0].getPlayers().get(0);
+        int startX = local.x;
+        // Le pair distant ne répond qu'après 50 ms : l'action locale est jouée sans l'attendre
+        peers.network.advance(BombermanGame.TICK_MS);
+        for (int tick = 0; tick < 3; tick++) {
+            assertTrue(peers.sessions[0].advance(PlayerAction.RIGHT));
+        }
+        assertEquals(startX + 1, local.x, "Déplacement joué au tick 2, sans attendre le pair");
+    }
+
+    @Test
+    void testStallsWhenPeerIsSilent() {
+        Peers peers = new Peers(50, 2);
+        RollbackSession alone = peers.sessions[0];
+        int played = 0;
+        while (alone.advance(PlayerAction.NONE)) {
+            played++;
+        }
+        assertEquals(2 + RollbackSession.MAX_PREDICTION, played, "Prédiction bornée, puis attente du pair");
+        assertEquals(1, alone.getStalls());
+    }
+}
@@ -0,0 +1,101 @@
+package com.bomberman;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotTest {
+
+    private BombermanGame game;
+    private ByteBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        game = new BombermanGame();
+        game.setSeed(42L);
+        game.enableSoloMode();
+        // Partie en cours, avec des bombes posées et des blocs détruits
+        for (int i = 0; i < 600 && !game.isGameEnded(); i++) {
+            game.gameUpdate();
+        }
+        buffer = ByteBuffer.allocateDirect(64 * 1024);
+    }
+
+    private byte[] state() {
+        Replay.Encoder out = new Replay.Encoder(256);
+        game.writeState(out);
+        return out.toByteArray();
+    }
+
+    private void play(int ticks) {
+        for (int i = 0; i < ticks && !game.isGameEnded(); i++) {
+            game.gameUpdate();
+        }
+    }
+
+    @Test
+    void testSnapshotSize() {
+        int written = game.writeSnapshot(buffer);
+        assertEquals(game.snapshotSize(), written);
+        assertEquals(written, buffer.position());
+    }
+
+    @Test
+    void testRestoreThenReplaySameFuture() {
+        game.writeSnapshot(buffer);
+        byte[] before = state();
+        play(400);
+        byte[] future = state();
+
+        buffer.flip();
+        game.restoreSnapshot(buffer);
+        assertFalse(buffer.hasRemaining());
+        assertArrayEquals(before, state());
+
+        // Même suite de la partie, bots compris
+        play(400);
+        assertArrayEquals(future, state());
+    }
+
+    @Test
+    void testRepeatedRestoreInSameBuffer() {
+        game.writeSnapshot(buffer);
+        byte[] before = state();
+        for (int i = 0; i < 50; i++) {
+            play(30);
+            buffer.rewind();
+            game.restoreSnapshot(buffer);
+        }
+        assertArrayEquals(before, state());
+
+        // Réécrire l'état restauré donne le même instantané
+        ByteBuffer copy = ByteBuffer.allocateDirect(buffer.capacity());
+        game.writeSnapshot(copy);
+        buffer.flip();
+        copy.flip();
+        assertEquals(buffer, copy);
+    }
+
+    @Test
+    void testRejectsOtherData() {
+        buffer.putInt(0x12345678).flip();
+        assertThrows(IllegalArgumentException.class, () -> game.restoreSnapshot(buffer));
+
+        buffer.clear();
+        game.writeSnapshot(buffer);
+        buffer.putShort(4, (short) (BombermanGame.SNAPSHOT_VERSION + 1)).flip();
+        assertThrows(IllegalArgumentException.class, () -> game.restoreSnapshot(buffer));
+    }
+
+    @Test
+    void testRejectsOtherArena() {
+        BombermanGame other = new BombermanGame();
+        other.setArenaSize(21);
+        other.writeSnapshot(buffer);
+        buffer.flip();
+        assertThrows(IllegalStateException.class, () -> game.restoreSnapshot(buffer));
+    }
+}
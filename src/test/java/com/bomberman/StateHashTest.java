@@ -0,0 +1,90 @@
+package com.bomberman;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StateHashTest {
+
+    private static BombermanGame newGame(long seed) {
+        BombermanGame game = new BombermanGame();
+        game.setSeed(seed);
+        game.setArenaSize(21);
+        game.setPlayerCount(8);
+        game.enableSoloMode();
+        return game;
+    }
+
+    private static List<Long> hashes(BombermanGame game, int ticks) {
+        List<Long> hashes = new ArrayList<>();
+        for (int i = 0; i < ticks && !game.isGameEnded(); i++) {
+            game.gameUpdate();
+            hashes.add(game.getStateHash());
+        }
+        return hashes;
+    }
+
+    @Test
+    void testIncrementalHashMatchesRecomputedHash() {
+        BombermanGame game = newGame(42L);
+        assertEquals(game.computeStateHash(), game.getStateHash());
+        // Déplacements, bombes, explosions en chaîne, blocs détruits, power-ups ramassés, joueurs éliminés
+        for (int i = 0; i < 4000 && !game.isGameEnded(); i++) {
+            game.gameUpdate();
+            assertEquals(game.computeStateHash(), game.getStateHash(), "Hachage faux au tick " + game.getTick());
+        }
+    }
+
+    @Test
+    void testSameMatchSameHashes() {
+        assertEquals(hashes(newGame(7L), 1500), hashes(newGame(7L), 1500));
+        assertNotEquals(newGame(7L).getStateHash(), newGame(8L).getStateHash());
+    }
+
+    @Test
+    void testRestoredSnapshotKeepsHash() {
+        BombermanGame game = newGame(42L);
+        hashes(game, 500);
+        long hash = game.getStateHash();
+        ByteBuffer buffer = ByteBuffer.allocate(game.snapshotSize());
+        game.writeSnapshot(buffer);
+        hashes(game, 300);
+        assertNotEquals(hash, game.getStateHash());
+
+        buffer.flip();
+        game.restoreSnapshot(buffer);
+        assertEquals(hash, game.getStateHash());
+        assertEquals(game.computeStateHash(), game.getStateHash());
+    }
+
+    @Test
+    void testBotsReuseDangerMaps() {
+        BombermanGame game = newGame(42L);
+        game.setBotMoveDelay(-1); // les bots décident à chaque tick
+        hashes(game, 600);
+        TranspositionTable<int[][]> dangerMaps = game.getBotAI().getDangerMaps();
+        // Sept bots par tick, et une carte qui ne change qu'avec les bombes et les blocs
+        assertTrue(dangerMaps.getHits() > dangerMaps.getMisses(),
+                dangerMaps.getHits() + " succès pour " + dangerMaps.getMisses() + " échecs");
+    }
+
+    @Test
+    void testTranspositionTableIsBounded() {
+        TranspositionTable<String> table = new TranspositionTable<>(4);
+        assertEquals(4, table.capacity());
+        table.put(1L, "un");
+        assertEquals("un", table.get(1L));
+        assertNull(table.get(5L)); // même place, autre hachage
+        table.put(5L, "cinq");
+        assertNull(table.get(1L));
+        assertEquals("cinq", table.get(5L));
+        assertEquals(2, table.getHits());
+        assertEquals(2, table.getMisses());
+        table.clear();
+        assertNull(table.get(5L));
+    }
+}
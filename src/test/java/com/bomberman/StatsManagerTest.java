@@ -1,7 +1,11 @@
 package com.bomberman;
 
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -22,6 +26,9 @@ class StatsManagerTest {
 
     @AfterEach
     void tearDown() {
+        // Arrêter l'écriture différée avant de supprimer le fichier
+        statsManager.close();
+
         // Nettoyage du fichier après chaque test
         File file = new File(TEST_FILE);
         if (file.exists()) {
@@ -51,6 +58,112 @@ class StatsManagerTest {
         PlayerStats stats = newManager.getPlayerStats(player);
         assertEquals(1, stats.getVictories());
         assertEquals(0, stats.getDefeats());
+        newManager.close();
+    }
+
+    @Test
+    void testFlushPersistsPendingRecords() {
+        String player = "Carol";
+        statsManager.recordVictory(player);
+        statsManager.recordDefeat(player);
+        statsManager.recordDefeat(player);
+
+        // Les enregistrements sont différés : flush() attend leur écriture
+        statsManager.flush();
+        assertTrue(new File(TEST_FILE).exists());
+
+        StatsManager newManager = new StatsManager();
+        PlayerStats stats = newManager.getPlayerStats(player);
+        assertEquals(1, stats.getVictories());
+        assertEquals(2, stats.getDefeats());
+        newManager.close();
+    }
+
+    @Test
+    void testConcurrentRecordsAreNotLost() throws InterruptedException {
+        // Plusieurs parties simultanées enregistrent pour les mêmes joueurs
+        int threads = 8;
+        int recordsPerThread = 1000;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < recordsPerThread; i++) {
+                    statsManager.recordVictory("Dave");
+                    statsManager.recordDefeat("Erin");
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(threads * recordsPerThread, statsManager.getPlayerStats("Dave").getVictories());
+        assertEquals(threads * recordsPerThread, statsManager.getPlayerStats("Erin").getDefeats());
+    }
+
+    @Test
+    void testRatingsSurviveReload() {
+        statsManager.recordMatch(java.util.List.of("Alice", "Bob"), "Alice", 0);
+        double rating = statsManager.getLeaderboard().getRating("Alice");
+        statsManager.flush();
+
+        StatsManager newManager = new StatsManager();
+        assertEquals(rating, newManager.getLeaderboard().getRating("Alice"), 1e-9);
+        assertEquals(1, newManager.getLeaderboard().getRank("Alice"));
+        assertEquals(1, newManager.getPlayerStats("Alice").getVictories());
+        assertEquals(1, newManager.getPlayerStats("Bob").getDefeats());
+        newManager.close();
+    }
+
+    @Test
+    void testRatingsSurviveReloadWithBinaryStore(@TempDir File directory) {
+        StatsManager binary = new StatsManager(directory, true);
+        binary.recordMatch(java.util.List.of("Alice", "Bob"), "Alice", 1);
+        double alice = binary.getLeaderboard().getRating("Alice");
+        double bob = binary.getLeaderboard().getRating("Bob");
+        // Les modifications en attente du thread d'écriture sont déjà visibles
+        assertEquals(1, binary.getPlayerStats("Alice").getVictories());
+        assertEquals(1, binary.getPlayerStats("Bob").getDefeats());
+        binary.close();
+
+        StatsManager reopened = new StatsManager(directory, true);
+        assertEquals(alice, reopened.getLeaderboard().getRating("Alice"), 1e-9);
+        assertEquals(bob, reopened.getLeaderboard().getRating("Bob"), 1e-9);
+        assertEquals(1, reopened.getLeaderboard().getRank("Alice"));
+        assertEquals(1, reopened.getPlayerStats("Alice").getVictories());
+        reopened.close();
+    }
+
+    @Test
+    void testBinaryStoreOpensWithoutLoadingEveryRating(@TempDir File directory) throws Exception {
+        int players = StatsManager.PERSISTED_TOP * 20;
+        try (BinaryStatsStore store = new BinaryStatsStore(new File(directory, "player_stats.bin").toPath())) {
+            for (int i = 0; i < players; i++) {
+                store.setRating("Joueur" + i, 1000 + i);
+            }
+        }
+
+        // Aucun classement n'est chargé à l'ouverture ; un joueur qui joue repart du sien
+        StatsManager binary = new StatsManager(directory, true);
+        assertEquals(0, binary.getLeaderboard().size());
+        binary.recordMatch(java.util.List.of("Joueur5", "Joueur6"), "Joueur5", 0);
+        assertEquals(2, binary.getLeaderboard().size());
+        assertTrue(binary.getLeaderboard().getRating("Joueur5") > 1005);
+        assertTrue(binary.getLeaderboard().getRating("Joueur6") < 1006);
+        binary.close();
+
+        // Seuls les meilleurs joueurs de la session précédente sont rechargés
+        StatsManager reopened = new StatsManager(directory, true);
+        assertEquals(2, reopened.getLeaderboard().size());
+        assertEquals(1, reopened.getLeaderboard().getRank("Joueur5"));
+        reopened.close();
+    }
+
+    @Test
+    void testGetInstanceIsShared() {
+        assertSame(StatsManager.getInstance(), StatsManager.getInstance());
     }
 
     @Test
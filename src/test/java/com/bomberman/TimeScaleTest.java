@@ -0,0 +1,52 @@
+package com.bomberman;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeScaleTest {
+
+    private static BombermanGame newGame(double scale) {
+        BombermanGame game = new BombermanGame();
+        game.setSeed(42L);
+        game.enableSoloMode();
+        game.setTimeScale(scale);
+        return game;
+    }
+
+    @Test
+    void testTicksPerFrame() {
+        BombermanGame slow = newGame(0.25);
+        for (int i = 0; i < 8; i++) {
+            slow.frame();
+        }
+        assertEquals(2, slow.getTick());
+
+        BombermanGame fast = newGame(100);
+        fast.frame();
+        assertEquals(100, fast.getTick());
+    }
+
+    @Test
+    void testSameMatchAtAnySpeed() {
+        BombermanGame normal = newGame(1);
+        BombermanGame fast = newGame(25);
+        for (int i = 0; i < 1000; i++) {
+            normal.frame();
+        }
+        for (int i = 0; i < 40; i++) {
+            fast.frame();
+        }
+        assertEquals(normal.getTick(), fast.getTick());
+        assertEquals(normal.getStateHash(), fast.getStateHash());
+    }
+
+    @Test
+    void testScaleIsClamped() {
+        BombermanGame game = new BombermanGame();
+        game.setTimeScale(1000);
+        assertEquals(BombermanGame.MAX_TIME_SCALE, game.getTimeScale());
+        game.setTimeScale(0);
+        assertEquals(BombermanGame.MIN_TIME_SCALE, game.getTimeScale());
+    }
+}